@@ -0,0 +1,116 @@
+package JavaAssign;
+
+/**
+ * Finds the best block of N adjacent free seats in a {@link SeatMap}.
+ * Works on the map's free bitmap: for each row the free bits are shifted and AND-ed
+ * so that bit i survives only if seats i..i+N-1 are all free, which makes every
+ * candidate block one set bit. Gaps are never free, so blocks never straddle an aisle.
+ *
+ * Blocks are scored by their distance from the centre of the row and from the
+ * preferred viewing row (about 60% of the way back from the screen), plus a penalty
+ * for every seat outside the requested category. Lower is better. Rows are visited
+ * outward from the preferred row so the search stops as soon as no remaining row can
+ * win, and in single-category rows only the candidates either side of the row centre
+ * are scored.
+ */
+final class BestSeatFinder {
+    private static final double PREFERRED_ROW_DEPTH = 0.6;
+    private static final double ROW_WEIGHT = 1.5;
+    private static final double CATEGORY_PENALTY = 10.0;
+
+    private BestSeatFinder() { }
+
+    /** Sorted position indices of the best block, or null when no row has room. */
+    static int[] find(SeatMap map, int n, SeatCategory preferred) {
+        if (n <= 0) throw new IllegalArgumentException("Party size must be positive");
+        int cols = map.cols();
+        if (n > cols) return null;
+        SeatLayout layout = map.layout();
+        long[] free = map.freeBitmap();
+        int rows = map.rows();
+        double idealRow = (rows - 1) * PREFERRED_ROW_DEPTH;
+        double bestScore = Double.MAX_VALUE;
+        int bestStart = -1;
+        int lo = (int) Math.floor(idealRow), hi = lo + 1;
+        for (int visited = 0; visited < rows; visited++) {
+            int r = hi >= rows || (lo >= 0 && idealRow - lo <= hi - idealRow) ? lo-- : hi++;
+            double rowScore = ROW_WEIGHT * Math.abs(r - idealRow);
+            if (rowScore >= bestScore) break; // later rows are even further away
+            if (map.rowCount(r, SeatMap.AVAILABLE) < n) continue;
+            SeatCategory uniform = layout.rowCategory(r);
+            boolean flatPenalty = preferred == null || uniform != null;
+            double rowPenalty = preferred == null || uniform == preferred ? 0 : n * CATEGORY_PENALTY;
+            int rowStart = r * cols;
+            double rowCentre = layout.rowCentre(r);
+            for (int offset = 0; offset < cols; offset += Long.SIZE) {
+                long runs = runStarts(free, rowStart, cols, offset, n);
+                if (runs == 0) continue;
+                if (flatPenalty) {
+                    // only the nearest start on each side of the centred start can be best
+                    double target = rowCentre - (n - 1) / 2.0 - offset;
+                    int t = (int) Math.max(0, Math.min(Long.SIZE - 1, Math.floor(target)));
+                    long above = runs & (-1L << t);
+                    long below = runs & ((1L << t) - 1);
+                    runs = (above == 0 ? 0 : Long.lowestOneBit(above)) | (below == 0 ? 0 : Long.highestOneBit(below));
+                }
+                while (runs != 0) {
+                    int i = Long.numberOfTrailingZeros(runs);
+                    runs &= runs - 1;
+                    int start = rowStart + offset + i;
+                    double penalty = flatPenalty ? rowPenalty : categoryPenalty(layout, start, n, preferred);
+                    double score = rowScore + Math.abs(offset + i + (n - 1) / 2.0 - rowCentre) + penalty;
+                    if (score < bestScore) {
+                        bestScore = score;
+                        bestStart = start;
+                    }
+                }
+            }
+        }
+        if (bestStart < 0) return null;
+        int[] block = new int[n];
+        for (int i = 0; i < n; i++) block[i] = bestStart + i;
+        return block;
+    }
+
+    // bit i set when seats offset+i .. offset+i+n-1 of the row are all free
+    private static long runStarts(long[] free, int rowStart, int cols, int offset, int n) {
+        int len = Math.min(Long.SIZE, cols - offset);
+        // look n-1 bits past this chunk so runs crossing the chunk boundary are seen
+        int span = Math.min(cols - offset, len + n - 1);
+        if (span > Long.SIZE) return wideRuns(free, rowStart + offset, Math.min(len, cols - offset - n + 1), n);
+        long m = bits(free, rowStart + offset, span);
+        long runs = m;
+        for (int k = 1; k < n && runs != 0; k++) runs &= m >>> k;
+        return len < Long.SIZE ? runs & ((1L << len) - 1) : runs;
+    }
+
+    private static double categoryPenalty(SeatLayout layout, int start, int n, SeatCategory preferred) {
+        int mismatched = 0;
+        for (int i = start; i < start + n; i++) {
+            if (layout.category(i) != preferred) mismatched++;
+        }
+        return mismatched * CATEGORY_PENALTY;
+    }
+
+    // up to 64 bits of the bitmap starting at bit position from
+    private static long bits(long[] bitmap, int from, int len) {
+        int w = from / Long.SIZE, off = from % Long.SIZE;
+        long v = bitmap[w] >>> off;
+        if (off != 0 && w + 1 < bitmap.length) v |= bitmap[w + 1] << (Long.SIZE - off);
+        return len == Long.SIZE ? v : v & ((1L << len) - 1);
+    }
+
+    // run starts within [from, from+len) when a run may extend past 64 bits
+    private static long wideRuns(long[] bitmap, int from, int len, int n) {
+        long runs = 0;
+        for (int i = 0; i < len; i++) {
+            boolean ok = true;
+            for (int k = 0; k < n && ok; k++) {
+                int p = from + i + k;
+                ok = (bitmap[p / Long.SIZE] >>> (p % Long.SIZE) & 1L) != 0;
+            }
+            if (ok) runs |= 1L << i;
+        }
+        return runs;
+    }
+}
@@ -6,40 +6,54 @@ public class Booking {
     private final Customer customer;
     private final Show show;
     private final List<Seat> seats;
-    private final double fare;
-    private final double taxes;
-    private final double total;
+    private final long farePaise;
+    private final long taxesPaise;
+    private final long totalPaise;
     private final Date bookedAt;
 
-    public Booking(int id, Customer customer, Show show, List<Seat> seats, double fare, double taxes, double total) {
+    public Booking(int id, Customer customer, Show show, List<Seat> seats, long farePaise, long taxesPaise, long totalPaise) {
+        this(id, customer, show, seats, farePaise, taxesPaise, totalPaise, new Date());
+    }
+
+    // used when restoring from the event log / snapshot
+    Booking(int id, Customer customer, Show show, List<Seat> seats, long farePaise, long taxesPaise, long totalPaise, Date bookedAt) {
         if (customer == null || show == null || seats == null || seats.isEmpty()) throw new IllegalArgumentException("Booking requires customer, show and seats");
         this.id = id;
         this.customer = customer;
         this.show = show;
         this.seats = new ArrayList<>(seats);
-        this.fare = fare;
-        this.taxes = taxes;
-        this.total = total;
-        this.bookedAt = new Date();
+        this.farePaise = farePaise;
+        this.taxesPaise = taxesPaise;
+        this.totalPaise = totalPaise;
+        this.bookedAt = bookedAt;
     }
 
     public int getId() { return id; }
     public Customer getCustomer() { return customer; }
     public Show getShow() { return show; }
     public List<Seat> getSeats() { return Collections.unmodifiableList(seats); }
-    public double getFare() { return fare; }
-    public double getTaxes() { return taxes; }
-    public double getTotal() { return total; }
+    public long getFarePaise() { return farePaise; }
+    public long getTaxesPaise() { return taxesPaise; }
+    public long getTotalPaise() { return totalPaise; }
+    public Date getBookedAt() { return bookedAt; }
 
     public void printReceipt() {
-        System.out.println("------ Booking Receipt ------");
-        System.out.println("Booking ID: " + id);
-        System.out.println("Customer: " + customer);
-        System.out.println("Show: " + show.brief());
-        System.out.println("Seats: " + seatListToString(seats));
-        System.out.printf("Fare: %.2f\nTaxes: %.2f\nTotal: %.2f\n", fare, taxes, total);
-        System.out.println("Booked at: " + bookedAt);
-        System.out.println("------------------------------");
+        System.out.print(receipt());
+    }
+
+    public String receipt() {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append("------ Booking Receipt ------\n");
+        sb.append("Booking ID: ").append(id).append('\n');
+        sb.append("Customer: ").append(customer).append('\n');
+        sb.append("Show: ").append(show.brief()).append('\n');
+        sb.append("Seats: ").append(seatListToString(seats)).append('\n');
+        sb.append("Fare: ").append(Money.format(farePaise)).append('\n');
+        sb.append("Taxes: ").append(Money.format(taxesPaise)).append('\n');
+        sb.append("Total: ").append(Money.format(totalPaise)).append('\n');
+        sb.append("Booked at: ").append(bookedAt).append('\n');
+        sb.append("------------------------------\n");
+        return sb.toString();
     }
 
     public String shortSummary() {
@@ -0,0 +1,229 @@
+package JavaAssign;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.List;
+
+/**
+ * BookingArchive - bookings of shows that have ended, moved off the heap into columns.
+ * Rows are appended into fixed-size segments; each column of a segment is its own direct
+ * buffer (ids, show, customer, fare, taxes, total, booking time), and seat indices are packed
+ * as unsigned shorts in one more buffer per segment, with a per-row end offset. An archived
+ * booking therefore costs about 60 bytes outside the heap, against a Booking, its Seat list
+ * and its Date on it, and the collector never traces any of it.
+ *
+ * Aggregates are straight loops over one or two columns with no branches or allocation, the
+ * shape the JIT compiles to SIMD for buffer loops. Row access goes through a reusable
+ * {@link Cursor}, so audits and refunds walk the archive without recreating bookings.
+ * Appends are serialised; scans read up to the row count published by the last append and
+ * never lock.
+ */
+public final class BookingArchive {
+    static final int SEGMENT_ROWS = 1 << 14;
+
+    // one segment's columns; rows below 'rows' never change once published
+    private static final class Segment {
+        final IntBuffer ids = ints(SEGMENT_ROWS);
+        final IntBuffer shows = ints(SEGMENT_ROWS);
+        final IntBuffer customers = ints(SEGMENT_ROWS);
+        final IntBuffer seatEnds = ints(SEGMENT_ROWS); // row r's seats are [seatEnds[r-1], seatEnds[r])
+        final LongBuffer fares = longs(SEGMENT_ROWS);
+        final LongBuffer taxes = longs(SEGMENT_ROWS);
+        final LongBuffer totals = longs(SEGMENT_ROWS);
+        final LongBuffer bookedAt = longs(SEGMENT_ROWS);
+        volatile CharBuffer seats = chars(SEGMENT_ROWS * 4); // replaced by a bigger copy when full
+        volatile int rows;
+
+        int seatStart(int row) { return row == 0 ? 0 : seatEnds.get(row - 1); }
+
+        long offHeapBytes() { return SEGMENT_ROWS * (4L * Integer.BYTES + 4L * Long.BYTES) + 2L * seats.capacity(); }
+    }
+
+    /** Reads rows in place; the getters describe the current row. */
+    public final class Cursor {
+        private final Segment[] segments;
+        private final int showFilter;     // 0: any
+        private final int customerFilter; // 0: any
+        private int segment;
+        private int row = -1;
+        private Segment current;
+
+        private Cursor(Segment[] segments, int showFilter, int customerFilter) {
+            this.segments = segments;
+            this.showFilter = showFilter;
+            this.customerFilter = customerFilter;
+            this.current = segments.length == 0 ? null : segments[0];
+        }
+
+        /** Moves to the next matching row; false once there is none. */
+        public boolean next() {
+            while (current != null) {
+                int rows = current.rows;
+                while (++row < rows) {
+                    if (showFilter != 0 && current.shows.get(row) != showFilter) continue;
+                    if (customerFilter != 0 && current.customers.get(row) != customerFilter) continue;
+                    return true;
+                }
+                segment++;
+                current = segment < segments.length ? segments[segment] : null;
+                row = -1;
+            }
+            return false;
+        }
+
+        public int getId() { return current.ids.get(row); }
+        public int getShowId() { return current.shows.get(row); }
+        public int getCustomerId() { return current.customers.get(row); }
+        public long getFarePaise() { return current.fares.get(row); }
+        public long getTaxesPaise() { return current.taxes.get(row); }
+        public long getTotalPaise() { return current.totals.get(row); }
+        public long getBookedAt() { return current.bookedAt.get(row); }
+        public int getSeatCount() { return current.seatEnds.get(row) - current.seatStart(row); }
+        /** Position of the row's {@code i}th seat in its show's seat map. */
+        public int getSeatIndex(int i) { return current.seats.get(current.seatStart(row) + i); }
+
+        private boolean seek(int bookingId) {
+            while (current != null) {
+                int rows = current.rows;
+                IntBuffer ids = current.ids;
+                for (int r = 0; r < rows; r++) {
+                    if (ids.get(r) == bookingId) {
+                        row = r;
+                        return true;
+                    }
+                }
+                segment++;
+                current = segment < segments.length ? segments[segment] : null;
+            }
+            return false;
+        }
+    }
+
+    private volatile Segment[] segments = new Segment[0];
+    private volatile int size;
+
+    /** Appends {@code b}; the caller has taken it out of any live store. */
+    public void append(Booking b) {
+        List<Seat> seats = b.getSeats();
+        int[] indices = new int[seats.size()];
+        for (int i = 0; i < indices.length; i++) indices[i] = seats.get(i).getIndex();
+        append(b.getId(), b.getShow().getId(), b.getCustomer().getId(), indices, b.getFarePaise(), b.getTaxesPaise(), b.getTotalPaise(), b.getBookedAt().getTime());
+    }
+
+    /** Appends one row as it was archived before, e.g. from a snapshot. */
+    synchronized void append(int id, int showId, int customerId, int[] seatIndices, long farePaise, long taxesPaise, long totalPaise, long bookedAt) {
+        Segment[] segs = segments;
+        Segment s = segs.length == 0 ? null : segs[segs.length - 1];
+        if (s == null || s.rows == SEGMENT_ROWS) {
+            s = new Segment();
+            Segment[] grown = new Segment[segs.length + 1];
+            System.arraycopy(segs, 0, grown, 0, segs.length);
+            grown[segs.length] = s;
+            segments = grown;
+        }
+        int r = s.rows;
+        int start = s.seatStart(r);
+        CharBuffer packed = s.seats;
+        if (start + seatIndices.length > packed.capacity()) {
+            CharBuffer bigger = chars(Math.max(packed.capacity() * 2, start + seatIndices.length));
+            for (int i = 0; i < start; i++) bigger.put(i, packed.get(i));
+            s.seats = packed = bigger;
+        }
+        for (int i = 0; i < seatIndices.length; i++) packed.put(start + i, (char) seatIndices[i]);
+        s.ids.put(r, id);
+        s.shows.put(r, showId);
+        s.customers.put(r, customerId);
+        s.seatEnds.put(r, start + seatIndices.length);
+        s.fares.put(r, farePaise);
+        s.taxes.put(r, taxesPaise);
+        s.totals.put(r, totalPaise);
+        s.bookedAt.put(r, bookedAt);
+        s.rows = r + 1; // publishes the row to scans
+        size++;
+    }
+
+    public int size() { return size; }
+
+    public long offHeapBytes() {
+        long bytes = 0;
+        for (Segment s : segments) bytes += s.offHeapBytes();
+        return bytes;
+    }
+
+    // Row access
+    public Cursor rows() { return new Cursor(segments, 0, 0); }
+    public Cursor rowsOfShow(int showId) { return new Cursor(segments, requireId(showId), 0); }
+    public Cursor rowsOfCustomer(int customerId) { return new Cursor(segments, 0, requireId(customerId)); }
+
+    /** Cursor on the archived booking {@code bookingId}, or null; a scan of the id column. */
+    public Cursor find(int bookingId) {
+        Cursor c = new Cursor(segments, 0, 0);
+        return c.seek(bookingId) ? c : null;
+    }
+
+    // Column scans
+    public long totalPaise() {
+        long sum = 0;
+        for (Segment s : segments) {
+            LongBuffer totals = s.totals;
+            for (int r = 0, n = s.rows; r < n; r++) sum += totals.get(r);
+        }
+        return sum;
+    }
+
+    /** What the show's archived bookings paid, e.g. to refund a show that went wrong. */
+    public long totalPaiseOfShow(int showId) {
+        long sum = 0;
+        for (Segment s : segments) {
+            IntBuffer shows = s.shows;
+            LongBuffer totals = s.totals;
+            for (int r = 0, n = s.rows; r < n; r++) sum += shows.get(r) == showId ? totals.get(r) : 0;
+        }
+        return sum;
+    }
+
+    public int countOfShow(int showId) {
+        int count = 0;
+        for (Segment s : segments) {
+            IntBuffer shows = s.shows;
+            for (int r = 0, n = s.rows; r < n; r++) count += shows.get(r) == showId ? 1 : 0;
+        }
+        return count;
+    }
+
+    public long totalPaiseOfCustomer(int customerId) {
+        long sum = 0;
+        for (Segment s : segments) {
+            IntBuffer customers = s.customers;
+            LongBuffer totals = s.totals;
+            for (int r = 0, n = s.rows; r < n; r++) sum += customers.get(r) == customerId ? totals.get(r) : 0;
+        }
+        return sum;
+    }
+
+    /** Revenue of bookings made in [fromMillis, toMillis). */
+    public long totalPaiseBookedBetween(long fromMillis, long toMillis) {
+        long sum = 0;
+        for (Segment s : segments) {
+            LongBuffer at = s.bookedAt;
+            LongBuffer totals = s.totals;
+            for (int r = 0, n = s.rows; r < n; r++) {
+                long t = at.get(r);
+                sum += t >= fromMillis && t < toMillis ? totals.get(r) : 0;
+            }
+        }
+        return sum;
+    }
+
+    private static int requireId(int id) {
+        if (id <= 0) throw new IllegalArgumentException("Id must be positive");
+        return id;
+    }
+
+    private static ByteBuffer direct(int bytes) { return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder()); }
+    private static IntBuffer ints(int n) { return direct(n * Integer.BYTES).asIntBuffer(); }
+    private static LongBuffer longs(int n) { return direct(n * Long.BYTES).asLongBuffer(); }
+    private static CharBuffer chars(int n) { return direct(n * Character.BYTES).asCharBuffer(); }
+}
@@ -0,0 +1,585 @@
+package JavaAssign;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * BookingHttpServer - embedded JSON front end over {@link BookingService}.
+ * Every exchange runs on its own virtual thread (falling back to a cached pool on JDKs
+ * without them). Payment confirmations do not hold one at all: the handler starts the
+ * checkout and returns, and the response goes out when the payment gateway answers.
+ *
+ *   GET    /movies
+ *   GET    /movies?q=vikram&genre=&k=10  title search (prefix and typo tolerant) with genre facets
+ *   PUT    /movies/{id}?title=&genre=  edit a movie; listings pick it up at once
+ *   GET    /shows[?date=2025-10-02]    list shows with seats left, optionally for one day
+ *   GET    /shows?from=&to=            shows running between two local times (2025-10-02T18:00)
+ *   GET    /shows/{id}/seats           seat map of one show
+ *   GET    /shows/{id}/bookings
+ *   GET    /customers?phone=           customer with that phone
+ *   GET    /customers/{id}/bookings
+ *   GET    /menu                       concession menu
+ *   POST   /holds?showId=&customerId=&seats=A1,A2
+ *   POST   /holds?showId=&customerId=&best=4[&category=P]   best adjacent block
+ *   POST   /holds/{token}/confirm      pay and book; 402 if the payment fails, seats released
+ *   DELETE /holds/{token}
+ *   POST   /waitlist?showId=&customerId=&party=2[&category=P]   queue for a sold-out show
+ *   GET    /waitlist/{id}              status, with the offered hold once seats come free; 404 once booked or lapsed
+ *   DELETE /waitlist/{id}              leave; an unpaid offer is released
+ *   GET    /bookings/{id}
+ *   DELETE /bookings/{id}
+ *   POST   /concessions?bookingId=&items=menuId:qty,menuId:qty
+ *   DELETE /concessions/{id}            cancel and return items to stock
+ *   GET    /inventory                  stock per menu item
+ *   POST   /inventory/{menuId}?add=N   record a delivery
+ *   GET    /kitchen                    fulfilment queue depth, batch sizes and latency
+ *   GET    /metrics[?format=json]      booking-flow latency histograms and counters
+ *   GET    /analytics[?format=json]    sales: revenue, occupancy, attach rate, hourly revenue, top items
+ *   GET    /analytics/{shows|movies|screens}/{id}   revenue (and seats sold) of one show, movie or screen
+ *   GET    /archive[?showId=|customerId=]   bookings of ended shows: count and amount paid
+ */
+public class BookingHttpServer {
+    private final BookingService service;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public BookingHttpServer(BookingService service, int port) throws IOException {
+        if (service == null) throw new IllegalArgumentException("Service required");
+        this.service = service;
+        this.server = HttpServer.create(new InetSocketAddress(port), 1024);
+        this.executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/movies", ex -> handle(ex, this::movies));
+        server.createContext("/shows", ex -> handle(ex, this::shows));
+        server.createContext("/customers", ex -> handle(ex, this::customers));
+        server.createContext("/menu", ex -> handle(ex, this::menu));
+        server.createContext("/holds", ex -> handleAsync(ex, this::holds));
+        server.createContext("/waitlist", ex -> handle(ex, this::waitlist));
+        server.createContext("/bookings", ex -> handle(ex, this::bookings));
+        server.createContext("/concessions", ex -> handle(ex, this::concessions));
+        server.createContext("/kitchen", ex -> handle(ex, this::kitchen));
+        server.createContext("/inventory", ex -> handle(ex, this::inventory));
+        server.createContext("/metrics", ex -> handle(ex, this::metrics));
+        server.createContext("/analytics", ex -> handle(ex, this::analytics));
+        server.createContext("/archive", ex -> handle(ex, this::archive));
+    }
+
+    public void start() { server.start(); }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    public int getPort() { return server.getAddress().getPort(); }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        BookingService service = new BookingService();
+        if (args.length > 1) {
+            BookingJournal.open(Paths.get(args[1]), service).startCheckpoints(service, 15);
+            service.getMetrics().startDumps(Paths.get(args[1], "metrics.json"), 60);
+        }
+        if (service.getMovies().isEmpty()) service.seedSampleData();
+        service.setPaymentGateway(new SimulatedPaymentGateway(200, 2000, 0.05, 0.01), 5000, 2);
+        service.getInventory().setLowStockListener((item, left) -> System.out.println("Low stock: " + item.getName() + " (" + left + " left)"));
+        service.start();
+        BookingHttpServer http = new BookingHttpServer(service, port);
+        http.start();
+        System.out.println("Booking HTTP server listening on port " + http.getPort());
+    }
+
+    // virtual threads on JDK 21+, a cached pool otherwise
+    static ExecutorService newRequestExecutor() {
+        try {
+            Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) m.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    // Routes
+    private Response movies(Request req) {
+        if (req.path.length == 1 && (req.params.containsKey("q") || req.params.containsKey("genre"))) {
+            req.requireMethod("GET");
+            String k = req.params.get("k");
+            MovieSearch.Result r = service.searchMovies(req.params.get("q"), req.params.get("genre"), k == null ? 10 : req.intParam("k"));
+            StringJoiner hits = new StringJoiner(",", "[", "]");
+            for (MovieSearch.Hit h : r.getHits()) {
+                StringJoiner shows = new StringJoiner(",", "[", "]");
+                for (Show s : h.getNextShows()) shows.add(showJson(s));
+                Movie m = h.getMovie();
+                hits.add("{\"id\":" + m.getId() + ",\"title\":" + str(m.getTitle()) + ",\"genre\":" + str(m.getGenre())
+                        + ",\"score\":" + h.getScore() + ",\"seatsLeft\":" + h.getSeatsLeft() + ",\"nextShows\":" + shows + "}");
+            }
+            StringJoiner facets = new StringJoiner(",", "{", "}");
+            r.getGenreFacets().forEach((g, n) -> facets.add(str(g) + ":" + n));
+            return Response.ok("{\"matches\":" + r.getMatchCount() + ",\"genres\":" + facets + ",\"hits\":" + hits + "}");
+        }
+        if (req.path.length == 1) {
+            req.requireMethod("GET");
+            StringJoiner arr = new StringJoiner(",", "[", "]");
+            for (CatalogSnapshot.MovieEntry m : service.getCatalog().getMovies()) {
+                arr.add("{\"id\":" + m.getId() + ",\"title\":" + str(m.getTitle()) + ",\"genre\":" + str(m.getGenre()) + ",\"duration\":" + m.getDurationMinutes() + "}");
+            }
+            return Response.ok(arr.toString());
+        }
+        if (req.path.length == 2) {
+            req.requireMethod("PUT");
+            Movie m = service.getMovie(req.intSegment(1)).orElseThrow(() -> new NotFound("Movie not found"));
+            m = service.updateMovie(m.getId(), req.params.getOrDefault("title", m.getTitle()), req.params.getOrDefault("genre", m.getGenre()));
+            return Response.ok("{\"id\":" + m.getId() + ",\"title\":" + str(m.getTitle()) + ",\"genre\":" + str(m.getGenre()) + "}");
+        }
+        throw new NotFound("Unknown resource");
+    }
+
+    private Response shows(Request req) {
+        if (req.path.length == 1) {
+            req.requireMethod("GET");
+            String date = req.params.get("date");
+            StringJoiner arr = new StringJoiner(",", "[", "]");
+            if (req.params.containsKey("from") || req.params.containsKey("to")) {
+                for (Show s : service.getShowsBetween(parseTime(req.param("from")), parseTime(req.param("to")))) arr.add(showJson(s));
+            } else if (date != null && !date.isEmpty()) {
+                for (Show s : service.getShowsOn(parseDate(date))) arr.add(showJson(s));
+            } else {
+                // the full listing comes from the catalog snapshot: no locks, titles consistent
+                for (CatalogSnapshot.ShowEntry e : service.getCatalog().getShows()) arr.add(showJson(e.getShow(), e.getTitle()));
+            }
+            return Response.ok(arr.toString());
+        }
+        Show show = service.getShow(req.intSegment(1)).orElseThrow(() -> new NotFound("Show not found"));
+        if (req.path.length == 3 && req.path[2].equals("seats")) {
+            req.requireMethod("GET");
+            StringJoiner arr = new StringJoiner(",", "[", "]");
+            for (Seat seat : show.getAllSeats()) arr.add("{\"id\":" + str(seat.getSeatId()) + ",\"status\":" + str(seat.getStatus().name()) + "}");
+            return Response.ok("{\"showId\":" + show.getId() + ",\"seats\":" + arr + "}");
+        }
+        if (req.path.length == 3 && req.path[2].equals("bookings")) {
+            req.requireMethod("GET");
+            return Response.ok(bookingsJson(show.getBookings()));
+        }
+        if (req.path.length == 2) {
+            req.requireMethod("GET");
+            return Response.ok(showJson(show));
+        }
+        throw new NotFound("Unknown resource");
+    }
+
+    private Response customers(Request req) {
+        req.requireMethod("GET");
+        if (req.path.length == 1) {
+            Customer c = service.findCustomerByPhone(req.param("phone")).orElseThrow(() -> new NotFound("Customer not found"));
+            return Response.ok(customerJson(c));
+        }
+        if (req.path.length == 3 && req.path[2].equals("bookings")) {
+            int id = req.intSegment(1);
+            if (service.getCustomer(id).isEmpty()) throw new NotFound("Customer not found");
+            return Response.ok(bookingsJson(service.getBookingsForCustomer(id)));
+        }
+        throw new NotFound("Unknown resource");
+    }
+
+    private Response menu(Request req) {
+        req.requireMethod("GET");
+        StringJoiner arr = new StringJoiner(",", "[", "]");
+        for (ConcessionOrder.MenuItem item : service.getConcessionMenu().values()) {
+            arr.add("{\"id\":" + item.getId() + ",\"name\":" + str(item.getName()) + ",\"price\":" + num(item.getPricePaise()) + "}");
+        }
+        return Response.ok(arr.toString());
+    }
+
+    private CompletableFuture<Response> holds(Request req) {
+        if (req.path.length == 3 && req.path[2].equals("confirm")) {
+            req.requireMethod("POST");
+            return service.checkout(req.longSegment(1)).thenApply(b -> new Response(201, bookingJson(b)));
+        }
+        return CompletableFuture.completedFuture(holdsNow(req));
+    }
+
+    private Response holdsNow(Request req) {
+        if (req.path.length == 1) {
+            req.requireMethod("POST");
+            SeatHold hold;
+            if (req.params.containsKey("best")) {
+                String cat = req.params.get("category");
+                SeatCategory preferred = cat == null || cat.isEmpty() ? null : SeatCategory.fromCode(cat.charAt(0));
+                hold = service.holdBest(req.intParam("showId"), req.intParam("customerId"), req.intParam("best"), preferred);
+            } else {
+                List<String> seats = Arrays.asList(req.param("seats").split(","));
+                hold = service.hold(req.intParam("showId"), req.intParam("customerId"), seats);
+            }
+            return new Response(201, holdJson(hold));
+        }
+        long token = req.longSegment(1);
+        if (req.path.length == 2) {
+            if (req.method.equals("DELETE")) {
+                if (!service.releaseHold(token)) throw new NotFound("Hold not found");
+                return Response.ok("{\"released\":" + token + "}");
+            }
+            req.requireMethod("GET");
+            return Response.ok(holdJson(service.getHold(token).orElseThrow(() -> new NotFound("Hold not found"))));
+        }
+        throw new NotFound("Unknown resource");
+    }
+
+    private Response waitlist(Request req) {
+        if (req.path.length == 1) {
+            req.requireMethod("POST");
+            String cat = req.params.get("category");
+            SeatCategory preferred = cat == null || cat.isEmpty() ? null : SeatCategory.fromCode(cat.charAt(0));
+            return new Response(201, waitlistJson(service.joinWaitlist(req.intParam("showId"), req.intParam("customerId"), req.intParam("party"), preferred)));
+        }
+        if (req.path.length != 2) throw new NotFound("Unknown resource");
+        int id = req.intSegment(1);
+        if (req.method.equals("DELETE")) {
+            if (!service.leaveWaitlist(id)) throw new NotFound("Waitlist entry not found");
+            return Response.ok("{\"left\":" + id + "}");
+        }
+        req.requireMethod("GET");
+        return Response.ok(waitlistJson(service.getWaitlistEntry(id).orElseThrow(() -> new NotFound("Waitlist entry not found"))));
+    }
+
+    private Response bookings(Request req) {
+        if (req.path.length != 2) throw new NotFound("Unknown resource");
+        int id = req.intSegment(1);
+        if (req.method.equals("DELETE")) return Response.ok(bookingJson(service.cancel(id)));
+        req.requireMethod("GET");
+        return Response.ok(bookingJson(service.getBooking(id).orElseThrow(() -> new NotFound("Booking not found"))));
+    }
+
+    private Response concessions(Request req) {
+        if (req.path.length == 2) {
+            if (req.method.equals("DELETE")) return Response.ok(orderJson(service.cancelConcessionOrder(req.intSegment(1))));
+            req.requireMethod("GET");
+            return Response.ok(orderJson(service.getConcessionOrder(req.intSegment(1)).orElseThrow(() -> new NotFound("Order not found"))));
+        }
+        req.requireMethod("POST");
+        Map<Integer, Integer> quantities = new LinkedHashMap<>();
+        for (String part : req.param("items").split(",")) {
+            String[] kv = part.split(":");
+            if (kv.length != 2) throw new IllegalArgumentException("Items must look like menuId:qty");
+            quantities.merge(parseInt(kv[0], "menu id"), parseInt(kv[1], "quantity"), Integer::sum);
+        }
+        String linked = req.params.get("bookingId");
+        int bookingId = linked == null || linked.isEmpty() ? 0 : parseInt(linked, "bookingId");
+        return new Response(201, orderJson(service.orderConcessions(bookingId, quantities)));
+    }
+
+    private Response inventory(Request req) {
+        ConcessionInventory inv = service.getInventory();
+        if (req.path.length == 2) {
+            req.requireMethod("POST");
+            int menuId = req.intSegment(1);
+            if (!service.getConcessionMenu().containsKey(menuId)) throw new NotFound("Menu item not found");
+            long stock = service.restockConcession(menuId, req.intParam("add"));
+            return Response.ok("{\"id\":" + menuId + ",\"stock\":" + stock + "}");
+        }
+        req.requireMethod("GET");
+        StringJoiner arr = new StringJoiner(",", "[", "]");
+        for (ConcessionOrder.MenuItem item : service.getConcessionMenu().values()) {
+            arr.add("{\"id\":" + item.getId() + ",\"name\":" + str(item.getName()) + ",\"stock\":" + inv.available(item.getId())
+                    + ",\"lowStockAt\":" + inv.lowStockThreshold(item.getId()) + "}");
+        }
+        return Response.ok(arr.toString());
+    }
+
+    private Response kitchen(Request req) {
+        req.requireMethod("GET");
+        ConcessionKitchen k = service.getKitchen();
+        return Response.ok("{\"queueDepth\":" + k.getQueueDepth() + ",\"maxQueueDepth\":" + k.getMaxQueueDepth() + ",\"capacity\":" + k.getCapacity()
+                + ",\"pending\":" + k.getPendingCount() + ",\"fulfilled\":" + k.getFulfilledCount() + ",\"rejected\":" + k.getRejectedCount()
+                + ",\"batches\":" + k.getBatchCount() + ",\"avgBatchSize\":" + String.format(Locale.ROOT, "%.2f", k.getAverageBatchSize())
+                + ",\"maxBatchSize\":" + k.getMaxBatchSize() + ",\"avgLatencyMicros\":" + Math.round(k.getAverageLatencyMicros())
+                + ",\"maxLatencyMicros\":" + k.getMaxLatencyMicros() + "}");
+    }
+
+    // text by default; ?format=json for the same figures as JSON
+    private Response metrics(Request req) {
+        req.requireMethod("GET");
+        BookingMetrics m = service.getMetrics();
+        if ("json".equalsIgnoreCase(req.params.get("format"))) return Response.ok(m.toJson());
+        return Response.text(m.toText());
+    }
+
+    private Response analytics(Request req) {
+        req.requireMethod("GET");
+        SalesAnalytics a = service.getAnalytics();
+        if (req.path.length == 1) {
+            if ("json".equalsIgnoreCase(req.params.get("format"))) return Response.ok(a.toJson());
+            return Response.text(a.toText());
+        }
+        if (req.path.length != 3) throw new NotFound("Unknown resource");
+        int id = req.intSegment(2);
+        switch (req.path[1]) {
+            case "shows": {
+                Show show = service.getShow(id).orElseThrow(() -> new NotFound("Show not found"));
+                return Response.ok("{\"showId\":" + id + ",\"revenue\":" + Money.format(a.showRevenuePaise(id))
+                        + ",\"seatsSold\":" + a.showSeatsSold(id) + ",\"occupancyBp\":" + a.occupancyBasisPoints(show) + "}");
+            }
+            case "movies":
+                if (service.getMovie(id).isEmpty()) throw new NotFound("Movie not found");
+                return Response.ok("{\"movieId\":" + id + ",\"revenue\":" + Money.format(a.movieRevenuePaise(id)) + "}");
+            case "screens":
+                if (service.getScreen(id).isEmpty()) throw new NotFound("Screen not found");
+                return Response.ok("{\"screenId\":" + id + ",\"revenue\":" + Money.format(a.screenRevenuePaise(id)) + "}");
+            default:
+                throw new NotFound("Unknown resource");
+        }
+    }
+
+    private Response archive(Request req) {
+        req.requireMethod("GET");
+        if (req.path.length != 1) throw new NotFound("Unknown resource");
+        BookingArchive a = service.getArchive();
+        if (req.params.get("showId") != null) {
+            int id = req.intParam("showId");
+            return Response.ok("{\"showId\":" + id + ",\"bookings\":" + a.countOfShow(id) + ",\"total\":" + num(a.totalPaiseOfShow(id)) + "}");
+        }
+        if (req.params.get("customerId") != null) {
+            int id = req.intParam("customerId");
+            StringBuilder ids = new StringBuilder();
+            for (BookingArchive.Cursor c = a.rowsOfCustomer(id); c.next(); ) ids.append(ids.length() == 0 ? "" : ",").append(c.getId());
+            return Response.ok("{\"customerId\":" + id + ",\"bookingIds\":[" + ids + "],\"total\":" + num(a.totalPaiseOfCustomer(id)) + "}");
+        }
+        return Response.ok("{\"bookings\":" + a.size() + ",\"total\":" + num(a.totalPaise()) + ",\"offHeapBytes\":" + a.offHeapBytes() + "}");
+    }
+
+    // JSON rendering
+    private static String showJson(Show s) {
+        return showJson(s, s.getMovie().getTitle());
+    }
+
+    private static String showJson(Show s, String title) {
+        return "{\"id\":" + s.getId() + ",\"movie\":" + str(title) + ",\"screen\":" + str(s.getScreen().getName())
+                + ",\"dateTime\":" + str(s.getDateTime()) + ",\"ends\":" + str(s.getEndTime().format(Show.DATE_TIME)) + ",\"baseFare\":" + num(s.getBaseFarePaise()) + ",\"seatsLeft\":" + s.getAvailableCount() + ",\"held\":" + s.getHeldCount() + "}";
+    }
+
+    private static String holdJson(SeatHold h) {
+        return "{\"token\":" + h.getToken() + ",\"showId\":" + h.getShow().getId() + ",\"customerId\":" + h.getCustomer().getId()
+                + ",\"seats\":" + seatsJson(h.getSeats()) + ",\"fare\":" + num(h.getFarePaise()) + ",\"taxes\":" + num(h.getTaxesPaise()) + ",\"total\":" + num(h.getTotalPaise()) + ",\"demandBp\":" + h.getDemandBasisPoints() + "}";
+    }
+
+    private static String waitlistJson(Waitlist.Entry e) {
+        SeatHold offer = e.getOffer();
+        return "{\"id\":" + e.getId() + ",\"showId\":" + e.getShow().getId() + ",\"customerId\":" + e.getCustomer().getId()
+                + ",\"party\":" + e.getPartySize() + ",\"category\":" + (e.getPreferred() == null ? "null" : str(String.valueOf(e.getPreferred().getCode())))
+                + ",\"status\":" + str(e.getStatus().name()) + ",\"offer\":" + (offer == null ? "null" : holdJson(offer)) + "}";
+    }
+
+    private static String bookingJson(Booking b) {
+        return "{\"id\":" + b.getId() + ",\"showId\":" + b.getShow().getId() + ",\"customerId\":" + b.getCustomer().getId()
+                + ",\"seats\":" + seatsJson(b.getSeats()) + ",\"fare\":" + num(b.getFarePaise()) + ",\"taxes\":" + num(b.getTaxesPaise()) + ",\"total\":" + num(b.getTotalPaise()) + "}";
+    }
+
+    private static String orderJson(ConcessionOrder o) {
+        StringJoiner items = new StringJoiner(",", "[", "]");
+        for (ConcessionOrder.ConcessionItem i : o.getItems()) items.add(str(i.toString()));
+        return "{\"id\":" + o.getId() + ",\"bookingId\":" + (o.getLinkedBooking() == null ? "null" : o.getLinkedBooking().getId())
+                + ",\"items\":" + items + ",\"subtotal\":" + num(o.getSubtotalPaise()) + ",\"taxes\":" + num(o.getTaxesPaise()) + ",\"total\":" + num(o.getTotalPaise()) + "}";
+    }
+
+    private static String customerJson(Customer c) {
+        return "{\"id\":" + c.getId() + ",\"name\":" + str(c.getName()) + ",\"phone\":" + str(c.getPhone()) + "}";
+    }
+
+    private static String bookingsJson(List<Booking> bookings) {
+        StringJoiner arr = new StringJoiner(",", "[", "]");
+        for (Booking b : bookings) arr.add(bookingJson(b));
+        return arr.toString();
+    }
+
+    private static String seatsJson(List<Seat> seats) {
+        StringJoiner arr = new StringJoiner(",", "[", "]");
+        for (Seat s : seats) arr.add(str(s.getSeatId()));
+        return arr.toString();
+    }
+
+    // money as a JSON number in rupees, always two decimals
+    private static String num(long paise) {
+        return Money.format(paise);
+    }
+
+    static String str(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    // Plumbing
+    private void handle(HttpExchange ex, Route route) throws IOException {
+        Response resp;
+        try {
+            resp = route.serve(new Request(ex));
+        } catch (RuntimeException e) {
+            resp = errorResponse(e);
+        }
+        send(ex, resp);
+    }
+
+    // the exchange is answered from whichever thread completes the route's future
+    private void handleAsync(HttpExchange ex, AsyncRoute route) throws IOException {
+        CompletableFuture<Response> pending;
+        try {
+            pending = route.serve(new Request(ex));
+        } catch (RuntimeException e) {
+            pending = CompletableFuture.completedFuture(errorResponse(e));
+        }
+        pending.whenComplete((resp, err) -> {
+            try {
+                send(ex, err == null ? resp : errorResponse(err instanceof CompletionException && err.getCause() != null ? err.getCause() : err));
+            } catch (IOException e) {
+                ex.close();
+            }
+        });
+    }
+
+    private static Response errorResponse(Throwable e) {
+        if (e instanceof NotFound) return Response.error(404, e.getMessage());
+        if (e instanceof MethodNotAllowed) return Response.error(405, e.getMessage());
+        if (e instanceof IllegalArgumentException) return Response.error(400, e.getMessage());
+        if (e instanceof PaymentException) return Response.error(402, e.getMessage() + ". Seats released.");
+        if (e instanceof IllegalStateException) return Response.error(409, e.getMessage());
+        return Response.error(500, "Internal error");
+    }
+
+    private static void send(HttpExchange ex, Response resp) throws IOException {
+        byte[] body = resp.body.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", resp.contentType);
+        ex.sendResponseHeaders(resp.status, body.length);
+        try (OutputStream os = ex.getResponseBody()) {
+            os.write(body);
+        }
+    }
+
+    private static int parseInt(String s, String what) {
+        try { return Integer.parseInt(s.trim()); }
+        catch (NumberFormatException e) { throw new IllegalArgumentException("Invalid " + what + ": " + s); }
+    }
+
+    private static LocalDate parseDate(String s) {
+        try { return LocalDate.parse(s.trim()); }
+        catch (DateTimeParseException e) { throw new IllegalArgumentException("Invalid date (expected yyyy-MM-dd): " + s); }
+    }
+
+    // local cinema time, "2025-10-02T18:00" or "2025-10-02 18:00"
+    private static Instant parseTime(String s) {
+        try { return LocalDateTime.parse(s.trim().replace('T', ' '), Show.DATE_TIME).atZone(Show.ZONE).toInstant(); }
+        catch (DateTimeParseException e) { throw new IllegalArgumentException("Invalid time (expected yyyy-MM-ddTHH:mm): " + s); }
+    }
+
+    private interface Route {
+        Response serve(Request req) throws IOException;
+    }
+
+    private interface AsyncRoute {
+        CompletableFuture<Response> serve(Request req) throws IOException;
+    }
+
+    private static final class Request {
+        final String method;
+        final String[] path;
+        final Map<String, String> params = new HashMap<>();
+
+        Request(HttpExchange ex) throws IOException {
+            this.method = ex.getRequestMethod().toUpperCase(Locale.ROOT);
+            String p = ex.getRequestURI().getPath();
+            this.path = Arrays.stream(p.split("/")).filter(seg -> !seg.isEmpty()).toArray(String[]::new);
+            parseParams(ex.getRequestURI().getRawQuery());
+            try (InputStream in = ex.getRequestBody()) {
+                String body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                if (!body.isBlank()) parseParams(body.trim());
+            }
+        }
+
+        private void parseParams(String raw) {
+            if (raw == null || raw.isEmpty()) return;
+            for (String pair : raw.split("&")) {
+                int eq = pair.indexOf('=');
+                String k = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+                String v = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+                params.put(k, v);
+            }
+        }
+
+        void requireMethod(String expected) {
+            if (!method.equals(expected)) throw new MethodNotAllowed(method + " not allowed here");
+        }
+
+        String param(String name) {
+            String v = params.get(name);
+            if (v == null || v.isEmpty()) throw new IllegalArgumentException("Missing parameter: " + name);
+            return v;
+        }
+
+        int intParam(String name) { return parseInt(param(name), name); }
+        int intSegment(int i) { return parseInt(path[i], "id"); }
+
+        long longSegment(int i) {
+            try { return Long.parseLong(path[i]); }
+            catch (NumberFormatException e) { throw new IllegalArgumentException("Invalid id: " + path[i]); }
+        }
+    }
+
+    private static final class Response {
+        final int status;
+        final String body;
+        final String contentType;
+
+        Response(int status, String body) {
+            this(status, body, "application/json; charset=utf-8");
+        }
+
+        Response(int status, String body, String contentType) {
+            this.status = status;
+            this.body = body;
+            this.contentType = contentType;
+        }
+
+        static Response ok(String body) { return new Response(200, body); }
+        static Response text(String body) { return new Response(200, body, "text/plain; charset=utf-8"); }
+        static Response error(int status, String message) { return new Response(status, "{\"error\":" + str(String.valueOf(message)) + "}"); }
+    }
+
+    private static final class NotFound extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        NotFound(String message) { super(message); }
+    }
+
+    private static final class MethodNotAllowed extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        MethodNotAllowed(String message) { super(message); }
+    }
+}
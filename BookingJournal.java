@@ -0,0 +1,276 @@
+package JavaAssign;
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BookingJournal - durable storage for a {@link BookingService}.
+ * Every catalog change, booking, cancellation, concession order and restock is appended to an
+ * {@link EventLog} (booked seats travel with their booking record, so seat state needs no
+ * separate events; holds are transient and intentionally not logged). Stock levels follow
+ * from the restocks and orders on replay, and the snapshot records them outright. Checkpoints write a
+ * compact binary snapshot and truncate the log; recovery loads the snapshot and replays the
+ * log tail. Replay is idempotent, so a record that is also in the snapshot is skipped.
+ *
+ * Archiving is not logged: the snapshot keeps the {@link BookingArchive} as its own section,
+ * which recovery appends straight back into the archive, while bookings archived since the last
+ * checkpoint come back on heap from the log and move again on the next archive pass.
+ */
+public class BookingJournal implements Closeable {
+    static final byte MOVIE_ADDED = 1;
+    static final byte MOVIE_UPDATED = 2;
+    static final byte SCREEN_ADDED = 3;
+    static final byte CUSTOMER_ADDED = 4;
+    static final byte SHOW_SCHEDULED = 5;
+    static final byte BOOKING_CREATED = 6;
+    static final byte BOOKING_CANCELLED = 7;
+    static final byte CONCESSION_ORDERED = 8;
+    static final byte CONCESSION_CANCELLED = 9;
+    static final byte STOCK_RESTOCKED = 10;
+
+    private static final int SNAPSHOT_MAGIC = 0x43494E45; // "CINE"
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final Path snapshotFile;
+    private final EventLog log;
+    private ScheduledExecutorService checkpointer;
+
+    private BookingJournal(Path dir, long lastSeq) throws IOException {
+        this.snapshotFile = dir.resolve("snapshot.bin");
+        this.log = new EventLog(dir.resolve("events.log"), lastSeq);
+    }
+
+    /** Restores {@code service} from {@code dir} and attaches a journal that records its future changes. */
+    public static BookingJournal open(Path dir, BookingService service) throws IOException {
+        Files.createDirectories(dir);
+        long seq = readSnapshot(dir.resolve("snapshot.bin"), service);
+        seq = EventLog.replay(dir.resolve("events.log"), seq, (type, s, in) -> apply(service, type, in));
+        service.rebuildCatalog();
+        service.rebuildAnalytics();
+        BookingJournal journal = new BookingJournal(dir, seq);
+        service.attachJournal(journal);
+        return journal;
+    }
+
+    /** Takes a snapshot every {@code periodMinutes}. */
+    public synchronized void startCheckpoints(BookingService service, long periodMinutes) {
+        if (checkpointer != null) return;
+        checkpointer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "journal-checkpoint");
+            t.setDaemon(true);
+            return t;
+        });
+        checkpointer.scheduleAtFixedRate(() -> {
+            try { service.checkpoint(); }
+            catch (IOException | RuntimeException e) { System.err.println("Checkpoint failed: " + e.getMessage()); }
+        }, periodMinutes, periodMinutes, TimeUnit.MINUTES);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (checkpointer != null) checkpointer.shutdownNow();
+        checkpointer = null;
+        log.close();
+    }
+
+    // Live events; each returns once the record is on disk
+    void movieAdded(Movie m) { log.appendAndSync(MOVIE_ADDED, out -> writeMovie(out, m)); }
+    void movieUpdated(int id, String title, String genre) { log.appendAndSync(MOVIE_UPDATED, out -> { out.writeInt(id); out.writeUTF(title); out.writeUTF(genre); }); }
+    void screenAdded(Screen s) { log.appendAndSync(SCREEN_ADDED, out -> writeScreen(out, s)); }
+    void customerAdded(Customer c) { log.appendAndSync(CUSTOMER_ADDED, out -> writeCustomer(out, c)); }
+    void showScheduled(Show s) { log.appendAndSync(SHOW_SCHEDULED, out -> writeShow(out, s)); }
+    void bookingCreated(Booking b) { log.appendAndSync(BOOKING_CREATED, out -> writeBooking(out, b)); }
+    void bookingCancelled(Booking b) { log.appendAndSync(BOOKING_CANCELLED, out -> out.writeInt(b.getId())); }
+    void concessionOrdered(ConcessionOrder o) { log.appendAndSync(CONCESSION_ORDERED, out -> writeConcession(out, o)); }
+    void concessionCancelled(ConcessionOrder o) { log.appendAndSync(CONCESSION_CANCELLED, out -> out.writeInt(o.getId())); }
+    void stockRestocked(int menuItemId, long qty) { log.appendAndSync(STOCK_RESTOCKED, out -> { out.writeInt(menuItemId); out.writeLong(qty); }); }
+
+    /** An imported batch, in replay order; returns once all of it is on disk, after a single fsync. */
+    void catalogImported(List<Movie> movies, List<Screen> screens, List<Show> shows) {
+        long seq = log.lastSeq();
+        for (Movie m : movies) seq = log.append(MOVIE_ADDED, out -> writeMovie(out, m));
+        for (Screen s : screens) seq = log.append(SCREEN_ADDED, out -> writeScreen(out, s));
+        for (Show s : shows) seq = log.append(SHOW_SCHEDULED, out -> writeShow(out, s));
+        log.awaitDurable(seq);
+    }
+
+    /** Writes a snapshot of {@code service} and truncates the log; the caller must block writers. */
+    void checkpoint(BookingService service) throws IOException {
+        long seq = log.lastSeq();
+        log.awaitDurable(seq);
+        Path tmp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(ch), 1 << 16));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(seq);
+            int[] counters = service.idCounters();
+            out.writeInt(counters.length);
+            for (int c : counters) out.writeInt(c);
+            writeAll(out, service.getMovies(), BookingJournal::writeMovie);
+            writeAll(out, service.getScreens(), BookingJournal::writeScreen);
+            writeAll(out, service.getCustomers(), BookingJournal::writeCustomer);
+            writeAll(out, service.getShows(), BookingJournal::writeShow);
+            writeAll(out, service.getBookings(), BookingJournal::writeBooking);
+            writeArchive(out, service.getArchive());
+            writeAll(out, service.stockBeforeOrders().entrySet(), (o, e) -> { o.writeInt(e.getKey()); o.writeLong(e.getValue()); });
+            writeAll(out, service.getConcessionOrders(), BookingJournal::writeConcession);
+            out.flush();
+            ch.force(true);
+        }
+        Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.truncate();
+    }
+
+    private static long readSnapshot(Path file, BookingService service) throws IOException {
+        if (!Files.exists(file)) return 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) throw new IOException("Not a snapshot file: " + file);
+            int version = in.readInt();
+            if (version != SNAPSHOT_VERSION) throw new IOException("Unsupported snapshot version " + version);
+            long seq = in.readLong();
+            int[] counters = new int[in.readInt()];
+            for (int i = 0; i < counters.length; i++) counters[i] = in.readInt();
+            // sections in checkpoint order; stock levels come before the orders that take from them
+            for (byte type : new byte[] {MOVIE_ADDED, SCREEN_ADDED, CUSTOMER_ADDED, SHOW_SCHEDULED, BOOKING_CREATED}) {
+                for (int n = in.readInt(); n > 0; n--) apply(service, type, in);
+            }
+            for (int n = in.readInt(); n > 0; n--) {
+                int id = in.readInt(), showId = in.readInt(), customerId = in.readInt();
+                int[] seats = readSeats(in);
+                long fare = in.readLong(), taxes = in.readLong(), total = in.readLong();
+                service.restoreArchivedBooking(id, showId, customerId, seats, fare, taxes, total, in.readLong());
+            }
+            for (int n = in.readInt(); n > 0; n--) service.restoreStock(in.readInt(), in.readLong());
+            for (int n = in.readInt(); n > 0; n--) apply(service, CONCESSION_ORDERED, in);
+            service.restoreIdCounters(counters);
+            return seq;
+        }
+    }
+
+    private static void apply(BookingService service, byte type, DataInput in) throws IOException {
+        switch (type) {
+            case MOVIE_ADDED -> service.restoreMovie(in.readInt(), in.readUTF(), in.readUTF(), in.readInt());
+            case MOVIE_UPDATED -> service.restoreMovieUpdate(in.readInt(), in.readUTF(), in.readUTF());
+            case SCREEN_ADDED -> service.restoreScreen(in.readInt(), in.readUTF(), SeatLayout.parse(in.readUTF()));
+            case CUSTOMER_ADDED -> service.restoreCustomer(in.readInt(), in.readUTF(), in.readUTF());
+            case SHOW_SCHEDULED -> service.restoreShow(in.readInt(), in.readInt(), in.readInt(), in.readUTF(), in.readLong());
+            case BOOKING_CREATED -> {
+                int id = in.readInt(), showId = in.readInt(), customerId = in.readInt();
+                int[] seats = readSeats(in);
+                long fare = in.readLong(), taxes = in.readLong(), total = in.readLong();
+                service.restoreBooking(id, showId, customerId, seats, fare, taxes, total, in.readLong());
+            }
+            case BOOKING_CANCELLED -> service.restoreCancellation(in.readInt());
+            case CONCESSION_ORDERED -> {
+                int id = in.readInt(), bookingId = in.readInt();
+                long orderedAt = in.readLong();
+                List<ConcessionOrder.ConcessionItem> items = new ArrayList<>();
+                for (int n = in.readUnsignedShort(); n > 0; n--) {
+                    int itemId = in.readInt();
+                    String name = in.readUTF();
+                    items.add(new ConcessionOrder.ConcessionItem(itemId, name, in.readLong(), in.readInt()));
+                }
+                service.restoreConcessionOrder(id, bookingId, items, orderedAt);
+            }
+            case CONCESSION_CANCELLED -> service.restoreConcessionCancellation(in.readInt());
+            case STOCK_RESTOCKED -> service.restoreRestock(in.readInt(), in.readLong());
+            default -> throw new IOException("Unknown record type " + type);
+        }
+    }
+
+    private static int[] readSeats(DataInput in) throws IOException {
+        int[] seats = new int[in.readUnsignedShort()];
+        for (int i = 0; i < seats.length; i++) seats[i] = in.readUnsignedShort();
+        return seats;
+    }
+
+    // Encoders shared by the log and the snapshot
+    private interface Encoder<T> {
+        void write(DataOutput out, T value) throws IOException;
+    }
+
+    private static <T> void writeAll(DataOutput out, Collection<T> values, Encoder<T> encoder) throws IOException {
+        List<T> copy = new ArrayList<>(values);
+        out.writeInt(copy.size());
+        for (T v : copy) encoder.write(out, v);
+    }
+
+    private static void writeMovie(DataOutput out, Movie m) throws IOException {
+        out.writeInt(m.getId());
+        out.writeUTF(m.getTitle());
+        out.writeUTF(m.getGenre());
+        out.writeInt(m.getDurationMinutes());
+    }
+
+    private static void writeScreen(DataOutput out, Screen s) throws IOException {
+        out.writeInt(s.getId());
+        out.writeUTF(s.getName());
+        out.writeUTF(s.getLayout().toSpec());
+    }
+
+    private static void writeCustomer(DataOutput out, Customer c) throws IOException {
+        out.writeInt(c.getId());
+        out.writeUTF(c.getName());
+        out.writeUTF(c.getPhone());
+    }
+
+    private static void writeShow(DataOutput out, Show s) throws IOException {
+        out.writeInt(s.getId());
+        out.writeInt(s.getMovie().getId());
+        out.writeInt(s.getScreen().getId());
+        out.writeUTF(s.getDateTime());
+        out.writeLong(s.getBaseFarePaise());
+    }
+
+    private static void writeBooking(DataOutput out, Booking b) throws IOException {
+        out.writeInt(b.getId());
+        out.writeInt(b.getShow().getId());
+        out.writeInt(b.getCustomer().getId());
+        List<Seat> seats = b.getSeats();
+        out.writeShort(seats.size());
+        for (Seat s : seats) out.writeShort(s.getIndex());
+        out.writeLong(b.getFarePaise());
+        out.writeLong(b.getTaxesPaise());
+        out.writeLong(b.getTotalPaise());
+        out.writeLong(b.getBookedAt().getTime());
+    }
+
+    // archived rows in the booking encoding, as their own section so recovery puts them back off heap
+    private static void writeArchive(DataOutput out, BookingArchive archive) throws IOException {
+        out.writeInt(archive.size());
+        for (BookingArchive.Cursor c = archive.rows(); c.next(); ) {
+            out.writeInt(c.getId());
+            out.writeInt(c.getShowId());
+            out.writeInt(c.getCustomerId());
+            out.writeShort(c.getSeatCount());
+            for (int i = 0; i < c.getSeatCount(); i++) out.writeShort(c.getSeatIndex(i));
+            out.writeLong(c.getFarePaise());
+            out.writeLong(c.getTaxesPaise());
+            out.writeLong(c.getTotalPaise());
+            out.writeLong(c.getBookedAt());
+        }
+    }
+
+    private static void writeConcession(DataOutput out, ConcessionOrder o) throws IOException {
+        out.writeInt(o.getId());
+        out.writeInt(o.getLinkedBooking() == null ? 0 : o.getLinkedBooking().getId());
+        out.writeLong(o.getOrderedAt().getTime());
+        List<ConcessionOrder.ConcessionItem> items = o.getItems();
+        out.writeShort(items.size());
+        for (ConcessionOrder.ConcessionItem i : items) {
+            out.writeInt(i.getId());
+            out.writeUTF(i.getName());
+            out.writeLong(i.getUnitPricePaise());
+            out.writeInt(i.getQty());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package JavaAssign;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms for the booking flow. Recording methods are called on the
+ * hot path, so they only bump {@link LongAdder}s and {@link LatencyHistogram} buckets; the
+ * text and JSON renderings are built on demand, by a scrape or by the periodic dump.
+ */
+public final class BookingMetrics {
+    private final long startedAt = System.currentTimeMillis();
+
+    private final LatencyHistogram hold = new LatencyHistogram("hold");
+    private final LatencyHistogram paymentWait = new LatencyHistogram("payment");
+    private final LatencyHistogram commit = new LatencyHistogram("commit");
+    private final LatencyHistogram cancel = new LatencyHistogram("cancel");
+
+    private final LongAdder holdsFailed = new LongAdder();      // seats taken by someone else
+    private final LongAdder holdsReleased = new LongAdder();
+    private final LongAdder paymentsDeclined = new LongAdder();
+    private final LongAdder commitsFailed = new LongAdder();    // hold expired before booking
+    private final LongAdder concessionOrders = new LongAdder();
+    private final LongAdder concessionPaise = new LongAdder();
+    private final LongAdder concessionCancels = new LongAdder();
+
+    private ScheduledExecutorService dumper;
+
+    // Recording
+    public void holdPlaced(long startNanos) { hold.recordSince(startNanos); }
+    public void holdFailed() { holdsFailed.increment(); }
+    public void holdReleased() { holdsReleased.increment(); }
+
+    public void paymentFinished(long startNanos, boolean approved) {
+        paymentWait.recordSince(startNanos);
+        if (!approved) paymentsDeclined.increment();
+    }
+
+    public void committed(long startNanos) { commit.recordSince(startNanos); }
+    public void commitFailed() { commitsFailed.increment(); }
+    public void cancelled(long startNanos) { cancel.recordSince(startNanos); }
+
+    public void concessionOrdered(long totalPaise) {
+        concessionOrders.increment();
+        concessionPaise.add(totalPaise);
+    }
+
+    public void concessionCancelled(long totalPaise) {
+        concessionCancels.increment();
+        concessionPaise.add(-totalPaise);
+    }
+
+    public LatencyHistogram getHoldLatency() { return hold; }
+    public LatencyHistogram getPaymentWait() { return paymentWait; }
+    public LatencyHistogram getCommitLatency() { return commit; }
+    public LatencyHistogram getCancelLatency() { return cancel; }
+    public long getHoldsFailed() { return holdsFailed.sum(); }
+    public long getCommitsFailed() { return commitsFailed.sum(); }
+    public long getConcessionOrders() { return concessionOrders.sum(); }
+    public long getConcessionPaise() { return concessionPaise.sum(); }
+
+    // Reporting
+    public String toText() {
+        StringBuilder sb = new StringBuilder(1024);
+        sb.append("uptime_seconds ").append((System.currentTimeMillis() - startedAt) / 1000).append('\n');
+        for (LatencyHistogram h : histograms()) sb.append(h.snapshot().toText()).append('\n');
+        sb.append("holds_failed ").append(holdsFailed.sum()).append('\n')
+          .append("holds_released ").append(holdsReleased.sum()).append('\n')
+          .append("payments_declined ").append(paymentsDeclined.sum()).append('\n')
+          .append("commits_failed ").append(commitsFailed.sum()).append('\n')
+          .append("concession_orders ").append(concessionOrders.sum()).append('\n')
+          .append("concession_cancels ").append(concessionCancels.sum()).append('\n')
+          .append("concession_total ").append(Money.format(concessionPaise.sum())).append('\n');
+        return sb.toString();
+    }
+
+    public String toJson() {
+        StringBuilder sb = new StringBuilder(1024);
+        sb.append("{\"uptimeSeconds\":").append((System.currentTimeMillis() - startedAt) / 1000).append(",\"latency\":{");
+        LatencyHistogram[] hs = histograms();
+        for (int i = 0; i < hs.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append('"').append(hs[i].getName()).append("\":").append(hs[i].snapshot().toJson());
+        }
+        return sb.append("},\"holdsFailed\":").append(holdsFailed.sum())
+                .append(",\"holdsReleased\":").append(holdsReleased.sum())
+                .append(",\"paymentsDeclined\":").append(paymentsDeclined.sum())
+                .append(",\"commitsFailed\":").append(commitsFailed.sum())
+                .append(",\"concessionOrders\":").append(concessionOrders.sum())
+                .append(",\"concessionCancels\":").append(concessionCancels.sum())
+                .append(",\"concessionTotal\":").append(Money.format(concessionPaise.sum())).append('}').toString();
+    }
+
+    private LatencyHistogram[] histograms() { return new LatencyHistogram[] {hold, paymentWait, commit, cancel}; }
+
+    /**
+     * Rewrites {@code file} every {@code periodSeconds} with the current metrics, as JSON when the
+     * name ends in ".json" and as text otherwise. Each dump replaces the file atomically, so a
+     * local scraper never reads half of one.
+     */
+    public synchronized void startDumps(Path file, long periodSeconds) {
+        if (file == null) throw new IllegalArgumentException("Dump file required");
+        if (periodSeconds <= 0) throw new IllegalArgumentException("Dump period must be positive");
+        if (dumper != null) return;
+        boolean json = file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json");
+        dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-dump");
+            t.setDaemon(true);
+            return t;
+        });
+        dumper.scheduleAtFixedRate(() -> {
+            try { dump(file, json ? toJson() : toText()); }
+            catch (IOException | RuntimeException e) { System.err.println("Metrics dump failed: " + e.getMessage()); }
+        }, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+
+    public synchronized void stopDumps() {
+        if (dumper != null) dumper.shutdownNow();
+        dumper = null;
+    }
+
+    private static void dump(Path file, String body) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(tmp, body.getBytes(StandardCharsets.UTF_8));
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,1072 @@
+package JavaAssign;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ObjIntConsumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * BookingService - headless, thread-safe core behind every client (console, HTTP, ...).
+ * Stores are concurrent maps ordered by id, seat state is guarded by each show's
+ * {@link SeatMap}, and failures surface as IllegalArgumentException (bad input)
+ * or IllegalStateException (conflicts).
+ */
+public class BookingService {
+    public static final long DEFAULT_HOLD_TTL_MILLIS = 10 * 60 * 1000L;
+    public static final long DEFAULT_PAYMENT_TIMEOUT_MILLIS = 15_000L;
+    public static final int DEFAULT_PAYMENT_ATTEMPTS = 2;
+    /** How long a waitlisted party has to pay for the seats offered to it. */
+    public static final long DEFAULT_OFFER_TTL_MILLIS = 2 * 60 * 1000L;
+    // opening stock per menu item and the level that triggers a low-stock alert
+    static final long DEFAULT_STOCK = 200;
+    static final int DEFAULT_LOW_STOCK = 20;
+    /** How often bookings of ended shows are moved into the {@link BookingArchive}. */
+    public static final long ARCHIVE_PERIOD_MINUTES = 60;
+
+    // In-memory data stores
+    private final ConcurrentMap<Integer, Movie> movies = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<Integer, Screen> screens = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<Integer, Show> shows = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<Integer, Customer> customers = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<Integer, Booking> bookings = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<Integer, ConcessionOrder> concessions = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<Long, SeatHold> holds = new ConcurrentHashMap<>();
+    // hold token -> its payment in flight, so a repeated confirm joins the first one
+    private final ConcurrentMap<Long, CompletableFuture<Booking>> checkouts = new ConcurrentHashMap<>();
+
+    // Secondary indexes, updated with the stores above; an entity is indexed before it
+    // appears in its primary store and unindexed after it leaves, so lookups never miss
+    private final ConcurrentMap<Integer, ConcurrentSkipListMap<Integer, Booking>> bookingsByCustomer = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Customer> customersByPhone = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<LocalDate, ConcurrentSkipListMap<Integer, Show>> showsByDate = new ConcurrentSkipListMap<>();
+    private final MovieSearch movieSearch = new MovieSearch();
+
+    // Read side of the catalog: rebuilt copy-on-write under catalogLock after every movie,
+    // screen or show change and published through the volatile field, so listings never lock
+    private final Object catalogLock = new Object();
+    private volatile CatalogSnapshot catalog = CatalogSnapshot.EMPTY;
+
+    // an add under a caller-chosen id checks and stores it under the id's stripe, so two
+    // concurrent retries of one add journal it once
+    private final Object[] idLocks = new Object[64];
+
+    // ID generators
+    private final AtomicInteger movieIdGen = new AtomicInteger(100);
+    private final AtomicInteger screenIdGen = new AtomicInteger(10);
+    private final AtomicInteger showIdGen = new AtomicInteger(500);
+    private final AtomicInteger customerIdGen = new AtomicInteger(200);
+    private final AtomicInteger bookingIdGen = new AtomicInteger(1000);
+    private final AtomicInteger concessionIdGen = new AtomicInteger(3000);
+    private final AtomicLong holdTokenGen = new AtomicLong(1);
+
+    // Concession menu (fixed at construction)
+    private final Map<Integer, ConcessionOrder.MenuItem> concessionMenu;
+
+    // taxes on tickets and concessions
+    private final TaxTable taxTable;
+    // demand pricing: the policy, and each show's fares under it, built when the show is added
+    private final PricingPolicy pricing;
+    private final ConcurrentMap<Integer, FareCurve> fareCurves = new ConcurrentHashMap<>();
+
+    private final HoldExpiryWheel holdExpiry = new HoldExpiryWheel(100);
+    private final BookingMetrics metrics = new BookingMetrics();
+    private final SalesAnalytics analytics = new SalesAnalytics();
+    private final Waitlist waitlist = new Waitlist(this::offerSeats);
+    private final BookingArchive archive = new BookingArchive();
+    private ScheduledExecutorService archiver;
+
+    // hold tokens restart with the process, so payment keys carry the start time as well
+    private final String paymentKeyPrefix = "hold-" + Long.toString(System.currentTimeMillis(), 36) + "-";
+    private volatile PaymentGateway paymentGateway = new SimulatedPaymentGateway();
+    // payment outcomes are handled here, so booking (and its journal fsync) never runs on a gateway
+    // thread; idle threads time out, so there is nothing to stop
+    private final ExecutorService checkoutExecutor = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "checkout");
+        t.setDaemon(true);
+        return t;
+    });
+    private volatile long paymentTimeoutMillis = DEFAULT_PAYMENT_TIMEOUT_MILLIS;
+    private volatile int paymentAttempts = DEFAULT_PAYMENT_ATTEMPTS;
+    private volatile long offerTtlMillis = DEFAULT_OFFER_TTL_MILLIS;
+    private final ConcessionKitchen kitchen = new ConcessionKitchen(4096, 3);
+    private final ConcessionInventory inventory = new ConcessionInventory();
+    private final long holdTtlMillis;
+
+    // writers share the read side; checkpoints take the write side to get a quiescent state
+    private final ReadWriteLock journalLock = new ReentrantReadWriteLock();
+    private volatile BookingJournal journal;
+
+    public BookingService() {
+        this(DEFAULT_HOLD_TTL_MILLIS);
+    }
+
+    public BookingService(long holdTtlMillis) {
+        this(holdTtlMillis, TaxTable.STANDARD);
+    }
+
+    public BookingService(long holdTtlMillis, TaxTable taxTable) {
+        this(holdTtlMillis, taxTable, PricingPolicy.STANDARD);
+    }
+
+    public BookingService(long holdTtlMillis, TaxTable taxTable, PricingPolicy pricing) {
+        for (int i = 0; i < idLocks.length; i++) idLocks[i] = new Object();
+        if (holdTtlMillis <= 0) throw new IllegalArgumentException("Hold TTL must be positive");
+        if (taxTable == null) throw new IllegalArgumentException("Tax table required");
+        if (pricing == null) throw new IllegalArgumentException("Pricing policy required");
+        this.holdTtlMillis = holdTtlMillis;
+        this.taxTable = taxTable;
+        this.pricing = pricing;
+        Map<Integer, ConcessionOrder.MenuItem> menu = new LinkedHashMap<>();
+        menu.put(1, new ConcessionOrder.MenuItem(1, "Popcorn (Small)", Money.ofRupees(100)));
+        menu.put(2, new ConcessionOrder.MenuItem(2, "Popcorn (Large)", Money.ofRupees(180)));
+        menu.put(3, new ConcessionOrder.MenuItem(3, "Cold Drink", Money.ofRupees(80)));
+        menu.put(4, new ConcessionOrder.MenuItem(4, "Nachos", Money.ofRupees(120)));
+        menu.put(5, new ConcessionOrder.MenuItem(5, "Candy", Money.ofRupees(60)));
+        this.concessionMenu = Collections.unmodifiableMap(menu);
+        for (ConcessionOrder.MenuItem item : menu.values()) inventory.track(item, DEFAULT_STOCK, DEFAULT_LOW_STOCK);
+        holdExpiry.setExpiryListener(token -> {
+            SeatHold expired = holds.remove(token);
+            if (expired == null) return;
+            waitlist.offerClosed(token, false);
+            waitlist.seatsFreed(expired.getShow());
+        });
+    }
+
+    public void start() {
+        holdExpiry.start();
+        kitchen.start();
+        waitlist.start();
+        startArchiver();
+    }
+
+    public void shutdown() {
+        holdExpiry.stop();
+        kitchen.stop();
+        waitlist.stop();
+        stopArchiver();
+        metrics.stopDumps();
+        BookingJournal j = journal;
+        if (j == null) return;
+        try { j.close(); }
+        catch (IOException e) { System.err.println("Failed to close journal: " + e.getMessage()); }
+    }
+
+    void attachJournal(BookingJournal journal) {
+        if (this.journal != null) throw new IllegalStateException("Journal already attached");
+        this.journal = journal;
+    }
+
+    /** Writes a snapshot and truncates the event log; writers pause for the duration. */
+    public void checkpoint() throws IOException {
+        BookingJournal j = journal;
+        if (j == null) throw new IllegalStateException("No journal attached");
+        journalLock.writeLock().lock();
+        try { j.checkpoint(this); }
+        finally { journalLock.writeLock().unlock(); }
+    }
+
+    // Catalog; the *As variants take ids chosen by a shard router, and repeating one of them
+    // with the same fields returns what the first call added, so the router can retry
+    public Movie addMovie(String title, String genre, int durationMinutes) {
+        return addMovie(-1, title, genre, durationMinutes);
+    }
+
+    public Movie addMovieAs(int movieId, String title, String genre, int durationMinutes) {
+        if (movieId <= 0) throw new IllegalArgumentException("Movie id must be positive");
+        return addMovie(movieId, title, genre, durationMinutes);
+    }
+
+    // movieId < 0 takes the next generated id
+    private Movie addMovie(int movieId, String title, String genre, int durationMinutes) {
+        if (movieId < 0) return storeMovie(new Movie(movieIdGen.getAndIncrement(), title, genre, durationMinutes));
+        Movie m = new Movie(movieId, title, genre, durationMinutes);
+        synchronized (idLock(movieId)) {
+            Movie existing = movies.get(movieId);
+            if (existing != null) {
+                if (existing.getTitle().equals(m.getTitle()) && existing.getGenre().equals(m.getGenre()) && existing.getDurationMinutes() == m.getDurationMinutes()) return existing;
+                throw new IllegalStateException("Movie id " + movieId + " already used");
+            }
+            bump(movieIdGen, movieId);
+            return storeMovie(m);
+        }
+    }
+
+    private Movie storeMovie(Movie m) {
+        journalLock.readLock().lock();
+        try {
+            if (journal != null) journal.movieAdded(m);
+            movieSearch.index(m);
+            publishCatalog(c -> c.withMovie(m)); // before the store, so a show scheduled for it finds it listed
+            movies.put(m.getId(), m);
+            return m;
+        } finally {
+            journalLock.readLock().unlock();
+        }
+    }
+
+    /** Renames or re-genres a movie; its shows keep their times, listings pick up the change. */
+    public Movie updateMovie(int movieId, String title, String genre) {
+        Movie m = movies.get(movieId);
+        if (m == null) throw new IllegalArgumentException("Invalid movie id: " + movieId);
+        if (title == null || title.trim().isEmpty()) throw new IllegalArgumentException("Title required");
+        String g = genre == null ? "" : genre.trim();
+        journalLock.readLock().lock();
+        try {
+            // edits are journaled and applied in the same order, so replay ends on the same title
+            synchronized (catalogLock) {
+                if (journal != null) journal.movieUpdated(movieId, title.trim(), g);
+                m.setTitle(title);
+                m.setGenre(g);
+                movieSearch.index(m);
+                catalog = catalog.withMovie(m);
+            }
+            return m;
+        } finally {
+            journalLock.readLock().unlock();
+        }
+    }
+
+    public Screen addScreen(String name) {
+        return addScreen(name, SeatLayout.STANDARD);
+    }
+
+    public Screen addScreen(String name, SeatLayout layout) {
+        return addScreen(-1, name, layout);
+    }
+
+    public Screen addScreenAs(int screenId, String name, SeatLayout layout) {
+        if (screenId <= 0) throw new IllegalArgumentException("Screen id must be positive");
+        return addScreen(screenId, name, layout);
+    }
+
+    private Screen addScreen(int screenId, String name, SeatLayout layout) {
+        if (screenId < 0) return storeScreen(new Screen(screenIdGen.getAndIncrement(), name, layout));
+        Screen s = new Screen(screenId, name, layout);
+        synchronized (idLock(screenId)) {
+            Screen existing = screens.get(screenId);
+            if (existing != null) {
+                if (existing.getName().equals(s.getName()) && existing.getLayout().toSpec().equals(s.getLayout().toSpec())) return existing;
+                throw new IllegalStateException("Screen id " + screenId + " already used");
+            }
+            bump(screenIdGen, screenId);
+            return storeScreen(s);
+        }
+    }
+
+    private Screen storeScreen(Screen s) {
+        journalLock.readLock().lock();
+        try {
+            if (journal != null) journal.screenAdded(s);
+            publishCatalog(c -> c.withScreen(s));
+            screens.put(s.getId(), s);
+            return s;
+        } finally {
+            journalLock.readLock().unlock();
+        }
+    }
+
+    public Customer addCustomer(String name, String phone) {
+        return addCustomer(-1, name, phone);
+    }
+
+    public Customer addCustomerAs(int customerId, String name, String phone) {
+        if (customerId <= 0) throw new IllegalArgumentException("Customer id must be positive");
+        return addCustomer(customerId, name, phone);
+    }
+
+    private Customer addCustomer(int customerId, String name, String phone) {
+        if (name == null || name.trim().isEmpty()) throw new IllegalArgumentException("Customer name required");
+        if (phone == null || !phone.matches("\\d{7,15}")) throw new IllegalArgumentException("Phone must be 7-15 digits");
+        if (customerId < 0) return storeCustomer(new Customer(customerIdGen.getAndIncrement(), name.trim(), phone));
+        synchronized (idLock(customerId)) {
+            Customer existing = customers.get(customerId);
+            if (existing != null) {
+                if (existing.getName().equals(name.trim()) && existing.getPhone().equals(phone)) return existing;
+                throw new IllegalStateException("Customer id " + customerId + " already used");
+            }
+            bump(customerIdGen, customerId);
+            return storeCustomer(new Customer(customerId, name.trim(), phone));
+        }
+    }
+
+    private Customer storeCustomer(Customer c) {
+        String phone = c.getPhone();
+        journalLock.readLock().lock();
+        try {
+            // claiming the phone first makes concurrent sign-ups with one number race safely
+            Customer existing = customersByPhone.putIfAbsent(phone, c);
+            if (existing != null) throw new IllegalStateException("Phone already registered to customer " + existing.getId());
+            try {
+                if (journal != null) journal.customerAdded(c);
+            } catch (RuntimeException e) {
+                customersByPhone.remove(phone, c);
+                throw e;
+            }
+            customers.put(c.getId(), c);
+            return c;
+        } finally {
+            journalLock.readLock().unlock();
+        }
+    }
+
+    public Show scheduleShow(int movieId, int screenId, String dateTime, long baseFarePaise) {
+        return scheduleShow(-1, movieId, screenId, dateTime, baseFarePaise);
+    }
+
+    /** Schedules a show under an id the caller chose; a shard router places shows by id. Repeats are idempotent. */
+    public Show scheduleShowAs(int showId, int movieId, int screenId, String dateTime, long baseFarePaise) {
+        if (showId <= 0) throw new IllegalArgumentException("Show id must be positive");
+        return scheduleShow(showId, movieId, screenId, dateTime, baseFarePaise);
+    }
+
+    // showId < 0 takes the next generated id
+    private Show scheduleShow(int showId, int movieId, int screenId, String dateTime, long baseFarePaise) {
+        Movie movie = movies.get(movieId);
+        if (movie == null) throw new IllegalArgumentException("Invalid movie id: " + movieId);
+        Screen screen = screens.get(screenId);
+        if (screen == null) throw new IllegalArgumentException("Invalid screen id: " + screenId);
+        journalLock.readLock().lock();
+        try {
+            Show existing = showId > 0 ? shows.get(showId) : null;
+            if (existing != null) {
+                if (existing.getMovie() == movie && existing.getScreen() == screen && dateTime != null && existing.getDateTime().equals(dateTime.trim()) && existing.getBaseFarePaise() == baseFarePaise) return existing;
+                throw new IllegalStateException("Show id " + showId + " already used");
+            }
+            Show show = new Show(showId < 0 ? showIdGen.getAndIncrement() : showId, movie, screen, dateTime, baseFarePaise);
+            if (showId > 0) bump(showIdGen, showId);
+            screen.addShow(show); // claims the slot, or throws if it overlaps another show
+            try {
+                if (journal != null) journal.showScheduled(show);
+            } catch (RuntimeException e) {
+                screen.removeShow(show);
+                throw e;
+            }
+            indexShow(show);
+            publishCatalog(c -> c.withShow(show));
+            return show;
+        } finally {
+            journalLock.readLock().unlock();
+        }
+    }
+
+    // Bulk import: CatalogImporter builds and validates entities off-thread under ids reserved
+    // a batch at a time, then hands each batch here in file order
+    int reserveMovieIds(int n) { return movieIdGen.getAndAdd(n); }
+    int reserveScreenIds(int n) { return screenIdGen.getAndAdd(n); }
+    int reserveShowIds(int n) { return showIdGen.getAndAdd(n); }
+
+    /**
+     * Stores and journals a batch of imported entities with one fsync, and publishes the
+     * catalog twice rather than once per entity: movies and screens first, so shows can be
+     * listed against them, then the shows. A show that clashes on its screen is skipped and
+     * reported through {@code rejected} with its index; the rest of the batch still goes in.
+     */
+    void importBatch(List<Movie> newMovies, List<Screen> newScreens, List<Show> newShows, ObjIntConsumer<RuntimeException> rejected) {
+        journalLock.readLock().lock();
+        try {
+            List<Show> added = new ArrayList<>(newShows.size());
+            for (int i = 0; i < newShows.size(); i++) {
+                Show show = newShows.get(i);
+                try {
+                    show.getScreen().addShow(show); // claims the slot, or throws if it overlaps
+                    added.add(show);
+                } catch (IllegalStateException e) {
+                    rejected.accept(e, i);
+                }
+            }
+            try {
+                if (journal != null) journal.catalogImported(newMovies, newScreens, added);
+            } catch (RuntimeException e) {
+                for (Show show : added) show.getScreen().removeShow(show);
+                throw e;
+            }
+            for (Movie m : newMovies) movieSearch.index(m);
+            if (!newMovies.isEmpty() || !newScreens.isEmpty()) publishCatalog(c -> {
+                for (Movie m : newMovies) c = c.withMovie(m);
+                for (Screen s : newScreens) c = c.withScreen(s);
+                return c;
+            });
+            for (Movie m : newMovies) movies.put(m.getId(), m);
+            for (Screen s : newScreens) screens.put(s.getId(), s);
+            for (Show show : added) indexShow(show);
+            if (!added.isEmpty()) publishCatalog(c -> {
+                for (Show show : added) c = c.withShow(show);
+                return c;
+            });
+        } finally {
+            journalLock.readLock().unlock();
+        }
+    }
+
+    private void publishCatalog(UnaryOperator<CatalogSnapshot> change) {
+        synchronized (catalogLock) { catalog = change.apply(catalog); }
+    }
+
+    // recovery restores the stores without publishing, then renders the catalog once
+    void rebuildCatalog() {
+        synchronized (catalogLock) {
+            catalog = CatalogSnapshot.of(catalog.getVersion() + 1, movies.values(), screens.values(), shows.values());
+        }
+    }
+
+    // recovery restores bookings and orders without events, then sums them once
+    void rebuildAnalytics() {
+        // archived rows are sales too; they come back on heap only for the length of the pass
+        List<Booking> sold = new ArrayList<>(bookings.values());
+        Set<Integer> archived = new HashSet<>();
+        for (BookingArchive.Cursor c = archive.rows(); c.next(); ) {
+            Booking b = toBooking(c);
+            if (b == null) continue;
+            sold.add(b);
+            archived.add(b.getId());
+        }
+        analytics.rebuild(shows.values(), sold, concessions.values(), id -> bookings.containsKey(id) || archived.contains(id));
+    }
+
+    private void indexShow(Show show) {
+        showsByDate.computeIfAbsent(show.getDate(), d -> new ConcurrentSkipListMap<>()).put(show.getId(), show);
+        movieSearch.addShow(show);
+        fareCurves.put(show.getId(), pricing.curveFor(show));
+        analytics.showAdded(show);
+        shows.put(show.getId(), show);
+    }
+
+    // Booking flow: hold -> (payment) -> book, or releaseHold
+    public SeatHold hold(int showId, int customerId, Collection<String> seatIds) {
+        Show show = requireOpenShow(showId);
+        Customer customer = customers.get(customerId);
+        if (customer == null) throw new IllegalArgumentException("Invalid customer id: " + customerId);
+        long started = System.nanoTime();
+        long token = holdTokenGen.getAndIncrement();
+        if (!show.tryHoldAll(seatIds, token)) {
+            metrics.holdFailed();
+            throw new IllegalStateException("Some of the selected seats are no longer available");
+        }
+        return registerHold(token, customer, show, show.getHeldSeats(token), started, holdTtlMillis);
+    }
+
+    /** Holds the best block of {@code partySize} adjacent seats, optionally in one category. */
+    public SeatHold holdBest(int showId, int customerId, int partySize, SeatCategory preferred) {
+        Show show = requireOpenShow(showId);
+        Customer customer = customers.get(customerId);
+        if (customer == null) throw new IllegalArgumentException("Invalid customer id: " + customerId);
+        long started = System.nanoTime();
+        long token = holdTokenGen.getAndIncrement();
+        List<Seat> seats = show.holdBestBlock(partySize, preferred, token);
+        if (seats.isEmpty()) {
+            metrics.holdFailed();
+            throw new IllegalStateException("No block of " + partySize + " adjacent seats available");
+        }
+        return registerHold(token, customer, show, seats, started, holdTtlMillis);
+    }
+
+    // quotes the hold from the show's fare curve; occupancy leaves out the seats being priced
+    private SeatHold registerHold(long token, Customer customer, Show show, List<Seat> seats, long started, long ttlMillis) {
+        FareCurve curve = fareCurves.get(show.getId());
+        int cell = curve.cell(show.getCapacity() - show.getAvailableCount() - seats.size(), System.currentTimeMillis());
+        long subtotal = 0;
+        for (Seat seat : seats) subtotal += curve.fare(seat, cell);
+        long taxes = taxTable.taxOn(subtotal);
+        SeatHold hold = new SeatHold(token, customer, show, seats, subtotal, taxes, subtotal + taxes, curve.demandBasisPoints(cell));
+        holds.put(token, hold);
+        holdExpiry.schedule(show, token, ttlMillis);
+        metrics.holdPlaced(started);
+        return hold;
+    }
+
+    /** Uses {@code gateway} for checkouts, giving each attempt {@code timeoutMillis} to answer. */
+    public void setPaymentGateway(PaymentGateway gateway, long timeoutMillis, int attempts) {
+        if (gateway == null) throw new IllegalArgumentException("Payment gateway required");
+        if (timeoutMillis <= 0) throw new IllegalArgumentException("Payment timeout must be positive");
+        if (attempts < 1) throw new IllegalArgumentException("At least one payment attempt required");
+        this.paymentGateway = gateway;
+        this.paymentTimeoutMillis = timeoutMillis;
+        this.paymentAttempts = attempts;
+    }
+
+    public PaymentGateway getPaymentGateway() { return paymentGateway; }
+
+    /**
+     * Charges the hold's total and books it once the gateway approves. Returns at once; the
+     * future completes with the booking, or with a {@link PaymentException} after a decline,
+     * a gateway error or every attempt timing out, by which time the seats are free again.
+     * Attempts reuse the hold's idempotency key, so a retry after a timeout can only pick up
+     * the first charge, never add a second. A charge approved after the service gave up on it,
+     * or one the booking could not use because the hold expired meanwhile, is refunded.
+     */
+    public CompletableFuture<Booking> checkout(long holdToken) {
+        SeatHold hold = holds.get(holdToken);
+        if (hold == null) return CompletableFuture.failedFuture(new IllegalStateException("Hold not found or expired"));
+        CompletableFuture<Booking> result = new CompletableFuture<>();
+        CompletableFuture<Booking> running = checkouts.putIfAbsent(holdToken, result);
+        if (running != null) return running;
+        result.whenComplete((b, err) -> checkouts.remove(holdToken, result));
+        attemptPayment(hold, paymentGateway, paymentKeyPrefix + holdToken, 1, System.nanoTime(), result);
+        return result;
+    }
+
+    private void attemptPayment(SeatHold hold, PaymentGateway gateway, String key, int attempt, long started, CompletableFuture<Booking> result) {
+        long total = hold.getTotalPaise();
+        CompletableFuture<PaymentResult> charge;
+        try { charge = gateway.charge(key, total); }
+        catch (RuntimeException e) { charge = CompletableFuture.failedFuture(e); }
+        CompletableFuture<PaymentResult> pending = charge;
+        // the timeout goes on a copy: the gateway's own future is shared with any retry
+        pending.copy().orTimeout(paymentTimeoutMillis, TimeUnit.MILLISECONDS).whenCompleteAsync((r, err) -> {
+            Throwable cause = err instanceof CompletionException && err.getCause() != null ? err.getCause() : err;
+            if (cause instanceof TimeoutException && attempt < paymentAttempts) {
+                attemptPayment(hold, gateway, key, attempt + 1, started, result);
+                return;
+            }
+            boolean approved = cause == null && r.isApproved();
+            metrics.paymentFinished(started, approved);
+            if (!approved) {
+                releaseHold(hold.getToken());
+                if (cause != null) {
+                    // the gateway may still approve after we stopped waiting
+                    pending.thenAccept(late -> { if (late.isApproved()) gateway.refund(key, total); });
+                    String why = cause instanceof TimeoutException ? "Payment timed out" : "Payment failed: " + cause.getMessage();
+                    result.completeExceptionally(new PaymentException(why, cause));
+                } else {
+                    result.completeExceptionally(new PaymentException("Payment declined: " + r.getMessage(), r));
+                }
+                return;
+            }
+            try {
+                result.complete(book(hold.getToken()));
+            } catch (RuntimeException e) {
+                gateway.refund(key, total);
+                result.completeExceptionally(e);
+            }
+        }, checkoutExecutor);
+    }
+
+    // Waitlist: parties queue for a sold-out show and are offered seats as they come free
+    public Waitlist.Entry joinWaitlist(int showId, int customerId, int partySize, SeatCategory preferred) {
+        Show show = requireShow(showId);
+        Customer customer = customers.get(customerId);
+        if (customer == null) throw new IllegalArgumentException("Invalid customer id: " + customerId);
+        return waitlist.join(customer, show, partySize, preferred);
+    }
+
+    /** Takes a party off the waitlist, giving back any seats it was offered and has not paid for. */
+    public boolean leaveWaitlist(int entryId) {
+        Waitlist.Entry e = waitlist.leave(entryId);
+        if (e == null) return false;
+        if (e.getOffer() != null) releaseHold(e.getOffer().getToken());
+        return true;
+    }
+
+    public Optional<Waitlist.Entry> getWaitlistEntry(int entryId) { return waitlist.get(entryId); }
+
+    /** Parties still waiting for {@code showId}, in the order they joined. */
+    public List<Waitlist.Entry> getWaitingParties(int showId) { return waitlist.waiting(showId); }
+
+    // the waitlist's offer: the party's best block, held for the offer TTL
+    private SeatHold offerSeats(Waitlist.Entry e) {
+        long started = System.nanoTime();
+        long token = holdTokenGen.getAndIncrement();
+        List<Seat> seats = e.getShow().holdBestBlock(e.getPartySize(), e.getPreferred(), token);
+        if (seats.isEmpty()) return null;
+        return registerHold(token, e.getCustomer(), e.getShow(), seats, started, offerTtlMillis);
+    }
+
+    public Optional<SeatHold> getHold(long holdToken) {
+        return Optional.ofNullable(holds.get(holdToken));
+    }
+
+    public Booking book(long holdToken) {
+        long started = System.nanoTime();
+        SeatHold hold = holds.remove(holdToken);
+        if (hold == null) {
+            metrics.commitFailed();
+            throw new IllegalStateException("Hold not found or expired");
+        }
+        holdExpiry.cancel(holdToken);
+        if (!hold.getShow().getEnd().isAfter(Instant.now())) {
+            // held before the show ended; nobody can use the seats now, so no waitlist offer
+            hold.getShow().abort(holdToken);
+            metrics.commitFailed();
+            waitlist.offerClosed(holdToken, false);
+            throw new IllegalStateException("Show " + hold.getShow().getId() + " has ended");
+        }
+        boolean booked = false;
+        journalLock.readLock().lock();
+        try {
+            List<Seat> seats;
+            try {
+                seats = hold.getShow().commit(holdToken);
+            } catch (IllegalStateException e) {
+                // the wheel aborted the hold after we took it from holds, so its listener had nothing to announce
+                metrics.commitFailed();
+                waitlist.seatsFreed(hold.getShow());
+                throw new IllegalStateException("Hold not found or expired");
+            }
+            Booking booking = new Booking(bookingIdGen.getAndIncrement(), hold.getCustomer(), hold.getShow(), seats, hold.getFarePaise(), hold.getTaxesPaise(), hold.getTotalPaise());
+            // logged before it becomes visible, so a cancellation can never precede it in the log
+            if (journal != null) {
+                try {
+                    journal.bookingCreated(booking);
+                } catch (RuntimeException e) {
+                    // not durable, so not booked: the seats go back on sale
+                    hold.getShow().release(seats);
+                    metrics.commitFailed();
+                    waitlist.seatsFreed(hold.getShow());
+                    throw e;
+                }
+            }
+            registerBooking(booking);
+            analytics.bookingCreated(booking);
+            metrics.committed(started);
+            booked = true;
+            return booking;
+        } finally {
+            journalLock.readLock().unlock();
+            waitlist.offerClosed(holdToken, booked);
+        }
+    }
+
+    private void registerBooking(Booking booking) {
+        booking.getShow().addBooking(booking);
+        bookingsByCustomer.computeIfAbsent(booking.getCustomer().getId(), id -> new ConcurrentSkipListMap<>()).put(booking.getId(), booking);
+        bookings.put(booking.getId(), booking);
+    }
+
+    public boolean releaseHold(long holdToken) {
+        SeatHold hold = holds.remove(holdToken);
+        if (hold == null) return false;
+        holdExpiry.cancel(holdToken);
+        metrics.holdReleased();
+        waitlist.offerClosed(holdToken, false);
+        if (!hold.getShow().abort(holdToken)) return false;
+        waitlist.seatsFreed(hold.getShow());
+        return true;
+    }
+
+    public Booking cancel(int bookingId) {
+        long started = System.nanoTime();
+        journalLock.readLock().lock();
+        try {
+            Booking b = bookings.remove(bookingId);
+            if (b == null) {
+                if (archive.find(bookingId) != null) throw new IllegalStateException("Booking " + bookingId + " is for a show that has ended");
+                throw new IllegalArgumentException("Invalid booking id: " + bookingId);
+            }
+            // logged before the seats are freed, so a booking that takes them is always logged after it
+            if (journal != null) {
+                try {
+                    journal.bookingCancelled(b);
+                } catch (RuntimeException e) {
+                    bookings.put(bookingId, b);
+                    throw e;
+                }
+            }
+            unregisterBooking(b);
+            analytics.bookingCancelled(b);
+            metrics.cancelled(started);
+            waitlist.seatsFreed(b.getShow());
+            return b;
+        } finally {
+            journalLock.readLock().unlock();
+        }
+    }
+
+    private void unregisterBooking(Booking b) {
+        // release seats immediately
+        b.getShow().release(b.getSeats());
+        b.getShow().removeBooking(b);
+        Map<Integer, Booking> byCustomer = bookingsByCustomer.get(b.getCustomer().getId());
+        if (byCustomer != null) byCustomer.remove(b.getId(), b);
+    }
+
+    // Archive
+    private synchronized void startArchiver() {
+        if (archiver != null) return;
+        archiver = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "booking-archiver");
+            t.setDaemon(true);
+            return t;
+        });
+        archiver.scheduleAtFixedRate(() -> {
+            try { archiveEndedShows(); }
+            catch (RuntimeException e) { System.err.println("Archiving failed: " + e.getMessage()); }
+        }, ARCHIVE_PERIOD_MINUTES, ARCHIVE_PERIOD_MINUTES, TimeUnit.MINUTES);
+    }
+
+    private synchronized void stopArchiver() {
+        if (archiver != null) archiver.shutdownNow();
+        archiver = null;
+    }
+
+    /**
+     * Moves the bookings of every show that has ended into the archive and returns how many
+     * moved. Their seats stay booked; the bookings can still be looked up by id but no longer
+     * cancelled. Runs on the archiver thread every {@link #ARCHIVE_PERIOD_MINUTES}.
+     */
+    public int archiveEndedShows() {
+        return archiveShowsEndedBy(Instant.now());
+    }
+
+    // the archive pass as of 'now'; tests move it past shows that are still open for booking
+    int archiveShowsEndedBy(Instant now) {
+        int moved = 0;
+        // shows dated after today have not even started
+        for (ConcurrentSkipListMap<Integer, Show> day : showsByDate.headMap(LocalDate.ofInstant(now, Show.ZONE), true).values()) {
+            for (Show show : day.values()) {
+                if (show.getEnd().isAfter(now)) continue;
+                journalLock.readLock().lock();
+                try {
+                    for (Booking b : show.getBookings()) {
+                        if (!bookings.remove(b.getId(), b)) continue;
+                        archive.append(b);
+                        show.removeBooking(b);
+                        Map<Integer, Booking> byCustomer = bookingsByCustomer.get(b.getCustomer().getId());
+                        if (byCustomer != null) byCustomer.remove(b.getId(), b);
+                        moved++;
+                    }
+                } finally {
+                    journalLock.readLock().unlock();
+                }
+            }
+        }
+        return moved;
+    }
+
+    // rebuilds an archived booking for a lookup by id
+    private Booking unarchive(int bookingId) {
+        BookingArchive.Cursor c = archive.find(bookingId);
+        return c == null ? null : toBooking(c);
+    }
+
+    private Booking toBooking(BookingArchive.Cursor c) {
+        Show show = shows.get(c.getShowId());
+        Customer customer = customers.get(c.getCustomerId());
+        if (show == null || customer == null) return null;
+        List<Seat> seats = new ArrayList<>(c.getSeatCount());
+        for (int i = 0; i < c.getSeatCount(); i++) seats.add(new Seat(show.getSeatMap(), c.getSeatIndex(i)));
+        return new Booking(c.getId(), customer, show, seats, c.getFarePaise(), c.getTaxesPaise(), c.getTotalPaise(), new Date(c.getBookedAt()));
+    }
+
+    // Concessions: menu id -> quantity, linkedBookingId 0 for standalone orders
+    public ConcessionOrder orderConcessions(int linkedBookingId, Map<Integer, Integer> quantities) {
+        if (quantities == null || quantities.isEmpty()) throw new IllegalArgumentException("No items selected");
+        Booking linked = null;
+        if (linkedBookingId != 0) {
+            linked = bookings.get(linkedBookingId);
+            if (linked == null) throw new IllegalArgumentException("Invalid booking id: " + linkedBookingId);
+        }
+        List<ConcessionOrder.ConcessionItem> items = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> e : quantities.entrySet()) {
+            ConcessionOrder.MenuItem item = concessionMenu.get(e.getKey());
+            if (item == null) throw new IllegalArgumentException("Invalid menu id: " + e.getKey());
+            items.add(new ConcessionOrder.ConcessionItem(item.getId(), item.getName(), item.getPricePaise(), e.getValue()));
+        }
+        journalLock.readLock().lock();
+        try {
+            // stock and kitchen room come first, so an accepted order is never oversold or left unfulfilled;
+            // under the journal lock, so a checkpoint never sees stock taken for an order it does not hold
+            inventory.reserve(items);
+            long slot = kitchen.reserve();
+            if (slot < 0) {
+                inventory.release(items);
+                throw new IllegalStateException("Kitchen queue is full, please try again shortly");
+            }
+            ConcessionOrder order = null;
+            try {
+                ConcessionOrder o = new ConcessionOrder(concessionIdGen.getAndIncrement(), linked, taxTable);
+                items.forEach(o::addItem);
+                if (journal != null) journal.concessionOrdered(o);
+                concessions.put(o.getId(), o);
+                analytics.concessionOrdered(o);
+                metrics.concessionOrdered(o.getTotalPaise());
+                order = o;
+                return o;
+            } finally {
+                kitchen.publish(slot, order);
+                if (order == null) inventory.release(items);
+            }
+        } finally {
+            journalLock.readLock().unlock();
+        }
+    }
+
+    /** Cancels a concession order and puts its items back in stock. */
+    public ConcessionOrder cancelConcessionOrder(int orderId) {
+        journalLock.readLock().lock();
+        try {
+            ConcessionOrder o = concessions.remove(orderId);
+            if (o == null) throw new IllegalArgumentException("Invalid concession order id: " + orderId);
+            if (journal != null) {
+                try {
+                    journal.concessionCancelled(o);
+                } catch (RuntimeException e) {
+                    concessions.put(orderId, o); // not logged, so not cancelled
+                    throw e;
+                }
+            }
+            inventory.release(o.getItems());
+            analytics.concessionCancelled(o);
+            metrics.concessionCancelled(o.getTotalPaise());
+            return o;
+        } finally {
+            journalLock.readLock().unlock();
+        }
+    }
+
+    /** Adds a delivery of {@code qty} units to a menu item's stock; returns the new level. */
+    public long restockConcession(int menuItemId, long qty) {
+        if (qty <= 0) throw new IllegalArgumentException("Restock quantity must be positive");
+        if (!concessionMenu.containsKey(menuItemId)) throw new IllegalArgumentException("Invalid menu id: " + menuItemId);
+        journalLock.readLock().lock();
+        try {
+            if (journal != null) journal.stockRestocked(menuItemId, qty);
+            return inventory.restock(menuItemId, qty);
+        } finally {
+            journalLock.readLock().unlock();
+        }
+    }
+
+    // Recovery: idempotent replays of journaled events, applied before the service takes traffic
+    void restoreMovie(int id, String title, String genre, int durationMinutes) {
+        bump(movieIdGen, id);
+        Movie m = new Movie(id, title, genre, durationMinutes);
+        if (movies.putIfAbsent(id, m) == null) movieSearch.index(m);
+    }
+
+    void restoreMovieUpdate(int id, String title, String genre) {
+        Movie m = movies.get(id);
+        if (m == null) throw new IllegalStateException("Journal updates unknown movie " + id);
+        m.setTitle(title);
+        m.setGenre(genre);
+        movieSearch.index(m);
+    }
+
+    void restoreScreen(int id, String name, SeatLayout layout) {
+        bump(screenIdGen, id);
+        screens.putIfAbsent(id, new Screen(id, name, layout));
+    }
+
+    void restoreCustomer(int id, String name, String phone) {
+        bump(customerIdGen, id);
+        if (customers.containsKey(id)) return;
+        Customer c = new Customer(id, name, phone);
+        Customer existing = customersByPhone.putIfAbsent(phone, c);
+        if (existing != null) throw new IllegalStateException("Journal customer " + id + " repeats the phone of customer " + existing.getId());
+        customers.put(id, c);
+    }
+
+    void restoreShow(int id, int movieId, int screenId, String dateTime, long baseFarePaise) {
+        bump(showIdGen, id);
+        if (shows.containsKey(id)) return;
+        Movie movie = movies.get(movieId);
+        Screen screen = screens.get(screenId);
+        if (movie == null || screen == null) throw new IllegalStateException("Journal references unknown movie/screen for show " + id);
+        Show show;
+        try { show = new Show(id, movie, screen, dateTime, baseFarePaise); }
+        catch (IllegalArgumentException e) { throw new IllegalStateException("Journal show " + id + ": " + e.getMessage()); }
+        try { screen.addShow(show); }
+        catch (IllegalStateException e) { throw new IllegalStateException("Journal show " + id + ": " + e.getMessage()); }
+        indexShow(show);
+    }
+
+    void restoreBooking(int id, int showId, int customerId, int[] seatIndices, long farePaise, long taxesPaise, long totalPaise, long bookedAt) {
+        bump(bookingIdGen, id);
+        if (bookings.containsKey(id)) return;
+        Show show = shows.get(showId);
+        Customer customer = customers.get(customerId);
+        if (show == null || customer == null) throw new IllegalStateException("Journal references unknown show/customer for booking " + id);
+        List<Seat> seats = new ArrayList<>(seatIndices.length);
+        for (int idx : seatIndices) {
+            show.getSeatMap().getAndSet(idx, SeatMap.BOOKED);
+            seats.add(new Seat(show.getSeatMap(), idx));
+        }
+        registerBooking(new Booking(id, customer, show, seats, farePaise, taxesPaise, totalPaise, new Date(bookedAt)));
+    }
+
+    // an archived row goes straight back into the archive; its seats stay booked
+    void restoreArchivedBooking(int id, int showId, int customerId, int[] seatIndices, long farePaise, long taxesPaise, long totalPaise, long bookedAt) {
+        bump(bookingIdGen, id);
+        Show show = shows.get(showId);
+        if (show == null || !customers.containsKey(customerId)) throw new IllegalStateException("Journal references unknown show/customer for archived booking " + id);
+        for (int idx : seatIndices) show.getSeatMap().getAndSet(idx, SeatMap.BOOKED);
+        archive.append(id, showId, customerId, seatIndices, farePaise, taxesPaise, totalPaise, bookedAt);
+    }
+
+    void restoreCancellation(int bookingId) {
+        Booking b = bookings.remove(bookingId);
+        if (b != null) unregisterBooking(b);
+    }
+
+    void restoreConcessionOrder(int id, int linkedBookingId, List<ConcessionOrder.ConcessionItem> items, long orderedAt) {
+        bump(concessionIdGen, id);
+        if (concessions.containsKey(id)) return;
+        ConcessionOrder order = new ConcessionOrder(id, linkedBookingId == 0 ? null : getBooking(linkedBookingId).orElse(null), taxTable, new Date(orderedAt));
+        items.forEach(order::addItem);
+        try {
+            inventory.reserve(items);
+        } catch (IllegalStateException e) {
+            throw new IllegalStateException("Journal concession order " + id + " exceeds the stock: " + e.getMessage());
+        }
+        concessions.put(id, order);
+    }
+
+    void restoreConcessionCancellation(int orderId) {
+        ConcessionOrder o = concessions.remove(orderId);
+        if (o != null) inventory.release(o.getItems());
+    }
+
+    void restoreRestock(int menuItemId, long qty) {
+        inventory.restock(menuItemId, qty);
+    }
+
+    // a snapshot's stock level is taken before its live orders, which then take their share again
+    void restoreStock(int menuItemId, long levelBeforeOrders) {
+        inventory.reset(menuItemId, levelBeforeOrders);
+    }
+
+    /** Per menu item, the stock plus what live orders hold of it; callers block writers. */
+    Map<Integer, Long> stockBeforeOrders() {
+        Map<Integer, Long> levels = new LinkedHashMap<>();
+        for (int id : concessionMenu.keySet()) levels.put(id, inventory.available(id));
+        for (ConcessionOrder o : concessions.values()) {
+            for (ConcessionOrder.ConcessionItem item : o.getItems()) levels.merge(item.getId(), (long) item.getQty(), Long::sum);
+        }
+        return levels;
+    }
+
+    int[] idCounters() {
+        return new int[] {movieIdGen.get(), screenIdGen.get(), showIdGen.get(), customerIdGen.get(), bookingIdGen.get(), concessionIdGen.get()};
+    }
+
+    void restoreIdCounters(int[] counters) {
+        AtomicInteger[] gens = {movieIdGen, screenIdGen, showIdGen, customerIdGen, bookingIdGen, concessionIdGen};
+        for (int i = 0; i < gens.length && i < counters.length; i++) bump(gens[i], counters[i] - 1);
+    }
+
+    private static void bump(AtomicInteger gen, int usedId) {
+        gen.accumulateAndGet(usedId + 1, Math::max);
+    }
+
+    // Lookups
+    public Optional<Movie> getMovie(int id) { return Optional.ofNullable(movies.get(id)); }
+    public Optional<Screen> getScreen(int id) { return Optional.ofNullable(screens.get(id)); }
+    public Optional<Show> getShow(int id) { return Optional.ofNullable(shows.get(id)); }
+    public Optional<Customer> getCustomer(int id) { return Optional.ofNullable(customers.get(id)); }
+    /** Live bookings, then the archive; an archived booking is rebuilt on each call. */
+    public Optional<Booking> getBooking(int id) {
+        Booking b = bookings.get(id);
+        return Optional.ofNullable(b != null ? b : unarchive(id));
+    }
+    public Optional<ConcessionOrder> getConcessionOrder(int id) { return Optional.ofNullable(concessions.get(id)); }
+    public Optional<Customer> findCustomerByPhone(String phone) { return Optional.ofNullable(phone == null ? null : customersByPhone.get(phone.trim())); }
+
+    public List<Booking> getBookingsForCustomer(int customerId) {
+        Map<Integer, Booking> m = bookingsByCustomer.get(customerId);
+        return m == null ? Collections.emptyList() : new ArrayList<>(m.values());
+    }
+
+    public List<Booking> getBookingsForShow(int showId) { return requireShow(showId).getBookings(); }
+
+    /** Every show running at some point in [from, to) on any screen, ordered by start time. */
+    public List<Show> getShowsBetween(Instant from, Instant to) {
+        if (from == null || to == null || !from.isBefore(to)) throw new IllegalArgumentException("Range start must be before its end");
+        List<Show> out = new ArrayList<>();
+        for (Screen screen : screens.values()) out.addAll(screen.getShowsBetween(from, to));
+        out.sort(Comparator.comparing(Show::getStart).thenComparing(Show::getId));
+        return out;
+    }
+
+    /** Best {@code k} movies for a title search and/or genre, with their next shows that have seats. */
+    public MovieSearch.Result searchMovies(String query, String genre, int k) {
+        return movieSearch.search(query, genre, Instant.now(), k);
+    }
+
+    public List<Show> getShowsOn(LocalDate date) {
+        Map<Integer, Show> m = date == null ? null : showsByDate.get(date);
+        return m == null ? Collections.emptyList() : new ArrayList<>(m.values());
+    }
+
+    /** Consistent, lock-free view of the catalog for listings; never null. */
+    public CatalogSnapshot getCatalog() { return catalog; }
+    public Collection<Movie> getMovies() { return Collections.unmodifiableCollection(movies.values()); }
+    public Collection<Screen> getScreens() { return Collections.unmodifiableCollection(screens.values()); }
+    public Collection<Show> getShows() { return Collections.unmodifiableCollection(shows.values()); }
+    public Collection<Customer> getCustomers() { return Collections.unmodifiableCollection(customers.values()); }
+    public Collection<Booking> getBookings() { return Collections.unmodifiableCollection(bookings.values()); }
+    public Collection<ConcessionOrder> getConcessionOrders() { return Collections.unmodifiableCollection(concessions.values()); }
+    public TaxTable getTaxTable() { return taxTable; }
+    public PricingPolicy getPricingPolicy() { return pricing; }
+
+    /** What a seat of {@code category} would cost in {@code show} if held now, before taxes. */
+    public long quoteSeatPaise(int showId, SeatCategory category) {
+        Show show = requireShow(showId);
+        FareCurve curve = fareCurves.get(showId);
+        return curve.fare(category, curve.cell(show.getCapacity() - show.getAvailableCount(), System.currentTimeMillis()));
+    }
+
+    /** Current demand multiplier of {@code show} in basis points; 10000 is the list price. */
+    public int demandBasisPoints(int showId) {
+        Show show = requireShow(showId);
+        FareCurve curve = fareCurves.get(showId);
+        return curve.demandBasisPoints(curve.cell(show.getCapacity() - show.getAvailableCount(), System.currentTimeMillis()));
+    }
+
+    public Map<Integer, ConcessionOrder.MenuItem> getConcessionMenu() { return concessionMenu; }
+    public HoldExpiryWheel getHoldExpiry() { return holdExpiry; }
+    public BookingMetrics getMetrics() { return metrics; }
+    public SalesAnalytics getAnalytics() { return analytics; }
+    public BookingArchive getArchive() { return archive; }
+    public Waitlist getWaitlist() { return waitlist; }
+
+    public void setOfferTtlMillis(long offerTtlMillis) {
+        if (offerTtlMillis <= 0) throw new IllegalArgumentException("Offer TTL must be positive");
+        this.offerTtlMillis = offerTtlMillis;
+    }
+    public ConcessionKitchen getKitchen() { return kitchen; }
+    public ConcessionInventory getInventory() { return inventory; }
+
+    private Object idLock(int id) { return idLocks[id & (idLocks.length - 1)]; }
+
+    private Show requireShow(int showId) {
+        Show show = shows.get(showId);
+        if (show == null) throw new IllegalArgumentException("Invalid show id: " + showId);
+        return show;
+    }
+
+    private Show requireOpenShow(int showId) {
+        Show show = requireShow(showId);
+        if (!show.getEnd().isAfter(Instant.now())) throw new IllegalStateException("Show " + showId + " has ended");
+        return show;
+    }
+
+    // Seed data for demo
+    public void seedSampleData() {
+        Movie m1 = addMovie("Vikram", "Action", 180);
+        Movie m2 = addMovie("Joe", "Love", 150);
+
+        Screen sc1 = addScreen("IMAX Screen", SeatLayout.parse("A:SSSS_SSSS/B:SSSS_SSSS/C:PPPP_PPPP/D:RRR__RRR"));
+        Screen sc2 = addScreen("Standard Screen");
+
+        // tomorrow, so the demo shows are still open for booking
+        String tomorrow = LocalDate.now(Show.ZONE).plusDays(1).toString();
+        scheduleShow(m1.getId(), sc1.getId(), tomorrow + " 19:00", Money.ofRupees(250));
+        scheduleShow(m2.getId(), sc2.getId(), tomorrow + " 17:30", Money.ofRupees(180));
+
+        addCustomer("Chandru", "9876543210");
+    }
+}
@@ -0,0 +1,475 @@
+package JavaAssign;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * CatalogImporter - bulk loader for movies, screens and show schedules, from CSV or JSON lines.
+ * Every row names its type and that type's fields, in this order:
+ *
+ *   movie,key,title,genre,minutes
+ *   screen,key,name[,layoutSpec]
+ *   show,movie,screen,yyyy-MM-dd HH:mm,fare
+ *
+ * or, one object per line, {"type":"show","movie":"m1","screen":12,"dateTime":"2025-10-02 18:00","fare":"250"}.
+ * A show's movie and screen are an existing id when numeric, otherwise the key of a movie or
+ * screen row earlier in this import, or in an earlier one by the same importer. Blank lines,
+ * lines starting with '#' and a CSV header row are skipped.
+ *
+ * The input is streamed in batches, so memory stays bounded however long the file is. The
+ * reading thread parses each batch, reserves ids for all of its rows with one
+ * {@code getAndAdd} per generator and builds its movies and screens (few, and needed to
+ * resolve keys); the shows, which are the bulk of a weekly load, are validated and built on a
+ * pool through the {@link Show} constructor. Batches are then applied in file order, each
+ * with a single journal sync. A bad row, or a show clashing on its screen, is reported with
+ * its line number and skipped; ids reserved for rejected rows are never reused.
+ */
+public class CatalogImporter {
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+    /** Row errors kept in a report; later ones are only counted. */
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    public enum Format {
+        CSV, JSONL;
+
+        /** JSON lines for .jsonl, .ndjson and .json files, CSV otherwise. */
+        public static Format of(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            return name.endsWith(".jsonl") || name.endsWith(".ndjson") || name.endsWith(".json") ? JSONL : CSV;
+        }
+    }
+
+    // field names per row type, in CSV column order
+    private static final String MOVIE = "movie", SCREEN = "screen", SHOW = "show";
+    private static final Map<String, String[]> FIELDS = Map.of(
+            MOVIE, new String[] {"key", "title", "genre", "minutes"},
+            SCREEN, new String[] {"key", "name", "layout"},
+            SHOW, new String[] {"movie", "screen", "dateTime", "fare"});
+
+    /** A rejected row. */
+    public static final class RowError {
+        private final long line;
+        private final String message;
+
+        RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() { return line; }
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() { return "line " + line + ": " + message; }
+    }
+
+    /** What an import added and which rows it rejected. */
+    public static final class Report {
+        private long rows;
+        private int movies;
+        private int screens;
+        private int shows;
+        private long rejected;
+        private final List<RowError> errors = new ArrayList<>();
+        private long elapsedMillis;
+
+        public long getRows() { return rows; }
+        public int getMoviesAdded() { return movies; }
+        public int getScreensAdded() { return screens; }
+        public int getShowsAdded() { return shows; }
+        public long getRejectedCount() { return rejected; }
+        /** The first {@link #MAX_REPORTED_ERRORS} rejected rows, in line order. */
+        public List<RowError> getErrors() { return Collections.unmodifiableList(errors); }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        private void reject(RowError e) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) errors.add(e);
+        }
+
+        @Override
+        public String toString() {
+            return "Imported " + movies + " movies, " + screens + " screens and " + shows + " shows from " + rows
+                    + " rows in " + elapsedMillis + " ms" + (rejected == 0 ? "" : "; " + rejected + " rows rejected");
+        }
+    }
+
+    private static final class Row {
+        final long line;
+        final String type;
+        final String[] fields;
+
+        Row(long line, String type, String[] fields) {
+            this.line = line;
+            this.type = type;
+            this.fields = fields;
+        }
+    }
+
+    // one batch of rows on its way from the reader, through the pool, into the service
+    private static final class Batch {
+        final List<Row> shows = new ArrayList<>();
+        final List<Movie> movies = new ArrayList<>();
+        final List<Screen> screens = new ArrayList<>();
+        final List<RowError> errors = new ArrayList<>();
+        Show[] built;
+        Future<?> validated;
+        int rows;
+    }
+
+    private final BookingService service;
+    private final int threads;
+    private final int batchSize;
+    // keys of the movies and screens read so far; written by the reader, read by the pool
+    private final ConcurrentMap<String, Movie> movieKeys = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Screen> screenKeys = new ConcurrentHashMap<>();
+
+    public CatalogImporter(BookingService service) {
+        this(service, Runtime.getRuntime().availableProcessors(), DEFAULT_BATCH_SIZE);
+    }
+
+    public CatalogImporter(BookingService service, int threads, int batchSize) {
+        if (service == null) throw new IllegalArgumentException("Service required");
+        if (threads < 1) throw new IllegalArgumentException("At least one thread required");
+        if (batchSize < 1) throw new IllegalArgumentException("Batch size must be positive");
+        this.service = service;
+        this.threads = threads;
+        this.batchSize = batchSize;
+    }
+
+    public Report importFile(Path file) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importFrom(in, Format.of(file));
+        }
+    }
+
+    /**
+     * Imports every row of {@code in}. Row problems end up in the report; an IOException from
+     * the input, or a journal failure, stops the import with the batches before it applied.
+     */
+    public Report importFrom(Reader in, Format format) throws IOException {
+        if (format == null) throw new IllegalArgumentException("Format required");
+        long started = System.nanoTime();
+        Report report = new Report();
+        BufferedReader reader = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in, 1 << 16);
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "catalog-import");
+            t.setDaemon(true);
+            return t;
+        });
+        // batches read ahead of the one being applied; bounds memory to a few batches
+        ArrayDeque<Batch> inFlight = new ArrayDeque<>();
+        try {
+            List<Row> rows = new ArrayList<>(batchSize);
+            List<RowError> parseErrors = new ArrayList<>();
+            boolean header = format == Format.CSV; // the first row may name the columns
+            long lineNo = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                String t = line.trim();
+                if (t.isEmpty() || t.startsWith("#")) continue;
+                if (header) {
+                    header = false;
+                    if (t.toLowerCase(Locale.ROOT).startsWith("type,")) continue;
+                }
+                try {
+                    rows.add(format == Format.CSV ? parseCsv(lineNo, t) : parseJson(lineNo, t));
+                } catch (IllegalArgumentException e) {
+                    parseErrors.add(new RowError(lineNo, e.getMessage()));
+                }
+                if (rows.size() + parseErrors.size() >= batchSize) {
+                    inFlight.add(submit(rows, parseErrors, pool));
+                    rows = new ArrayList<>(batchSize);
+                    parseErrors = new ArrayList<>();
+                    while (inFlight.size() > 2 * threads) apply(inFlight.poll(), report);
+                }
+            }
+            if (!rows.isEmpty() || !parseErrors.isEmpty()) inFlight.add(submit(rows, parseErrors, pool));
+            while (!inFlight.isEmpty()) apply(inFlight.poll(), report);
+        } finally {
+            pool.shutdownNow();
+        }
+        report.elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        return report;
+    }
+
+    // reader side: ids for the whole batch, then movies and screens here and shows on the pool
+    private Batch submit(List<Row> rows, List<RowError> parseErrors, ExecutorService pool) {
+        Batch b = new Batch();
+        b.rows = rows.size() + parseErrors.size();
+        b.errors.addAll(parseErrors);
+        int movies = 0, screens = 0;
+        for (Row r : rows) {
+            if (r.type.equals(MOVIE)) movies++;
+            else if (r.type.equals(SCREEN)) screens++;
+            else b.shows.add(r);
+        }
+        int movieId = movies == 0 ? 0 : service.reserveMovieIds(movies);
+        int screenId = screens == 0 ? 0 : service.reserveScreenIds(screens);
+        int showId = b.shows.isEmpty() ? 0 : service.reserveShowIds(b.shows.size());
+        for (Row r : rows) {
+            try {
+                if (r.type.equals(MOVIE)) b.movies.add(keyed(movieKeys, r.fields[0], buildMovie(movieId++, r.fields)));
+                else if (r.type.equals(SCREEN)) b.screens.add(keyed(screenKeys, r.fields[0], buildScreen(screenId++, r.fields)));
+            } catch (IllegalArgumentException e) {
+                b.errors.add(new RowError(r.line, e.getMessage()));
+            }
+        }
+        b.built = new Show[b.shows.size()];
+        int firstShowId = showId;
+        b.validated = pool.submit(() -> {
+            for (int i = 0; i < b.built.length; i++) {
+                Row r = b.shows.get(i);
+                try {
+                    b.built[i] = buildShow(firstShowId + i, r.fields);
+                } catch (IllegalArgumentException e) {
+                    b.errors.add(new RowError(r.line, e.getMessage()));
+                }
+            }
+        });
+        return b;
+    }
+
+    // applier side, in file order
+    private void apply(Batch b, Report report) {
+        try {
+            b.validated.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrupted");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Import failed: " + e.getCause(), e.getCause());
+        }
+        List<Show> shows = new ArrayList<>(b.built.length);
+        List<Row> showRows = new ArrayList<>(b.built.length);
+        for (int i = 0; i < b.built.length; i++) {
+            if (b.built[i] == null) continue;
+            shows.add(b.built[i]);
+            showRows.add(b.shows.get(i));
+        }
+        int[] clashes = {0};
+        service.importBatch(b.movies, b.screens, shows, (e, i) -> {
+            b.errors.add(new RowError(showRows.get(i).line, e.getMessage()));
+            clashes[0]++;
+        });
+        report.rows += b.rows;
+        report.movies += b.movies.size();
+        report.screens += b.screens.size();
+        report.shows += shows.size() - clashes[0];
+        b.errors.sort(Comparator.comparingLong(RowError::getLine));
+        b.errors.forEach(report::reject);
+    }
+
+    private static <T> T keyed(ConcurrentMap<String, T> keys, String key, T value) {
+        if (key.isEmpty()) return value;
+        if (isNumber(key)) throw new IllegalArgumentException("Key must not be a number: " + key);
+        if (keys.putIfAbsent(key, value) != null) throw new IllegalArgumentException("Duplicate key: " + key);
+        return value;
+    }
+
+    private static Movie buildMovie(int id, String[] f) {
+        return new Movie(id, f[1], f[2], parseInt(f[3], "minutes"));
+    }
+
+    private static Screen buildScreen(int id, String[] f) {
+        return new Screen(id, f[1], f[2].isEmpty() ? SeatLayout.STANDARD : SeatLayout.parse(f[2]));
+    }
+
+    private Show buildShow(int id, String[] f) {
+        return new Show(id, movieRef(f[0]), screenRef(f[1]), f[2], Money.parse(f[3]));
+    }
+
+    private Movie movieRef(String ref) {
+        if (ref.isEmpty()) throw new IllegalArgumentException("Movie required");
+        if (isNumber(ref)) return service.getMovie(parseInt(ref, "movie")).orElseThrow(() -> new IllegalArgumentException("Invalid movie id: " + ref));
+        Movie m = movieKeys.get(ref);
+        if (m == null) throw new IllegalArgumentException("No movie with key " + ref + " on an earlier row");
+        return m;
+    }
+
+    private Screen screenRef(String ref) {
+        if (ref.isEmpty()) throw new IllegalArgumentException("Screen required");
+        if (isNumber(ref)) return service.getScreen(parseInt(ref, "screen")).orElseThrow(() -> new IllegalArgumentException("Invalid screen id: " + ref));
+        Screen s = screenKeys.get(ref);
+        if (s == null) throw new IllegalArgumentException("No screen with key " + ref + " on an earlier row");
+        return s;
+    }
+
+    // Parsing: both formats come down to a type and its fields in FIELDS order
+
+    private static Row parseCsv(long line, String text) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c != '"') cell.append(c);
+                else if (i + 1 < text.length() && text.charAt(i + 1) == '"') cell.append(text.charAt(++i));
+                else quoted = false;
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString().trim());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        if (quoted) throw new IllegalArgumentException("Unterminated quote");
+        cells.add(cell.toString().trim());
+        String type = cells.get(0).toLowerCase(Locale.ROOT);
+        String[] names = fieldsOf(type);
+        if (cells.size() - 1 > names.length) throw new IllegalArgumentException("Too many columns for a " + type + " row");
+        String[] fields = new String[names.length];
+        for (int i = 0; i < names.length; i++) fields[i] = i + 1 < cells.size() ? cells.get(i + 1) : "";
+        return new Row(line, type, fields);
+    }
+
+    private static Row parseJson(long line, String text) {
+        Map<String, String> object = new JsonObject(text).parse();
+        String type = object.getOrDefault("type", "").toLowerCase(Locale.ROOT);
+        String[] names = fieldsOf(type);
+        String[] fields = new String[names.length];
+        for (int i = 0; i < names.length; i++) fields[i] = object.getOrDefault(names[i], "").trim();
+        return new Row(line, type, fields);
+    }
+
+    private static String[] fieldsOf(String type) {
+        String[] names = FIELDS.get(type);
+        if (names == null) throw new IllegalArgumentException("Row type must be movie, screen or show: " + type);
+        return names;
+    }
+
+    /** A flat JSON object; values are strings, numbers, booleans or null, all returned as text. */
+    private static final class JsonObject {
+        private final String s;
+        private int pos;
+
+        JsonObject(String s) { this.s = s; }
+
+        Map<String, String> parse() {
+            Map<String, String> out = new HashMap<>();
+            expect('{');
+            skipSpace();
+            if (peek() == '}') {
+                pos++;
+            } else {
+                while (true) {
+                    skipSpace();
+                    String key = string();
+                    expect(':');
+                    skipSpace();
+                    out.put(key, peek() == '"' ? string() : bare());
+                    skipSpace();
+                    char c = next();
+                    if (c == '}') break;
+                    if (c != ',') throw new IllegalArgumentException("Expected , or } at column " + pos);
+                }
+            }
+            skipSpace();
+            if (pos < s.length()) throw new IllegalArgumentException("Unexpected text after the object at column " + (pos + 1));
+            return out;
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') return sb.toString();
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                char e = next();
+                switch (e) {
+                    case 'n' -> sb.append('\n');
+                    case 't' -> sb.append('\t');
+                    case 'r' -> sb.append('\r');
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'u' -> {
+                        if (pos + 4 > s.length()) throw new IllegalArgumentException("Bad \\u escape");
+                        try { sb.append((char) Integer.parseInt(s.substring(pos, pos + 4), 16)); }
+                        catch (NumberFormatException ex) { throw new IllegalArgumentException("Bad \\u escape"); }
+                        pos += 4;
+                    }
+                    default -> sb.append(e);
+                }
+            }
+        }
+
+        // number, true, false or null
+        private String bare() {
+            int start = pos;
+            while (pos < s.length() && ",} \t".indexOf(s.charAt(pos)) < 0) pos++;
+            String v = s.substring(start, pos);
+            if (v.isEmpty() || v.charAt(0) == '{' || v.charAt(0) == '[') throw new IllegalArgumentException("Values must be strings, numbers or booleans");
+            return v.equals("null") ? "" : v;
+        }
+
+        private void expect(char c) {
+            skipSpace();
+            if (next() != c) throw new IllegalArgumentException("Expected " + c + " at column " + pos);
+        }
+
+        private char next() {
+            if (pos >= s.length()) throw new IllegalArgumentException("Unexpected end of line");
+            return s.charAt(pos++);
+        }
+
+        private char peek() {
+            if (pos >= s.length()) throw new IllegalArgumentException("Unexpected end of line");
+            return s.charAt(pos);
+        }
+
+        private void skipSpace() {
+            while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) pos++;
+        }
+    }
+
+    private static boolean isNumber(String s) {
+        if (s.isEmpty()) return false;
+        for (int i = 0; i < s.length(); i++) if (!Character.isDigit(s.charAt(i))) return false;
+        return true;
+    }
+
+    private static int parseInt(String s, String what) {
+        try { return Integer.parseInt(s); }
+        catch (NumberFormatException e) { throw new IllegalArgumentException("Invalid " + what + ": " + s); }
+    }
+
+    /** Usage: CatalogImporter dataDir file...; loads each file into the journal in dataDir. */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CatalogImporter dataDir file.csv|file.jsonl ...");
+            System.exit(2);
+        }
+        BookingService service = new BookingService();
+        BookingJournal.open(Paths.get(args[0]), service);
+        try {
+            CatalogImporter importer = new CatalogImporter(service);
+            for (int i = 1; i < args.length; i++) {
+                Report report = importer.importFile(Paths.get(args[i]));
+                System.out.println(args[i] + ": " + report);
+                report.getErrors().forEach(e -> System.out.println("  " + e));
+                if (report.getRejectedCount() > report.getErrors().size()) System.out.println("  ... and " + (report.getRejectedCount() - report.getErrors().size()) + " more");
+            }
+        } finally {
+            service.shutdown();
+        }
+    }
+}
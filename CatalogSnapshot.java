@@ -0,0 +1,201 @@
+package JavaAssign;
+import java.util.*;
+import java.util.function.ToIntFunction;
+
+/**
+ * CatalogSnapshot - immutable view of the movies, screens and shows on offer.
+ * The service replaces its snapshot wholesale after every catalog change (copy-on-write)
+ * and publishes it through a single volatile reference, so listings read a consistent
+ * catalog without locking: a movie renamed mid-listing shows either the old title on every
+ * line or the new one. Show briefs are rendered once, at publish time; live seat counts
+ * still come from each entry's {@link Show}.
+ */
+public final class CatalogSnapshot {
+    public static final CatalogSnapshot EMPTY = new CatalogSnapshot(0, Column.empty(), Column.empty(), Column.empty());
+
+    /** A movie as it read when the snapshot was published. */
+    public static final class MovieEntry {
+        private final int id;
+        private final String title;
+        private final String genre;
+        private final int durationMinutes;
+        private final String listing;
+
+        MovieEntry(Movie m) {
+            this.id = m.getId();
+            this.title = m.getTitle();
+            this.genre = m.getGenre();
+            this.durationMinutes = m.getDurationMinutes();
+            this.listing = String.format("%d - %s (%s, %dm)", id, title, genre, durationMinutes);
+        }
+
+        public int getId() { return id; }
+        public String getTitle() { return title; }
+        public String getGenre() { return genre; }
+        public int getDurationMinutes() { return durationMinutes; }
+
+        @Override
+        public String toString() { return listing; }
+    }
+
+    /** A show with its movie details and brief as of publish time. */
+    public static final class ShowEntry {
+        private final Show show;
+        private final String title;
+        private final String genre;
+        private final String brief;
+
+        ShowEntry(Show show, MovieEntry movie) {
+            this.show = show;
+            this.title = movie.getTitle();
+            this.genre = movie.getGenre();
+            this.brief = show.brief(movie.getTitle());
+        }
+
+        public int getId() { return show.getId(); }
+        public int getMovieId() { return show.getMovie().getId(); }
+        public Show getShow() { return show; }
+        public String getTitle() { return title; }
+        public String getGenre() { return genre; }
+        public String getBrief() { return brief; }
+
+        @Override
+        public String toString() { return brief; }
+    }
+
+    private final long version;
+    // each list is ordered by id, so lookups are binary searches
+    private final Column<MovieEntry> movies;
+    private final Column<Screen> screens;
+    private final Column<ShowEntry> shows;
+
+    private CatalogSnapshot(long version, Column<MovieEntry> movies, Column<Screen> screens, Column<ShowEntry> shows) {
+        this.version = version;
+        this.movies = movies;
+        this.screens = screens;
+        this.shows = shows;
+    }
+
+    /** Snapshot of the given catalog, rendered from scratch; used after recovery. */
+    static CatalogSnapshot of(long version, Collection<Movie> movies, Collection<Screen> screens, Collection<Show> shows) {
+        List<MovieEntry> m = new ArrayList<>(movies.size());
+        Map<Integer, MovieEntry> byId = new HashMap<>();
+        for (Movie movie : movies) {
+            MovieEntry e = new MovieEntry(movie);
+            m.add(e);
+            byId.put(e.getId(), e);
+        }
+        List<ShowEntry> s = new ArrayList<>(shows.size());
+        for (Show show : shows) s.add(new ShowEntry(show, byId.get(show.getMovie().getId())));
+        m.sort(Comparator.comparingInt(MovieEntry::getId));
+        s.sort(Comparator.comparingInt(ShowEntry::getId));
+        List<Screen> sc = new ArrayList<>(screens);
+        sc.sort(Comparator.comparingInt(Screen::getId));
+        return new CatalogSnapshot(version, Column.of(m), Column.of(sc), Column.of(s));
+    }
+
+    /** Copy with {@code movie} added or replaced; briefs of its shows are re-rendered. */
+    CatalogSnapshot withMovie(Movie movie) {
+        MovieEntry entry = new MovieEntry(movie);
+        Column<ShowEntry> s = shows;
+        if (find(movies, entry.getId(), MovieEntry::getId) >= 0) {
+            List<ShowEntry> copy = new ArrayList<>(shows);
+            copy.replaceAll(e -> e.getMovieId() == entry.getId() ? new ShowEntry(e.getShow(), entry) : e);
+            s = Column.of(copy);
+        }
+        return new CatalogSnapshot(version + 1, put(movies, entry, MovieEntry::getId), screens, s);
+    }
+
+    CatalogSnapshot withScreen(Screen screen) {
+        return new CatalogSnapshot(version + 1, movies, put(screens, screen, Screen::getId), shows);
+    }
+
+    CatalogSnapshot withShow(Show show) {
+        int i = find(movies, show.getMovie().getId(), MovieEntry::getId);
+        if (i < 0) throw new IllegalStateException("Movie " + show.getMovie().getId() + " is not in the catalog");
+        return new CatalogSnapshot(version + 1, movies, screens, put(shows, new ShowEntry(show, movies.get(i)), ShowEntry::getId));
+    }
+
+    /** Increases by one with every published change. */
+    public long getVersion() { return version; }
+    public List<MovieEntry> getMovies() { return movies; }
+    public List<Screen> getScreens() { return screens; }
+    public List<ShowEntry> getShows() { return shows; }
+
+    public Optional<MovieEntry> getMovie(int id) {
+        int i = find(movies, id, MovieEntry::getId);
+        return i < 0 ? Optional.empty() : Optional.of(movies.get(i));
+    }
+
+    public Optional<ShowEntry> getShow(int id) {
+        int i = find(shows, id, ShowEntry::getId);
+        return i < 0 ? Optional.empty() : Optional.of(shows.get(i));
+    }
+
+    // index of the entry with this id in an id-ordered list, or -(insertion point) - 1
+    private static <T> int find(List<T> list, int key, ToIntFunction<T> id) {
+        int lo = 0, hi = list.size() - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int k = id.applyAsInt(list.get(mid));
+            if (k < key) lo = mid + 1;
+            else if (k > key) hi = mid - 1;
+            else return mid;
+        }
+        return -(lo + 1);
+    }
+
+    // an id-ordered column with value inserted at its place, replacing any entry with the same id
+    private static <T> Column<T> put(Column<T> list, T value, ToIntFunction<T> id) {
+        int i = find(list, id.applyAsInt(value), id);
+        if (i == -(list.size() + 1)) return list.append(value);
+        List<T> copy = new ArrayList<>(list.size() + 1);
+        copy.addAll(list);
+        if (i >= 0) copy.set(i, value);
+        else copy.add(-i - 1, value);
+        return Column.of(copy);
+    }
+
+    /**
+     * Read-only list over a prefix of an array. New entities get ascending ids, so most changes
+     * append: they fill the slot past the end of a shared, over-allocated array and return a
+     * longer view, which older snapshots never read. Publishing a movie is then amortised O(1)
+     * instead of a copy of the whole catalog.
+     */
+    private static final class Column<T> extends AbstractList<T> implements RandomAccess {
+        private final Object[] items;
+        private final int size;
+        private final int[] used; // views of one array share it: how many slots are taken
+
+        private Column(Object[] items, int size, int[] used) {
+            this.items = items;
+            this.size = size;
+            this.used = used;
+        }
+
+        static <T> Column<T> empty() { return new Column<>(new Object[0], 0, new int[1]); }
+        static <T> Column<T> of(List<T> list) { return new Column<>(list.toArray(), list.size(), new int[] {list.size()}); }
+
+        // writers hold the catalog lock, so only one append can claim a slot
+        Column<T> append(T value) {
+            if (size == used[0] && size < items.length) {
+                items[size] = value;
+                used[0] = size + 1;
+                return new Column<>(items, size + 1, used);
+            }
+            Object[] grown = Arrays.copyOf(items, Math.max(8, size * 2));
+            grown[size] = value;
+            return new Column<>(grown, size + 1, new int[] {size + 1});
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T get(int index) {
+            Objects.checkIndex(index, size);
+            return (T) items[index];
+        }
+
+        @Override
+        public int size() { return size; }
+    }
+}
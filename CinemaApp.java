@@ -1,46 +1,40 @@
 package JavaAssign;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.CompletionException;
 
 /**
  * CinemaApp - main menu-driven console application
  */
 public class CinemaApp {
-    // In-memory data stores
-    private static final Map<Integer, Movie> movies = new LinkedHashMap<>();
-    private static final Map<Integer, Screen> screens = new LinkedHashMap<>();
-    private static final Map<Integer, Show> shows = new LinkedHashMap<>();
-    private static final Map<Integer, Customer> customers = new LinkedHashMap<>();
-    private static final Map<Integer, Booking> bookings = new LinkedHashMap<>();
-    private static final Map<Integer, ConcessionOrder> concessions = new LinkedHashMap<>();
-
-    // ID generators
-    private static final AtomicInteger movieIdGen = new AtomicInteger(100);
-    private static final AtomicInteger screenIdGen = new AtomicInteger(10);
-    private static final AtomicInteger showIdGen = new AtomicInteger(500);
-    private static final AtomicInteger customerIdGen = new AtomicInteger(200);
-    private static final AtomicInteger bookingIdGen = new AtomicInteger(1000);
-    private static final AtomicInteger concessionIdGen = new AtomicInteger(3000);
+    // all state lives in the service; this class only handles console I/O
+    private static final BookingService service = new BookingService();
 
     private static final Scanner scanner = new Scanner(System.in);
-
-    // Concession menu (static)
-    private static final Map<Integer, ConcessionOrder.MenuItem> concessionMenu = new LinkedHashMap<>();
-    static {
-        concessionMenu.put(1, new ConcessionOrder.MenuItem(1, "Popcorn (Small)", 100.0));
-        concessionMenu.put(2, new ConcessionOrder.MenuItem(2, "Popcorn (Large)", 180.0));
-        concessionMenu.put(3, new ConcessionOrder.MenuItem(3, "Cold Drink", 80.0));
-        concessionMenu.put(4, new ConcessionOrder.MenuItem(4, "Nachos", 120.0));
-        concessionMenu.put(5, new ConcessionOrder.MenuItem(5, "Candy", 60.0));
-    }
-
-    // Tax rates for bookings
-    private static final double SERVICE_TAX_RATE = 0.05;
-    private static final double GST_RATE = 0.12;
+    // longer catalogs are searched by title rather than listed
+    private static final int MOVIES_LISTED = 20;
 
     public static void main(String[] args) {
         System.out.println("=== Cinema Ticketing & Concessions System ===");
-        seedSampleData();
+        if (args.length > 0) {
+            // optional data directory: recover previous sales and journal new ones
+            try {
+                BookingJournal journal = BookingJournal.open(Paths.get(args[0]), service);
+                journal.startCheckpoints(service, 15);
+                service.getMetrics().startDumps(Paths.get(args[0], "metrics.txt"), 60);
+                System.out.println("Recovered " + service.getBookings().size() + " bookings from " + args[0]);
+            } catch (IOException e) {
+                System.out.println("Could not open data directory: " + e.getMessage());
+                return;
+            }
+        }
+        if (service.getMovies().isEmpty()) service.seedSampleData();
+        service.setPaymentGateway(new SimulatedPaymentGateway(300, 1500, 0.1, 0.02), 5000, 2);
+        service.getInventory().setLowStockListener((item, left) -> System.out.println("\n[Low stock] " + item.getName() + ": " + left + " left"));
+        service.getWaitlist().setOfferListener(e -> System.out.println("\n[Waitlist] #" + e.getId() + " " + e.getCustomer().getName() + ": seats "
+                + seatListToString(e.getOffer().getSeats()) + " held for you in " + e.getShow().brief() + ". Confirm from the Waitlist menu."));
+        service.start();
         boolean running = true;
         while (running) {
             printMainMenu();
@@ -53,10 +47,14 @@ public class CinemaApp {
                 case 5 -> cancelBooking();
                 case 6 -> orderConcessions();
                 case 7 -> displayShowsAvailability();
-                case 8 -> { running = false; System.out.println("Exiting. Goodbye!"); }
+                case 8 -> restockConcessions();
+                case 9 -> waitlistOffers();
+                case 10 -> System.out.print("\n--- Metrics ---\n" + service.getMetrics().toText() + "\n--- Sales ---\n" + service.getAnalytics().toText());
+                case 11 -> { running = false; System.out.println("Exiting. Goodbye!"); }
                 default -> System.out.println("Invalid choice. Try again.");
             }
         }
+        service.shutdown();
         scanner.close();
     }
 
@@ -69,7 +67,10 @@ public class CinemaApp {
         System.out.println("5. Cancel Booking");
         System.out.println("6. Order Concessions");
         System.out.println("7. Display Shows & Availability");
-        System.out.println("8. Exit");
+        System.out.println("8. Restock Concessions");
+        System.out.println("9. Waitlist");
+        System.out.println("10. Metrics and sales");
+        System.out.println("11. Exit");
     }
 
     // Menu actions
@@ -78,200 +79,285 @@ public class CinemaApp {
         String title = readNonEmptyString("Enter movie title: ");
         String genre = readNonEmptyString("Enter genre: ");
         int duration = readIntInRange("Enter duration (minutes): ", 10, 500);
-        Movie m = new Movie(movieIdGen.getAndIncrement(), title, genre, duration);
-        movies.put(m.getId(), m);
+        Movie m = service.addMovie(title, genre, duration);
         System.out.println("Added: " + m);
     }
 
     private static void scheduleShow() {
         System.out.println("\n--- Schedule Show ---");
-        if (movies.isEmpty()) { System.out.println("No movies yet. Add movies first."); return; }
-        if (screens.isEmpty()) {
-            Screen s = new Screen(screenIdGen.getAndIncrement(), "Screen 1");
-            screens.put(s.getId(), s);
+        CatalogSnapshot catalog = service.getCatalog();
+        if (catalog.getMovies().isEmpty()) { System.out.println("No movies yet. Add movies first."); return; }
+        if (catalog.getScreens().isEmpty()) {
+            Screen s = service.addScreen("Screen 1");
             System.out.println("Created default screen: " + s);
+            catalog = service.getCatalog();
         }
 
         System.out.println("Movies:");
-        movies.values().forEach(m -> System.out.println(m.getId() + ": " + m.getTitle()));
-
-        int mid = readInt("Enter movie id: ");
-        Movie movie = movies.get(mid);
-        if (movie == null) { System.out.println("Invalid movie id."); return; }
+        List<CatalogSnapshot.MovieEntry> movies = catalog.getMovies();
+        movies.stream().limit(MOVIES_LISTED).forEach(m -> System.out.println(m.getId() + ": " + m.getTitle()));
+        if (movies.size() > MOVIES_LISTED) System.out.println("... and " + (movies.size() - MOVIES_LISTED) + " more; type part of a title to search");
+        int mid = readMovieId();
+        if (service.getMovie(mid).isEmpty()) { System.out.println("Invalid movie id."); return; }
 
         System.out.println("Screens:");
-        screens.values().forEach(s -> System.out.println(s.getId() + ": " + s.getName()));
+        catalog.getScreens().forEach(s -> System.out.println(s.getId() + ": " + s.getName()));
         int sid = readInt("Enter screen id: ");
-        Screen screen = screens.get(sid);
-        if (screen == null) { System.out.println("Invalid screen id."); return; }
+        if (service.getScreen(sid).isEmpty()) { System.out.println("Invalid screen id."); return; }
 
         String datetime = readNonEmptyString("Enter show date & time (e.g., 2025-10-01 18:00): ");
-        double baseFare = readDouble("Enter base fare per seat: ");
+        long baseFare = readMoney("Enter base fare per seat: ");
 
-        Show show = new Show(showIdGen.getAndIncrement(), movie, screen, datetime, baseFare);
-        shows.put(show.getId(), show);
-        screen.addShow(show);
-        System.out.println("Scheduled: " + show.brief());
+        try {
+            Show show = service.scheduleShow(mid, sid, datetime, baseFare);
+            System.out.println("Scheduled: " + show.brief() + ", screen free again at " + show.getEndTime().format(Show.DATE_TIME));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            System.out.println("Could not schedule show: " + e.getMessage());
+        }
     }
 
     private static void addCustomer() {
         System.out.println("\n--- Add Customer ---");
         String name = readNonEmptyString("Enter name: ");
         String phone = readPhone("Enter phone (7-15 digits): ");
-        Customer c = new Customer(customerIdGen.getAndIncrement(), name, phone);
-        customers.put(c.getId(), c);
-        System.out.println("Added customer: " + c);
+        try {
+            Customer c = service.addCustomer(name, phone);
+            System.out.println("Added customer: " + c.getId() + " - " + c);
+        } catch (IllegalStateException e) {
+            System.out.println("Could not add customer: " + e.getMessage());
+        }
     }
 
     private static void bookSeats() {
         System.out.println("\n--- Book Seats ---");
-        if (shows.isEmpty()) { System.out.println("No shows scheduled."); return; }
+        if (service.getShows().isEmpty()) { System.out.println("No shows scheduled."); return; }
         displayShowsBrief();
         int sid = readInt("Enter Show ID to book: ");
-        Show show = shows.get(sid);
-        if (show == null) { System.out.println("Invalid show id."); return; }
-
-        // customer selection/creation
-        System.out.println("Existing customers:");
-        customers.values().forEach(c -> System.out.println(c.getId() + ": " + c.getName() + " (" + c.getPhone() + ")"));
-        int cid = readInt("Enter customer id or 0 to create new: ");
-        Customer customer;
-        if (cid == 0) {
-            String name = readNonEmptyString("Name: ");
-            String phone = readPhone("Phone: ");
-            customer = new Customer(customerIdGen.getAndIncrement(), name, phone);
-            customers.put(customer.getId(), customer);
+        Optional<Show> maybeShow = service.getShow(sid);
+        if (maybeShow.isEmpty()) { System.out.println("Invalid show id."); return; }
+        Show show = maybeShow.get();
+
+        // customer lookup by phone; an unknown number registers a new customer
+        String phone = readPhone("Customer phone: ");
+        Customer customer = service.findCustomerByPhone(phone).orElse(null);
+        if (customer == null) {
+            String name = readNonEmptyString("New customer. Name: ");
+            try { customer = service.addCustomer(name, phone); }
+            catch (IllegalStateException e) { customer = service.findCustomerByPhone(phone).orElseThrow(); } // registered meanwhile
             System.out.println("Created: " + customer);
         } else {
-            customer = customers.get(cid);
-            if (customer == null) { System.out.println("Invalid customer id."); return; }
+            System.out.println("Customer: " + customer);
+        }
+
+        if (show.getAvailableCount() == 0) {
+            System.out.println("This show is sold out.");
+            if (readNonEmptyString("Join the waitlist? (Y/N): ").equalsIgnoreCase("Y")) {
+                joinWaitlist(show, customer, readIntInRange("Party size: ", 1, 20), readCategory());
+            }
+            return;
         }
 
         show.printSeatAvailability();
-        List<Seat> selected = new ArrayList<>();
-        while (true) {
-            String seatId = readNonEmptyString("Enter seat id to select (e.g., A1) or DONE to finish: ");
-            if ("DONE".equalsIgnoreCase(seatId)) break;
-            Optional<Seat> maybe = show.getSeatById(seatId.toUpperCase());
-            if (maybe.isEmpty()) { System.out.println("Seat not found."); continue; }
-            Seat seat = maybe.get();
-            if (!seat.isAvailable()) { System.out.println("Seat not available. Choose another."); continue; }
-            seat.hold();
-            selected.add(seat);
-            System.out.println("Selected: " + seat.getSeatId());
+        int party = readIntInRange("Party size for best available seats (0 = pick seats yourself): ", 0, 20);
+        SeatHold hold;
+        if (party > 0) {
+            SeatCategory category = readCategory();
+            try { hold = service.holdBest(show.getId(), customer.getId(), party, category); }
+            catch (IllegalStateException e) {
+                System.out.println(e.getMessage() + ". Try a smaller party or pick seats yourself.");
+                if (readNonEmptyString("Or join the waitlist for " + party + " seats? (Y/N): ").equalsIgnoreCase("Y")) joinWaitlist(show, customer, party, category);
+                return;
+            }
+        } else {
+            hold = pickSeats(show, customer);
+            if (hold == null) return;
+        }
+        confirmHold(show, customer, hold);
+    }
+
+    private static SeatCategory readCategory() {
+        String pref = readNonEmptyString("Preferred category (S=Standard, P=Premium, R=Recliner, ANY): ");
+        if (pref.equalsIgnoreCase("ANY")) return null;
+        try { return SeatCategory.fromCode(pref.charAt(0)); }
+        catch (IllegalArgumentException e) { System.out.println("Unknown category, using any."); return null; }
+    }
+
+    private static void joinWaitlist(Show show, Customer customer, int party, SeatCategory category) {
+        try {
+            Waitlist.Entry e = service.joinWaitlist(show.getId(), customer.getId(), party, category);
+            System.out.println("Added to the waitlist as #" + e.getId() + ". Seats freed by cancellations are offered in turn; check with the Waitlist menu.");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Could not join the waitlist: " + e.getMessage());
         }
+    }
 
-        if (selected.isEmpty()) {
-            System.out.println("No seats chosen. Aborting booking.");
+    // offers to waitlisted customers, looked up by phone
+    private static void waitlistOffers() {
+        System.out.println("\n--- Waitlist ---");
+        String phone = readPhone("Customer phone: ");
+        Customer customer = service.findCustomerByPhone(phone).orElse(null);
+        if (customer == null) { System.out.println("No customer with that phone."); return; }
+        int id = readInt("Waitlist number: ");
+        Optional<Waitlist.Entry> maybe = service.getWaitlistEntry(id);
+        if (maybe.isEmpty() || maybe.get().getCustomer().getId() != customer.getId()) { System.out.println("No open waitlist entry with that number for this customer."); return; }
+        Waitlist.Entry e = maybe.get();
+        System.out.println(e);
+        if (e.getStatus() == Waitlist.Status.WAITING) {
+            System.out.println(service.getWaitingParties(e.getShow().getId()).indexOf(e) + 1 + " in line.");
+            if (readNonEmptyString("Leave the waitlist? (Y/N): ").equalsIgnoreCase("Y")) service.leaveWaitlist(id);
             return;
         }
+        SeatHold offer = e.getOffer();
+        if (offer == null || service.getHold(offer.getToken()).isEmpty()) { System.out.println("The offer has lapsed or was already used."); return; }
+        confirmHold(e.getShow(), customer, offer);
+    }
 
-        double subtotal = selected.size() * show.getBaseFare();
-        double taxes = subtotal * (SERVICE_TAX_RATE + GST_RATE);
-        double total = subtotal + taxes;
-
+    private static void confirmHold(Show show, Customer customer, SeatHold hold) {
         System.out.println("\n--- Booking Summary ---");
         System.out.println("Show: " + show.brief());
         System.out.println("Customer: " + customer);
-        System.out.println("Seats: " + seatListToString(selected));
-        System.out.printf("Fare: %.2f  Taxes: %.2f  Total: %.2f%n", subtotal, taxes, total);
+        System.out.println("Seats: " + seatListToString(hold.getSeats()));
+        System.out.println("Fare: " + Money.format(hold.getFarePaise()) + "  Taxes: " + Money.format(hold.getTaxesPaise()) + "  Total: " + Money.format(hold.getTotalPaise()));
+        if (hold.getDemandBasisPoints() != Money.BASIS_POINTS) System.out.println("Demand pricing: " + Money.formatPercent(hold.getDemandBasisPoints()) + " of list price");
 
         String conf = readNonEmptyString("Proceed to payment? (Y/N): ");
         if (!conf.equalsIgnoreCase("Y")) {
-            selected.forEach(Seat::releaseHold);
+            service.releaseHold(hold.getToken());
             System.out.println("Payment cancelled. Seats released.");
             return;
         }
 
-        if (!processPayment(total)) {
-            selected.forEach(Seat::releaseHold);
-            System.out.println("Payment failed. Seats released.");
+        // the service releases the seats itself if the payment fails or times out
+        System.out.println("Processing payment of " + Money.format(hold.getTotalPaise()) + " ...");
+        Booking booking;
+        try { booking = service.checkout(hold.getToken()).join(); }
+        catch (CompletionException e) {
+            if (e.getCause() instanceof PaymentException) System.out.println(e.getCause().getMessage() + ". Seats released.");
+            else System.out.println("Seat hold expired before payment completed. Please book again.");
             return;
         }
-
-        // finalize
-        selected.forEach(Seat::book);
-        Booking booking = new Booking(bookingIdGen.getAndIncrement(), customer, show, selected, subtotal, taxes, total);
-        bookings.put(booking.getId(), booking);
-        show.addBooking(booking);
         System.out.println("\nBooking confirmed.");
         booking.printReceipt();
     }
 
+    private static SeatHold pickSeats(Show show, Customer customer) {
+        Set<String> chosen = new LinkedHashSet<>();
+        while (true) {
+            String seatId = readNonEmptyString("Enter seat id to select (e.g., A1) or DONE to finish: ");
+            if ("DONE".equalsIgnoreCase(seatId)) break;
+            Optional<Seat> maybe = show.getSeatById(seatId.toUpperCase());
+            if (maybe.isEmpty()) { System.out.println("Seat not found."); continue; }
+            Seat seat = maybe.get();
+            if (!seat.isAvailable()) { System.out.println("Seat not available. Choose another."); continue; }
+            if (!chosen.add(seat.getSeatId())) { System.out.println("Seat already selected."); continue; }
+            System.out.println("Selected: " + seat.getSeatId());
+        }
+
+        if (chosen.isEmpty()) {
+            System.out.println("No seats chosen. Aborting booking.");
+            return null;
+        }
+
+        // take the whole group at once so a conflict never leaves part of it held
+        try { return service.hold(show.getId(), customer.getId(), chosen); }
+        catch (IllegalStateException e) { System.out.println("Some of the selected seats were just taken. Please try again."); return null; }
+    }
+
     private static void cancelBooking() {
         System.out.println("\n--- Cancel Booking ---");
-        if (bookings.isEmpty()) { System.out.println("No bookings exist."); return; }
-        bookings.values().forEach(b -> System.out.println(b.getId() + ": " + b.shortSummary()));
+        Optional<Customer> customer = service.findCustomerByPhone(readPhone("Customer phone: "));
+        if (customer.isEmpty()) { System.out.println("No customer with that phone."); return; }
+        List<Booking> mine = service.getBookingsForCustomer(customer.get().getId());
+        if (mine.isEmpty()) { System.out.println("No bookings for " + customer.get().getName() + "."); return; }
+        mine.forEach(b -> System.out.println(b.getId() + ": " + b.shortSummary()));
         int bid = readInt("Enter booking id to cancel: ");
-        Booking b = bookings.get(bid);
-        if (b == null) { System.out.println("Invalid booking id."); return; }
+        if (mine.stream().noneMatch(b -> b.getId() == bid)) { System.out.println("Invalid booking id."); return; }
 
         String reason = readNonEmptyString("Enter cancellation reason: ");
-        // release seats immediately
-        b.getSeats().forEach(Seat::release);
-        b.getShow().removeBooking(b);
-        bookings.remove(bid);
-        System.out.println("Booking cancelled and seats released.");
+        try {
+            service.cancel(bid);
+            System.out.println("Booking cancelled and seats released.");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Booking was already cancelled.");
+        } catch (IllegalStateException e) {
+            System.out.println("Could not cancel: " + e.getMessage());
+        }
     }
 
     private static void orderConcessions() {
         System.out.println("\n--- Order Concessions ---");
         System.out.println("Link to booking? (Y/N)");
         String link = readNonEmptyString("Choice: ");
-        Booking linked = null;
-        if (link.equalsIgnoreCase("Y") && !bookings.isEmpty()) {
-            bookings.values().forEach(b -> System.out.println(b.getId() + ": " + b.shortSummary()));
-            int bid = readInt("Enter booking id to link: ");
-            linked = bookings.get(bid);
-            if (linked == null) System.out.println("Invalid booking id. Proceeding standalone.");
+        int linkedId = 0;
+        if (link.equalsIgnoreCase("Y")) {
+            Optional<Customer> customer = service.findCustomerByPhone(readPhone("Customer phone: "));
+            List<Booking> mine = customer.isEmpty() ? Collections.emptyList() : service.getBookingsForCustomer(customer.get().getId());
+            if (mine.isEmpty()) {
+                System.out.println("No bookings found. Proceeding standalone.");
+            } else {
+                mine.forEach(b -> System.out.println(b.getId() + ": " + b.shortSummary()));
+                int bid = readInt("Enter booking id to link: ");
+                if (mine.stream().anyMatch(b -> b.getId() == bid)) linkedId = bid;
+                else System.out.println("Invalid booking id. Proceeding standalone.");
+            }
         }
 
-        ConcessionOrder order = new ConcessionOrder(concessionIdGen.getAndIncrement(), linked);
+        Map<Integer, ConcessionOrder.MenuItem> menu = service.getConcessionMenu();
+        Map<Integer, Integer> quantities = new LinkedHashMap<>();
         while (true) {
             System.out.println("\nMenu:");
-            concessionMenu.values().forEach(item -> System.out.printf("%d: %s - %.2f%n", item.getId(), item.getName(), item.getPrice()));
+            menu.values().forEach(item -> System.out.println(item.getId() + ": " + item.getName() + " - " + Money.format(item.getPricePaise())
+                    + " (" + service.getInventory().available(item.getId()) + " left)"));
             int mid = readInt("Enter menu id to add (0 = done): ");
             if (mid == 0) break;
-            ConcessionOrder.MenuItem item = concessionMenu.get(mid);
+            ConcessionOrder.MenuItem item = menu.get(mid);
             if (item == null) { System.out.println("Invalid menu id."); continue; }
             int qty = readIntInRange("Quantity: ", 1, 10);
-            order.addItem(new ConcessionOrder.ConcessionItem(item.getId(), item.getName(), item.getPrice(), qty));
+            quantities.merge(item.getId(), qty, Integer::sum);
             System.out.println("Added " + qty + " x " + item.getName());
         }
 
-        if (order.getItems().isEmpty()) {
+        if (quantities.isEmpty()) {
             System.out.println("No items selected. Aborting.");
             return;
         }
 
-        order.calculateTotals();
-        order.printReceipt();
-        concessions.put(order.getId(), order);
+        try {
+            ConcessionOrder order = service.orderConcessions(linkedId, quantities);
+            order.printReceipt();
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            System.out.println("Could not place order: " + e.getMessage());
+        }
+    }
+
+    private static void restockConcessions() {
+        System.out.println("\n--- Restock Concessions ---");
+        ConcessionInventory inventory = service.getInventory();
+        service.getConcessionMenu().values().forEach(item -> System.out.println(item.getId() + ": " + item.getName() + " - "
+                + inventory.available(item.getId()) + " in stock (alert at " + inventory.lowStockThreshold(item.getId()) + ")"));
+        int mid = readInt("Enter menu id to restock (0 = cancel): ");
+        if (mid == 0) return;
+        if (!service.getConcessionMenu().containsKey(mid)) { System.out.println("Invalid menu id."); return; }
+        int qty = readIntInRange("Units delivered: ", 1, 100000);
+        System.out.println("Now in stock: " + service.restockConcession(mid, qty));
     }
 
     private static void displayShowsAvailability() {
         System.out.println("\n--- Shows & Availability ---");
+        List<CatalogSnapshot.ShowEntry> shows = service.getCatalog().getShows();
         if (shows.isEmpty()) { System.out.println("No shows scheduled."); return; }
-        for (Show s : shows.values()) {
-            System.out.println(s.brief());
+        for (CatalogSnapshot.ShowEntry e : shows) {
+            Show s = e.getShow();
+            System.out.println(e.getBrief() + " - " + s.getAvailableCount() + " of " + s.getCapacity() + " seats left, priced at "
+                    + Money.formatPercent(service.demandBasisPoints(s.getId())) + " of list");
             s.printSeatAvailability();
             System.out.println();
         }
+        System.out.println(service.getHoldExpiry().summary());
+        System.out.println(service.getKitchen().summary());
     }
 
     // Utilities
-    private static boolean processPayment(double amount) {
-        System.out.printf("Processing payment of %.2f ... (type 'ok' to simulate success): ", amount);
-        String resp = scanner.nextLine().trim();
-        if ("ok".equalsIgnoreCase(resp) || "y".equalsIgnoreCase(resp) || "yes".equalsIgnoreCase(resp)) {
-            System.out.println("Payment successful.");
-            return true;
-        } else {
-            System.out.println("Payment not confirmed.");
-            return false;
-        }
-    }
-
     private static String seatListToString(List<Seat> seats) {
         StringJoiner sj = new StringJoiner(", ");
         for (Seat s : seats) sj.add(s.getSeatId());
@@ -280,10 +366,22 @@ public class CinemaApp {
 
     private static void displayShowsBrief() {
         System.out.println("Shows:");
-        shows.values().forEach(s -> System.out.println(s.getId() + ": " + s.brief()));
+        service.getCatalog().getShows().forEach(s -> System.out.println(s.getId() + ": " + s.getBrief()));
     }
 
     // Input helpers
+    // a number is taken as the movie id, anything else is searched for among the titles
+    private static int readMovieId() {
+        while (true) {
+            String l = readNonEmptyString("Enter movie id or title: ");
+            try { return Integer.parseInt(l); }
+            catch (NumberFormatException e) { /* search below */ }
+            MovieSearch.Result r = service.searchMovies(l, null, MOVIES_LISTED);
+            if (r.getHits().isEmpty()) System.out.println("No movie matches '" + l + "'.");
+            for (MovieSearch.Hit h : r.getHits()) System.out.println(h.getMovie().getId() + ": " + h.getMovie().getTitle() + " (" + h.getMovie().getGenre() + ")");
+        }
+    }
+
     private static int readInt(String prompt) {
         while (true) {
             System.out.print(prompt);
@@ -301,12 +399,13 @@ public class CinemaApp {
         }
     }
 
-    private static double readDouble(String prompt) {
+    // amount in paise, e.g. "250" or "250.50"
+    private static long readMoney(String prompt) {
         while (true) {
             System.out.print(prompt);
             String l = scanner.nextLine().trim();
-            try { return Double.parseDouble(l); }
-            catch (NumberFormatException e) { System.out.println("Enter a valid number."); }
+            try { return Money.parse(l); }
+            catch (IllegalArgumentException e) { System.out.println("Enter a valid amount (up to 2 decimals)."); }
         }
     }
 
@@ -327,27 +426,4 @@ public class CinemaApp {
             System.out.println("Enter 7-15 digits.");
         }
     }
-
-    // Seed data for demo
-    private static void seedSampleData() {
-        Movie m1 = new Movie(movieIdGen.getAndIncrement(), "Vikram", "Action", 180);
-        Movie m2 = new Movie(movieIdGen.getAndIncrement(), "Joe", "Love", 150);
-        movies.put(m1.getId(), m1);
-        movies.put(m2.getId(), m2);
-
-        Screen sc1 = new Screen(screenIdGen.getAndIncrement(), "IMAX Screen");
-        Screen sc2 = new Screen(screenIdGen.getAndIncrement(), "Standard Screen");
-        screens.put(sc1.getId(), sc1);
-        screens.put(sc2.getId(), sc2);
-
-        Show sh1 = new Show(showIdGen.getAndIncrement(), m1, sc1, "2025-10-02 19:00", 250.0);
-        Show sh2 = new Show(showIdGen.getAndIncrement(), m2, sc2, "2025-10-02 17:30", 180.0);
-        shows.put(sh1.getId(), sh1);
-        shows.put(sh2.getId(), sh2);
-        sc1.addShow(sh1);
-        sc2.addShow(sh2);
-
-        Customer c = new Customer(customerIdGen.getAndIncrement(), "Chandru", "9876543210");
-        customers.put(c.getId(), c);
-    }
 }
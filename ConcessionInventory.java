@@ -0,0 +1,103 @@
+package JavaAssign;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ConcessionInventory - per menu item stock built on {@link StockCounter}s.
+ * An order's lines are reserved together: either every line gets its stock or none does,
+ * so an item can never be oversold. Crossing an item's low-stock threshold fires the
+ * listener once; it re-arms when a delivery or return lifts the stock back above it.
+ */
+public class ConcessionInventory {
+    /** Called with the item and its remaining stock when it first drops to its threshold. */
+    public interface LowStockListener {
+        void onLowStock(ConcessionOrder.MenuItem item, long remaining);
+    }
+
+    private static final class Entry {
+        final ConcessionOrder.MenuItem item;
+        final StockCounter stock;
+        final int threshold;
+        final AtomicBoolean alerted = new AtomicBoolean();
+
+        Entry(ConcessionOrder.MenuItem item, long initial, int threshold) {
+            this.item = item;
+            this.stock = new StockCounter(initial);
+            this.threshold = threshold;
+        }
+    }
+
+    private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+    private volatile LowStockListener lowStockListener = (item, remaining) -> { };
+
+    public void track(ConcessionOrder.MenuItem item, long initialStock, int lowStockThreshold) {
+        if (item == null) throw new IllegalArgumentException("Menu item required");
+        if (lowStockThreshold < 0) throw new IllegalArgumentException("Threshold cannot be negative");
+        if (entries.putIfAbsent(item.getId(), new Entry(item, initialStock, lowStockThreshold)) != null) {
+            throw new IllegalStateException("Item already tracked: " + item.getId());
+        }
+    }
+
+    public void setLowStockListener(LowStockListener listener) {
+        if (listener == null) throw new IllegalArgumentException("Listener required");
+        this.lowStockListener = listener;
+    }
+
+    public long available(int menuItemId) { return require(menuItemId).stock.sum(); }
+    public int lowStockThreshold(int menuItemId) { return require(menuItemId).threshold; }
+
+    /** Reserves stock for every line or throws IllegalStateException leaving stock untouched. */
+    public void reserve(List<ConcessionOrder.ConcessionItem> items) {
+        for (int i = 0; i < items.size(); i++) {
+            ConcessionOrder.ConcessionItem line = items.get(i);
+            Entry e = require(line.getId());
+            long left = e.stock.tryTake(line.getQty());
+            if (left < 0) {
+                for (int j = 0; j < i; j++) require(items.get(j).getId()).stock.put(items.get(j).getQty());
+                throw new IllegalStateException("Not enough " + e.item.getName() + " in stock (" + e.stock.sum() + " left)");
+            }
+            // the total is at least what the stripe has left, so only then can it be at the threshold
+            if (left <= e.threshold && !e.alerted.get()) checkLow(e);
+        }
+    }
+
+    /** Returns the stock of a cancelled or abandoned order. */
+    public void release(List<ConcessionOrder.ConcessionItem> items) {
+        for (ConcessionOrder.ConcessionItem line : items) {
+            Entry e = require(line.getId());
+            e.stock.put(line.getQty());
+            rearm(e);
+        }
+    }
+
+    public long restock(int menuItemId, long qty) {
+        if (qty <= 0) throw new IllegalArgumentException("Restock quantity must be positive");
+        Entry e = require(menuItemId);
+        e.stock.spread(qty);
+        rearm(e);
+        return e.stock.sum();
+    }
+
+    // recovery only: sets the level outright, before any traffic
+    void reset(int menuItemId, long level) {
+        Entry e = require(menuItemId);
+        e.stock.reset(level);
+        e.alerted.set(false);
+    }
+
+    private void checkLow(Entry e) {
+        long total = e.stock.sum();
+        if (total <= e.threshold && e.alerted.compareAndSet(false, true)) lowStockListener.onLowStock(e.item, total);
+    }
+
+    private void rearm(Entry e) {
+        if (e.alerted.get() && e.stock.sum() > e.threshold) e.alerted.set(false);
+    }
+
+    private Entry require(int menuItemId) {
+        Entry e = entries.get(menuItemId);
+        if (e == null) throw new IllegalArgumentException("Item not stocked: " + menuItemId);
+        return e;
+    }
+}
@@ -0,0 +1,245 @@
+package JavaAssign;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * ConcessionKitchen - fulfilment pipeline for concession orders.
+ * Counters publish orders into a bounded {@link MpscRing}; one dispatcher thread drains
+ * whatever has accumulated, merges the lines of all drained orders by menu item (so an
+ * interval rush becomes "37 x Popcorn (Large)" rather than 37 tickets) and hands each
+ * batch to the station that owns that item. An order is fulfilled once every batch it
+ * contributed to has been prepared. The busier the counters, the bigger the batches.
+ */
+public class ConcessionKitchen {
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /** Prepares one batch; called on the station's own thread. */
+    public interface Station {
+        void prepare(Batch batch) throws InterruptedException;
+    }
+
+    /** One menu item's quantity merged across the orders drained together. */
+    public static final class Batch {
+        private final int menuItemId;
+        private final String name;
+        private final int stationIndex;
+        private int quantity;
+        private final List<Ticket> tickets = new ArrayList<>();
+
+        private Batch(int menuItemId, String name, int stationIndex) {
+            this.menuItemId = menuItemId;
+            this.name = name;
+            this.stationIndex = stationIndex;
+        }
+
+        public int getMenuItemId() { return menuItemId; }
+        public String getName() { return name; }
+        public int getStation() { return stationIndex; }
+        public int getQuantity() { return quantity; }
+        public int getOrderCount() { return tickets.size(); }
+
+        public int[] getOrderIds() {
+            int[] ids = new int[tickets.size()];
+            for (int i = 0; i < ids.length; i++) ids[i] = tickets.get(i).order.getId();
+            return ids;
+        }
+
+        @Override
+        public String toString() {
+            return quantity + " x " + name + " for " + tickets.size() + " order(s)";
+        }
+    }
+
+    private static final class Ticket {
+        final ConcessionOrder order;
+        final long publishedNanos;
+        final AtomicInteger remainingBatches = new AtomicInteger();
+
+        Ticket(ConcessionOrder order, long publishedNanos) {
+            this.order = order;
+            this.publishedNanos = publishedNanos;
+        }
+    }
+
+    private final MpscRing<Ticket> ring;
+    private final int maxOrdersPerDrain;
+    private final Station station;
+    private final List<BlockingQueue<Batch>> stationQueues = new ArrayList<>();
+    private final Map<Integer, Batch> open = new HashMap<>(); // dispatcher thread only
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder fulfilled = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedUnits = new LongAdder();
+    private final AtomicLong maxBatchUnits = new AtomicLong();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private final LongAdder latencyMicros = new LongAdder();
+    private final AtomicLong maxLatencyMicros = new AtomicLong();
+
+    private volatile Consumer<ConcessionOrder> fulfilmentListener = order -> { };
+    private volatile boolean running;
+    private final List<Thread> threads = new ArrayList<>();
+
+    /** Kitchen whose stations finish every batch instantly; useful headless and in tests. */
+    public ConcessionKitchen(int capacity, int stations) {
+        this(capacity, stations, 512, batch -> { });
+    }
+
+    public ConcessionKitchen(int capacity, int stations, int maxOrdersPerDrain, Station station) {
+        if (stations <= 0) throw new IllegalArgumentException("At least one station required");
+        if (maxOrdersPerDrain <= 0) throw new IllegalArgumentException("Drain size must be positive");
+        if (station == null) throw new IllegalArgumentException("Station required");
+        this.ring = new MpscRing<>(capacity);
+        this.maxOrdersPerDrain = maxOrdersPerDrain;
+        this.station = station;
+        for (int i = 0; i < stations; i++) stationQueues.add(new LinkedBlockingQueue<>());
+    }
+
+    /** Called on a station thread for every order whose last batch was prepared. */
+    public void setFulfilmentListener(Consumer<ConcessionOrder> listener) {
+        if (listener == null) throw new IllegalArgumentException("Listener required");
+        this.fulfilmentListener = listener;
+    }
+
+    /**
+     * Reserves queue room for one order, or returns -1 when the kitchen is full. Every
+     * reservation must be followed by {@link #publish}, so callers can reserve before
+     * committing an order and never accept one the kitchen has no room for.
+     */
+    public long reserve() {
+        long slot = ring.claim();
+        if (slot < 0) rejected.increment();
+        return slot;
+    }
+
+    /** Fills a reserved slot; a null order gives the slot back. */
+    public void publish(long slot, ConcessionOrder order) {
+        if (slot < 0) throw new IllegalArgumentException("Invalid slot: " + slot);
+        if (order != null) accepted.increment();
+        ring.publish(slot, order == null ? null : new Ticket(order, System.nanoTime()));
+    }
+
+    public boolean submit(ConcessionOrder order) {
+        if (order == null) throw new IllegalArgumentException("Order required");
+        long slot = reserve();
+        if (slot < 0) return false;
+        publish(slot, order);
+        return true;
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        threads.clear();
+        threads.add(newThread(this::dispatchLoop, "kitchen-dispatcher"));
+        for (int i = 0; i < stationQueues.size(); i++) {
+            BlockingQueue<Batch> queue = stationQueues.get(i);
+            threads.add(newThread(() -> stationLoop(queue), "kitchen-station-" + i));
+        }
+        threads.forEach(Thread::start);
+    }
+
+    public synchronized void stop() {
+        running = false;
+        threads.forEach(Thread::interrupt);
+        threads.clear();
+    }
+
+    public int getCapacity() { return ring.capacity(); }
+    public int getQueueDepth() { return ring.size(); }
+    public int getMaxQueueDepth() { return maxQueueDepth.get(); }
+    public long getAcceptedCount() { return accepted.sum(); }
+    public long getRejectedCount() { return rejected.sum(); }
+    public long getFulfilledCount() { return fulfilled.sum(); }
+    public long getPendingCount() { return Math.max(0, accepted.sum() - fulfilled.sum()); }
+    public long getBatchCount() { return batches.sum(); }
+    public long getMaxBatchSize() { return maxBatchUnits.get(); }
+    public long getMaxLatencyMicros() { return maxLatencyMicros.get(); }
+
+    public double getAverageBatchSize() {
+        long n = batches.sum();
+        return n == 0 ? 0 : (double) batchedUnits.sum() / n;
+    }
+
+    public double getAverageLatencyMicros() {
+        long n = fulfilled.sum();
+        return n == 0 ? 0 : (double) latencyMicros.sum() / n;
+    }
+
+    public String summary() {
+        return String.format("Kitchen: %d queued (max %d of %d), %d pending, %d fulfilled, %d rejected, %d batches (avg %.1f units, max %d), latency avg %.2f ms, max %.2f ms",
+                getQueueDepth(), getMaxQueueDepth(), getCapacity(), getPendingCount(), getFulfilledCount(), getRejectedCount(),
+                getBatchCount(), getAverageBatchSize(), getMaxBatchSize(), getAverageLatencyMicros() / 1000.0, getMaxLatencyMicros() / 1000.0);
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            int depth = ring.size();
+            if (depth > maxQueueDepth.get()) maxQueueDepth.accumulateAndGet(depth, Math::max);
+            if (ring.drain(this::collect, maxOrdersPerDrain) == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            for (Batch b : open.values()) {
+                batches.increment();
+                batchedUnits.add(b.quantity);
+                if (b.quantity > maxBatchUnits.get()) maxBatchUnits.accumulateAndGet(b.quantity, Math::max);
+                stationQueues.get(b.stationIndex).add(b);
+            }
+            open.clear();
+        }
+    }
+
+    private void collect(Ticket ticket) {
+        for (ConcessionOrder.ConcessionItem item : ticket.order.getItems()) {
+            Batch b = open.get(item.getId());
+            if (b == null) {
+                b = new Batch(item.getId(), item.getName(), Math.floorMod(item.getId(), stationQueues.size()));
+                open.put(item.getId(), b);
+            }
+            b.quantity += item.getQty();
+            // an order listing the same item twice still waits on that batch only once
+            if (b.tickets.isEmpty() || b.tickets.get(b.tickets.size() - 1) != ticket) {
+                b.tickets.add(ticket);
+                ticket.remainingBatches.incrementAndGet();
+            }
+        }
+        if (ticket.remainingBatches.get() == 0) complete(ticket);
+    }
+
+    private void stationLoop(BlockingQueue<Batch> queue) {
+        try {
+            while (running) {
+                Batch b = queue.take();
+                station.prepare(b);
+                for (Ticket t : b.tickets) {
+                    if (t.remainingBatches.decrementAndGet() == 0) complete(t);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void complete(Ticket t) {
+        long micros = (System.nanoTime() - t.publishedNanos) / 1000;
+        fulfilled.increment();
+        latencyMicros.add(micros);
+        if (micros > maxLatencyMicros.get()) maxLatencyMicros.accumulateAndGet(micros, Math::max);
+        fulfilmentListener.accept(t.order);
+    }
+
+    private static Thread newThread(Runnable r, String name) {
+        Thread t = new Thread(r, name);
+        t.setDaemon(true);
+        return t;
+    }
+}
@@ -1,52 +1,66 @@
 package JavaAssign;
 import java.util.*;
 
+/**
+ * Concession order whose subtotal, taxes and total (all paise) are kept current as items are
+ * added, so reading the totals never walks the item list.
+ */
 public class ConcessionOrder {
     private final int id;
     private final Booking linkedBooking; // may be null for standalone orders
     private final List<ConcessionItem> items = new ArrayList<>();
-    private double subtotal;
-    private double taxes;
-    private double total;
+    private final TaxTable taxTable;
+    private long subtotalPaise;
+    private long taxesPaise;
+    private long totalPaise;
     private final Date orderedAt;
 
-    // Tax rates reused
-    public static final double SERVICE_TAX_RATE = 0.05;
-    public static final double GST_RATE = 0.12;
-
     public ConcessionOrder(int id, Booking linkedBooking) {
+        this(id, linkedBooking, TaxTable.STANDARD, new Date());
+    }
+
+    public ConcessionOrder(int id, Booking linkedBooking, TaxTable taxTable) {
+        this(id, linkedBooking, taxTable, new Date());
+    }
+
+    // used when restoring from the event log / snapshot
+    ConcessionOrder(int id, Booking linkedBooking, TaxTable taxTable, Date orderedAt) {
+        if (taxTable == null) throw new IllegalArgumentException("Tax table required");
         this.id = id;
         this.linkedBooking = linkedBooking;
-        this.orderedAt = new Date();
+        this.taxTable = taxTable;
+        this.orderedAt = orderedAt;
     }
 
     public int getId() { return id; }
     public Booking getLinkedBooking() { return linkedBooking; }
+    public Date getOrderedAt() { return orderedAt; }
 
     public void addItem(ConcessionItem item) {
         if (item == null) throw new IllegalArgumentException("Item required");
+        long subtotal = Math.addExact(subtotalPaise, item.totalPaise());
         items.add(item);
+        // taxes follow the new subtotal so per-rule rounding matches a from-scratch total
+        subtotalPaise = subtotal;
+        taxesPaise = taxTable.taxOn(subtotal);
+        totalPaise = subtotal + taxesPaise;
     }
 
     public List<ConcessionItem> getItems() {
         return Collections.unmodifiableList(items);
     }
 
-    public void calculateTotals() {
-        subtotal = items.stream().mapToDouble(ConcessionItem::total).sum();
-        taxes = subtotal * (SERVICE_TAX_RATE + GST_RATE);
-        total = subtotal + taxes;
-    }
-
-    public double getSubtotal() { return subtotal; }
-    public double getTaxes() { return taxes; }
-    public double getTotal() { return total; }
+    public long getSubtotalPaise() { return subtotalPaise; }
+    public long getTaxesPaise() { return taxesPaise; }
+    public long getTotalPaise() { return totalPaise; }
 
     public void printReceipt() {
         System.out.println("----- Concession Receipt -----");
         System.out.println("Order ID: " + id + (linkedBooking != null ? " (Linked to Booking " + linkedBooking.getId() + ")" : ""));
         for (ConcessionItem i : items) System.out.println(i);
-        System.out.printf("Subtotal: %.2f\nTaxes: %.2f\nTotal: %.2f\n", subtotal, taxes, total);
+        System.out.println("Subtotal: " + Money.format(subtotalPaise));
+        System.out.println("Taxes: " + Money.format(taxesPaise));
+        System.out.println("Total: " + Money.format(totalPaise));
         System.out.println("Ordered at: " + orderedAt);
         System.out.println("------------------------------");
     }
@@ -55,24 +69,28 @@ public class ConcessionOrder {
     public static class ConcessionItem {
         private final int id;
         private final String name;
-        private final double unitPrice;
+        private final long unitPricePaise;
         private final int qty;
 
-        public ConcessionItem(int id, String name, double unitPrice, int qty) {
+        public ConcessionItem(int id, String name, long unitPricePaise, int qty) {
             if (name == null || name.trim().isEmpty()) throw new IllegalArgumentException("Item name required");
-            if (unitPrice < 0) throw new IllegalArgumentException("Unit price >= 0");
+            if (unitPricePaise < 0) throw new IllegalArgumentException("Unit price >= 0");
             if (qty <= 0) throw new IllegalArgumentException("Quantity must be positive");
             this.id = id;
             this.name = name;
-            this.unitPrice = unitPrice;
+            this.unitPricePaise = unitPricePaise;
             this.qty = qty;
         }
 
-        public double total() { return unitPrice * qty; }
+        public int getId() { return id; }
+        public String getName() { return name; }
+        public long getUnitPricePaise() { return unitPricePaise; }
+        public int getQty() { return qty; }
+        public long totalPaise() { return Math.multiplyExact(unitPricePaise, (long) qty); }
 
         @Override
         public String toString() {
-            return String.format("%d x %s @ %.2f = %.2f", qty, name, unitPrice, total());
+            return qty + " x " + name + " @ " + Money.format(unitPricePaise) + " = " + Money.format(totalPaise());
         }
     }
 
@@ -80,15 +98,15 @@ public class ConcessionOrder {
     public static class MenuItem {
         private final int id;
         private final String name;
-        private final double price;
+        private final long pricePaise;
 
-        public MenuItem(int id, String name, double price) {
-            this.id = id; this.name = name; this.price = price;
+        public MenuItem(int id, String name, long pricePaise) {
+            this.id = id; this.name = name; this.pricePaise = pricePaise;
         }
         public int getId() { return id; }
         public String getName() { return name; }
-        public double getPrice() { return price; }
+        public long getPricePaise() { return pricePaise; }
         @Override
-        public String toString() { return id + ": " + name + " - " + price; }
+        public String toString() { return id + ": " + name + " - " + Money.format(pricePaise); }
     }
 }
@@ -0,0 +1,55 @@
+package JavaAssign;
+import java.util.*;
+
+/**
+ * Immutable consistent-hash ring mapping show ids to shards. Each shard is placed at
+ * {@code pointsPerShard} pseudo-random points; a key belongs to the first point at or after
+ * its own hash, wrapping round. Adding or removing a shard therefore moves only the keys
+ * between its points and their neighbours (about 1/N of them) instead of reshuffling all.
+ */
+public final class ConsistentHashRing {
+    private final int shardCount;
+    private final int pointsPerShard;
+    private final long[] points; // ascending hashes
+    private final int[] owners;  // shard owning points[i]
+
+    public ConsistentHashRing(int shardCount, int pointsPerShard) {
+        if (shardCount < 1) throw new IllegalArgumentException("At least one shard required");
+        if (pointsPerShard < 1) throw new IllegalArgumentException("At least one point per shard required");
+        this.shardCount = shardCount;
+        this.pointsPerShard = pointsPerShard;
+        long[][] placed = new long[shardCount * pointsPerShard][];
+        int n = 0;
+        for (int shard = 0; shard < shardCount; shard++) {
+            for (int p = 0; p < pointsPerShard; p++) placed[n++] = new long[] {mix(((long) shard << 32) | p), shard};
+        }
+        Arrays.sort(placed, (a, b) -> Long.compare(a[0], b[0]));
+        this.points = new long[n];
+        this.owners = new int[n];
+        for (int i = 0; i < n; i++) {
+            points[i] = placed[i][0];
+            owners[i] = (int) placed[i][1];
+        }
+    }
+
+    public int getShardCount() { return shardCount; }
+    public int getPointsPerShard() { return pointsPerShard; }
+
+    /** Shard that owns {@code key}, in {@code [0, shardCount)}. */
+    public int shardFor(long key) {
+        long h = mix(~key); // a different stream from the shard points
+        int i = Arrays.binarySearch(points, h);
+        if (i < 0) i = -i - 1;
+        return owners[i == points.length ? 0 : i];
+    }
+
+    // 64-bit finaliser from MurmurHash3: consecutive ids land far apart
+    static long mix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -20,6 +20,9 @@ public class Customer {
         System.out.println("Name: " + name);
         System.out.println("Phone: " + phone);
     }
-}
-
 
+    @Override
+    public String toString() {
+        return name + " (" + phone + ")";
+    }
+}
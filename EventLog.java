@@ -0,0 +1,209 @@
+package JavaAssign;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * EventLog - append-only FileChannel log with group commit.
+ * Appenders copy their framed record into a shared buffer and wait; a single writer
+ * thread drains whatever has accumulated, writes it in one call and fsyncs once for
+ * the whole batch.
+ *
+ * Frame: int bodyLength | long seq | byte type | body | int crc32(seq, type, body)
+ */
+public class EventLog implements Closeable {
+    private static final int HEADER = Integer.BYTES + Long.BYTES + 1;
+    private static final int MAX_BODY = 16 * 1024 * 1024;
+
+    public interface RecordWriter {
+        void write(DataOutput out) throws IOException;
+    }
+
+    public interface RecordHandler {
+        void apply(byte type, long seq, DataInput in) throws IOException;
+    }
+
+    private final FileChannel channel;
+    private final Object lock = new Object();
+    private final Thread writer;
+
+    private byte[] pending = new byte[64 * 1024];
+    private byte[] spare = new byte[64 * 1024];
+    private int pendingLen;
+    private long lastSeq;
+    private long durableSeq;
+    private IOException failure;
+    private boolean running = true;
+
+    public EventLog(Path file, long lastSeq) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.lastSeq = lastSeq;
+        this.durableSeq = lastSeq;
+        this.writer = new Thread(this::writeLoop, "event-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /** Buffers a record for the next group commit and returns its sequence number. */
+    public long append(byte type, RecordWriter body) {
+        byte[] payload;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            body.write(new DataOutputStream(bytes));
+            payload = bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (payload.length > MAX_BODY) throw new IllegalArgumentException("Record too large");
+        synchronized (lock) {
+            if (failure != null) throw new IllegalStateException("Event log failed", failure);
+            if (!running) throw new IllegalStateException("Event log closed");
+            long seq = ++lastSeq;
+            int frameLen = HEADER + payload.length + Integer.BYTES;
+            ensureCapacity(frameLen);
+            ByteBuffer frame = ByteBuffer.wrap(pending, pendingLen, frameLen);
+            frame.putInt(payload.length).putLong(seq).put(type).put(payload);
+            CRC32 crc = new CRC32();
+            crc.update(pending, pendingLen + Integer.BYTES, Long.BYTES + 1 + payload.length);
+            frame.putInt((int) crc.getValue());
+            pendingLen += frameLen;
+            lock.notifyAll();
+            return seq;
+        }
+    }
+
+    /** Blocks until every record up to {@code seq} has been fsynced. */
+    public void awaitDurable(long seq) {
+        synchronized (lock) {
+            boolean interrupted = false;
+            while (durableSeq < seq && failure == null) {
+                try { lock.wait(); }
+                catch (InterruptedException e) { interrupted = true; }
+            }
+            if (interrupted) Thread.currentThread().interrupt();
+            if (durableSeq < seq) throw new IllegalStateException("Event log failed", failure);
+        }
+    }
+
+    public long appendAndSync(byte type, RecordWriter body) {
+        long seq = append(type, body);
+        awaitDurable(seq);
+        return seq;
+    }
+
+    public long lastSeq() {
+        synchronized (lock) { return lastSeq; }
+    }
+
+    /** Drops every record written so far; callers must first capture them in a snapshot. */
+    public void truncate() throws IOException {
+        awaitDurable(lastSeq());
+        synchronized (lock) {
+            channel.truncate(0);
+            channel.force(true);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            running = false;
+            lock.notifyAll();
+        }
+        try { writer.join(); }
+        catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        channel.close();
+    }
+
+    private void ensureCapacity(int extra) {
+        if (pendingLen + extra <= pending.length) return;
+        byte[] grown = new byte[Math.max(pending.length * 2, pendingLen + extra)];
+        System.arraycopy(pending, 0, grown, 0, pendingLen);
+        pending = grown;
+    }
+
+    private void writeLoop() {
+        while (true) {
+            byte[] buf;
+            int len;
+            long upTo;
+            synchronized (lock) {
+                while (pendingLen == 0 && running) {
+                    try { lock.wait(); }
+                    catch (InterruptedException e) { return; }
+                }
+                if (pendingLen == 0) return;
+                buf = pending;
+                len = pendingLen;
+                upTo = lastSeq;
+                pending = spare;
+                pendingLen = 0;
+            }
+            try {
+                ByteBuffer bb = ByteBuffer.wrap(buf, 0, len);
+                while (bb.hasRemaining()) channel.write(bb);
+                channel.force(false);
+            } catch (IOException e) {
+                synchronized (lock) {
+                    failure = e;
+                    lock.notifyAll();
+                }
+                return;
+            }
+            synchronized (lock) {
+                durableSeq = upTo;
+                spare = buf;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Feeds every intact record with seq greater than {@code afterSeq} to the handler and returns
+     * the last sequence number seen. A torn or corrupt tail (crash mid-write) is cut off.
+     */
+    public static long replay(Path file, long afterSeq, RecordHandler handler) throws IOException {
+        long last = afterSeq;
+        if (!Files.exists(file)) return last;
+        long validBytes = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            byte[] body = new byte[256];
+            CRC32 crc = new CRC32();
+            while (true) {
+                int len;
+                try { len = in.readInt(); }
+                catch (EOFException e) { break; }
+                if (len < 0 || len > MAX_BODY) break;
+                if (body.length < len + Long.BYTES + 1) body = new byte[Math.max(body.length * 2, len + Long.BYTES + 1)];
+                int stored;
+                try {
+                    in.readFully(body, 0, Long.BYTES + 1 + len);
+                    stored = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                crc.reset();
+                crc.update(body, 0, Long.BYTES + 1 + len);
+                if ((int) crc.getValue() != stored) break;
+                ByteBuffer head = ByteBuffer.wrap(body, 0, Long.BYTES + 1);
+                long seq = head.getLong();
+                byte type = head.get();
+                if (seq > afterSeq) {
+                    handler.apply(type, seq, new DataInputStream(new ByteArrayInputStream(body, Long.BYTES + 1, len)));
+                }
+                last = Math.max(last, seq);
+                validBytes += HEADER + len + Integer.BYTES;
+            }
+        }
+        if (validBytes < Files.size(file)) {
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                ch.truncate(validBytes);
+            }
+        }
+        return last;
+    }
+}
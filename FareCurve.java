@@ -0,0 +1,69 @@
+package JavaAssign;
+
+/**
+ * Every fare a show can charge under one {@link PricingPolicy}, worked out when the show is
+ * scheduled: a table of paise by seat category, lead-time bucket and occupancy step (5% of
+ * capacity). Quoting a hold is then two bucket lookups and an array read per seat, with
+ * occupancy taken from the seat map's lock-free counters.
+ */
+public final class FareCurve {
+    /** Occupancy is priced in steps of 1/OCCUPANCY_STEPS of capacity. */
+    public static final int OCCUPANCY_STEPS = 20;
+    private static final int COLUMNS = OCCUPANCY_STEPS + 1;
+
+    private final long startMillis;
+    private final int capacity;
+    private final long[] leadMillis;  // descending; past the last one is the "no rule" bucket
+    private final int[] demand;       // [leadBucket * COLUMNS + step], basis points
+    private final long[] fares;       // [(category * leadBuckets + leadBucket) * COLUMNS + step], paise
+    private final int cellsPerCategory;
+    private final SeatLayout layout;
+
+    FareCurve(PricingPolicy policy, Show show) {
+        this.startMillis = show.getStart().toEpochMilli();
+        this.capacity = show.getCapacity();
+        this.leadMillis = policy.leadMillis();
+        this.layout = show.getScreen().getLayout();
+        int buckets = policy.leadBuckets();
+        this.cellsPerCategory = buckets * COLUMNS;
+        this.demand = new int[cellsPerCategory];
+        for (int b = 0; b < buckets; b++) {
+            for (int step = 0; step < COLUMNS; step++) {
+                demand[b * COLUMNS + step] = policy.demand(step * Money.BASIS_POINTS / OCCUPANCY_STEPS, b);
+            }
+        }
+        SeatCategory[] categories = SeatCategory.values();
+        this.fares = new long[categories.length * cellsPerCategory];
+        for (SeatCategory c : categories) {
+            long list = Money.scale(show.getBaseFarePaise(), layout.multiplierBasisPoints(c));
+            for (int cell = 0; cell < cellsPerCategory; cell++) {
+                fares[c.ordinal() * cellsPerCategory + cell] = Money.scale(list, demand[cell]);
+            }
+        }
+    }
+
+    /**
+     * The table cell for a hold taken at {@code nowMillis} with {@code occupied} seats already
+     * held or booked. Occupancy rounds down to its step, so a quote never runs ahead of demand.
+     */
+    public int cell(int occupied, long nowMillis) {
+        long lead = startMillis - nowMillis;
+        int bucket = 0;
+        while (bucket < leadMillis.length && lead < leadMillis[bucket]) bucket++;
+        int o = Math.max(0, Math.min(occupied, capacity));
+        int step = capacity == 0 ? 0 : (int) ((long) o * OCCUPANCY_STEPS / capacity);
+        return bucket * COLUMNS + step;
+    }
+
+    /** Fare in paise of {@code seat} for a quote in {@code cell}. */
+    public long fare(Seat seat, int cell) {
+        return fares[layout.categoryIndexAt(seat.getIndex()) * cellsPerCategory + cell];
+    }
+
+    public long fare(SeatCategory category, int cell) {
+        return fares[category.ordinal() * cellsPerCategory + cell];
+    }
+
+    /** Demand multiplier of {@code cell} in basis points; 10000 is the list price. */
+    public int demandBasisPoints(int cell) { return demand[cell]; }
+}
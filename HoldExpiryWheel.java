@@ -0,0 +1,201 @@
+package JavaAssign;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * HoldExpiryWheel - hierarchical timing wheel that aborts seat holds once their TTL passes.
+ * One entry per hold (not per seat); scheduling and cancelling are O(1), and each tick only
+ * touches the slot whose time has come, cascading coarser levels down as they wrap.
+ */
+public class HoldExpiryWheel {
+    private static final int SLOT_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4; // 64^4 ticks of range
+
+    private final long tickMillis;
+    private final LongSupplier clock;
+    private final Entry[][] slots = new Entry[LEVELS][WHEEL_SIZE];
+    private final Map<Long, Entry> byToken = new HashMap<>();
+    private long currentTick;
+
+    private final LongAdder scheduled = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder expiredLifetimeMillis = new LongAdder();
+    private final AtomicLong maxLifetimeMillis = new AtomicLong();
+
+    private volatile LongConsumer expiryListener = token -> { };
+    private ScheduledExecutorService ticker;
+
+    public HoldExpiryWheel(long tickMillis) {
+        this(tickMillis, System::currentTimeMillis);
+    }
+
+    public HoldExpiryWheel(long tickMillis, LongSupplier clock) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("Tick must be positive");
+        if (clock == null) throw new IllegalArgumentException("Clock required");
+        this.tickMillis = tickMillis;
+        this.clock = clock;
+        this.currentTick = clock.getAsLong() / tickMillis;
+    }
+
+    /** Called with the token of every hold the wheel actually aborted. */
+    public void setExpiryListener(LongConsumer listener) {
+        if (listener == null) throw new IllegalArgumentException("Listener required");
+        this.expiryListener = listener;
+    }
+
+    /** Aborts {@code holdToken} on {@code show} after {@code ttlMillis} unless cancelled first. */
+    public synchronized void schedule(Show show, long holdToken, long ttlMillis) {
+        if (show == null) throw new IllegalArgumentException("Show required");
+        if (ttlMillis <= 0) throw new IllegalArgumentException("TTL must be positive");
+        long now = clock.getAsLong();
+        long deadlineTick = (now + ttlMillis + tickMillis - 1) / tickMillis;
+        if (deadlineTick - currentTick >= 1L << (SLOT_BITS * LEVELS)) throw new IllegalArgumentException("TTL exceeds wheel range");
+        if (byToken.containsKey(holdToken)) throw new IllegalStateException("Hold already scheduled");
+        Entry e = new Entry(show, holdToken, now, deadlineTick);
+        byToken.put(holdToken, e);
+        insert(e, Math.max(e.deadlineTick, currentTick + 1)); // the clock may trail an explicit advanceTo
+        scheduled.increment();
+    }
+
+    /** Stops tracking a hold that was committed or aborted by its owner. */
+    public synchronized boolean cancel(long holdToken) {
+        Entry e = byToken.remove(holdToken);
+        if (e == null) return false;
+        unlink(e);
+        cancelled.increment();
+        return true;
+    }
+
+    /** Processes every tick up to the clock's current time. */
+    public void advance() {
+        advanceTo(clock.getAsLong());
+    }
+
+    public void advanceTo(long nowMillis) {
+        List<Entry> due = new ArrayList<>();
+        synchronized (this) {
+            long target = nowMillis / tickMillis;
+            while (currentTick < target) {
+                currentTick++;
+                for (int level = 1; level < LEVELS; level++) {
+                    if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) break;
+                    cascade(level, (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK), due);
+                }
+                int slot = (int) (currentTick & SLOT_MASK);
+                for (Entry e = slots[0][slot], next; e != null; e = next) {
+                    next = e.next;
+                    takeDue(e, due);
+                }
+                slots[0][slot] = null;
+            }
+        }
+        // abort outside the lock so expiry never blocks schedule/cancel callers
+        for (Entry e : due) {
+            if (!e.show.abort(e.token)) continue; // committed or aborted concurrently
+            long lived = nowMillis - e.createdAt;
+            expired.increment();
+            expiredLifetimeMillis.add(lived);
+            maxLifetimeMillis.accumulateAndGet(lived, Math::max);
+            expiryListener.accept(e.token);
+        }
+    }
+
+    public synchronized void start() {
+        if (ticker != null) return;
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "hold-expiry");
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (ticker != null) ticker.shutdownNow();
+        ticker = null;
+    }
+
+    public synchronized int pending() { return byToken.size(); }
+    public long getScheduledCount() { return scheduled.sum(); }
+    public long getExpiredCount() { return expired.sum(); }
+    public long getCancelledCount() { return cancelled.sum(); }
+    public long getMaxLifetimeMillis() { return maxLifetimeMillis.get(); }
+
+    public double getAverageLifetimeMillis() {
+        long n = expired.sum();
+        return n == 0 ? 0 : (double) expiredLifetimeMillis.sum() / n;
+    }
+
+    public String summary() {
+        return String.format("Holds: %d scheduled, %d pending, %d expired (avg %.0f ms, max %d ms), %d cancelled",
+                getScheduledCount(), pending(), getExpiredCount(), getAverageLifetimeMillis(), getMaxLifetimeMillis(), getCancelledCount());
+    }
+
+    // deadline is past the current tick
+    private void insert(Entry e, long deadline) {
+        int level = 0;
+        // lowest level whose parent block already contains the deadline
+        while (level < LEVELS - 1 && (deadline >>> (SLOT_BITS * (level + 1))) != (currentTick >>> (SLOT_BITS * (level + 1)))) level++;
+        int slot = (int) ((deadline >>> (SLOT_BITS * level)) & SLOT_MASK);
+        e.slotLevel = level;
+        e.slot = slot;
+        e.prev = null;
+        e.next = slots[level][slot];
+        if (e.next != null) e.next.prev = e;
+        slots[level][slot] = e;
+    }
+
+    private void unlink(Entry e) {
+        if (e.slotLevel < 0) return;
+        if (e.prev != null) e.prev.next = e.next;
+        else slots[e.slotLevel][e.slot] = e.next;
+        if (e.next != null) e.next.prev = e.prev;
+        e.prev = e.next = null;
+        e.slotLevel = -1;
+    }
+
+    // moves a block's entries down a level; one due on this very tick (a block boundary) expires now
+    private void cascade(int level, int slot, List<Entry> due) {
+        Entry e = slots[level][slot];
+        slots[level][slot] = null;
+        while (e != null) {
+            Entry next = e.next;
+            if (e.deadlineTick <= currentTick) takeDue(e, due);
+            else insert(e, e.deadlineTick);
+            e = next;
+        }
+    }
+
+    private void takeDue(Entry e, List<Entry> due) {
+        byToken.remove(e.token);
+        e.slotLevel = -1;
+        e.prev = e.next = null;
+        due.add(e);
+    }
+
+    private static final class Entry {
+        final Show show;
+        final long token;
+        final long createdAt;
+        final long deadlineTick;
+        int slotLevel = -1;
+        int slot;
+        Entry prev, next;
+
+        Entry(Show show, long token, long createdAt, long deadlineTick) {
+            this.show = show;
+            this.token = token;
+            this.createdAt = createdAt;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
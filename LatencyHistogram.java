@@ -0,0 +1,118 @@
+package JavaAssign;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Log-linear latency histogram in the style of HdrHistogram: values below 128 ns get a bucket
+ * each, and every power of two above that is split into 64 buckets, so any recorded value is
+ * reported within 1/64 (about 1.6%) of the truth across the whole range of a long. Recording
+ * is one atomic increment plus a sum and a max, with nothing allocated; reports work on a
+ * {@link Snapshot} copied out of the counters.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BITS = 7;
+    private static final int SUB = 1 << SUB_BITS; // exact buckets below this
+    private static final int HALF = SUB >> 1;     // buckets per power of two above it
+    private static final int BUCKETS = SUB + (64 - SUB_BITS) * HALF;
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public LatencyHistogram(String name) {
+        if (name == null || name.isEmpty()) throw new IllegalArgumentException("Histogram name required");
+        this.name = name;
+    }
+
+    public String getName() { return name; }
+
+    /** Records one latency in nanoseconds; negative values count as zero. */
+    public void record(long nanos) {
+        long v = Math.max(0, nanos);
+        counts.getAndIncrement(index(v));
+        sum.add(v);
+        long m = max.get();
+        while (v > m && !max.compareAndSet(m, v)) m = max.get();
+    }
+
+    /** Records the time since {@code startNanos}, a {@link System#nanoTime()} reading. */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Copies the counters. Recording carries on meanwhile, so the bucket total can run a few
+     * values ahead of the sum; the snapshot's count is its own bucket total.
+     */
+    public Snapshot snapshot() {
+        long[] c = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) n += c[i] = counts.get(i);
+        return new Snapshot(name, c, n, sum.sum(), max.get());
+    }
+
+    static int index(long v) {
+        if (v < SUB) return (int) v;
+        int shift = 63 - Long.numberOfLeadingZeros(v) - (SUB_BITS - 1); // v >>> shift is in [HALF, SUB)
+        return SUB + (shift - 1) * HALF + (int) (v >>> shift) - HALF;
+    }
+
+    // largest value that lands in bucket i
+    static long highestIn(int i) {
+        if (i < SUB) return i;
+        int shift = (i - SUB) / HALF + 1;
+        long top = (i - SUB) % HALF + HALF;
+        return ((top + 1) << shift) - 1;
+    }
+
+    /** Point-in-time copy of a histogram; values are nanoseconds. */
+    public static final class Snapshot {
+        private final String name;
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(String name, long[] counts, long count, long sum, long max) {
+            this.name = name;
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public String getName() { return name; }
+        public long getCount() { return count; }
+        public long getMax() { return max; }
+        public double getMean() { return count == 0 ? 0 : (double) sum / count; }
+
+        /** Value at {@code percentile} (0-100): the top of the bucket it falls in, capped at the max. */
+        public long percentile(double percentile) {
+            if (percentile < 0 || percentile > 100) throw new IllegalArgumentException("Percentile must be 0-100");
+            if (count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(highestIn(i), max);
+            }
+            return max;
+        }
+
+        /** One line: count, mean and percentiles in microseconds. */
+        public String toText() {
+            return String.format(Locale.ROOT, "%-16s count=%d mean=%.1fus p50=%.1fus p90=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus",
+                    name, count, getMean() / 1000, micros(50), micros(90), micros(99), micros(99.9), max / 1000.0);
+        }
+
+        public String toJson() {
+            return String.format(Locale.ROOT, "{\"count\":%d,\"meanMicros\":%.1f,\"p50Micros\":%.1f,\"p90Micros\":%.1f,\"p99Micros\":%.1f,\"p999Micros\":%.1f,\"maxMicros\":%.1f}",
+                    count, getMean() / 1000, micros(50), micros(90), micros(99), micros(99.9), max / 1000.0);
+        }
+
+        private double micros(double percentile) { return percentile(percentile) / 1000.0; }
+    }
+}
@@ -0,0 +1,85 @@
+package JavaAssign;
+
+/**
+ * Fixed-point money helpers. Amounts are plain {@code long} paise (1/100 rupee) so totals
+ * never drift and arithmetic allocates nothing; rates and multipliers are basis points
+ * (1/100 of a percent) and every scaling step rounds half up, once.
+ */
+public final class Money {
+    public static final long PAISE_PER_RUPEE = 100;
+    public static final int BASIS_POINTS = 10_000;
+
+    private Money() { }
+
+    /** Nearest paise of a rupee amount; for literals and user input, never for running totals. */
+    public static long ofRupees(double rupees) {
+        if (Double.isNaN(rupees) || Double.isInfinite(rupees)) throw new IllegalArgumentException("Invalid amount: " + rupees);
+        return Math.round(rupees * PAISE_PER_RUPEE);
+    }
+
+    /** Parses "250", "250.5" or "250.50" exactly; more than two decimals is an error. */
+    public static long parse(String s) {
+        if (s == null) throw new IllegalArgumentException("Amount required");
+        String t = s.trim();
+        boolean negative = t.startsWith("-");
+        if (negative) t = t.substring(1);
+        int dot = t.indexOf('.');
+        String whole = dot < 0 ? t : t.substring(0, dot);
+        String frac = dot < 0 ? "" : t.substring(dot + 1);
+        if (whole.isEmpty() && frac.isEmpty() || frac.length() > 2 || !digits(whole) || !digits(frac)) {
+            throw new IllegalArgumentException("Invalid amount: " + s);
+        }
+        try {
+            long paise = Math.multiplyExact(whole.isEmpty() ? 0 : Long.parseLong(whole), PAISE_PER_RUPEE);
+            if (!frac.isEmpty()) paise = Math.addExact(paise, Long.parseLong(frac) * (frac.length() == 1 ? 10 : 1));
+            return negative ? -paise : paise;
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("Amount out of range: " + s);
+        }
+    }
+
+    /** "1234.50" style rendering, no grouping and no currency symbol. */
+    public static String format(long paise) {
+        StringBuilder sb = new StringBuilder(24);
+        if (paise < 0) sb.append('-');
+        long abs = Math.abs(paise);
+        long frac = abs % PAISE_PER_RUPEE;
+        sb.append(abs / PAISE_PER_RUPEE).append('.');
+        if (frac < 10) sb.append('0');
+        return sb.append(frac).toString();
+    }
+
+    /** Basis points as a percentage, trailing zeros dropped: 500 is "5%", 1250 "12.5%", 11235 "112.35%". */
+    public static String formatPercent(int basisPoints) {
+        StringBuilder sb = new StringBuilder(12);
+        if (basisPoints < 0) sb.append('-');
+        long abs = Math.abs((long) basisPoints);
+        long frac = abs % 100;
+        sb.append(abs / 100);
+        if (frac != 0) {
+            sb.append('.').append(frac / 10);
+            if (frac % 10 != 0) sb.append(frac % 10);
+        }
+        return sb.append('%').toString();
+    }
+
+    /** {@code amount * basisPoints / 10000}, rounded half up (half away from zero for negatives). */
+    public static long scale(long amount, int basisPoints) {
+        long p = Math.multiplyExact(amount, (long) basisPoints);
+        long half = BASIS_POINTS / 2;
+        return p >= 0 ? (p + half) / BASIS_POINTS : -((-p + half) / BASIS_POINTS);
+    }
+
+    /** A multiplier or rate such as 1.3 or 0.05 as basis points (13000, 500). */
+    public static int basisPoints(double factor) {
+        if (Double.isNaN(factor) || factor < 0 || factor * BASIS_POINTS > Integer.MAX_VALUE) throw new IllegalArgumentException("Invalid factor: " + factor);
+        return (int) Math.round(factor * BASIS_POINTS);
+    }
+
+    private static boolean digits(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) < '0' || s.charAt(i) > '9') return false;
+        }
+        return true;
+    }
+}
@@ -3,35 +3,33 @@ import java.util.Objects;
 
 public class Movie {
     private final int id;
-    private String title;
-    private String genre;
-    private int durationMinutes;
+    // edited in place only by BookingService.updateMovie; volatile so lock-free readers see whole edits
+    private volatile String title;
+    private volatile String genre;
+    private final int durationMinutes;
 
     public Movie(int id, String title, String genre, int durationMinutes) {
+        if (durationMinutes <= 0) throw new IllegalArgumentException("Duration must be positive");
         this.id = id;
         setTitle(title);
         setGenre(genre);
-        setDurationMinutes(durationMinutes);
+        this.durationMinutes = durationMinutes;
     }
 
     public int getId() { return id; }
 
     public String getTitle() { return title; }
-    public void setTitle(String title) {
+    void setTitle(String title) {
         if (title == null || title.trim().isEmpty()) throw new IllegalArgumentException("Title required");
         this.title = title.trim();
     }
 
     public String getGenre() { return genre; }
-    public void setGenre(String genre) {
+    void setGenre(String genre) {
         this.genre = (genre == null ? "" : genre.trim());
     }
 
     public int getDurationMinutes() { return durationMinutes; }
-    public void setDurationMinutes(int durationMinutes) {
-        if (durationMinutes <= 0) throw new IllegalArgumentException("Duration must be positive");
-        this.durationMinutes = durationMinutes;
-    }
 
     @Override
     public String toString() {
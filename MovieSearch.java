@@ -0,0 +1,488 @@
+package JavaAssign;
+import java.text.Normalizer;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * MovieSearch - in-memory inverted index over movie titles, with genre facets.
+ * Titles are normalised (lower case, accents stripped, split on anything that is not a letter
+ * or digit) and every token maps to the sorted ids of the movies containing it. The token map
+ * is a skip list, so a query token also matches as a prefix with one range scan; tokens of
+ * four or more letters also match with one typo through a one-deletion neighbourhood (SymSpell
+ * style: two words within one edit share a variant with a letter deleted). Every query token
+ * must match; matches score exact > prefix > typo, and the rarest token is matched first so
+ * the others are only intersected with its survivors.
+ *
+ * Hits are joined with the movie's upcoming shows, so among equal text scores a movie with
+ * seats left ranks first. Writers synchronise on the index and publish immutable posting
+ * lists; searches read them without locking.
+ */
+public class MovieSearch {
+    private static final float EXACT = 1.0f;
+    private static final float PREFIX = 0.6f;
+    private static final float TYPO = 0.4f;
+    private static final int MIN_PREFIX = 2;
+    private static final int MIN_TYPO = 4;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern GENRE_SEPARATOR = Pattern.compile("[,/|]");
+    /** Upcoming shows listed per hit. */
+    public static final int SHOWS_PER_HIT = 3;
+
+    /** One ranked movie with its next bookable shows. */
+    public static final class Hit {
+        private final Movie movie;
+        private final float score;
+        private final List<Show> nextShows;
+        private final int seatsLeft;
+
+        private Hit(Movie movie, float score, List<Show> nextShows, int seatsLeft) {
+            this.movie = movie;
+            this.score = score;
+            this.nextShows = nextShows;
+            this.seatsLeft = seatsLeft;
+        }
+
+        public Movie getMovie() { return movie; }
+        public float getScore() { return score; }
+        /** Up to {@link #SHOWS_PER_HIT} upcoming shows that still have seats, soonest first. */
+        public List<Show> getNextShows() { return nextShows; }
+        /** Seats left across all upcoming shows of the movie. */
+        public int getSeatsLeft() { return seatsLeft; }
+
+        @Override
+        public String toString() {
+            return String.format("%s - %d seat(s) left in upcoming shows", movie, seatsLeft);
+        }
+    }
+
+    /** Top hits plus genre counts over every text match, taken before the genre filter. */
+    public static final class Result {
+        private final List<Hit> hits;
+        private final int matchCount;
+        private final Map<String, Integer> genreFacets;
+
+        private Result(List<Hit> hits, int matchCount, Map<String, Integer> genreFacets) {
+            this.hits = hits;
+            this.matchCount = matchCount;
+            this.genreFacets = genreFacets;
+        }
+
+        public List<Hit> getHits() { return hits; }
+        /** Movies matching the query and genre, of which the hits are the best. */
+        public int getMatchCount() { return matchCount; }
+        public Map<String, Integer> getGenreFacets() { return genreFacets; }
+    }
+
+    // by movie id: ids may be caller-chosen (addMovieAs, imports, restore), so a map rather than an array
+    private final ConcurrentMap<Integer, Indexed> movies = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Postings> postings = new ConcurrentSkipListMap<>(); // token -> sorted ids
+    private final ConcurrentMap<String, String[]> variants = new ConcurrentHashMap<>();        // deletion variant -> tokens
+    // genres get small ordinals so facet counting is an array increment
+    private final ConcurrentMap<String, Integer> genreOrdinals = new ConcurrentHashMap<>();    // normalised -> ordinal
+    private volatile String[] genreNames = new String[0];                                      // ordinal -> as first entered
+    private final ConcurrentMap<Integer, Postings> genrePostings = new ConcurrentHashMap<>();  // ordinal -> sorted ids
+
+    /** Indexes {@code movie}, or re-indexes it after its title or genre changed. */
+    public synchronized void index(Movie movie) {
+        if (movie == null) throw new IllegalArgumentException("Movie required");
+        int id = movie.getId();
+        if (id < 0) throw new IllegalArgumentException("Movie id cannot be negative");
+        String[] tokens = tokens(movie.getTitle());
+        int[] genres = genreOrdinals(genres(movie.getGenre()));
+        Indexed old = lookup(id);
+        movies.put(id, new Indexed(movie, tokens, genres, old == null ? new ConcurrentSkipListMap<>() : old.shows));
+        String[] oldTokens = old == null ? null : old.tokens;
+        int[] oldGenres = old == null ? null : old.genres;
+        for (String t : tokens) {
+            Postings ids = postings.getOrDefault(t, Postings.EMPTY);
+            if (ids.size == 0) addVariants(t);
+            postings.put(t, ids.with(id));
+        }
+        for (int g : genres) genrePostings.put(g, genrePostings.getOrDefault(g, Postings.EMPTY).with(id));
+        // then take out what the previous title and genre had that the new ones do not
+        if (oldTokens != null) {
+            Set<String> keep = new HashSet<>(Arrays.asList(tokens));
+            for (String t : oldTokens) if (!keep.contains(t)) removePosting(t, id);
+        }
+        if (oldGenres != null) {
+            for (int g : oldGenres) {
+                if (!contains(genres, g)) genrePostings.put(g, genrePostings.getOrDefault(g, Postings.EMPTY).without(id));
+            }
+        }
+    }
+
+    public void addShow(Show show) {
+        Indexed m = lookup(show.getMovie().getId());
+        if (m == null) throw new IllegalArgumentException("Movie " + show.getMovie().getId() + " is not indexed");
+        m.shows.put(showKey(show.getStart(), show.getId()), show);
+    }
+
+    /**
+     * Top {@code k} movies matching every token of {@code query} and, when given, {@code genre}
+     * (case-insensitive). A blank query lists the genre. Availability counts shows starting
+     * at or after {@code from}.
+     */
+    public Result search(String query, String genre, Instant from, int k) {
+        if (k <= 0) throw new IllegalArgumentException("Result size must be positive");
+        if (from == null) throw new IllegalArgumentException("Start time required");
+        String[] terms = tokens(query == null ? "" : query);
+        boolean hasGenre = genre != null && !genre.trim().isEmpty();
+        if (terms.length == 0 && !hasGenre) throw new IllegalArgumentException("Query or genre required");
+        Integer ordinal = hasGenre ? genreOrdinals.get(normalise(genre)) : null;
+        int wanted = ordinal == null ? -1 : ordinal;
+
+        Matches m;
+        if (terms.length > 0) {
+            m = match(terms);
+        } else {
+            Postings ids = genrePostings.getOrDefault(wanted, Postings.EMPTY);
+            float[] scores = new float[ids.size];
+            Arrays.fill(scores, EXACT);
+            m = new Matches(ids.ids, scores, ids.size);
+        }
+
+        String[] names = genreNames;
+        int[] facetCounts = new int[names.length];
+        int matchCount = 0;
+        PriorityQueue<Ranked> top = new PriorityQueue<>(k + 1); // worst of the best k on top
+        for (int i = 0; i < m.size; i++) {
+            int id = m.ids[i];
+            Indexed movie = lookup(id);
+            if (movie == null) continue;
+            for (int g : movie.genres) if (g < facetCounts.length) facetCounts[g]++;
+            if (hasGenre && !contains(movie.genres, wanted)) continue;
+            matchCount++;
+            // a lower text score cannot make the top k, so skip the availability lookup
+            if (top.size() == k && m.scores[i] < top.peek().score) continue;
+            Ranked r = new Ranked(movie, m.scores[i], hasSeats(movie, from));
+            if (top.size() < k) top.add(r);
+            else if (r.compareTo(top.peek()) > 0) {
+                top.poll();
+                top.add(r);
+            }
+        }
+        List<Hit> hits = new ArrayList<>(top.size());
+        while (!top.isEmpty()) hits.add(toHit(top.poll(), from));
+        Collections.reverse(hits);
+        Map<String, Integer> facets = new TreeMap<>();
+        for (int i = 0; i < facetCounts.length; i++) if (facetCounts[i] > 0) facets.put(names[i], facetCounts[i]);
+        return new Result(Collections.unmodifiableList(hits), matchCount, Collections.unmodifiableMap(facets));
+    }
+
+    // ids matching every term with their summed scores, in id order
+    private Matches match(String[] terms) {
+        List<Expansion> expanded = new ArrayList<>(terms.length);
+        for (String t : terms) expanded.add(expand(t));
+        expanded.sort(Comparator.comparingInt(e -> e.postingCount));
+        Matches m = expanded.get(0).union();
+        for (int i = 1; i < expanded.size() && m.size > 0; i++) {
+            Expansion e = expanded.get(i);
+            // probe the survivors when that is cheaper than merging the term's posting lists
+            m = (long) m.size * e.lists.size() * 8 < e.postingCount ? m.probe(e) : m.intersect(e.union());
+        }
+        return m;
+    }
+
+    // the posting lists a query term reaches, with the score each earns
+    private Expansion expand(String term) {
+        Map<String, Float> tokens = new HashMap<>();
+        if (term.length() >= MIN_PREFIX) {
+            for (String t : postings.subMap(term, true, term + Character.MAX_VALUE, true).keySet()) {
+                // shorter completions are closer to what was typed
+                tokens.put(t, PREFIX + (EXACT - PREFIX) * term.length() / t.length());
+            }
+        } else if (postings.containsKey(term)) {
+            tokens.put(term, EXACT);
+        }
+        if (term.length() >= MIN_TYPO) {
+            for (String v : withDeletions(term)) {
+                for (String t : variants.getOrDefault(v, new String[0])) tokens.putIfAbsent(t, TYPO);
+            }
+        }
+        Expansion e = new Expansion();
+        tokens.forEach((t, score) -> {
+            Postings ids = postings.get(t);
+            if (ids == null) return;
+            e.lists.add(ids);
+            e.scores.add(score);
+            e.postingCount += ids.size;
+        });
+        return e;
+    }
+
+    private Indexed lookup(int id) {
+        return movies.get(id);
+    }
+
+    private static boolean hasSeats(Indexed m, Instant from) {
+        if (m.shows.isEmpty()) return false;
+        for (Show s : m.shows.tailMap(showKey(from, 0)).values()) if (s.getAvailableCount() > 0) return true;
+        return false;
+    }
+
+    private static Hit toHit(Ranked r, Instant from) {
+        List<Show> next = new ArrayList<>(SHOWS_PER_HIT);
+        int seats = 0;
+        for (Show s : r.entry.shows.tailMap(showKey(from, 0)).values()) {
+            int left = s.getAvailableCount();
+            seats += left;
+            if (left > 0 && next.size() < SHOWS_PER_HIT) next.add(s);
+        }
+        return new Hit(r.entry.movie, r.score, Collections.unmodifiableList(next), seats);
+    }
+
+    // start minute in the high half, show id in the low half: ordered by start, then id
+    private static long showKey(Instant start, int showId) {
+        long minute = Math.floorDiv(start.getEpochSecond() + 59, 60);
+        return minute << 32 | (showId & 0xFFFFFFFFL);
+    }
+
+    // Writers (under the index lock)
+    private int[] genreOrdinals(String[] entered) {
+        int[] out = new int[entered.length];
+        for (int i = 0; i < entered.length; i++) {
+            String key = normalise(entered[i]);
+            Integer ord = genreOrdinals.get(key);
+            if (ord == null) {
+                String[] names = Arrays.copyOf(genreNames, genreNames.length + 1);
+                ord = genreNames.length;
+                names[ord] = entered[i];
+                genreNames = names;
+                genreOrdinals.put(key, ord);
+            }
+            out[i] = ord;
+        }
+        return out;
+    }
+
+    private void addVariants(String token) {
+        for (String v : withDeletions(token)) {
+            String[] ts = variants.getOrDefault(v, new String[0]);
+            String[] copy = Arrays.copyOf(ts, ts.length + 1);
+            copy[ts.length] = token;
+            variants.put(v, copy);
+        }
+    }
+
+    private void removePosting(String token, int id) {
+        Postings ids = postings.getOrDefault(token, Postings.EMPTY).without(id);
+        if (ids.size > 0) {
+            postings.put(token, ids);
+            return;
+        }
+        postings.remove(token);
+        for (String v : withDeletions(token)) {
+            String[] ts = variants.get(v);
+            if (ts == null) continue;
+            String[] rest = Arrays.stream(ts).filter(t -> !t.equals(token)).toArray(String[]::new);
+            if (rest.length == 0) variants.remove(v);
+            else variants.put(v, rest);
+        }
+    }
+
+    private static boolean contains(int[] small, int v) {
+        for (int x : small) if (x == v) return true;
+        return false;
+    }
+
+    /** What one movie is indexed under, plus its shows keyed by showKey so "upcoming" is one tailMap. */
+    private static final class Indexed {
+        final Movie movie;
+        final String[] tokens;
+        final int[] genres; // ordinals
+        final ConcurrentSkipListMap<Long, Show> shows;
+
+        Indexed(Movie movie, String[] tokens, int[] genres, ConcurrentSkipListMap<Long, Show> shows) {
+            this.movie = movie;
+            this.tokens = tokens;
+            this.genres = genres;
+            this.shows = shows;
+        }
+    }
+
+    /**
+     * Immutable sorted id list. New movies get ascending ids, so most additions append: they
+     * write the slot past the end of a shared, over-allocated array and return a longer view,
+     * which older views never read. Anything else copies.
+     */
+    private static final class Postings {
+        static final Postings EMPTY = new Postings(new int[0], 0, new int[1]);
+
+        final int[] ids;
+        final int size;
+        private final int[] used; // views of one array share it: how many slots are taken
+
+        private Postings(int[] ids, int size, int[] used) {
+            this.ids = ids;
+            this.size = size;
+            this.used = used;
+        }
+
+        Postings with(int id) {
+            if (size > 0 && id <= ids[size - 1]) {
+                int i = Arrays.binarySearch(ids, 0, size, id);
+                if (i >= 0) return this;
+                int at = -i - 1;
+                int[] out = new int[size + 1 + (size >> 1)];
+                System.arraycopy(ids, 0, out, 0, at);
+                out[at] = id;
+                System.arraycopy(ids, at, out, at + 1, size - at);
+                return new Postings(out, size + 1, new int[] {size + 1});
+            }
+            if (size == used[0] && size < ids.length) {
+                ids[size] = id;
+                used[0] = size + 1;
+                return new Postings(ids, size + 1, used);
+            }
+            int[] out = Arrays.copyOf(ids, Math.max(4, size * 2));
+            out[size] = id;
+            return new Postings(out, size + 1, new int[] {size + 1});
+        }
+
+        Postings without(int id) {
+            int i = Arrays.binarySearch(ids, 0, size, id);
+            if (i < 0) return this;
+            int[] out = new int[Math.max(4, size)];
+            System.arraycopy(ids, 0, out, 0, i);
+            System.arraycopy(ids, i + 1, out, i, size - 1 - i);
+            return new Postings(out, size - 1, new int[] {size - 1});
+        }
+    }
+
+    /** Posting lists reached by one query term. */
+    private static final class Expansion {
+        final List<Postings> lists = new ArrayList<>();
+        final List<Float> scores = new ArrayList<>();
+        int postingCount;
+
+        // every id in any list with its best score, in id order
+        Matches union() {
+            if (lists.size() == 1) {
+                Postings p = lists.get(0);
+                float[] s = new float[p.size];
+                Arrays.fill(s, scores.get(0));
+                return new Matches(p.ids, s, p.size);
+            }
+            // id in the high half, score bits in the low half: after sorting, an id's best score comes last
+            long[] pairs = new long[postingCount];
+            int n = 0;
+            for (int l = 0; l < lists.size(); l++) {
+                long bits = Float.floatToIntBits(scores.get(l));
+                Postings p = lists.get(l);
+                for (int i = 0; i < p.size; i++) pairs[n++] = (long) p.ids[i] << 32 | bits;
+            }
+            Arrays.sort(pairs);
+            int[] ids = new int[n];
+            float[] s = new float[n];
+            int size = 0;
+            for (int i = 0; i < n; i++) {
+                int id = (int) (pairs[i] >> 32);
+                if (i + 1 < n && (int) (pairs[i + 1] >> 32) == id) continue;
+                ids[size] = id;
+                s[size++] = Float.intBitsToFloat((int) pairs[i]);
+            }
+            return new Matches(ids, s, size);
+        }
+    }
+
+    /** Matching ids in ascending order with their scores so far. */
+    private static final class Matches {
+        final int[] ids;
+        final float[] scores;
+        final int size;
+
+        Matches(int[] ids, float[] scores, int size) {
+            this.ids = ids;
+            this.scores = scores;
+            this.size = size;
+        }
+
+        Matches intersect(Matches o) {
+            int[] ids = new int[Math.min(size, o.size)];
+            float[] s = new float[ids.length];
+            int n = 0;
+            for (int i = 0, j = 0; i < size && j < o.size; ) {
+                if (this.ids[i] < o.ids[j]) i++;
+                else if (this.ids[i] > o.ids[j]) j++;
+                else {
+                    ids[n] = this.ids[i];
+                    s[n++] = scores[i++] + o.scores[j++];
+                }
+            }
+            return new Matches(ids, s, n);
+        }
+
+        Matches probe(Expansion e) {
+            int[] ids = new int[size];
+            float[] s = new float[size];
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                float best = 0;
+                for (int l = 0; l < e.lists.size(); l++) {
+                    float score = e.scores.get(l);
+                    Postings p = e.lists.get(l);
+                    if (score > best && Arrays.binarySearch(p.ids, 0, p.size, this.ids[i]) >= 0) best = score;
+                }
+                if (best == 0) continue;
+                ids[n] = this.ids[i];
+                s[n++] = scores[i] + best;
+            }
+            return new Matches(ids, s, n);
+        }
+    }
+
+    // greater is better: text score, then seats left, then the shorter title, then the older movie
+    private static final class Ranked implements Comparable<Ranked> {
+        final Indexed entry;
+        final float score;
+        final boolean bookable;
+        final int titleLength;
+
+        Ranked(Indexed entry, float score, boolean bookable) {
+            this.entry = entry;
+            this.score = score;
+            this.bookable = bookable;
+            this.titleLength = entry.movie.getTitle().length();
+        }
+
+        @Override
+        public int compareTo(Ranked o) {
+            if (score != o.score) return Float.compare(score, o.score);
+            if (bookable != o.bookable) return bookable ? 1 : -1;
+            if (titleLength != o.titleLength) return Integer.compare(o.titleLength, titleLength);
+            return Integer.compare(o.entry.movie.getId(), entry.movie.getId());
+        }
+    }
+
+    // Text normalisation
+    static String normalise(String s) {
+        String folded = MARKS.matcher(Normalizer.normalize(s.trim(), Normalizer.Form.NFD)).replaceAll("");
+        return folded.toLowerCase(Locale.ROOT);
+    }
+
+    static String[] tokens(String text) {
+        String n = normalise(text);
+        if (n.isEmpty()) return new String[0];
+        return Arrays.stream(NON_WORD.split(n)).filter(t -> !t.isEmpty()).distinct().toArray(String[]::new);
+    }
+
+    // "Action / Comedy" or "Action, Comedy" is two genres
+    static String[] genres(String genre) {
+        if (genre == null || genre.trim().isEmpty()) return new String[0];
+        return Arrays.stream(GENRE_SEPARATOR.split(genre)).map(String::trim).filter(g -> !g.isEmpty()).distinct().toArray(String[]::new);
+    }
+
+    // the word itself and the word with each one letter left out; words within one edit share one
+    private static List<String> withDeletions(String token) {
+        List<String> out = new ArrayList<>(token.length() + 1);
+        out.add(token);
+        if (token.length() < MIN_TYPO - 1) return out;
+        for (int i = 0; i < token.length(); i++) out.add(token.substring(0, i) + token.substring(i + 1));
+        return out;
+    }
+}
@@ -0,0 +1,83 @@
+package JavaAssign;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded multi-producer / single-consumer ring buffer. Producers claim a slot with one CAS
+ * on the tail and publish into it later, Disruptor style, so a producer can reserve room
+ * before it does slow work and never loses its place. Every slot carries a sequence number:
+ * {@code seq == pos} means free for position pos, {@code seq == pos + 1} means published.
+ * The consumer only ever touches the head, so it needs no CAS at all.
+ */
+final class MpscRing<E> {
+    private final Object[] buffer;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    MpscRing(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) throw new IllegalArgumentException("Capacity must be a power of two >= 2");
+        this.buffer = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) sequences.set(i, i);
+    }
+
+    int capacity() { return buffer.length; }
+
+    /** Claimed but not yet consumed slots (published or not). */
+    int size() { return (int) Math.max(0, tail.get() - head); }
+
+    /** Reserves the next slot, or returns -1 when the ring is full. */
+    long claim() {
+        while (true) {
+            long pos = tail.get();
+            long seq = sequences.getAcquire((int) pos & mask);
+            if (seq == pos) {
+                if (tail.compareAndSet(pos, pos + 1)) return pos;
+            } else if (seq < pos) {
+                return -1; // slot still holds an unconsumed element from the previous lap
+            }
+            // otherwise another producer won the slot; re-read the tail
+        }
+    }
+
+    /** Fills a claimed slot; {@code e} may be null to give the slot back unused. */
+    void publish(long pos, E e) {
+        int idx = (int) pos & mask;
+        buffer[idx] = e;
+        sequences.setRelease(idx, pos + 1);
+    }
+
+    boolean offer(E e) {
+        long pos = claim();
+        if (pos < 0) return false;
+        publish(pos, e);
+        return true;
+    }
+
+    /**
+     * Hands up to {@code max} published elements to {@code sink} in claim order and returns
+     * how many slots were consumed. Stops at the first slot that is claimed but unpublished.
+     * Must only be called from the consumer thread.
+     */
+    @SuppressWarnings("unchecked")
+    int drain(Consumer<? super E> sink, int max) {
+        long h = head;
+        int n = 0;
+        while (n < max) {
+            int idx = (int) h & mask;
+            if (sequences.getAcquire(idx) != h + 1) break;
+            E e = (E) buffer[idx];
+            buffer[idx] = null;
+            sequences.setRelease(idx, h + buffer.length);
+            h++;
+            n++;
+            head = h;
+            if (e != null) sink.accept(e);
+        }
+        return n;
+    }
+}
@@ -0,0 +1,24 @@
+package JavaAssign;
+
+/**
+ * A checkout that did not get paid: declined, timed out or the gateway failed. The hold has
+ * already been released when this is thrown.
+ */
+public class PaymentException extends IllegalStateException {
+    private static final long serialVersionUID = 1L;
+
+    private final PaymentResult result;
+
+    public PaymentException(String message, PaymentResult result) {
+        super(message);
+        this.result = result;
+    }
+
+    public PaymentException(String message, Throwable cause) {
+        super(message, cause);
+        this.result = null;
+    }
+
+    /** The gateway's decline, or null when it never answered. */
+    public PaymentResult getResult() { return result; }
+}
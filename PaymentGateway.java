@@ -0,0 +1,16 @@
+package JavaAssign;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Card processor seen by the booking service. Calls return at once and complete later, so no
+ * booking thread waits on the gateway. Both calls are idempotent on {@code key}: repeating a
+ * key returns the outcome of the first call rather than charging or refunding again. A decline
+ * completes normally with an unapproved {@link PaymentResult}; an unreachable or failing
+ * gateway completes exceptionally.
+ */
+public interface PaymentGateway {
+    CompletableFuture<PaymentResult> charge(String key, long amountPaise);
+
+    /** Returns the money of the approved charge made under {@code key}. */
+    CompletableFuture<PaymentResult> refund(String key, long amountPaise);
+}
@@ -0,0 +1,36 @@
+package JavaAssign;
+
+/**
+ * Outcome of a charge or refund that reached the gateway: approved with the gateway's
+ * reference, or declined with its reason.
+ */
+public final class PaymentResult {
+    private final String key;
+    private final boolean approved;
+    private final String reference;
+    private final String message;
+
+    private PaymentResult(String key, boolean approved, String reference, String message) {
+        this.key = key;
+        this.approved = approved;
+        this.reference = reference;
+        this.message = message;
+    }
+
+    public static PaymentResult approved(String key, String reference) {
+        if (reference == null || reference.isEmpty()) throw new IllegalArgumentException("Reference required");
+        return new PaymentResult(key, true, reference, "Approved");
+    }
+
+    public static PaymentResult declined(String key, String message) {
+        return new PaymentResult(key, false, null, message == null || message.isEmpty() ? "Declined" : message);
+    }
+
+    public String getKey() { return key; }
+    public boolean isApproved() { return approved; }
+    public String getReference() { return reference; }
+    public String getMessage() { return message; }
+
+    @Override
+    public String toString() { return approved ? "Approved (" + reference + ")" : message; }
+}
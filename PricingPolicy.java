@@ -0,0 +1,129 @@
+package JavaAssign;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Immutable demand-pricing rules: how a seat's list price (base fare times its category
+ * multiplier) moves with occupancy and with time left before the show. Both factors are in
+ * basis points and multiply; the product is clamped to {@link #getFloor()}..{@link #getCap()}.
+ * Occupancy points are joined by straight lines; a lead-time rule applies when the hold is at
+ * least that far ahead of the show, the longest matching rule winning. {@link #FLAT} charges
+ * the list price; {@link #STANDARD} is the house policy.
+ */
+public final class PricingPolicy {
+    public static final PricingPolicy FLAT = new PricingPolicy(new int[0], new int[0], new long[0], new int[0], Money.BASIS_POINTS, Money.BASIS_POINTS);
+
+    public static final PricingPolicy STANDARD = FLAT
+            .withOccupancy(5000, 10_000)
+            .withOccupancy(7500, 11_500)
+            .withOccupancy(9000, 13_000)
+            .withOccupancy(10_000, 15_000)
+            .withLeadTime(Duration.ofDays(7), 9000)
+            .withLeadTime(Duration.ofDays(2), 9500)
+            .withLeadTime(Duration.ofDays(1), 10_000)
+            .withLeadTime(Duration.ofHours(6), 10_500)
+            .withLeadTime(Duration.ZERO, 11_000)
+            .withBounds(8000, 20_000);
+
+    private final int[] occupancy;   // ascending occupancy points, basis points of capacity
+    private final int[] occupancyMultipliers;
+    private final long[] leadMillis; // descending lead times
+    private final int[] leadMultipliers;
+    private final int floor;
+    private final int cap;
+
+    private PricingPolicy(int[] occupancy, int[] occupancyMultipliers, long[] leadMillis, int[] leadMultipliers, int floor, int cap) {
+        this.occupancy = occupancy;
+        this.occupancyMultipliers = occupancyMultipliers;
+        this.leadMillis = leadMillis;
+        this.leadMultipliers = leadMultipliers;
+        this.floor = floor;
+        this.cap = cap;
+    }
+
+    /** Copy with a point on the occupancy curve: at {@code occupancyBasisPoints} of capacity taken, charge {@code multiplier}. */
+    public PricingPolicy withOccupancy(int occupancyBasisPoints, int multiplier) {
+        if (occupancyBasisPoints < 0 || occupancyBasisPoints > Money.BASIS_POINTS) throw new IllegalArgumentException("Occupancy must be 0-100%");
+        checkMultiplier(multiplier);
+        int i = Arrays.binarySearch(occupancy, occupancyBasisPoints);
+        if (i >= 0) throw new IllegalArgumentException("Occupancy point " + Money.formatPercent(occupancyBasisPoints) + " already set");
+        int at = -i - 1;
+        return new PricingPolicy(insert(occupancy, at, occupancyBasisPoints), insert(occupancyMultipliers, at, multiplier), leadMillis, leadMultipliers, floor, cap);
+    }
+
+    /** Copy with a lead-time rule: holds at least {@code lead} before the show charge {@code multiplier}. */
+    public PricingPolicy withLeadTime(Duration lead, int multiplier) {
+        if (lead == null || lead.isNegative()) throw new IllegalArgumentException("Lead time cannot be negative");
+        checkMultiplier(multiplier);
+        long ms = lead.toMillis();
+        int at = 0;
+        while (at < leadMillis.length && leadMillis[at] > ms) at++;
+        if (at < leadMillis.length && leadMillis[at] == ms) throw new IllegalArgumentException("Lead time " + lead + " already set");
+        long[] l = new long[leadMillis.length + 1];
+        System.arraycopy(leadMillis, 0, l, 0, at);
+        l[at] = ms;
+        System.arraycopy(leadMillis, at, l, at + 1, leadMillis.length - at);
+        return new PricingPolicy(occupancy, occupancyMultipliers, l, insert(leadMultipliers, at, multiplier), floor, cap);
+    }
+
+    /** Copy that never charges below {@code floor} or above {@code cap} times the list price. */
+    public PricingPolicy withBounds(int floor, int cap) {
+        checkMultiplier(floor);
+        checkMultiplier(cap);
+        if (floor > cap) throw new IllegalArgumentException("Price floor above cap");
+        return new PricingPolicy(occupancy, occupancyMultipliers, leadMillis, leadMultipliers, floor, cap);
+    }
+
+    public int getFloor() { return floor; }
+    public int getCap() { return cap; }
+
+    /** Multiplier at this occupancy, interpolated between points and flat beyond the ends. */
+    public int occupancyMultiplier(int occupancyBasisPoints) {
+        if (occupancy.length == 0) return Money.BASIS_POINTS;
+        if (occupancyBasisPoints <= occupancy[0]) return occupancyMultipliers[0];
+        int last = occupancy.length - 1;
+        if (occupancyBasisPoints >= occupancy[last]) return occupancyMultipliers[last];
+        int i = 1;
+        while (occupancy[i] < occupancyBasisPoints) i++;
+        long span = occupancy[i] - occupancy[i - 1];
+        long rise = occupancyMultipliers[i] - occupancyMultipliers[i - 1];
+        return occupancyMultipliers[i - 1] + (int) Math.round((double) rise * (occupancyBasisPoints - occupancy[i - 1]) / span);
+    }
+
+    /** Combined, clamped multiplier for this occupancy and lead-time bucket. */
+    int demand(int occupancyBasisPoints, int leadBucket) {
+        int lead = leadBucket < leadMultipliers.length ? leadMultipliers[leadBucket] : Money.BASIS_POINTS;
+        int m = (int) Money.scale(occupancyMultiplier(occupancyBasisPoints), lead);
+        return Math.max(floor, Math.min(cap, m));
+    }
+
+    // lead buckets: one per rule, longest first, then one for holds no rule matches
+    int leadBuckets() { return leadMillis.length + 1; }
+    long[] leadMillis() { return leadMillis; }
+
+    /** Precomputes the fares of {@code show} under this policy. */
+    public FareCurve curveFor(Show show) {
+        return new FareCurve(this, show);
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner sj = new StringJoiner(", ");
+        for (int i = 0; i < occupancy.length; i++) sj.add(Money.formatPercent(occupancy[i]) + " full " + Money.formatPercent(occupancyMultipliers[i]));
+        for (int i = 0; i < leadMillis.length; i++) sj.add(Duration.ofMillis(leadMillis[i]) + " ahead " + Money.formatPercent(leadMultipliers[i]));
+        sj.add("floor " + Money.formatPercent(floor) + " cap " + Money.formatPercent(cap));
+        return sj.toString();
+    }
+
+    private static void checkMultiplier(int multiplier) {
+        if (multiplier <= 0 || multiplier > 10 * Money.BASIS_POINTS) throw new IllegalArgumentException("Multiplier must be above 0 and at most 10x");
+    }
+
+    private static int[] insert(int[] a, int at, int value) {
+        int[] out = new int[a.length + 1];
+        System.arraycopy(a, 0, out, 0, at);
+        out[at] = value;
+        System.arraycopy(a, at, out, at + 1, a.length - at);
+        return out;
+    }
+}
@@ -0,0 +1,513 @@
+package JavaAssign;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.IntPredicate;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * SalesAnalytics - rolling sales aggregates, kept up to date as bookings and concession orders
+ * are made and cancelled, so dashboards never re-sum the stores. Totals per show, movie, screen
+ * and menu item live in open-addressed primitive tables; revenue over time lives in two rings
+ * of primitive buckets: tumbling clock hours for the last week, and minutes for the last day
+ * with running sums for the sliding last-hour and last-24-hour figures, which expire a minute
+ * at a time as the clock moves. Revenue is what customers paid, taxes included, and is placed
+ * at the time of sale, so a cancellation takes it back out of the hour it was booked in.
+ *
+ * The aggregates are split into stripes by booking id, each under its own lock, so concurrent
+ * bookings (whose ids are consecutive) land on different stripes rather than one monitor. A
+ * concession order goes to its linked booking's stripe, so a booking and its orders are always
+ * counted together. Updates do constant work on one stripe; queries add up every stripe, so a
+ * figure can combine stripes read a moment apart. After recovery the stripes are rebuilt from
+ * the stores on parallel streams, each worker filling its own partial states.
+ */
+public final class SalesAnalytics {
+    /** Clock hours kept for {@link #hourlyRevenuePaise(int)}. */
+    public static final int HOURS_KEPT = 7 * 24;
+    private static final int MINUTES_KEPT = 24 * 60;
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+
+    /** Sales of one menu item; revenue is before tax, as items are priced on the menu. */
+    public static final class ItemSales {
+        private final int id;
+        private final String name;
+        private final long quantity;
+        private final long revenuePaise;
+
+        ItemSales(int id, String name, long quantity, long revenuePaise) {
+            this.id = id;
+            this.name = name;
+            this.quantity = quantity;
+            this.revenuePaise = revenuePaise;
+        }
+
+        public int getId() { return id; }
+        public String getName() { return name; }
+        public long getQuantity() { return quantity; }
+        public long getRevenuePaise() { return revenuePaise; }
+
+        @Override
+        public String toString() { return name + " x" + quantity + " = " + Money.format(revenuePaise); }
+    }
+
+    // one partial of the aggregates, guarded by its own monitor
+    private static final class Stripe {
+        State state;
+
+        Stripe(State state) { this.state = state; }
+    }
+
+    private final LongSupplier clock;
+    private final long zoneOffsetMillis; // buckets follow the cinema's wall-clock hours
+    private final Stripe[] stripes;
+    private final int mask;
+
+    public SalesAnalytics() {
+        this(System::currentTimeMillis);
+    }
+
+    SalesAnalytics(LongSupplier clock) {
+        this.clock = clock;
+        this.zoneOffsetMillis = Show.ZONE.getRules().getOffset(Instant.now()).getTotalSeconds() * 1000L;
+        int n = Math.min(64, Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1) << 1));
+        this.stripes = new Stripe[n];
+        this.mask = n - 1;
+        long now = nowMinute();
+        for (int i = 0; i < n; i++) stripes[i] = new Stripe(new State(now));
+    }
+
+    // Events
+    void showAdded(Show show) {
+        Stripe s = stripes[show.getId() & mask];
+        synchronized (s) { s.state.capacity += show.getCapacity(); }
+    }
+
+    void bookingCreated(Booking b) {
+        long minute = minuteOf(b.getBookedAt().getTime());
+        Stripe s = stripes[b.getId() & mask];
+        synchronized (s) {
+            s.state.advance(Math.max(nowMinute(), minute));
+            s.state.addBooking(b, minute, 1);
+        }
+    }
+
+    void bookingCancelled(Booking b) {
+        long minute = minuteOf(b.getBookedAt().getTime());
+        Stripe s = stripes[b.getId() & mask];
+        synchronized (s) {
+            State state = s.state;
+            state.advance(nowMinute());
+            state.addBooking(b, minute, -1);
+            // its concessions no longer count towards the attach rate
+            if (state.linkedOrders.a(b.getId()) > 0) state.attached--;
+            state.linkedOrders.set(b.getId(), 0, 0);
+        }
+    }
+
+    void concessionOrdered(ConcessionOrder o) {
+        long minute = minuteOf(o.getOrderedAt().getTime());
+        Stripe s = stripes[stripeOf(o)];
+        synchronized (s) {
+            s.state.advance(Math.max(nowMinute(), minute));
+            s.state.addOrder(o, minute, 1, true);
+        }
+    }
+
+    void concessionCancelled(ConcessionOrder o) {
+        long minute = minuteOf(o.getOrderedAt().getTime());
+        Stripe s = stripes[stripeOf(o)];
+        synchronized (s) {
+            s.state.advance(nowMinute());
+            s.state.addOrder(o, minute, -1, true);
+        }
+    }
+
+    // a linked order goes with its booking, so attach-rate bookkeeping never spans stripes
+    private int stripeOf(ConcessionOrder o) {
+        return (o.getLinkedBooking() != null ? o.getLinkedBooking().getId() : o.getId()) & mask;
+    }
+
+    /**
+     * Replaces every aggregate with one computed from scratch over the given stores; used once
+     * recovery has restored them. {@code bookingLive} tells which booking ids are still booked,
+     * so orders linked to cancelled bookings do not count as attached.
+     */
+    void rebuild(Collection<Show> shows, Collection<Booking> bookings, Collection<ConcessionOrder> orders, IntPredicate bookingLive) {
+        long now = nowMinute();
+        State[] fresh = bookings.parallelStream().collect(
+                () -> newStates(now), (p, b) -> p[b.getId() & mask].addBooking(b, minuteOf(b.getBookedAt().getTime()), 1), SalesAnalytics::mergeAll);
+        mergeAll(fresh, orders.parallelStream().collect(
+                () -> newStates(now),
+                (p, o) -> p[stripeOf(o)].addOrder(o, minuteOf(o.getOrderedAt().getTime()), 1, o.getLinkedBooking() != null && bookingLive.test(o.getLinkedBooking().getId())),
+                SalesAnalytics::mergeAll));
+        for (Show show : shows) fresh[show.getId() & mask].capacity += show.getCapacity();
+        for (int i = 0; i < stripes.length; i++) {
+            synchronized (stripes[i]) { stripes[i].state = fresh[i]; }
+        }
+    }
+
+    private State[] newStates(long now) {
+        State[] states = new State[stripes.length];
+        for (int i = 0; i < states.length; i++) states[i] = new State(now);
+        return states;
+    }
+
+    private static void mergeAll(State[] into, State[] from) {
+        for (int i = 0; i < into.length; i++) into[i].merge(from[i]);
+    }
+
+    private long sum(ToLongFunction<State> field) {
+        long total = 0;
+        for (Stripe s : stripes) {
+            synchronized (s) { total += field.applyAsLong(s.state); }
+        }
+        return total;
+    }
+
+    // every stripe folded into one state, each stripe read under its own lock
+    private State snapshot() {
+        long now = nowMinute();
+        State all = new State(now);
+        for (Stripe s : stripes) {
+            synchronized (s) {
+                s.state.advance(now);
+                all.merge(s.state);
+            }
+        }
+        return all;
+    }
+
+    // Dashboard queries
+    public long getTicketRevenuePaise() { return sum(s -> s.ticketPaise); }
+    public long getBookingCount() { return sum(s -> s.bookings); }
+    public long getSeatsSold() { return sum(s -> s.seats); }
+    public long getConcessionRevenuePaise() { return sum(s -> s.concessionPaise); }
+    public long getConcessionOrderCount() { return sum(s -> s.orders); }
+
+    public long showRevenuePaise(int showId) { return sum(s -> s.byShow.a(showId)); }
+    public long movieRevenuePaise(int movieId) { return sum(s -> s.byMovie.a(movieId)); }
+    public long screenRevenuePaise(int screenId) { return sum(s -> s.byScreen.a(screenId)); }
+    public long showSeatsSold(int showId) { return sum(s -> s.byShow.b(showId)); }
+
+    /** Booked share of the show's seats, in basis points. */
+    public int occupancyBasisPoints(Show show) {
+        return basisPoints(showSeatsSold(show.getId()), show.getCapacity());
+    }
+
+    /** Booked share of the seats of every scheduled show, in basis points. */
+    public int occupancyBasisPoints() {
+        return basisPoints(getSeatsSold(), sum(s -> s.capacity));
+    }
+
+    /** Share of live bookings with at least one concession order, in basis points. */
+    public int attachRateBasisPoints() {
+        return basisPoints(sum(s -> s.attached), getBookingCount());
+    }
+
+    /** Ticket and concession revenue over the sliding last 60 minutes. */
+    public long revenueLastHourPaise() {
+        long now = nowMinute();
+        return sum(s -> {
+            s.advance(now);
+            return s.lastHourPaise;
+        });
+    }
+
+    /** Ticket and concession revenue over the sliding last 24 hours. */
+    public long revenueLastDayPaise() {
+        long now = nowMinute();
+        return sum(s -> {
+            s.advance(now);
+            return s.lastDayPaise;
+        });
+    }
+
+    /** Revenue of each of the last {@code hours} clock hours, oldest first; the last is the current hour. */
+    public long[] hourlyRevenuePaise(int hours) {
+        if (hours < 1 || hours > HOURS_KEPT) throw new IllegalArgumentException("Hours must be 1-" + HOURS_KEPT);
+        return hourly(snapshot(), hours);
+    }
+
+    private static long[] hourly(State state, int hours) {
+        long[] out = new long[hours];
+        long current = Math.floorDiv(state.nowMinute, 60);
+        for (int i = 0; i < hours; i++) out[i] = state.hour(current - hours + 1 + i);
+        return out;
+    }
+
+    /** Menu items by revenue, best first. */
+    public List<ItemSales> topItems(int k) {
+        if (k < 1) throw new IllegalArgumentException("k must be positive");
+        return topItems(snapshot(), k);
+    }
+
+    private static List<ItemSales> topItems(State state, int k) {
+        List<ItemSales> out = new ArrayList<>();
+        Tally items = state.items;
+        for (int i = 0; i < items.keys.length; i++) {
+            if (items.keys[i] == 0 || items.b[i] <= 0) continue;
+            out.add(new ItemSales(items.keys[i], state.itemNames.get(items.keys[i]), items.b[i], items.a[i]));
+        }
+        out.sort(Comparator.comparingLong(ItemSales::getRevenuePaise).reversed().thenComparingInt(ItemSales::getId));
+        return out.size() > k ? new ArrayList<>(out.subList(0, k)) : out;
+    }
+
+    public String toText() {
+        StringBuilder sb = new StringBuilder(512);
+        State state = snapshot();
+        sb.append("ticket_revenue ").append(Money.format(state.ticketPaise)).append('\n')
+          .append("bookings ").append(state.bookings).append('\n')
+          .append("seats_sold ").append(state.seats).append('\n')
+          .append("occupancy_bp ").append(basisPoints(state.seats, state.capacity)).append('\n')
+          .append("concession_revenue ").append(Money.format(state.concessionPaise)).append('\n')
+          .append("concession_orders ").append(state.orders).append('\n')
+          .append("attach_rate_bp ").append(basisPoints(state.attached, state.bookings)).append('\n')
+          .append("revenue_last_hour ").append(Money.format(state.lastHourPaise)).append('\n')
+          .append("revenue_last_day ").append(Money.format(state.lastDayPaise)).append('\n');
+        sb.append("revenue_by_hour");
+        for (long h : hourly(state, 24)) sb.append(' ').append(Money.format(h));
+        sb.append('\n');
+        for (ItemSales item : topItems(state, 5)) sb.append("top_item ").append(item).append('\n');
+        return sb.toString();
+    }
+
+    public String toJson() {
+        StringBuilder sb = new StringBuilder(512);
+        State state = snapshot();
+        sb.append("{\"ticketRevenue\":").append(Money.format(state.ticketPaise))
+          .append(",\"bookings\":").append(state.bookings)
+          .append(",\"seatsSold\":").append(state.seats)
+          .append(",\"occupancyBp\":").append(basisPoints(state.seats, state.capacity))
+          .append(",\"concessionRevenue\":").append(Money.format(state.concessionPaise))
+          .append(",\"concessionOrders\":").append(state.orders)
+          .append(",\"attachRateBp\":").append(basisPoints(state.attached, state.bookings))
+          .append(",\"revenueLastHour\":").append(Money.format(state.lastHourPaise))
+          .append(",\"revenueLastDay\":").append(Money.format(state.lastDayPaise));
+        StringJoiner byHour = new StringJoiner(",", "[", "]");
+        for (long h : hourly(state, 24)) byHour.add(Money.format(h));
+        StringJoiner top = new StringJoiner(",", "[", "]");
+        for (ItemSales item : topItems(state, 5)) {
+            top.add("{\"id\":" + item.getId() + ",\"quantity\":" + item.getQuantity() + ",\"revenue\":" + Money.format(item.getRevenuePaise()) + "}");
+        }
+        return sb.append(",\"revenueByHour\":").append(byHour).append(",\"topItems\":").append(top).append('}').toString();
+    }
+
+    private long nowMinute() { return minuteOf(clock.getAsLong()); }
+    private long minuteOf(long epochMillis) { return Math.floorDiv(epochMillis + zoneOffsetMillis, MILLIS_PER_MINUTE); }
+
+    private static int basisPoints(long part, long whole) {
+        return whole <= 0 ? 0 : (int) ((part * Money.BASIS_POINTS + whole / 2) / whole);
+    }
+
+    // Everything the queries read; one stripe's partial, a rebuild worker's, or a merged snapshot
+    private static final class State {
+        long nowMinute; // windows are anchored here; live states move it forward, partials keep it fixed
+        long ticketPaise, bookings, seats, capacity;
+        long concessionPaise, orders, attached;
+        final Tally byShow = new Tally();      // a = revenue, b = seats
+        final Tally byMovie = new Tally();
+        final Tally byScreen = new Tally();
+        final Tally items = new Tally();       // a = revenue, b = quantity
+        final Tally linkedOrders = new Tally(); // booking id -> a = its live concession orders
+        final Map<Integer, String> itemNames = new HashMap<>();
+        // tumbling clock hours, and minutes for the sliding windows; a bucket is valid for the stamped hour/minute only
+        final long[] hourPaise = new long[HOURS_KEPT];
+        final long[] hourStamp = new long[HOURS_KEPT];
+        final long[] minutePaise = new long[MINUTES_KEPT];
+        final long[] minuteStamp = new long[MINUTES_KEPT];
+        long lastHourPaise, lastDayPaise;
+
+        State(long nowMinute) {
+            this.nowMinute = nowMinute;
+            Arrays.fill(hourStamp, Long.MIN_VALUE);
+            Arrays.fill(minuteStamp, Long.MIN_VALUE);
+        }
+
+        void addBooking(Booking b, long minute, int sign) {
+            long paise = sign * b.getTotalPaise();
+            int seatCount = sign * b.getSeats().size();
+            Show show = b.getShow();
+            ticketPaise += paise;
+            bookings += sign;
+            seats += seatCount;
+            byShow.add(show.getId(), paise, seatCount);
+            byMovie.add(show.getMovie().getId(), paise, seatCount);
+            byScreen.add(show.getScreen().getId(), paise, seatCount);
+            addAt(minute, paise);
+        }
+
+        void addOrder(ConcessionOrder o, long minute, int sign, boolean linkedLive) {
+            concessionPaise += sign * o.getTotalPaise();
+            orders += sign;
+            for (ConcessionOrder.ConcessionItem item : o.getItems()) {
+                items.add(item.getId(), sign * item.totalPaise(), sign * item.getQty());
+                itemNames.putIfAbsent(item.getId(), item.getName());
+            }
+            addAt(minute, sign * o.getTotalPaise());
+            if (o.getLinkedBooking() == null || !linkedLive) return;
+            int booking = o.getLinkedBooking().getId();
+            long before = linkedOrders.a(booking);
+            if (sign < 0 && before == 0) return; // booking already cancelled
+            linkedOrders.add(booking, sign, 0);
+            if (before == 0) attached++;
+            else if (before + sign == 0) attached--;
+        }
+
+        private void addAt(long minute, long paise) {
+            long hour = Math.floorDiv(minute, 60);
+            if (hour > Math.floorDiv(nowMinute, 60) - HOURS_KEPT) {
+                int h = (int) Math.floorMod(hour, (long) HOURS_KEPT);
+                if (hourStamp[h] != hour) {
+                    hourStamp[h] = hour;
+                    hourPaise[h] = 0;
+                }
+                hourPaise[h] += paise;
+            }
+            if (minute > nowMinute - MINUTES_KEPT && minute <= nowMinute) {
+                int m = (int) Math.floorMod(minute, (long) MINUTES_KEPT);
+                if (minuteStamp[m] != minute) {
+                    minuteStamp[m] = minute;
+                    minutePaise[m] = 0;
+                }
+                minutePaise[m] += paise;
+                lastDayPaise += paise;
+                if (minute > nowMinute - 60) lastHourPaise += paise;
+            }
+        }
+
+        // slides both windows to end at 'now', dropping the minutes that fall out of each
+        void advance(long now) {
+            if (now <= nowMinute) return;
+            if (now - nowMinute >= MINUTES_KEPT) {
+                lastHourPaise = 0;
+                lastDayPaise = 0;
+            } else {
+                // nothing was added past the old end, so only minutes up to it can drop out
+                for (long m = nowMinute - 59; m <= Math.min(nowMinute, now - 60); m++) lastHourPaise -= minute(m);
+                for (long m = nowMinute - MINUTES_KEPT + 1; m <= now - MINUTES_KEPT; m++) lastDayPaise -= minute(m);
+            }
+            nowMinute = now;
+        }
+
+        long minute(long minute) {
+            int m = (int) Math.floorMod(minute, (long) MINUTES_KEPT);
+            return minuteStamp[m] == minute ? minutePaise[m] : 0;
+        }
+
+        long hour(long hour) {
+            int h = (int) Math.floorMod(hour, (long) HOURS_KEPT);
+            return hourStamp[h] == hour ? hourPaise[h] : 0;
+        }
+
+        // partials of one rebuild share nowMinute, so their buckets line up slot for slot
+        void merge(State o) {
+            ticketPaise += o.ticketPaise;
+            bookings += o.bookings;
+            seats += o.seats;
+            capacity += o.capacity;
+            concessionPaise += o.concessionPaise;
+            orders += o.orders;
+            byShow.merge(o.byShow);
+            byMovie.merge(o.byMovie);
+            byScreen.merge(o.byScreen);
+            items.merge(o.items);
+            o.itemNames.forEach(itemNames::putIfAbsent);
+            // a booking's orders can land in different partials: recount attached from the merged table
+            linkedOrders.merge(o.linkedOrders);
+            attached = linkedOrders.countPositiveA();
+            mergeRing(hourPaise, hourStamp, o.hourPaise, o.hourStamp);
+            mergeRing(minutePaise, minuteStamp, o.minutePaise, o.minuteStamp);
+            lastHourPaise += o.lastHourPaise;
+            lastDayPaise += o.lastDayPaise;
+        }
+
+        private static void mergeRing(long[] paise, long[] stamp, long[] otherPaise, long[] otherStamp) {
+            for (int i = 0; i < paise.length; i++) {
+                if (otherStamp[i] == Long.MIN_VALUE) continue;
+                if (stamp[i] == otherStamp[i]) {
+                    paise[i] += otherPaise[i];
+                } else if (stamp[i] < otherStamp[i]) {
+                    stamp[i] = otherStamp[i];
+                    paise[i] = otherPaise[i];
+                }
+            }
+        }
+    }
+
+    /** Open-addressed int -> (long, long) table; ids are positive, 0 marks a free slot. */
+    private static final class Tally {
+        int[] keys = new int[16];
+        long[] a = new long[16];
+        long[] b = new long[16];
+        int size;
+
+        long a(int key) {
+            int i = find(key);
+            return keys[i] == key ? a[i] : 0;
+        }
+
+        long b(int key) {
+            int i = find(key);
+            return keys[i] == key ? b[i] : 0;
+        }
+
+        void add(int key, long da, long db) {
+            int i = claim(key);
+            a[i] += da;
+            b[i] += db;
+        }
+
+        void set(int key, long va, long vb) {
+            int i = find(key);
+            if (keys[i] != key) return;
+            a[i] = va;
+            b[i] = vb;
+        }
+
+        void merge(Tally o) {
+            for (int i = 0; i < o.keys.length; i++) if (o.keys[i] != 0) add(o.keys[i], o.a[i], o.b[i]);
+        }
+
+        long countPositiveA() {
+            long n = 0;
+            for (int i = 0; i < keys.length; i++) if (keys[i] != 0 && a[i] > 0) n++;
+            return n;
+        }
+
+        private int claim(int key) {
+            int i = find(key);
+            if (keys[i] == key) return i;
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+                i = find(key);
+            }
+            keys[i] = key;
+            size++;
+            return i;
+        }
+
+        // slot holding key, or the free slot where it would go
+        private int find(int key) {
+            int mask = keys.length - 1;
+            int h = key * 0x9E3779B9;
+            int i = (h ^ h >>> 16) & mask;
+            while (keys[i] != key && keys[i] != 0) i = (i + 1) & mask;
+            return i;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            long[] oldA = a, oldB = b;
+            keys = new int[oldKeys.length * 2];
+            a = new long[keys.length];
+            b = new long[keys.length];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] == 0) continue;
+                int j = find(oldKeys[i]);
+                keys[j] = oldKeys[i];
+                a[j] = oldA[i];
+                b[j] = oldB[i];
+            }
+        }
+    }
+}
@@ -1,34 +1,73 @@
 package JavaAssign;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Objects;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
 
+/**
+ * A screen with its seat layout and its schedule. The schedule is a skip list of shows keyed
+ * by start time; since shows on one screen never overlap, a new show can only clash with its
+ * immediate neighbours, so adding one and checking for conflicts are both O(log n).
+ */
 public class Screen {
     private final int id;
     private final String name;
-    private final List<Show> shows = new ArrayList<>();
+    private final SeatLayout layout;
+    private final ConcurrentSkipListMap<Instant, Show> schedule = new ConcurrentSkipListMap<>();
 
     public Screen(int id, String name) {
+        this(id, name, SeatLayout.STANDARD);
+    }
+
+    public Screen(int id, String name, SeatLayout layout) {
         this.id = id;
         if (name == null || name.trim().isEmpty()) throw new IllegalArgumentException("Screen name required");
+        if (layout == null) throw new IllegalArgumentException("Layout required");
         this.name = name.trim();
+        this.layout = layout;
     }
 
     public int getId() { return id; }
     public String getName() { return name; }
+    public SeatLayout getLayout() { return layout; }
+    public int getCapacity() { return layout.capacity(); }
 
-    public void addShow(Show show) {
+    /** Adds {@code show} to the schedule; IllegalStateException if it overlaps a scheduled show. */
+    public synchronized void addShow(Show show) {
         if (show == null) throw new IllegalArgumentException("Show required");
-        shows.add(show);
+        Show clash = findOverlap(show.getStart(), show.getEnd());
+        if (clash != null) {
+            throw new IllegalStateException("Screen " + name + " is busy with show " + clash.getId() + " ("
+                    + clash.getDateTime() + " to " + clash.getEndTime().format(Show.DATE_TIME) + ", cleanup included)");
+        }
+        schedule.put(show.getStart(), show);
     }
 
-    public void removeShow(Show show) {
-        shows.remove(show);
+    public synchronized void removeShow(Show show) {
+        schedule.remove(show.getStart(), show);
     }
 
+    public boolean isFree(Instant from, Instant to) { return findOverlap(from, to) == null; }
+
+    /** Shows in start order. */
     public List<Show> getShows() {
-        return Collections.unmodifiableList(shows);
+        return new ArrayList<>(schedule.values());
+    }
+
+    /** Shows that are running at any point in [from, to), in start order. */
+    public List<Show> getShowsBetween(Instant from, Instant to) {
+        List<Show> out = new ArrayList<>();
+        // only the last show starting before 'from' can still be running at 'from'
+        Map.Entry<Instant, Show> running = schedule.lowerEntry(from);
+        if (running != null && running.getValue().getEnd().isAfter(from)) out.add(running.getValue());
+        out.addAll(schedule.subMap(from, true, to, false).values());
+        return out;
+    }
+
+    private Show findOverlap(Instant start, Instant end) {
+        Map.Entry<Instant, Show> before = schedule.floorEntry(start);
+        if (before != null && before.getValue().getEnd().isAfter(start)) return before.getValue();
+        Map.Entry<Instant, Show> after = schedule.higherEntry(start);
+        return after != null && after.getKey().isBefore(end) ? after.getValue() : null;
     }
 
     @Override
@@ -1,46 +1,51 @@
 package JavaAssign;
-
+import java.util.Objects;
+
+/**
+ * Lightweight view over one slot of a show's {@link SeatMap}; the seat state itself
+ * lives in the packed map, so views can be created on demand and discarded. The state
+ * only changes through the show ({@link Show#tryHoldAll}, commit, abort, release), so a
+ * hold can only be booked or freed by the token that took it.
+ */
 public class Seat {
     public enum Status { AVAILABLE, HELD, BOOKED }
 
-    private final String seatId;
-    private Status status;
-
-    public Seat(String seatId) {
-        if (seatId == null || seatId.trim().isEmpty()) throw new IllegalArgumentException("Seat ID required");
-        this.seatId = seatId.trim().toUpperCase();
-        this.status = Status.AVAILABLE;
-    }
+    private static final Status[] STATUSES = Status.values();
 
-    public String getSeatId() { return seatId; }
-    public boolean isAvailable() { return status == Status.AVAILABLE; }
-    public boolean isHeld() { return status == Status.HELD; }
-    public boolean isBooked() { return status == Status.BOOKED; }
+    private final SeatMap map;
+    private final int index;
 
-    // mark temporarily during selection
-    public void hold() {
-        if (!isAvailable()) throw new IllegalStateException("Seat not available to hold");
-        this.status = Status.HELD;
+    Seat(SeatMap map, int index) {
+        if (map == null) throw new IllegalArgumentException("Seat map required");
+        if (index < 0 || index >= map.positions() || !map.isSeat(index)) throw new IllegalArgumentException("Seat index out of range");
+        this.map = map;
+        this.index = index;
     }
 
-    public void releaseHold() {
-        if (isHeld()) this.status = Status.AVAILABLE;
-    }
+    public String getSeatId() { return map.seatId(index); }
+    int getIndex() { return index; }
+    SeatMap getMap() { return map; }
+    public SeatCategory getCategory() { return map.layout().category(index); }
+    public Status getStatus() { return STATUSES[map.state(index)]; }
+    public boolean isAvailable() { return map.state(index) == SeatMap.AVAILABLE; }
+    public boolean isHeld() { return map.state(index) == SeatMap.HELD; }
+    public boolean isBooked() { return map.state(index) == SeatMap.BOOKED; }
 
-    // finalize booking
-    public void book() {
-        if (!isHeld() && !isAvailable()) throw new IllegalStateException("Seat not in bookable state");
-        this.status = Status.BOOKED;
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Seat)) return false;
+        Seat seat = (Seat) o;
+        return map == seat.map && index == seat.index;
     }
 
-    // release booked seat (cancellation)
-    public void release() {
-        this.status = Status.AVAILABLE;
+    @Override
+    public int hashCode() {
+        return Objects.hash(System.identityHashCode(map), index);
     }
 
     @Override
     public String toString() {
-        return seatId + " (" + status + ")";
+        return getSeatId() + " (" + getStatus() + ")";
     }
 }
-
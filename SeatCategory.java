@@ -0,0 +1,26 @@
+package JavaAssign;
+
+public enum SeatCategory {
+    STANDARD('S', 1.0),
+    PREMIUM('P', 1.3),
+    RECLINER('R', 1.8);
+
+    private final char code;
+    private final double defaultMultiplier;
+
+    SeatCategory(char code, double defaultMultiplier) {
+        this.code = code;
+        this.defaultMultiplier = defaultMultiplier;
+    }
+
+    public char getCode() { return code; }
+    public double getDefaultMultiplier() { return defaultMultiplier; }
+
+    public static SeatCategory fromCode(char code) {
+        char c = Character.toUpperCase(code);
+        for (SeatCategory cat : values()) {
+            if (cat.code == c) return cat;
+        }
+        throw new IllegalArgumentException("Unknown seat category code: " + code);
+    }
+}
@@ -0,0 +1,46 @@
+package JavaAssign;
+import java.util.*;
+
+/**
+ * A group of seats held for one customer, with the fare quoted when the hold was taken.
+ * Demand pricing can move later quotes; this one stands until the hold is booked or released.
+ */
+public class SeatHold {
+    private final long token;
+    private final Customer customer;
+    private final Show show;
+    private final List<Seat> seats;
+    private final long farePaise;
+    private final long taxesPaise;
+    private final long totalPaise;
+    private final int demandBasisPoints;
+    private final long heldAt;
+
+    public SeatHold(long token, Customer customer, Show show, List<Seat> seats, long farePaise, long taxesPaise, long totalPaise) {
+        this(token, customer, show, seats, farePaise, taxesPaise, totalPaise, Money.BASIS_POINTS);
+    }
+
+    public SeatHold(long token, Customer customer, Show show, List<Seat> seats, long farePaise, long taxesPaise, long totalPaise, int demandBasisPoints) {
+        if (customer == null || show == null || seats == null || seats.isEmpty()) throw new IllegalArgumentException("Hold requires customer, show and seats");
+        this.token = token;
+        this.customer = customer;
+        this.show = show;
+        this.seats = new ArrayList<>(seats);
+        this.farePaise = farePaise;
+        this.taxesPaise = taxesPaise;
+        this.totalPaise = totalPaise;
+        this.demandBasisPoints = demandBasisPoints;
+        this.heldAt = System.currentTimeMillis();
+    }
+
+    public long getToken() { return token; }
+    public Customer getCustomer() { return customer; }
+    public Show getShow() { return show; }
+    public List<Seat> getSeats() { return Collections.unmodifiableList(seats); }
+    public long getFarePaise() { return farePaise; }
+    public long getTaxesPaise() { return taxesPaise; }
+    public long getTotalPaise() { return totalPaise; }
+    /** Demand multiplier the fare was quoted at, in basis points; 10000 is the list price. */
+    public int getDemandBasisPoints() { return demandBasisPoints; }
+    public long getHeldAt() { return heldAt; }
+}
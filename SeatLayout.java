@@ -0,0 +1,218 @@
+package JavaAssign;
+import java.util.*;
+
+/**
+ * Immutable seating template owned by a {@link Screen} and shared by all of its shows.
+ * Rows may differ in width and contain aisles/gaps; every seat has a {@link SeatCategory},
+ * and each category carries a fare multiplier applied on top of the show's base fare.
+ * Seats are numbered left to right within a row, skipping gaps (so an aisle does not
+ * leave a hole in the numbering).
+ *
+ * Spec format: rows separated by '/', each "label:cells" with S/P/R for seat categories and
+ * '_' for a gap, optionally followed by ";" and multipliers, e.g.
+ * "A:SSSS_SSSS/B:PPPP_PPPP/C:RRR__RRR;P=1.5,R=2"
+ */
+public final class SeatLayout {
+    static final byte GAP = -1;
+
+    public static final SeatLayout STANDARD = grid(new char[] {'A', 'B', 'C', 'D'}, 8);
+
+    private final char[] rowLabels;
+    private final int cols;
+    private final byte[] cells;          // per position: category ordinal or GAP
+    private final int[] seatNumbers;     // per position: 1-based number within row, 0 for gaps
+    private final int[][] positionByNumber;
+    private final int[] rowSeatCounts;
+    private final double[] rowCentres;   // column midway between a row's first and last seat
+    private final byte[] rowCategories;  // category ordinal when a row is uniform, else GAP
+    private final int capacity;
+    private final double[] multipliers;  // per category ordinal
+    private final int[] multiplierBasisPoints;
+    private final long[] packedTemplate; // initial seat-map words (gaps pre-blocked)
+
+    private SeatLayout(char[] rowLabels, int cols, byte[] cells, double[] multipliers) {
+        this.rowLabels = rowLabels;
+        this.cols = cols;
+        this.cells = cells;
+        this.multipliers = multipliers;
+        this.multiplierBasisPoints = new int[multipliers.length];
+        for (int i = 0; i < multipliers.length; i++) multiplierBasisPoints[i] = Money.basisPoints(multipliers[i]);
+        this.seatNumbers = new int[cells.length];
+        this.positionByNumber = new int[rowLabels.length][];
+        this.rowSeatCounts = new int[rowLabels.length];
+        this.rowCentres = new double[rowLabels.length];
+        this.rowCategories = new byte[rowLabels.length];
+        int total = 0;
+        for (int r = 0; r < rowLabels.length; r++) {
+            int n = 0;
+            int[] byNumber = new int[cols];
+            for (int c = 0; c < cols; c++) {
+                int pos = r * cols + c;
+                if (cells[pos] == GAP) continue;
+                seatNumbers[pos] = ++n;
+                byNumber[n - 1] = pos;
+            }
+            positionByNumber[r] = Arrays.copyOf(byNumber, n);
+            rowSeatCounts[r] = n;
+            rowCentres[r] = n == 0 ? (cols - 1) / 2.0 : (byNumber[0] + byNumber[n - 1]) / 2.0 - r * cols;
+            rowCategories[r] = n == 0 ? GAP : cells[byNumber[0]];
+            for (int i = 1; i < n; i++) {
+                if (cells[byNumber[i]] != rowCategories[r]) { rowCategories[r] = GAP; break; }
+            }
+            total += n;
+        }
+        if (total == 0) throw new IllegalArgumentException("Layout has no seats");
+        this.capacity = total;
+        this.packedTemplate = SeatMap.packTemplate(this);
+    }
+
+    public static SeatLayout grid(char[] rows, int cols) {
+        if (rows == null || rows.length == 0) throw new IllegalArgumentException("At least one row required");
+        if (cols <= 0) throw new IllegalArgumentException("Columns must be positive");
+        byte[] cells = new byte[rows.length * cols];
+        Arrays.fill(cells, (byte) SeatCategory.STANDARD.ordinal());
+        return new SeatLayout(checkLabels(rows), cols, cells, defaultMultipliers());
+    }
+
+    public static SeatLayout parse(String spec) {
+        if (spec == null || spec.trim().isEmpty()) throw new IllegalArgumentException("Layout spec required");
+        String[] parts = spec.trim().split(";", 2);
+        String[] rowSpecs = parts[0].split("/");
+        char[] labels = new char[rowSpecs.length];
+        String[] cellSpecs = new String[rowSpecs.length];
+        int cols = 0;
+        for (int r = 0; r < rowSpecs.length; r++) {
+            String rs = rowSpecs[r].trim();
+            int colon = rs.indexOf(':');
+            if (colon != 1) throw new IllegalArgumentException("Row must look like A:SSSS_SSSS: " + rs);
+            labels[r] = rs.charAt(0);
+            cellSpecs[r] = rs.substring(2).trim();
+            if (cellSpecs[r].isEmpty()) throw new IllegalArgumentException("Row " + labels[r] + " is empty");
+            cols = Math.max(cols, cellSpecs[r].length());
+        }
+        byte[] cells = new byte[rowSpecs.length * cols];
+        Arrays.fill(cells, GAP);
+        for (int r = 0; r < cellSpecs.length; r++) {
+            for (int c = 0; c < cellSpecs[r].length(); c++) {
+                char ch = cellSpecs[r].charAt(c);
+                if (ch != '_') cells[r * cols + c] = (byte) SeatCategory.fromCode(ch).ordinal();
+            }
+        }
+        double[] multipliers = defaultMultipliers();
+        if (parts.length > 1 && !parts[1].trim().isEmpty()) {
+            for (String m : parts[1].split(",")) {
+                String[] kv = m.trim().split("=");
+                if (kv.length != 2 || kv[0].length() != 1) throw new IllegalArgumentException("Multiplier must look like P=1.5: " + m);
+                multipliers[SeatCategory.fromCode(kv[0].charAt(0)).ordinal()] = parseMultiplier(kv[1]);
+            }
+        }
+        return new SeatLayout(checkLabels(labels), cols, cells, multipliers);
+    }
+
+    /** Returns a copy of this layout with a different fare multiplier for {@code category}. */
+    public SeatLayout withMultiplier(SeatCategory category, double multiplier) {
+        if (category == null) throw new IllegalArgumentException("Category required");
+        if (multiplier <= 0) throw new IllegalArgumentException("Multiplier must be positive");
+        double[] m = multipliers.clone();
+        m[category.ordinal()] = multiplier;
+        return new SeatLayout(rowLabels, cols, cells, m);
+    }
+
+    public int rows() { return rowLabels.length; }
+    public int cols() { return cols; }
+    public int positions() { return cells.length; }
+    public int capacity() { return capacity; }
+    public char rowLabel(int row) { return rowLabels[row]; }
+    public int rowSeatCount(int row) { return rowSeatCounts[row]; }
+    public double rowCentre(int row) { return rowCentres[row]; }
+
+    /** The single category of every seat in {@code row}, or null for mixed rows. */
+    public SeatCategory rowCategory(int row) {
+        return rowCategories[row] == GAP ? null : SeatCategory.values()[rowCategories[row]];
+    }
+
+    public int rowIndex(char label) {
+        char l = Character.toUpperCase(label);
+        for (int i = 0; i < rowLabels.length; i++) {
+            if (rowLabels[i] == l) return i;
+        }
+        return -1;
+    }
+
+    public boolean isSeat(int position) { return cells[position] != GAP; }
+    public int seatNumber(int position) { return seatNumbers[position]; }
+
+    public SeatCategory category(int position) {
+        if (cells[position] == GAP) throw new IllegalArgumentException("Position " + position + " is not a seat");
+        return SeatCategory.values()[cells[position]];
+    }
+
+    /** Position of seat {@code number} (1-based) in {@code row}, or -1. */
+    public int positionOf(int row, int number) {
+        if (row < 0 || row >= rowLabels.length || number < 1 || number > rowSeatCounts[row]) return -1;
+        return positionByNumber[row][number - 1];
+    }
+
+    public double multiplier(SeatCategory category) { return multipliers[category.ordinal()]; }
+    public double multiplierAt(int position) { return multipliers[cells[position]]; }
+    public int multiplierBasisPointsAt(int position) { return multiplierBasisPoints[cells[position]]; }
+    public int multiplierBasisPoints(SeatCategory category) { return multiplierBasisPoints[category.ordinal()]; }
+
+    // SeatCategory ordinal of a seat position, without the values() copy category() makes
+    int categoryIndexAt(int position) { return cells[position]; }
+
+    long[] packedTemplate() { return packedTemplate; }
+
+    public String toSpec() {
+        StringJoiner rowsOut = new StringJoiner("/");
+        for (int r = 0; r < rowLabels.length; r++) {
+            StringBuilder sb = new StringBuilder().append(rowLabels[r]).append(':');
+            int last = cols - 1;
+            while (last > 0 && cells[r * cols + last] == GAP) last--;
+            for (int c = 0; c <= last; c++) {
+                byte cell = cells[r * cols + c];
+                sb.append(cell == GAP ? '_' : SeatCategory.values()[cell].getCode());
+            }
+            rowsOut.add(sb);
+        }
+        StringJoiner mult = new StringJoiner(",");
+        for (SeatCategory cat : SeatCategory.values()) {
+            if (multipliers[cat.ordinal()] != cat.getDefaultMultiplier()) mult.add(cat.getCode() + "=" + multipliers[cat.ordinal()]);
+        }
+        return mult.length() == 0 ? rowsOut.toString() : rowsOut + ";" + mult;
+    }
+
+    @Override
+    public String toString() {
+        return rowLabels.length + " rows, " + capacity + " seats";
+    }
+
+    private static double[] defaultMultipliers() {
+        SeatCategory[] cats = SeatCategory.values();
+        double[] m = new double[cats.length];
+        for (SeatCategory c : cats) m[c.ordinal()] = c.getDefaultMultiplier();
+        return m;
+    }
+
+    private static double parseMultiplier(String s) {
+        try {
+            double v = Double.parseDouble(s.trim());
+            if (v <= 0) throw new IllegalArgumentException("Multiplier must be positive");
+            return v;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid multiplier: " + s);
+        }
+    }
+
+    private static char[] checkLabels(char[] labels) {
+        char[] out = new char[labels.length];
+        Set<Character> seen = new HashSet<>();
+        for (int i = 0; i < labels.length; i++) {
+            char l = Character.toUpperCase(labels[i]);
+            if (!Character.isLetter(l)) throw new IllegalArgumentException("Row label must be a letter: " + labels[i]);
+            if (!seen.add(l)) throw new IllegalArgumentException("Duplicate row label: " + l);
+            out[i] = l;
+        }
+        return out;
+    }
+}
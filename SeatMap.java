@@ -0,0 +1,217 @@
+package JavaAssign;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * SeatMap - packed seat-state engine for a single show, laid over its screen's shared
+ * {@link SeatLayout}. Each layout position takes 2 bits inside a long word (32 per word),
+ * indexed by (row, col); gaps are pre-set to BLOCKED, and every state transition is a
+ * single compare-and-set on its word.
+ * Per-row and per-show state counters plus a per-row version are maintained on every
+ * successful transition, so "seats left" and dirty-row checks never scan the seats.
+ */
+public class SeatMap {
+    // 2-bit seat states
+    static final int AVAILABLE = 0;
+    static final int HELD = 1;
+    static final int BOOKED = 2;
+    static final int BLOCKED = 3; // aisle/gap, never transitions
+
+    private static final int BITS = 2;
+    private static final int SEATS_PER_WORD = Long.SIZE / BITS;
+    private static final long MASK = (1L << BITS) - 1;
+    private static final int STATES = 3;
+
+    private final SeatLayout layout;
+    private final int cols;
+    private final AtomicLongArray words;
+    private final AtomicIntegerArray rowCounts; // [row * STATES + state]
+    private final AtomicIntegerArray totals;    // [state]
+    private final AtomicIntegerArray rowVersions;
+
+    public SeatMap(SeatLayout layout) {
+        if (layout == null) throw new IllegalArgumentException("Layout required");
+        this.layout = layout;
+        this.cols = layout.cols();
+        this.words = new AtomicLongArray(layout.packedTemplate());
+        this.rowCounts = new AtomicIntegerArray(layout.rows() * STATES);
+        for (int r = 0; r < layout.rows(); r++) rowCounts.set(r * STATES + AVAILABLE, layout.rowSeatCount(r));
+        this.totals = new AtomicIntegerArray(STATES);
+        totals.set(AVAILABLE, layout.capacity());
+        this.rowVersions = new AtomicIntegerArray(layout.rows());
+    }
+
+    // initial words for a layout: every gap BLOCKED, every seat AVAILABLE
+    static long[] packTemplate(SeatLayout layout) {
+        long[] w = new long[(layout.positions() + SEATS_PER_WORD - 1) / SEATS_PER_WORD];
+        for (int i = 0; i < layout.positions(); i++) {
+            if (!layout.isSeat(i)) w[i / SEATS_PER_WORD] |= (long) BLOCKED << shift(i);
+        }
+        return w;
+    }
+
+    public SeatLayout layout() { return layout; }
+    public int rows() { return layout.rows(); }
+    public int cols() { return cols; }
+    public int positions() { return layout.positions(); }
+    public int capacity() { return layout.capacity(); }
+    public char rowLabel(int row) { return layout.rowLabel(row); }
+    public boolean isSeat(int index) { return layout.isSeat(index); }
+
+    public int index(int row, int col) { return row * cols + col; }
+    public int rowOf(int index) { return index / cols; }
+    public int colOf(int index) { return index % cols; }
+
+    public String seatId(int index) {
+        return String.valueOf(layout.rowLabel(rowOf(index))) + layout.seatNumber(index);
+    }
+
+    // parses ids like "A1" / "c12"; returns -1 for anything outside the layout
+    public int indexOf(String seatId) {
+        if (seatId == null) return -1;
+        String s = seatId.trim();
+        if (s.length() < 2 || s.length() > 6) return -1;
+        int row = layout.rowIndex(s.charAt(0));
+        if (row < 0) return -1;
+        int number = 0;
+        for (int i = 1; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            if (ch < '0' || ch > '9') return -1;
+            number = number * 10 + (ch - '0');
+        }
+        return layout.positionOf(row, number);
+    }
+
+    public int state(int index) {
+        checkIndex(index);
+        return (int) ((words.get(index / SEATS_PER_WORD) >>> shift(index)) & MASK);
+    }
+
+    /** Atomically moves a seat from {@code expected} to {@code update}; false if it was in another state. */
+    public boolean compareAndSet(int index, int expected, int update) {
+        checkIndex(index);
+        int w = index / SEATS_PER_WORD;
+        int shift = shift(index);
+        long clear = ~(MASK << shift);
+        while (true) {
+            long cur = words.get(w);
+            if (((cur >>> shift) & MASK) != expected) return false;
+            long next = (cur & clear) | ((long) update << shift);
+            if (words.compareAndSet(w, cur, next)) {
+                transitioned(index, expected, update);
+                return true;
+            }
+        }
+    }
+
+    /** Unconditionally sets a seat's state and returns the previous one. */
+    public int getAndSet(int index, int update) {
+        checkIndex(index);
+        if (!layout.isSeat(index)) throw new IllegalArgumentException("Position " + index + " is not a seat");
+        int w = index / SEATS_PER_WORD;
+        int shift = shift(index);
+        long clear = ~(MASK << shift);
+        while (true) {
+            long cur = words.get(w);
+            long next = (cur & clear) | ((long) update << shift);
+            if (words.compareAndSet(w, cur, next)) {
+                int prev = (int) ((cur >>> shift) & MASK);
+                transitioned(index, prev, update);
+                return prev;
+            }
+        }
+    }
+
+    /**
+     * All-or-nothing transition of a group of seats. Indices must be sorted and distinct;
+     * words are claimed in ascending order with one CAS each, and on the first conflict
+     * the words already claimed are rolled back, so no lock is taken and callers never
+     * end up owning part of the group.
+     */
+    public boolean compareAndSetAll(int[] sortedIndices, int expected, int update) {
+        int n = sortedIndices.length;
+        int i = 0;
+        while (i < n) {
+            int w = sortedIndices[i] / SEATS_PER_WORD;
+            int end = i;
+            long expectMask = 0, clearMask = 0, updateBits = 0;
+            while (end < n && sortedIndices[end] / SEATS_PER_WORD == w) {
+                checkIndex(sortedIndices[end]);
+                int shift = shift(sortedIndices[end]);
+                clearMask |= MASK << shift;
+                expectMask |= (long) expected << shift;
+                updateBits |= (long) update << shift;
+                end++;
+            }
+            if (!casWord(w, clearMask, expectMask, updateBits)) {
+                for (int j = 0; j < i; j++) compareAndSet(sortedIndices[j], update, expected);
+                return false;
+            }
+            for (int j = i; j < end; j++) transitioned(sortedIndices[j], expected, update);
+            i = end;
+        }
+        return true;
+    }
+
+    private boolean casWord(int w, long clearMask, long expectBits, long updateBits) {
+        while (true) {
+            long cur = words.get(w);
+            if ((cur & clearMask) != expectBits) return false;
+            if (words.compareAndSet(w, cur, (cur & ~clearMask) | updateBits)) return true;
+        }
+    }
+
+    /**
+     * Snapshot of which positions are AVAILABLE, one bit per position (bit i of word i/64).
+     * Built a word at a time: a 2-bit slot is free when both bits are clear, and the
+     * odd bits are then squeezed out so 32 slots become 32 consecutive bits.
+     */
+    public long[] freeBitmap() {
+        int positions = layout.positions();
+        long[] bitmap = new long[(positions + Long.SIZE - 1) / Long.SIZE];
+        for (int w = 0, n = words.length(); w < n; w++) {
+            long v = words.get(w);
+            long free = compressEvenBits(~(v | (v >>> 1)));
+            int base = w * SEATS_PER_WORD;
+            bitmap[base / Long.SIZE] |= free << (base % Long.SIZE);
+        }
+        int tail = positions % Long.SIZE;
+        if (tail != 0) bitmap[bitmap.length - 1] &= (1L << tail) - 1;
+        return bitmap;
+    }
+
+    private static long compressEvenBits(long x) {
+        x &= 0x5555555555555555L;
+        x = (x | (x >>> 1)) & 0x3333333333333333L;
+        x = (x | (x >>> 2)) & 0x0F0F0F0F0F0F0F0FL;
+        x = (x | (x >>> 4)) & 0x00FF00FF00FF00FFL;
+        x = (x | (x >>> 8)) & 0x0000FFFF0000FFFFL;
+        x = (x | (x >>> 16)) & 0x00000000FFFFFFFFL;
+        return x;
+    }
+
+    // O(1) counters
+    public int count(int stateValue) { return totals.get(stateValue); }
+    public int rowCount(int row, int stateValue) { return rowCounts.get(row * STATES + stateValue); }
+
+    /** Changes every time a seat in {@code row} changes state. */
+    public int rowVersion(int row) { return rowVersions.get(row); }
+
+    private void transitioned(int index, int from, int to) {
+        if (from == to) return;
+        int row = rowOf(index);
+        rowCounts.decrementAndGet(row * STATES + from);
+        rowCounts.incrementAndGet(row * STATES + to);
+        totals.decrementAndGet(from);
+        totals.incrementAndGet(to);
+        rowVersions.incrementAndGet(row);
+    }
+
+    private static int shift(int index) {
+        return (index % SEATS_PER_WORD) * BITS;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= layout.positions()) throw new IndexOutOfBoundsException("Seat index " + index);
+    }
+}
@@ -0,0 +1,72 @@
+package JavaAssign;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Cached text rendering of a {@link SeatMap}. Each row keeps its last rendered bytes and the
+ * row version they were built from; render() only rebuilds rows whose version moved and
+ * returns the previously assembled buffer untouched when nothing changed. Every cell, aisle
+ * gaps included, is padded to the width of the widest seat id, so columns line up across rows.
+ */
+public class SeatMapRenderer {
+    private static final byte[] STATE_CHARS = {'O', 'H', 'X'};
+
+    private final SeatMap map;
+    private final byte[][] rows;
+    private final int[] versions;
+    private final int cellWidth; // "A12[O] " for two-digit seat numbers
+    private byte[] assembled;
+
+    public SeatMapRenderer(SeatMap map) {
+        if (map == null) throw new IllegalArgumentException("Seat map required");
+        this.map = map;
+        this.rows = new byte[map.rows()][];
+        this.versions = new int[map.rows()];
+        int widest = 1;
+        for (int i = 0; i < map.positions(); i++) {
+            if (map.isSeat(i)) widest = Math.max(widest, map.layout().seatNumber(i));
+        }
+        this.cellWidth = 1 + Integer.toString(widest).length() + 4;
+    }
+
+    /** Returns the full seat map, one line per row; callers must not modify the array. */
+    public synchronized byte[] render() {
+        boolean dirty = assembled == null;
+        for (int r = 0; r < rows.length; r++) {
+            // read the version first: a change racing with the rebuild leaves the row dirty for next time
+            int v = map.rowVersion(r);
+            if (rows[r] != null && versions[r] == v) continue;
+            rows[r] = renderRow(r);
+            versions[r] = v;
+            dirty = true;
+        }
+        if (dirty) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(rows.length * (map.cols() * cellWidth + 1));
+            for (byte[] row : rows) out.write(row, 0, row.length);
+            assembled = out.toByteArray();
+        }
+        return assembled;
+    }
+
+    private byte[] renderRow(int r) {
+        byte[] label = (String.valueOf(map.rowLabel(r))).getBytes(StandardCharsets.US_ASCII);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(map.cols() * cellWidth + 1);
+        for (int c = 0; c < map.cols(); c++) {
+            int idx = map.index(r, c);
+            int written = 0;
+            if (map.isSeat(idx)) {
+                out.write(label, 0, label.length);
+                byte[] num = Integer.toString(map.layout().seatNumber(idx)).getBytes(StandardCharsets.US_ASCII);
+                out.write(num, 0, num.length);
+                out.write('[');
+                out.write(STATE_CHARS[map.state(idx)]);
+                out.write(']');
+                written = label.length + num.length + 3;
+            }
+            // an aisle gap is a blank cell
+            for (; written < cellWidth; written++) out.write(' ');
+        }
+        out.write('\n');
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,111 @@
+package JavaAssign;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ShardHarness - local scaling check for the sharded core. For 1, 2, 4 ... shards it starts
+ * that many {@link ShardServer} processes on loopback ports, schedules the same shows through
+ * a {@link ShardRouter}, and has a fixed pool of client threads run hold -> book -> cancel
+ * cycles on random shows for a while. Each shard owns its shows outright, so with a core per
+ * shard the cycle rate should grow close to linearly.
+ *
+ * Usage: ShardHarness [maxShards=4] [clients=32] [seconds=10] [shows=64]
+ */
+public class ShardHarness {
+    public static void main(String[] args) throws Exception {
+        int maxShards = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int showCount = args.length > 3 ? Integer.parseInt(args[3]) : 64;
+        System.out.println("cores=" + Runtime.getRuntime().availableProcessors() + " clients=" + clients + " seconds=" + seconds + " shows=" + showCount);
+        double baseline = 0;
+        for (int n = 1; n <= maxShards; n *= 2) {
+            double rate = run(n, clients, seconds, showCount);
+            if (n == 1) baseline = rate;
+            System.out.printf(Locale.ROOT, "shards=%d  cycles/s=%.0f  speedup=%.2fx%n", n, rate, rate / baseline);
+        }
+    }
+
+    // cycles per second with n shard processes
+    static double run(int n, int clients, int seconds, int showCount) throws Exception {
+        List<Process> processes = new ArrayList<>();
+        try {
+            List<InetSocketAddress> addresses = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                Process p = startShard();
+                processes.add(p);
+                addresses.add(new InetSocketAddress(InetAddress.getLoopbackAddress(), readPort(p)));
+            }
+            try (ShardRouter router = new ShardRouter(addresses, clients)) {
+                int movie = router.addMovie("Harness", "Drama", 120);
+                int[] shows = new int[showCount];
+                for (int s = 0; s < showCount; s++) {
+                    int screen = router.addScreen("Screen " + s, SeatLayout.STANDARD);
+                    shows[s] = router.scheduleShow(movie, screen, "2099-01-01 18:00", Money.ofRupees(200));
+                }
+                int[] customers = new int[clients];
+                for (int c = 0; c < clients; c++) customers[c] = router.addCustomer("Client " + c, String.format("9%09d", c));
+                return drive(router, shows, customers, seconds);
+            }
+        } finally {
+            for (Process p : processes) p.destroy();
+            for (Process p : processes) p.waitFor();
+        }
+    }
+
+    private static double drive(ShardRouter router, int[] shows, int[] customers, int seconds) throws InterruptedException {
+        LongAdder cycles = new LongAdder();
+        LongAdder conflicts = new LongAdder();
+        long warmupEnd = System.nanoTime() + 2_000_000_000L;
+        long end = warmupEnd + seconds * 1_000_000_000L;
+        CountDownLatch done = new CountDownLatch(customers.length);
+        for (int customer : customers) {
+            Thread t = new Thread(() -> {
+                try {
+                    ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                    long now;
+                    while ((now = System.nanoTime()) < end) {
+                        int show = shows[rnd.nextInt(shows.length)];
+                        try {
+                            ShardRouter.Hold hold = router.holdBest(show, customer, 2, null);
+                            router.cancel(router.book(hold.getToken()));
+                            if (now >= warmupEnd) cycles.increment();
+                        } catch (IllegalStateException e) {
+                            if (now >= warmupEnd) conflicts.increment(); // show momentarily full
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "harness-client");
+            t.setDaemon(true);
+            t.start();
+        }
+        done.await();
+        if (conflicts.sum() > 0) System.out.println("  (" + conflicts.sum() + " holds found no seats)");
+        return cycles.sum() / (double) seconds;
+    }
+
+    private static Process startShard() throws IOException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        return new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), ShardServer.class.getName(), "0")
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+    private static int readPort(Process p) throws IOException {
+        BufferedReader out = new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8));
+        String line = out.readLine();
+        if (line == null) throw new IOException("Shard process exited before listening");
+        return Integer.parseInt(line.substring(line.lastIndexOf(' ') + 1).trim());
+    }
+}
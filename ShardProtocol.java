@@ -0,0 +1,54 @@
+package JavaAssign;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Line protocol between {@link ShardRouter} and {@link ShardServer}: one request or reply per
+ * line, fields separated by tabs. Replies start with {@code OK} and the results, or with
+ * {@code ERR}, a status (400 for bad input, 404 for an unknown command, 409 for a conflict)
+ * and the message. Backslash, tab and newline inside a field are escaped.
+ */
+final class ShardProtocol {
+    static final String OK = "OK";
+    static final String ERR = "ERR";
+
+    private ShardProtocol() { }
+
+    static String encode(Object... fields) {
+        StringBuilder sb = new StringBuilder(64);
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) sb.append('\t');
+            String f = String.valueOf(fields[i]);
+            for (int j = 0; j < f.length(); j++) {
+                char c = f.charAt(j);
+                switch (c) {
+                    case '\\' -> sb.append("\\\\");
+                    case '\t' -> sb.append("\\t");
+                    case '\n' -> sb.append("\\n");
+                    case '\r' -> sb.append("\\r");
+                    default -> sb.append(c);
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    static String[] decode(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder f = new StringBuilder();
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\t') {
+                fields.add(f.toString());
+                f.setLength(0);
+            } else if (c == '\\' && i + 1 < line.length()) {
+                char e = line.charAt(++i);
+                f.append(e == 't' ? '\t' : e == 'n' ? '\n' : e == 'r' ? '\r' : e);
+            } else {
+                f.append(c);
+            }
+        }
+        fields.add(f.toString());
+        return fields.toArray(new String[0]);
+    }
+}
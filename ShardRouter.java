@@ -0,0 +1,323 @@
+package JavaAssign;
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ShardRouter - client-side front of a sharded booking core. Shows are placed on shards by a
+ * {@link ConsistentHashRing} over their screen id, so every show of a screen lives on one shard
+ * and that shard's overlap check sees them all; every hold, booking and cancellation goes
+ * straight to the shard owning the show. Movies, screens and customers are reference data:
+ * the router picks their ids and writes them to every shard. A shard that misses such a write
+ * (unreachable, or no reply in time) gets it re-sent before anything else is written to it;
+ * shards apply a repeated write once, so the re-send is safe whether or not the first arrived.
+ * Hold tokens and booking references returned here carry their shard in the top bits, so
+ * later calls need nothing but the token.
+ *
+ * Ids are handed out by the router, resuming after the highest the shards report, so a cluster
+ * supports exactly one router: a second one would hand out the same ids.
+ */
+public class ShardRouter implements AutoCloseable {
+    public static final int POINTS_PER_SHARD = 160;
+    /** How long a call waits for a shard's reply before giving up on the connection. */
+    public static final int DEFAULT_READ_TIMEOUT_MILLIS = 10_000;
+
+    private final ConsistentHashRing ring;
+    private final ShardClient[] shards;
+    private final AtomicInteger movieIdGen;
+    private final AtomicInteger screenIdGen;
+    private final AtomicInteger showIdGen;
+    private final AtomicInteger customerIdGen;
+    private final ConcurrentMap<Integer, Integer> showShards = new ConcurrentHashMap<>(); // show id -> owning shard
+    private final Object catalogLock = new Object(); // keeps catalog writes, and their re-sends, in one order per shard
+
+    /** A hold taken on a shard; the token is global. */
+    public static final class Hold {
+        private final long token;
+        private final int showId;
+        private final List<String> seats;
+        private final long farePaise;
+        private final long taxesPaise;
+        private final long totalPaise;
+
+        private Hold(long token, int showId, String[] reply) {
+            this.token = token;
+            this.showId = showId;
+            this.farePaise = Long.parseLong(reply[2]);
+            this.taxesPaise = Long.parseLong(reply[3]);
+            this.totalPaise = Long.parseLong(reply[4]);
+            this.seats = List.of(reply[5].split(","));
+        }
+
+        public long getToken() { return token; }
+        public int getShowId() { return showId; }
+        public List<String> getSeats() { return seats; }
+        public long getFarePaise() { return farePaise; }
+        public long getTaxesPaise() { return taxesPaise; }
+        public long getTotalPaise() { return totalPaise; }
+    }
+
+    /** Connects to the shards, in ring order; {@code connectionsPerShard} are kept open per shard. */
+    public ShardRouter(List<InetSocketAddress> addresses, int connectionsPerShard) {
+        this(addresses, connectionsPerShard, DEFAULT_READ_TIMEOUT_MILLIS);
+    }
+
+    public ShardRouter(List<InetSocketAddress> addresses, int connectionsPerShard, int readTimeoutMillis) {
+        if (addresses == null || addresses.isEmpty()) throw new IllegalArgumentException("At least one shard required");
+        if (addresses.size() > 0xFFFF) throw new IllegalArgumentException("At most 65535 shards");
+        if (connectionsPerShard < 1) throw new IllegalArgumentException("At least one connection per shard required");
+        if (readTimeoutMillis <= 0) throw new IllegalArgumentException("Read timeout must be positive");
+        this.ring = new ConsistentHashRing(addresses.size(), POINTS_PER_SHARD);
+        this.shards = new ShardClient[addresses.size()];
+        for (int i = 0; i < shards.length; i++) shards[i] = new ShardClient(i, addresses.get(i), connectionsPerShard, readTimeoutMillis);
+        // resume after the highest ids any shard has seen
+        int[] next = {1, 1, 1, 1};
+        for (ShardClient shard : shards) {
+            String[] ids = shard.call("IDS");
+            for (int i = 0; i < next.length; i++) next[i] = Math.max(next[i], Integer.parseInt(ids[i + 1]));
+        }
+        this.movieIdGen = new AtomicInteger(next[0]);
+        this.screenIdGen = new AtomicInteger(next[1]);
+        this.showIdGen = new AtomicInteger(next[2]);
+        this.customerIdGen = new AtomicInteger(next[3]);
+    }
+
+    public int getShardCount() { return shards.length; }
+
+    /** Shard owning {@code showId}: remembered when the show was scheduled here, otherwise asked of the shards. */
+    public int shardOf(int showId) {
+        Integer known = showShards.get(showId);
+        if (known != null) return known;
+        for (ShardClient shard : shards) {
+            try {
+                if (Boolean.parseBoolean(shard.call("HAS", showId)[1])) {
+                    showShards.put(showId, shard.index);
+                    return shard.index;
+                }
+            } catch (ShardUnreachableException e) {
+                // may be the owner; if no other shard has the show the lookup fails below
+            }
+        }
+        throw new IllegalArgumentException("Invalid show id: " + showId);
+    }
+
+    // Reference data, written everywhere
+    public int addMovie(String title, String genre, int durationMinutes) {
+        return broadcast("MOVIE", movieIdGen.getAndIncrement(), title, genre, durationMinutes);
+    }
+
+    public int addScreen(String name, SeatLayout layout) {
+        return broadcast("SCREEN", screenIdGen.getAndIncrement(), name, layout.toSpec());
+    }
+
+    public int addCustomer(String name, String phone) {
+        return broadcast("CUSTOMER", customerIdGen.getAndIncrement(), name, phone);
+    }
+
+    /**
+     * Sends {@code request}, whose second field is the id, to every shard. A shard refusing it
+     * (bad input, a clash) fails the call; a shard that cannot be reached keeps the request
+     * queued for a re-send, and the call still returns the id once any shard has it.
+     */
+    private int broadcast(Object... request) {
+        synchronized (catalogLock) {
+            RuntimeException refused = null;
+            int applied = 0;
+            for (ShardClient shard : shards) {
+                try {
+                    shard.catchUp();
+                    shard.call(request);
+                    applied++;
+                } catch (ShardUnreachableException e) {
+                    shard.missed.add(request);
+                } catch (RuntimeException e) {
+                    if (refused == null) refused = e;
+                }
+            }
+            if (refused != null) throw refused;
+            if (applied == 0) throw new IllegalStateException("No shard reachable; " + request[0] + " " + request[1] + " will be re-sent");
+            return (Integer) request[1];
+        }
+    }
+
+    // Shows and seats, on the shard owning the show's screen only
+    public int scheduleShow(int movieId, int screenId, String dateTime, long baseFarePaise) {
+        int id = showIdGen.getAndIncrement();
+        ShardClient shard = shards[ring.shardFor(screenId)];
+        synchronized (catalogLock) {
+            shard.catchUp(); // the show's movie and screen must be there first
+        }
+        shard.call("SHOW", id, movieId, screenId, dateTime, baseFarePaise);
+        showShards.put(id, shard.index);
+        return id;
+    }
+
+    public Hold hold(int showId, int customerId, Collection<String> seatIds) {
+        ShardClient shard = shards[shardOf(showId)];
+        String[] r = shard.call("HOLD", showId, customerId, String.join(",", seatIds));
+        return new Hold(globalToken(shard.index, Long.parseLong(r[1])), showId, r);
+    }
+
+    public Hold holdBest(int showId, int customerId, int partySize, SeatCategory preferred) {
+        ShardClient shard = shards[shardOf(showId)];
+        String[] r = shard.call("BEST", showId, customerId, partySize, preferred == null ? "" : String.valueOf(preferred.getCode()));
+        return new Hold(globalToken(shard.index, Long.parseLong(r[1])), showId, r);
+    }
+
+    /** Books a hold; returns a booking reference for {@link #cancel(long)}. */
+    public long book(long holdToken) {
+        String[] r = shardOfToken(holdToken).call("BOOK", holdToken & LOCAL_TOKEN_MASK);
+        return (holdToken >>> 48 << 32) | Integer.parseInt(r[1]);
+    }
+
+    public boolean releaseHold(long holdToken) {
+        return Boolean.parseBoolean(shardOfToken(holdToken).call("RELEASE", holdToken & LOCAL_TOKEN_MASK)[1]);
+    }
+
+    public void cancel(long bookingRef) {
+        int shard = (int) (bookingRef >>> 32);
+        if (shard >= shards.length) throw new IllegalArgumentException("Unknown booking reference: " + bookingRef);
+        shards[shard].call("CANCEL", (int) bookingRef);
+    }
+
+    public int getAvailableCount(int showId) {
+        return Integer.parseInt(shards[shardOf(showId)].call("AVAIL", showId)[1]);
+    }
+
+    /** Booking id on its own shard, from a reference returned by {@link #book(long)}. */
+    public static int localBookingId(long bookingRef) { return (int) bookingRef; }
+
+    @Override
+    public void close() {
+        for (ShardClient shard : shards) shard.close();
+    }
+
+    private static final long LOCAL_TOKEN_MASK = (1L << 48) - 1;
+
+    private static long globalToken(int shard, long localToken) {
+        if ((localToken & ~LOCAL_TOKEN_MASK) != 0) throw new IllegalStateException("Hold token out of range: " + localToken);
+        return ((long) shard << 48) | localToken;
+    }
+
+    private ShardClient shardOfToken(long holdToken) {
+        int shard = (int) (holdToken >>> 48);
+        if (shard >= shards.length) throw new IllegalArgumentException("Unknown hold token: " + holdToken);
+        return shards[shard];
+    }
+
+    /** The shard did not answer: it may or may not have applied the request. */
+    static final class ShardUnreachableException extends IllegalStateException {
+        private static final long serialVersionUID = 1L;
+
+        ShardUnreachableException(String message, Throwable cause) { super(message, cause); }
+    }
+
+    /** Pool of open connections to one shard; a caller borrows one per request. */
+    private static final class ShardClient {
+        final int index;
+        final InetSocketAddress address;
+        final int maxIdle;
+        final int readTimeoutMillis;
+        final ConcurrentLinkedQueue<Connection> idle = new ConcurrentLinkedQueue<>();
+        final AtomicInteger idleCount = new AtomicInteger();
+        final Queue<Object[]> missed = new ArrayDeque<>(); // catalog writes to re-send; guarded by catalogLock
+
+        ShardClient(int index, InetSocketAddress address, int maxIdle, int readTimeoutMillis) {
+            this.index = index;
+            this.address = address;
+            this.maxIdle = maxIdle;
+            this.readTimeoutMillis = readTimeoutMillis;
+        }
+
+        // re-sends missed catalog writes in order; stops at the first that fails again
+        void catchUp() {
+            Object[] request;
+            while ((request = missed.peek()) != null) {
+                try {
+                    call(request);
+                } catch (ShardUnreachableException e) {
+                    throw e;
+                } catch (RuntimeException e) {
+                    System.err.println("Shard " + index + " refused re-sent " + request[0] + " " + request[1] + ": " + e.getMessage());
+                }
+                missed.remove();
+            }
+        }
+
+        String[] call(Object... request) {
+            Connection c = idle.poll();
+            if (c != null) idleCount.decrementAndGet();
+            else c = open();
+            String[] reply;
+            try {
+                reply = c.call(ShardProtocol.encode(request));
+            } catch (SocketTimeoutException e) {
+                c.close(); // a late reply would be read as the answer to the next request
+                throw new ShardUnreachableException("Shard " + index + " (" + address + ") did not reply within " + readTimeoutMillis + " ms; the outcome is unknown", e);
+            } catch (IOException e) {
+                c.close();
+                throw new ShardUnreachableException("Shard " + index + " (" + address + ") unreachable: " + e.getMessage(), e);
+            }
+            if (idleCount.incrementAndGet() <= maxIdle) idle.offer(c);
+            else {
+                idleCount.decrementAndGet();
+                c.close();
+            }
+            if (ShardProtocol.OK.equals(reply[0])) return reply;
+            String message = reply.length > 2 ? reply[2] : "Shard error";
+            switch (reply.length > 1 ? reply[1] : "") {
+                case "400": throw new IllegalArgumentException(message);
+                case "409": throw new IllegalStateException(message);
+                default: throw new IllegalStateException("Shard " + index + ": " + message);
+            }
+        }
+
+        Connection open() {
+            try {
+                return new Connection(address, readTimeoutMillis);
+            } catch (IOException e) {
+                throw new ShardUnreachableException("Shard " + index + " (" + address + ") unreachable: " + e.getMessage(), e);
+            }
+        }
+
+        void close() {
+            Connection c;
+            while ((c = idle.poll()) != null) c.close();
+        }
+    }
+
+    private static final class Connection {
+        final Socket socket;
+        final BufferedReader in;
+        final Writer out;
+
+        Connection(InetSocketAddress address, int readTimeoutMillis) throws IOException {
+            socket = new Socket();
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(readTimeoutMillis);
+            socket.connect(address, 5000);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        String[] call(String line) throws IOException {
+            out.write(line);
+            out.write('\n');
+            out.flush();
+            String reply = in.readLine();
+            if (reply == null) throw new EOFException("connection closed");
+            return ShardProtocol.decode(reply);
+        }
+
+        void close() {
+            try { socket.close(); } catch (IOException ignored) { }
+        }
+    }
+}
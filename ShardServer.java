@@ -0,0 +1,179 @@
+package JavaAssign;
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * ShardServer - one partition of the booking core, owning a subset of the shows and all of
+ * their seats, so no lock or call ever spans two shards. It serves {@link ShardProtocol} on a
+ * plain socket, one connection per router worker, each on its own thread.
+ *
+ *   PING                                  -> OK
+ *   IDS                                   -> OK nextMovie nextScreen nextShow nextCustomer
+ *   MOVIE id title genre minutes          -> OK id
+ *   SCREEN id name layoutSpec             -> OK id
+ *   CUSTOMER id name phone                -> OK id
+ *   SHOW id movieId screenId dateTime farePaise -> OK id
+ *
+ * Ids of catalog entries are chosen by the router; repeating a catalog command returns the
+ * same reply, so the router can re-send one whose reply it never saw.
+ *   HOLD showId customerId A1,A2          -> OK token fare taxes total A1,A2
+ *   BEST showId customerId n [category]   -> OK token fare taxes total seats
+ *   BOOK token                            -> OK bookingId total
+ *   RELEASE token                         -> OK true|false
+ *   CANCEL bookingId                      -> OK bookingId
+ *   AVAIL showId                          -> OK available capacity
+ *   HAS showId                            -> OK true|false
+ */
+public class ShardServer {
+    private final BookingService service;
+    private final ServerSocket socket;
+    private final ExecutorService executor = BookingHttpServer.newRequestExecutor();
+    private final Set<Socket> open = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private Thread acceptor;
+
+    public ShardServer(BookingService service, InetSocketAddress address) throws IOException {
+        if (service == null) throw new IllegalArgumentException("Service required");
+        this.service = service;
+        this.socket = new ServerSocket();
+        socket.bind(address, 1024);
+    }
+
+    public synchronized void start() {
+        if (acceptor != null) return;
+        acceptor = new Thread(this::acceptLoop, "shard-acceptor"); // not a daemon: it keeps a standalone shard alive
+        acceptor.start();
+    }
+
+    public synchronized void stop() {
+        try { socket.close(); }
+        catch (IOException e) { System.err.println("Failed to close shard socket: " + e.getMessage()); }
+        for (Socket s : open) {
+            try { s.close(); } catch (IOException ignored) { }
+        }
+        executor.shutdownNow();
+    }
+
+    public int getPort() { return socket.getLocalPort(); }
+
+    /** Usage: ShardServer [port] [bindAddress] [dataDir]; port 0 picks a free one. */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 9090;
+        InetAddress bind = args.length > 1 ? InetAddress.getByName(args[1]) : InetAddress.getLoopbackAddress();
+        BookingService service = new BookingService();
+        if (args.length > 2) BookingJournal.open(Paths.get(args[2]), service).startCheckpoints(service, 15);
+        service.start();
+        ShardServer shard = new ShardServer(service, new InetSocketAddress(bind, port));
+        shard.start();
+        System.out.println("Shard server listening on port " + shard.getPort());
+    }
+
+    private void acceptLoop() {
+        while (!socket.isClosed()) {
+            try {
+                Socket s = socket.accept();
+                s.setTcpNoDelay(true);
+                open.add(s);
+                executor.execute(() -> serve(s));
+            } catch (SocketException e) {
+                return; // closed by stop()
+            } catch (IOException e) {
+                System.err.println("Shard accept failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void serve(Socket s) {
+        try (Socket conn = s;
+             BufferedReader in = new BufferedReader(new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(conn.getOutputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                out.write(reply(ShardProtocol.decode(line)));
+                out.write('\n');
+                out.flush();
+            }
+        } catch (IOException e) {
+            // router went away; nothing to clean up beyond the socket
+        } finally {
+            open.remove(s);
+        }
+    }
+
+    String reply(String[] f) {
+        try {
+            return serve(f);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            return ShardProtocol.encode(ShardProtocol.ERR, 400, String.valueOf(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ShardProtocol.encode(ShardProtocol.ERR, 409, String.valueOf(e.getMessage()));
+        } catch (RuntimeException e) {
+            return ShardProtocol.encode(ShardProtocol.ERR, 500, "Internal error");
+        }
+    }
+
+    private String serve(String[] f) {
+        switch (f[0]) {
+            case "PING":
+                return ShardProtocol.OK;
+            case "IDS": {
+                int[] ids = service.idCounters();
+                return ShardProtocol.encode(ShardProtocol.OK, ids[0], ids[1], ids[2], ids[3]);
+            }
+            case "MOVIE":
+                return ShardProtocol.encode(ShardProtocol.OK, service.addMovieAs(parseInt(f[1]), f[2], f[3], parseInt(f[4])).getId());
+            case "SCREEN":
+                return ShardProtocol.encode(ShardProtocol.OK, service.addScreenAs(parseInt(f[1]), f[2], SeatLayout.parse(f[3])).getId());
+            case "CUSTOMER":
+                return ShardProtocol.encode(ShardProtocol.OK, service.addCustomerAs(parseInt(f[1]), f[2], f[3]).getId());
+            case "SHOW":
+                return ShardProtocol.encode(ShardProtocol.OK, service.scheduleShowAs(parseInt(f[1]), parseInt(f[2]), parseInt(f[3]), f[4], parseLong(f[5])).getId());
+            case "HOLD":
+                return holdReply(service.hold(parseInt(f[1]), parseInt(f[2]), Arrays.asList(f[3].split(","))));
+            case "BEST": {
+                SeatCategory preferred = f.length > 4 && !f[4].isEmpty() ? SeatCategory.fromCode(f[4].charAt(0)) : null;
+                return holdReply(service.holdBest(parseInt(f[1]), parseInt(f[2]), parseInt(f[3]), preferred));
+            }
+            case "BOOK": {
+                Booking b = service.book(parseLong(f[1]));
+                return ShardProtocol.encode(ShardProtocol.OK, b.getId(), b.getTotalPaise());
+            }
+            case "RELEASE":
+                return ShardProtocol.encode(ShardProtocol.OK, service.releaseHold(parseLong(f[1])));
+            case "CANCEL":
+                return ShardProtocol.encode(ShardProtocol.OK, service.cancel(parseInt(f[1])).getId());
+            case "AVAIL": {
+                Show show = service.getShow(parseInt(f[1])).orElseThrow(() -> new IllegalArgumentException("Invalid show id: " + f[1]));
+                return ShardProtocol.encode(ShardProtocol.OK, show.getAvailableCount(), show.getCapacity());
+            }
+            case "HAS":
+                return ShardProtocol.encode(ShardProtocol.OK, service.getShow(parseInt(f[1])).isPresent());
+            default:
+                return ShardProtocol.encode(ShardProtocol.ERR, 404, "Unknown command: " + f[0]);
+        }
+    }
+
+    private static String holdReply(SeatHold h) {
+        StringJoiner seats = new StringJoiner(",");
+        for (Seat s : h.getSeats()) seats.add(s.getSeatId());
+        return ShardProtocol.encode(ShardProtocol.OK, h.getToken(), h.getFarePaise(), h.getTaxesPaise(), h.getTotalPaise(), seats);
+    }
+
+    private static int parseInt(String s) {
+        try { return Integer.parseInt(s); }
+        catch (NumberFormatException e) { throw new IllegalArgumentException("Not a number: " + s); }
+    }
+
+    private static long parseLong(String s) {
+        try { return Long.parseLong(s); }
+        catch (NumberFormatException e) { throw new IllegalArgumentException("Not a number: " + s); }
+    }
+}
@@ -1,83 +1,212 @@
 package JavaAssign;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 public class Show {
+    /** Wall-clock zone of the cinema; show times are entered and printed in it. */
+    public static final ZoneId ZONE = ZoneId.of("Asia/Kolkata");
+    public static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("uuuu-MM-dd HH:mm");
+    /** Time after the credits before the screen can take the next show. */
+    public static final Duration CLEANUP_BUFFER = Duration.ofMinutes(20);
+
     private final int id;
     private final Movie movie;
     private final Screen screen;
-    private final String dateTime; // simple string representation
-    private final double baseFare;
+    private final String dateTime; // "yyyy-MM-dd HH:mm" in ZONE
+    private final LocalDateTime startTime;
+    private final Instant start;
+    private final Instant end;     // start + running time + cleanup buffer
+    private final long baseFarePaise;
 
     // seat layout & bookings
-    private final Map<String, Seat> seats = new LinkedHashMap<>();
-    private final List<Booking> bookings = new ArrayList<>();
-
-    // default layout (can be customized later)
-    private static final char[] DEFAULT_ROWS = {'A','B','C','D'};
-    private static final int DEFAULT_COLS = 8;
+    private final SeatMap seats;
+    private final SeatMapRenderer renderer;
+    private final Map<Integer, Booking> bookings = new ConcurrentSkipListMap<>(); // booking id -> booking
+    private final Map<Long, int[]> holds = new ConcurrentHashMap<>(); // hold token -> sorted seat indices
 
-    public Show(int id, Movie movie, Screen screen, String dateTime, double baseFare) {
+    public Show(int id, Movie movie, Screen screen, String dateTime, long baseFarePaise) {
         this.id = id;
         if (movie == null) throw new IllegalArgumentException("Movie required");
         if (screen == null) throw new IllegalArgumentException("Screen required");
         if (dateTime == null || dateTime.trim().isEmpty()) throw new IllegalArgumentException("Date/time required");
-        if (baseFare < 0) throw new IllegalArgumentException("Base fare cannot be negative");
+        if (baseFarePaise < 0) throw new IllegalArgumentException("Base fare cannot be negative");
 
         this.movie = movie;
         this.screen = screen;
-        this.dateTime = dateTime.trim();
-        this.baseFare = baseFare;
-        initDefaultSeats();
-    }
-
-    private void initDefaultSeats() {
-        for (char r : DEFAULT_ROWS) {
-            for (int c = 1; c <= DEFAULT_COLS; c++) {
-                String id = "" + r + c;
-                seats.put(id, new Seat(id));
-            }
-        }
+        try { this.startTime = LocalDateTime.parse(dateTime.trim(), DATE_TIME); }
+        catch (DateTimeParseException e) { throw new IllegalArgumentException("Date/time must look like 2025-10-01 18:00: " + dateTime); }
+        this.dateTime = startTime.format(DATE_TIME);
+        this.start = startTime.atZone(ZONE).toInstant();
+        // fixed at scheduling time, so later edits to the movie cannot move a booked show
+        this.end = start.plus(Duration.ofMinutes(movie.getDurationMinutes())).plus(CLEANUP_BUFFER);
+        this.baseFarePaise = baseFarePaise;
+        // only the per-show state array is allocated; the layout template is shared
+        this.seats = new SeatMap(screen.getLayout());
+        this.renderer = new SeatMapRenderer(seats);
     }
 
     public int getId() { return id; }
     public Movie getMovie() { return movie; }
     public Screen getScreen() { return screen; }
     public String getDateTime() { return dateTime; }
-    public double getBaseFare() { return baseFare; }
+    public LocalDate getDate() { return startTime.toLocalDate(); }
+    public Instant getStart() { return start; }
+    public Instant getEnd() { return end; }
+    public LocalDateTime getEndTime() { return LocalDateTime.ofInstant(end, ZONE); }
+
+    public boolean overlaps(Instant from, Instant to) { return start.isBefore(to) && end.isAfter(from); }
+    public long getBaseFarePaise() { return baseFarePaise; }
+
+    // base fare scaled by the seat's category multiplier, in paise
+    public long getSeatPricePaise(Seat seat) {
+        return Money.scale(baseFarePaise, screen.getLayout().multiplierBasisPointsAt(seat.getIndex()));
+    }
 
     public Optional<Seat> getSeatById(String seatId) {
-        if (seatId == null) return Optional.empty();
-        return Optional.ofNullable(seats.get(seatId.toUpperCase()));
+        int idx = seats.indexOf(seatId);
+        return idx < 0 ? Optional.empty() : Optional.of(new Seat(seats, idx));
     }
 
     public Collection<Seat> getAllSeats() {
-        return Collections.unmodifiableCollection(seats.values());
+        List<Seat> all = new ArrayList<>(seats.capacity());
+        for (int i = 0; i < seats.positions(); i++) {
+            if (seats.isSeat(i)) all.add(new Seat(seats, i));
+        }
+        return Collections.unmodifiableList(all);
+    }
+
+    SeatMap getSeatMap() { return seats; }
+
+    // O(1) availability, maintained incrementally by the seat map
+    public int getCapacity() { return seats.capacity(); }
+    public int getAvailableCount() { return seats.count(SeatMap.AVAILABLE); }
+    public int getHeldCount() { return seats.count(SeatMap.HELD); }
+    public int getBookedCount() { return seats.count(SeatMap.BOOKED); }
+    public int getAvailableInRow(int row) { return seats.rowCount(row, SeatMap.AVAILABLE); }
+
+    /**
+     * Holds every listed seat under {@code holdToken}, or none of them.
+     * Returns false if any seat is not available; unknown seat ids are rejected.
+     */
+    public boolean tryHoldAll(Collection<String> seatIds, long holdToken) {
+        if (seatIds == null || seatIds.isEmpty()) throw new IllegalArgumentException("At least one seat required");
+        int[] idx = new int[seatIds.size()];
+        int n = 0;
+        for (String sid : seatIds) {
+            int i = seats.indexOf(sid);
+            if (i < 0) throw new IllegalArgumentException("Seat not found: " + sid);
+            idx[n++] = i;
+        }
+        return tryHoldIndices(Arrays.stream(idx).sorted().distinct().toArray(), holdToken);
+    }
+
+    private boolean tryHoldIndices(int[] sortedIdx, long holdToken) {
+        if (holds.putIfAbsent(holdToken, sortedIdx) != null) throw new IllegalStateException("Hold token already in use");
+        if (seats.compareAndSetAll(sortedIdx, SeatMap.AVAILABLE, SeatMap.HELD)) return true;
+        holds.remove(holdToken);
+        return false;
+    }
+
+    /** Seat ids of the best block of {@code n} adjacent free seats, or empty if none fits. */
+    public Optional<List<String>> findBestBlock(int n, SeatCategory preferred) {
+        int[] block = BestSeatFinder.find(seats, n, preferred);
+        if (block == null) return Optional.empty();
+        List<String> ids = new ArrayList<>(n);
+        for (int i : block) ids.add(seats.seatId(i));
+        return Optional.of(ids);
+    }
+
+    /**
+     * Finds and holds the best block of {@code n} adjacent seats under {@code holdToken}.
+     * Retries when another booking grabs the block between the search and the hold;
+     * returns an empty list if no block fits.
+     */
+    public List<Seat> holdBestBlock(int n, SeatCategory preferred, long holdToken) {
+        for (int attempt = 0; attempt < 8; attempt++) {
+            int[] block = BestSeatFinder.find(seats, n, preferred);
+            if (block == null) return Collections.emptyList();
+            if (tryHoldIndices(block, holdToken)) return toSeats(block);
+        }
+        return Collections.emptyList();
+    }
+
+    /** Books the seats held under {@code holdToken} and returns them. */
+    public List<Seat> commit(long holdToken) {
+        int[] idx = holds.remove(holdToken);
+        if (idx == null) throw new IllegalStateException("Hold not found or already released");
+        if (!seats.compareAndSetAll(idx, SeatMap.HELD, SeatMap.BOOKED)) {
+            // cannot happen while held seats move only through their token; compareAndSetAll
+            // rolled back its partial work, so every seat still HELD in idx is ours to free
+            for (int i : idx) seats.compareAndSet(i, SeatMap.HELD, SeatMap.AVAILABLE);
+            throw new IllegalStateException("Held seats were released before commit");
+        }
+        return toSeats(idx);
+    }
+
+    /** Releases the seats held under {@code holdToken}; false if the hold no longer exists. */
+    public boolean abort(long holdToken) {
+        int[] idx = holds.remove(holdToken);
+        if (idx == null) return false;
+        for (int i : idx) seats.compareAndSet(i, SeatMap.HELD, SeatMap.AVAILABLE);
+        return true;
+    }
+
+    /**
+     * Puts booked seats of this show back on sale, for a cancellation or a booking that
+     * could not be logged. Only BOOKED seats move, so a live hold is never freed.
+     */
+    public void release(Collection<Seat> booked) {
+        for (Seat seat : booked) {
+            if (seat.getMap() != seats) throw new IllegalArgumentException("Seat " + seat.getSeatId() + " is not in show " + id);
+        }
+        for (Seat seat : booked) seats.compareAndSet(seat.getIndex(), SeatMap.BOOKED, SeatMap.AVAILABLE);
+    }
+
+    public List<Seat> getHeldSeats(long holdToken) {
+        int[] idx = holds.get(holdToken);
+        return idx == null ? Collections.emptyList() : toSeats(idx);
+    }
+
+    private List<Seat> toSeats(int[] idx) {
+        List<Seat> list = new ArrayList<>(idx.length);
+        for (int i : idx) list.add(new Seat(seats, i));
+        return list;
     }
 
     public void addBooking(Booking b) {
-        bookings.add(b);
+        bookings.put(b.getId(), b);
     }
 
     public void removeBooking(Booking b) {
-        bookings.remove(b);
+        bookings.remove(b.getId(), b);
+    }
+
+    public List<Booking> getBookings() {
+        return new ArrayList<>(bookings.values());
     }
 
     public String brief() {
-        return String.format("Show %d - %s @ %s (Screen: %s, Fare: %.2f)", id, movie.getTitle(), dateTime, screen.getName(), baseFare);
+        return brief(movie.getTitle());
+    }
+
+    // with the title as the catalog snapshot recorded it
+    String brief(String title) {
+        return String.format("Show %d - %s @ %s (Screen: %s, Fare: %s)", id, title, dateTime, screen.getName(), Money.format(baseFarePaise));
     }
 
     public void printSeatAvailability() {
         System.out.println("Seat Layout for Show " + id + " (" + movie.getTitle() + " @ " + dateTime + ")");
-        for (char r : DEFAULT_ROWS) {
-            StringBuilder row = new StringBuilder();
-            for (int c = 1; c <= DEFAULT_COLS; c++) {
-                String sid = "" + r + c;
-                Seat s = seats.get(sid);
-                char ch = s.isAvailable() ? 'O' : (s.isHeld() ? 'H' : 'X');
-                row.append(String.format("%s[%c] ", sid, ch));
-            }
-            System.out.println(row.toString());
-        }
+        byte[] map = renderer.render();
+        System.out.write(map, 0, map.length);
+        System.out.flush();
         System.out.println("Legend: O=Available, X=Booked, H=Held");
     }
 }
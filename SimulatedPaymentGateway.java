@@ -0,0 +1,101 @@
+package JavaAssign;
+import java.io.IOException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Local stand-in for a card processor. Each call answers after a random latency between the
+ * configured bounds, from a timer thread rather than a blocked one; a share of charges are
+ * declined and a share fail outright, to exercise the service's error paths. Keys are
+ * remembered, so repeating one returns the first call's future.
+ */
+public class SimulatedPaymentGateway implements PaymentGateway {
+    private final long minLatencyMillis;
+    private final long maxLatencyMillis;
+    private final double declineRate;
+    private final double errorRate;
+
+    private final ConcurrentMap<String, Call> charges = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Call> refunds = new ConcurrentHashMap<>();
+    private final AtomicLong referenceGen = new AtomicLong(1);
+    private final ScheduledExecutorService timer; // null when answers are immediate
+
+    private static final class Call {
+        final long amountPaise;
+        final CompletableFuture<PaymentResult> result = new CompletableFuture<>();
+
+        Call(long amountPaise) { this.amountPaise = amountPaise; }
+    }
+
+    /** A gateway that approves everything at once. */
+    public SimulatedPaymentGateway() {
+        this(0, 0, 0, 0);
+    }
+
+    public SimulatedPaymentGateway(long minLatencyMillis, long maxLatencyMillis, double declineRate, double errorRate) {
+        if (minLatencyMillis < 0 || maxLatencyMillis < minLatencyMillis) throw new IllegalArgumentException("Latency bounds must satisfy 0 <= min <= max");
+        if (!(declineRate >= 0 && errorRate >= 0 && declineRate + errorRate <= 1)) throw new IllegalArgumentException("Decline and error rates must be 0-1 and sum to at most 1");
+        this.minLatencyMillis = minLatencyMillis;
+        this.maxLatencyMillis = maxLatencyMillis;
+        this.declineRate = declineRate;
+        this.errorRate = errorRate;
+        this.timer = maxLatencyMillis == 0 ? null : Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "payment-gateway");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Override
+    public CompletableFuture<PaymentResult> charge(String key, long amountPaise) {
+        if (key == null || key.isEmpty()) throw new IllegalArgumentException("Idempotency key required");
+        if (amountPaise < 0) throw new IllegalArgumentException("Amount cannot be negative");
+        Call call = new Call(amountPaise);
+        Call first = charges.putIfAbsent(key, call);
+        if (first != null) return sameAmount(first, amountPaise, key);
+        answer(call, () -> {
+            double roll = ThreadLocalRandom.current().nextDouble();
+            if (roll < errorRate) throw new CompletionException(new IOException("Gateway unavailable"));
+            if (roll < errorRate + declineRate) return PaymentResult.declined(key, "Card declined");
+            return PaymentResult.approved(key, "CH" + referenceGen.getAndIncrement());
+        });
+        return call.result;
+    }
+
+    @Override
+    public CompletableFuture<PaymentResult> refund(String key, long amountPaise) {
+        if (key == null || key.isEmpty()) throw new IllegalArgumentException("Idempotency key required");
+        Call charge = charges.get(key);
+        if (charge == null) return CompletableFuture.failedFuture(new IllegalArgumentException("No charge under key " + key));
+        if (charge.amountPaise != amountPaise) return CompletableFuture.failedFuture(new IllegalArgumentException("Refund does not match charge " + key));
+        Call call = new Call(amountPaise);
+        Call first = refunds.putIfAbsent(key, call);
+        if (first != null) return first.result;
+        // refunds do not fail at random: a lost refund is a bug, not a scenario to simulate
+        charge.result.whenComplete((r, err) -> answer(call, () -> {
+            if (err != null || !r.isApproved()) return PaymentResult.declined(key, "Nothing to refund");
+            return PaymentResult.approved(key, "RF" + referenceGen.getAndIncrement());
+        }));
+        return call.result;
+    }
+
+    /** Stops the timer; calls still in flight never complete. */
+    public void shutdown() {
+        if (timer != null) timer.shutdownNow();
+    }
+
+    private void answer(Call call, Supplier<PaymentResult> outcome) {
+        Runnable complete = () -> {
+            try { call.result.complete(outcome.get()); }
+            catch (CompletionException e) { call.result.completeExceptionally(e.getCause()); }
+        };
+        if (timer == null) complete.run();
+        else timer.schedule(complete, ThreadLocalRandom.current().nextLong(minLatencyMillis, maxLatencyMillis + 1), TimeUnit.MILLISECONDS);
+    }
+
+    private static CompletableFuture<PaymentResult> sameAmount(Call first, long amountPaise, String key) {
+        if (first.amountPaise != amountPaise) return CompletableFuture.failedFuture(new IllegalArgumentException("Key " + key + " was used for a different amount"));
+        return first.result;
+    }
+}
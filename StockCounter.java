@@ -0,0 +1,81 @@
+package JavaAssign;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Striped stock level that can never go negative. Stock is spread over cache-line padded
+ * stripes and each thread takes from its own stripe with a single CAS, so counter terminals
+ * on different threads do not contend. Only when the home stripe runs short does a taker
+ * fall back to sweeping all stripes into its own, one taker at a time.
+ */
+final class StockCounter {
+    private static final int PAD = 16; // longs per stripe: keeps stripes on separate cache lines
+
+    private final AtomicLongArray cells;
+    private final int mask;
+
+    StockCounter(long initial) {
+        if (initial < 0) throw new IllegalArgumentException("Stock cannot be negative");
+        int stripes = Math.min(64, Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1) << 1));
+        this.cells = new AtomicLongArray(stripes * PAD);
+        this.mask = stripes - 1;
+        spread(initial);
+    }
+
+    int stripes() { return mask + 1; }
+
+    /**
+     * Takes {@code qty} units. Returns what is left in the stripe taken from (a hint for
+     * low-stock checks that avoids summing every stripe), or -1 when there is not enough stock.
+     */
+    long tryTake(long qty) {
+        if (qty <= 0) throw new IllegalArgumentException("Quantity must be positive");
+        int home = home();
+        while (true) {
+            long v = cells.get(home * PAD);
+            if (v < qty) break;
+            if (cells.compareAndSet(home * PAD, v, v - qty)) return v - qty;
+        }
+        return collect(home, qty) ? 0 : -1;
+    }
+
+    /** Returns units to the caller's stripe (cancellations, rollbacks). */
+    void put(long qty) {
+        if (qty < 0) throw new IllegalArgumentException("Quantity cannot be negative");
+        cells.getAndAdd(home() * PAD, qty);
+    }
+
+    /** Adds a delivery spread across all stripes. */
+    void spread(long qty) {
+        if (qty < 0) throw new IllegalArgumentException("Quantity cannot be negative");
+        int stripes = stripes();
+        for (int i = 0; i < stripes; i++) cells.getAndAdd(i * PAD, qty / stripes + (i < qty % stripes ? 1 : 0));
+    }
+
+    /** Replaces the whole stock with {@code total}; only safe while nothing else takes or puts. */
+    synchronized void reset(long total) {
+        if (total < 0) throw new IllegalArgumentException("Stock cannot be negative");
+        for (int i = 0; i <= mask; i++) cells.set(i * PAD, 0);
+        spread(total);
+    }
+
+    /** Current total; exact when no take or put is in flight. */
+    long sum() {
+        long total = 0;
+        for (int i = 0; i <= mask; i++) total += cells.get(i * PAD);
+        return total;
+    }
+
+    // slow path: sweep every stripe into the home stripe, so the next takes are fast again
+    private synchronized boolean collect(int home, long qty) {
+        long gathered = 0;
+        for (int i = 0; i <= mask; i++) gathered += cells.getAndSet(i * PAD, 0);
+        boolean ok = gathered >= qty;
+        cells.getAndAdd(home * PAD, ok ? gathered - qty : gathered);
+        return ok;
+    }
+
+    private int home() {
+        long id = Thread.currentThread().getId();
+        return (int) (id ^ (id >>> 16)) * 0x9E3779B9 >>> 16 & mask;
+    }
+}
@@ -0,0 +1,54 @@
+package JavaAssign;
+import java.util.*;
+
+/**
+ * Immutable list of tax rules applied to a subtotal. Each rule is a named rate in basis
+ * points and is rounded on its own, so receipts can list every line and still add up.
+ * {@link #STANDARD} is the 5% service tax plus 12% GST charged on tickets and concessions.
+ */
+public final class TaxTable {
+    public static final TaxTable STANDARD = new TaxTable(new String[0], new int[0])
+            .with("Service tax", 500)
+            .with("GST", 1200);
+
+    private final String[] names;
+    private final int[] rates;
+
+    private TaxTable(String[] names, int[] rates) {
+        this.names = names;
+        this.rates = rates;
+    }
+
+    public static TaxTable none() { return new TaxTable(new String[0], new int[0]); }
+
+    /** Returns a copy of this table with one more rule; {@code basisPoints} 500 is 5%. */
+    public TaxTable with(String name, int basisPoints) {
+        if (name == null || name.trim().isEmpty()) throw new IllegalArgumentException("Tax name required");
+        if (basisPoints < 0 || basisPoints > Money.BASIS_POINTS) throw new IllegalArgumentException("Tax rate must be 0-100%");
+        String[] n = Arrays.copyOf(names, names.length + 1);
+        int[] r = Arrays.copyOf(rates, rates.length + 1);
+        n[names.length] = name.trim();
+        r[rates.length] = basisPoints;
+        return new TaxTable(n, r);
+    }
+
+    public int size() { return rates.length; }
+    public String name(int rule) { return names[rule]; }
+    public int rate(int rule) { return rates[rule]; }
+
+    public long taxOn(int rule, long subtotal) { return Money.scale(subtotal, rates[rule]); }
+
+    /** Total tax on {@code subtotal}: the sum of every rule rounded separately. */
+    public long taxOn(long subtotal) {
+        long tax = 0;
+        for (int rate : rates) tax += Money.scale(subtotal, rate);
+        return tax;
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner sj = new StringJoiner(", ");
+        for (int i = 0; i < rates.length; i++) sj.add(names[i] + " " + Money.formatPercent(rates[i]));
+        return sj.toString();
+    }
+}
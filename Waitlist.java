@@ -0,0 +1,181 @@
+package JavaAssign;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Per-show waitlists for sold-out shows. Nothing here polls: the service reports every
+ * event that frees seats (a cancellation, a released or expired hold) through
+ * {@link #seatsFreed(Show)}, and only that show's queue is matched. Matching walks the queue
+ * in join order and offers each party the best block that seats it, as a timed hold; a
+ * party too big for what is free is passed over until more seats come back, rather than
+ * holding everyone behind it. An offer that lapses frees its seats again and so re-enters
+ * the same loop for the next party. Only waiting and offered parties are kept: an entry is
+ * dropped once its offer is booked or lapses, or the party leaves.
+ */
+public final class Waitlist {
+    public enum Status { WAITING, OFFERED, BOOKED, LAPSED, LEFT }
+
+    /** A party waiting for seats in one show. */
+    public static final class Entry {
+        private final int id;
+        private final Customer customer;
+        private final Show show;
+        private final int partySize;
+        private final SeatCategory preferred;
+        private final long joinedAt = System.currentTimeMillis();
+        private volatile Status status = Status.WAITING;
+        private volatile SeatHold offer;
+
+        Entry(int id, Customer customer, Show show, int partySize, SeatCategory preferred) {
+            this.id = id;
+            this.customer = customer;
+            this.show = show;
+            this.partySize = partySize;
+            this.preferred = preferred;
+        }
+
+        public int getId() { return id; }
+        public Customer getCustomer() { return customer; }
+        public Show getShow() { return show; }
+        public int getPartySize() { return partySize; }
+        public SeatCategory getPreferred() { return preferred; }
+        public long getJoinedAt() { return joinedAt; }
+        public Status getStatus() { return status; }
+        /** The hold offered to this party, or null while it is still waiting. */
+        public SeatHold getOffer() { return offer; }
+
+        @Override
+        public String toString() {
+            return "Waitlist #" + id + ": " + customer.getName() + ", party of " + partySize + (preferred == null ? "" : " (" + preferred + ")") + " - " + status;
+        }
+    }
+
+    /** Places a hold of the party's best block, or returns null when none fits. */
+    interface Offerer {
+        SeatHold offer(Entry entry);
+    }
+
+    private static final class Queue {
+        final ConcurrentLinkedQueue<Entry> entries = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean scheduled = new AtomicBoolean();
+    }
+
+    private final ConcurrentMap<Integer, Queue> queues = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Entry> offers = new ConcurrentHashMap<>(); // by hold token
+    private final AtomicInteger idGen = new AtomicInteger(1);
+    private final Offerer offerer;
+    private volatile Consumer<Entry> offerListener = e -> { };
+    private ExecutorService matcher; // null until started: match on the caller's thread
+
+    Waitlist(Offerer offerer) {
+        this.offerer = offerer;
+    }
+
+    public void setOfferListener(Consumer<Entry> listener) {
+        if (listener == null) throw new IllegalArgumentException("Listener required");
+        this.offerListener = listener;
+    }
+
+    synchronized void start() {
+        if (matcher != null) return;
+        matcher = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "waitlist-matcher");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    synchronized void stop() {
+        if (matcher != null) matcher.shutdownNow();
+        matcher = null;
+    }
+
+    Entry join(Customer customer, Show show, int partySize, SeatCategory preferred) {
+        if (partySize < 1 || partySize > show.getCapacity()) throw new IllegalArgumentException("Party size must be 1-" + show.getCapacity());
+        Entry e = new Entry(idGen.getAndIncrement(), customer, show, partySize, preferred);
+        entries.put(e.getId(), e);
+        queues.computeIfAbsent(show.getId(), id -> new Queue()).entries.add(e);
+        seatsFreed(show); // seats may already be free
+        return e;
+    }
+
+    /** Takes the party off the list; returns its entry, whose offer (if any) the caller releases. */
+    Entry leave(int entryId) {
+        Entry e = entries.remove(entryId);
+        if (e == null) return null;
+        synchronized (e) { e.status = Status.LEFT; }
+        if (e.offer != null) offers.remove(e.offer.getToken(), e);
+        Queue q = queues.get(e.getShow().getId());
+        if (q != null) q.entries.remove(e);
+        return e;
+    }
+
+    /** The hold {@code holdToken} was booked or is gone; if it was an offer, its party is done with. */
+    void offerClosed(long holdToken, boolean booked) {
+        if (offers.isEmpty()) return;
+        Entry e = offers.remove(holdToken);
+        if (e == null) return;
+        synchronized (e) {
+            if (e.status == Status.OFFERED) e.status = booked ? Status.BOOKED : Status.LAPSED;
+        }
+        entries.remove(e.getId(), e);
+    }
+
+    Optional<Entry> get(int entryId) { return Optional.ofNullable(entries.get(entryId)); }
+
+    int size() { return entries.size(); }
+
+    List<Entry> waiting(int showId) {
+        Queue q = queues.get(showId);
+        return q == null ? Collections.emptyList() : new ArrayList<>(q.entries);
+    }
+
+    /** Seats of {@code show} went back to available; matches its queue once, however many events arrive meanwhile. */
+    void seatsFreed(Show show) {
+        Queue q = queues.get(show.getId());
+        if (q == null || q.entries.isEmpty() || !q.scheduled.compareAndSet(false, true)) return;
+        ExecutorService m;
+        synchronized (this) { m = matcher; }
+        if (m == null) {
+            match(show, q);
+            return;
+        }
+        try {
+            m.execute(() -> match(show, q));
+        } catch (RejectedExecutionException e) {
+            q.scheduled.set(false); // shutting down
+        }
+    }
+
+    private void match(Show show, Queue q) {
+        // clear the flag first: seats freed while we match schedule another pass
+        q.scheduled.set(false);
+        for (Entry e : q.entries) {
+            int free = show.getAvailableCount(); // O(1) counter; stop once nothing is left
+            if (free == 0) return;
+            if (e.getPartySize() > free) continue;
+            // per entry, so a party leaving mid-match is never offered seats
+            synchronized (e) {
+                if (e.status != Status.WAITING) continue;
+                SeatHold hold;
+                try {
+                    hold = offerer.offer(e);
+                } catch (RuntimeException ex) {
+                    System.err.println("Waitlist offer failed for #" + e.getId() + ": " + ex.getMessage());
+                    continue;
+                }
+                if (hold == null) continue;
+                e.offer = hold;
+                e.status = Status.OFFERED;
+                offers.put(hold.getToken(), e);
+            }
+            q.entries.remove(e);
+            try { offerListener.accept(e); }
+            catch (RuntimeException ex) { System.err.println("Waitlist listener failed: " + ex.getMessage()); }
+        }
+    }
+}
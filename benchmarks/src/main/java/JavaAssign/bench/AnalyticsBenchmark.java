@@ -0,0 +1,70 @@
+package JavaAssign.bench;
+
+import JavaAssign.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dashboard figures from the rolling aggregates against re-summing the stores, over a
+ * service holding {@code bookings} bookings. {@code dashboard} should stay flat as the
+ * parameter grows; {@code resum} is what a report cost before.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AnalyticsBenchmark {
+    @Param({"1000", "10000"})
+    public int bookings;
+
+    private BookingService service;
+    private int showId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        service = new BookingService();
+        service.start(); // the kitchen drains the concession orders
+        service.restockConcession(1, bookings);
+        Movie movie = service.addMovie("Benchmark", "Drama", 120);
+        Customer customer = service.addCustomer("Bench", "9000000000");
+        int perShow = Fixtures.HALL.capacity() / 4; // pairs, leaving room for best-block holds
+        for (int i = 0, day = 0; i < bookings; day++) {
+            Screen screen = service.addScreen("Screen " + day, Fixtures.HALL);
+            Show show = service.scheduleShow(movie.getId(), screen.getId(), "2099-01-01 18:00", Money.ofRupees(250));
+            showId = show.getId();
+            for (int b = 0; b < perShow && i < bookings; b++, i++) {
+                Booking booking = service.book(service.holdBest(show.getId(), customer.getId(), 2, null).getToken());
+                if (i % 3 == 0) service.orderConcessions(booking.getId(), Map.of(1, 1));
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Benchmark
+    public long dashboard() {
+        SalesAnalytics a = service.getAnalytics();
+        return a.getTicketRevenuePaise() + a.getConcessionRevenuePaise() + a.occupancyBasisPoints()
+                + a.attachRateBasisPoints() + a.revenueLastHourPaise() + a.showRevenuePaise(showId);
+    }
+
+    @Benchmark
+    public long resum() {
+        long tickets = 0, show = 0, seats = 0;
+        for (Booking b : service.getBookings()) {
+            tickets += b.getTotalPaise();
+            seats += b.getSeats().size();
+            if (b.getShow().getId() == showId) show += b.getTotalPaise();
+        }
+        long concessions = 0;
+        for (ConcessionOrder o : service.getConcessionOrders()) concessions += o.getTotalPaise();
+        return tickets + show + seats + concessions;
+    }
+}
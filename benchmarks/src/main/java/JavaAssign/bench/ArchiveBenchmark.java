@@ -0,0 +1,66 @@
+package JavaAssign.bench;
+
+import JavaAssign.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refund and audit sums over {@code bookings} bookings: a column scan of an off-heap archive
+ * holding them against the same sums over the Booking objects it was filled from. Ended shows
+ * take no bookings, so the archive is filled directly rather than by an archive pass.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ArchiveBenchmark {
+    @Param({"10000", "100000"})
+    public int bookings;
+
+    private BookingArchive archive;
+    private List<Booking> heap;
+    private int showId;
+    private int customerId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BookingService service = new BookingService();
+        Movie movie = service.addMovie("Benchmark", "Drama", 120);
+        Customer[] customers = new Customer[16];
+        for (int c = 0; c < customers.length; c++) customers[c] = service.addCustomer("Bench " + c, "90000" + (10000 + c));
+        customerId = customers[3].getId();
+        int perShow = Fixtures.HALL.capacity() / 4; // pairs, leaving room for best-block holds
+        heap = new ArrayList<>(bookings);
+        for (int i = 0, day = 0; i < bookings; day++) {
+            Screen screen = service.addScreen("Screen " + day, Fixtures.HALL);
+            Show show = service.scheduleShow(movie.getId(), screen.getId(), "2099-01-01 18:00", Money.ofRupees(250));
+            if (day == 0) showId = show.getId();
+            for (int b = 0; b < perShow && i < bookings; b++, i++) {
+                heap.add(service.book(service.holdBest(show.getId(), customers[i % customers.length].getId(), 2, null).getToken()));
+            }
+        }
+        archive = new BookingArchive();
+        for (Booking b : heap) archive.append(b);
+    }
+
+    @Benchmark
+    public long archiveScan() {
+        return archive.totalPaise() + archive.totalPaiseOfShow(showId) + archive.totalPaiseOfCustomer(customerId);
+    }
+
+    @Benchmark
+    public long heapScan() {
+        long total = 0, show = 0, customer = 0;
+        for (Booking b : heap) {
+            total += b.getTotalPaise();
+            if (b.getShow().getId() == showId) show += b.getTotalPaise();
+            if (b.getCustomer().getId() == customerId) customer += b.getTotalPaise();
+        }
+        return total + show + customer;
+    }
+}
@@ -0,0 +1,48 @@
+package JavaAssign.bench;
+
+import JavaAssign.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Building a confirmed booking and formatting its receipt. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BookingBenchmark {
+    private Show show;
+    private Customer customer;
+    private List<Seat> seats;
+    private Booking booking;
+
+    @Setup
+    public void setup() {
+        show = Fixtures.newShow();
+        customer = new Customer(200, "Bench Customer", "9876543210");
+        seats = new ArrayList<>();
+        for (String id : new String[] {"E9", "E10", "E11", "E12"}) seats.add(show.getSeatById(id).orElseThrow());
+        booking = newBooking();
+    }
+
+    @Benchmark
+    public Booking construct() {
+        return newBooking();
+    }
+
+    @Benchmark
+    public String receipt() {
+        return booking.receipt();
+    }
+
+    private Booking newBooking() {
+        long fare = 0;
+        for (Seat s : seats) fare += show.getSeatPricePaise(s);
+        long taxes = TaxTable.STANDARD.taxOn(fare);
+        return new Booking(1000, customer, show, seats, fare, taxes, fare + taxes);
+    }
+}
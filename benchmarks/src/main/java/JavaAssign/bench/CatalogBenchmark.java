@@ -0,0 +1,61 @@
+package JavaAssign.bench;
+
+import JavaAssign.BookingService;
+import JavaAssign.CatalogSnapshot;
+import JavaAssign.Money;
+import JavaAssign.Movie;
+import JavaAssign.Screen;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Browse traffic rendering the show listing while an admin keeps renaming a movie. Listings
+ * read the published catalog snapshot without locking, so compare -tg 1,1 then 3,1 then 7,1:
+ * time per listing should stay flat as readers are added.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class CatalogBenchmark {
+    private BookingService service;
+    private Movie edited;
+    private int edits;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        service = new BookingService();
+        Screen[] screens = new Screen[4];
+        for (int i = 0; i < screens.length; i++) screens[i] = service.addScreen("Screen " + (i + 1), Fixtures.HALL);
+        for (int m = 0; m < 20; m++) {
+            Movie movie = service.addMovie("Movie " + m, m % 2 == 0 ? "Drama" : "Action", 120);
+            if (m == 0) edited = movie;
+            // five shows a day per screen for a week, movies rotated across screens
+            for (int day = 1; day <= 7; day++) {
+                String time = String.format("2025-10-%02d %02d:00", day, 9 + (m % 5) * 3);
+                service.scheduleShow(movie.getId(), screens[m / 5].getId(), time, Money.ofRupees(200));
+            }
+        }
+    }
+
+    @Benchmark
+    @Group("browse")
+    @GroupThreads(3)
+    public void listing(Blackhole bh) {
+        for (CatalogSnapshot.ShowEntry e : service.getCatalog().getShows()) {
+            bh.consume(e.getBrief());
+            bh.consume(e.getShow().getAvailableCount());
+        }
+    }
+
+    @Benchmark
+    @Group("browse")
+    @GroupThreads(1)
+    public Movie rename() {
+        return service.updateMovie(edited.getId(), "Movie 0 (" + (++edits % 100) + ")", "Drama");
+    }
+}
@@ -0,0 +1,36 @@
+package JavaAssign.bench;
+
+import JavaAssign.ConcessionOrder;
+import JavaAssign.ConcessionOrder.ConcessionItem;
+import JavaAssign.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** Building and totalling a concession order of a typical and a large basket. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ConcessionBenchmark {
+    @Param({"3", "20"})
+    public int items;
+
+    private ConcessionItem[] basket;
+
+    @Setup
+    public void setup() {
+        basket = new ConcessionItem[items];
+        for (int i = 0; i < items; i++) basket[i] = new ConcessionItem(i + 1, "Item " + i, Money.ofRupees(50 + i * 10), 1 + i % 3);
+    }
+
+    // totals are maintained by addItem, so this covers the whole pricing path
+    @Benchmark
+    public long buildOrder() {
+        ConcessionOrder order = new ConcessionOrder(3000, null);
+        for (ConcessionItem item : basket) order.addItem(item);
+        return order.getTotalPaise();
+    }
+}
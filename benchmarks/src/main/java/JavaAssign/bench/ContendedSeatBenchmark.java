@@ -0,0 +1,70 @@
+package JavaAssign.bench;
+
+import JavaAssign.Show;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * N threads fighting over one show. Each operation targets one of a few hot seats, so
+ * most attempts race with another thread; a lost race counts as a completed operation
+ * that returns false. Run with -t to change the thread count (default 4).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ContendedSeatBenchmark {
+    private static final String[] HOT = {"E9", "E10", "E11", "E12"};
+
+    @Param({"4"})
+    public int hotSeats;
+
+    private Show show;
+    private List<List<String>> singles;
+    private final AtomicLong tokens = new AtomicLong();
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next; // wraps negative on long runs, hence floorMod
+        long token;
+        List<String> pair;
+
+        @Setup
+        public void setup(ContendedSeatBenchmark bench) {
+            token = bench.tokens.incrementAndGet();
+            next = (int) token;
+            int first = next % bench.hotSeats;
+            pair = Arrays.asList(HOT[first], HOT[(first + 1) % bench.hotSeats]);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        if (hotSeats < 2 || hotSeats > HOT.length) throw new IllegalArgumentException("hotSeats must be 2.." + HOT.length);
+        show = Fixtures.newShow();
+        singles = new ArrayList<>(hotSeats);
+        for (int i = 0; i < hotSeats; i++) singles.add(List.of(HOT[i]));
+    }
+
+    @Benchmark
+    public boolean holdBookRelease(Cursor c) {
+        if (!show.tryHoldAll(singles.get(Math.floorMod(c.next++, singles.size())), c.token)) return false;
+        show.release(show.commit(c.token));
+        return true;
+    }
+
+    @Benchmark
+    public boolean holdAllAbort(Cursor c) {
+        if (!show.tryHoldAll(c.pair, c.token)) return false;
+        show.abort(c.token);
+        return true;
+    }
+}
@@ -0,0 +1,25 @@
+package JavaAssign.bench;
+
+import JavaAssign.*;
+
+/** Shared objects for the benchmarks; a 10x20 hall so seat ids span two digits. */
+final class Fixtures {
+    static final SeatLayout HALL = SeatLayout.grid("ABCDEFGHIJ".toCharArray(), 20);
+
+    private Fixtures() { }
+
+    static Show newShow() {
+        Movie movie = new Movie(100, "Benchmark", "Drama", 120);
+        Screen screen = new Screen(10, "Bench Screen", HALL);
+        return new Show(500, movie, screen, "2025-10-02 19:00", Money.ofRupees(250));
+    }
+
+    static String[] seatIds() {
+        String[] ids = new String[HALL.capacity()];
+        int i = 0;
+        for (int r = 0; r < HALL.rows(); r++) {
+            for (int n = 1; n <= HALL.rowSeatCount(r); n++) ids[i++] = HALL.rowLabel(r) + String.valueOf(n);
+        }
+        return ids;
+    }
+}
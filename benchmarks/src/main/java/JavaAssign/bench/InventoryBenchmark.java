@@ -0,0 +1,45 @@
+package JavaAssign.bench;
+
+import JavaAssign.ConcessionInventory;
+import JavaAssign.ConcessionOrder;
+import JavaAssign.ConcessionOrder.ConcessionItem;
+import JavaAssign.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counter terminals reserving the same item. Compare -t 1, 2, 4 and 8: with striped stock the
+ * time per reservation should stay roughly flat as terminals are added.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class InventoryBenchmark {
+    private ConcessionInventory inventory;
+    private List<ConcessionItem> line;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ConcessionOrder.MenuItem nachos = new ConcessionOrder.MenuItem(4, "Nachos", Money.ofRupees(120));
+        inventory = new ConcessionInventory();
+        inventory.track(nachos, Long.MAX_VALUE / 4, 20);
+        line = List.of(new ConcessionItem(4, "Nachos", nachos.getPricePaise(), 2));
+    }
+
+    @Benchmark
+    public void reserve() {
+        inventory.reserve(line);
+    }
+
+    @Benchmark
+    public void reserveRelease() {
+        inventory.reserve(line);
+        inventory.release(line);
+    }
+}
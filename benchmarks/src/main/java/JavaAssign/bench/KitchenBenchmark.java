@@ -0,0 +1,44 @@
+package JavaAssign.bench;
+
+import JavaAssign.ConcessionKitchen;
+import JavaAssign.ConcessionOrder;
+import JavaAssign.ConcessionOrder.ConcessionItem;
+import JavaAssign.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counters publishing into the kitchen ring while its dispatcher drains and batches.
+ * A full ring is retried, so the score is end-to-end throughput of the pipeline.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class KitchenBenchmark {
+    private ConcessionKitchen kitchen;
+    private ConcessionOrder order;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        kitchen = new ConcessionKitchen(4096, 3);
+        kitchen.start();
+        order = new ConcessionOrder(3000, null);
+        order.addItem(new ConcessionItem(2, "Popcorn (Large)", Money.ofRupees(180), 2));
+        order.addItem(new ConcessionItem(3, "Cold Drink", Money.ofRupees(80), 2));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        kitchen.stop();
+    }
+
+    @Benchmark
+    public void submit() {
+        while (!kitchen.submit(order)) Thread.onSpinWait();
+    }
+}
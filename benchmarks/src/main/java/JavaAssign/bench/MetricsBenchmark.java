@@ -0,0 +1,37 @@
+package JavaAssign.bench;
+
+import JavaAssign.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recording cost of the booking metrics; gc.alloc.rate.norm should read zero for both
+ * recording benchmarks. {@code snapshot} is the scrape side, for scale.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsBenchmark {
+    private final LatencyHistogram histogram = new LatencyHistogram("bench");
+    private final BookingMetrics metrics = new BookingMetrics();
+    private long value;
+
+    @Benchmark
+    public void record() {
+        histogram.record(value = (value * 6364136223846793005L + 1442695040888963407L) >>> 40);
+    }
+
+    @Benchmark
+    public void holdPlaced() {
+        metrics.holdPlaced(System.nanoTime());
+    }
+
+    @Benchmark
+    public LatencyHistogram.Snapshot snapshot() {
+        return histogram.snapshot();
+    }
+}
@@ -0,0 +1,68 @@
+package JavaAssign.bench;
+
+import JavaAssign.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of demand pricing on the hold path. {@code holdAndRelease} runs the whole service
+ * round trip under each policy, so FLAT against STANDARD is what pricing adds to a hold;
+ * {@code quote} is the fare curve lookup alone.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PricingBenchmark {
+    @Param({"FLAT", "STANDARD"})
+    public String policy;
+
+    private BookingService service;
+    private Show show;
+    private Customer customer;
+    private FareCurve curve;
+    private final List<String> seatIds = Arrays.asList("E9", "E10", "E11", "E12");
+    private List<Seat> seats;
+
+    @Setup
+    public void setup() {
+        PricingPolicy p = "FLAT".equals(policy) ? PricingPolicy.FLAT : PricingPolicy.STANDARD;
+        service = new BookingService(60_000, TaxTable.STANDARD, p);
+        Movie movie = service.addMovie("Benchmark", "Drama", 120);
+        Screen screen = service.addScreen("Bench Screen", Fixtures.HALL);
+        show = service.scheduleShow(movie.getId(), screen.getId(), "2099-10-02 19:00", Money.ofRupees(250));
+        customer = service.addCustomer("Bench Customer", "9876543210");
+        // a half-full house, so STANDARD quotes off its flat region
+        List<String> taken = new ArrayList<>();
+        for (String id : Fixtures.seatIds()) if (id.charAt(0) != 'E' && taken.size() < show.getCapacity() / 2) taken.add(id);
+        service.hold(show.getId(), customer.getId(), taken);
+        curve = p.curveFor(show);
+        seats = new ArrayList<>();
+        for (String id : seatIds) seats.add(show.getSeatById(id).orElseThrow());
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Benchmark
+    public boolean holdAndRelease() {
+        SeatHold hold = service.hold(show.getId(), customer.getId(), seatIds);
+        return service.releaseHold(hold.getToken());
+    }
+
+    @Benchmark
+    public long quote() {
+        int cell = curve.cell(show.getCapacity() - show.getAvailableCount(), System.currentTimeMillis());
+        long fare = 0;
+        for (Seat s : seats) fare += curve.fare(s, cell);
+        return fare;
+    }
+}
@@ -0,0 +1,59 @@
+package JavaAssign.bench;
+
+import JavaAssign.Movie;
+import JavaAssign.MovieSearch;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Title searches over a catalog of 100k movies built from a small vocabulary, so common words
+ * match thousands of titles. Each search ranks every match and returns the top 10.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+    private static final String[] WORDS = {"the", "dark", "knight", "rises", "return", "king", "lord", "rings", "star", "wars",
+            "empire", "love", "story", "night", "city", "lost", "red", "river", "ocean", "storm", "fire", "shadow", "ghost",
+            "dream", "war", "game", "legend", "hero", "quest", "secret", "garden", "train", "journey", "vikram", "kaithi",
+            "master", "jailer", "pushpa", "kantara", "baahubali", "dangal", "lagaan", "sholay"};
+    private static final String[] GENRES = {"Action", "Drama", "Comedy", "Thriller", "Romance", "Horror", "Sci-Fi", "Family"};
+
+    @Param({"lagaan", "dark knight", "kaithi 42", "vikarm", "baahub"})
+    public String query;
+
+    private MovieSearch search;
+    private Instant now;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        search = new MovieSearch();
+        Random rnd = new Random(1);
+        for (int id = 0; id < 100_000; id++) {
+            StringBuilder title = new StringBuilder();
+            for (int w = 1 + rnd.nextInt(4); w > 0; w--) {
+                if (title.length() > 0) title.append(' ');
+                title.append(WORDS[rnd.nextInt(WORDS.length)]);
+                if (rnd.nextInt(3) == 0) title.append(' ').append(rnd.nextInt(1000));
+            }
+            search.index(new Movie(id, title.toString(), GENRES[rnd.nextInt(GENRES.length)], 120));
+        }
+        now = Instant.now();
+    }
+
+    @Benchmark
+    public MovieSearch.Result topTen() {
+        return search.search(query, null, now, 10);
+    }
+
+    @Benchmark
+    public MovieSearch.Result topTenInGenre() {
+        return search.search(query, "thriller", now, 10);
+    }
+}
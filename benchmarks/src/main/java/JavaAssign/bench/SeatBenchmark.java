@@ -0,0 +1,50 @@
+package JavaAssign.bench;
+
+import JavaAssign.Seat;
+import JavaAssign.Show;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/** Uncontended seat state transitions through the show's hold tokens, and seat lookup, one show per benchmark thread. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SeatBenchmark {
+    private static final List<String> SEAT = List.of("E10");
+    private static final long TOKEN = 1;
+
+    private Show show;
+    private String[] ids;
+    private int next;
+
+    @Setup
+    public void setup() {
+        show = Fixtures.newShow();
+        ids = Fixtures.seatIds();
+    }
+
+    @Benchmark
+    public void holdBookRelease() {
+        show.tryHoldAll(SEAT, TOKEN);
+        show.release(show.commit(TOKEN));
+    }
+
+    @Benchmark
+    public boolean holdAbort() {
+        show.tryHoldAll(SEAT, TOKEN);
+        return show.abort(TOKEN);
+    }
+
+    @Benchmark
+    public Optional<Seat> getSeatById() {
+        String id = ids[next];
+        next = next + 1 == ids.length ? 0 : next + 1;
+        return show.getSeatById(id);
+    }
+}
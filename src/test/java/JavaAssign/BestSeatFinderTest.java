@@ -0,0 +1,120 @@
+package JavaAssign;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BestSeatFinderTest {
+    private static int[] block(int from, int n) {
+        int[] b = new int[n];
+        for (int i = 0; i < n; i++) b[i] = from + i;
+        return b;
+    }
+
+    // the finder's score written out directly: every start of every row, no bit tricks
+    private static double score(SeatLayout layout, int row, int col, int n, SeatCategory preferred) {
+        double idealRow = (layout.rows() - 1) * 0.6;
+        double s = 1.5 * Math.abs(row - idealRow) + Math.abs(col + (n - 1) / 2.0 - layout.rowCentre(row));
+        for (int i = 0; i < n && preferred != null; i++) if (layout.category(row * layout.cols() + col + i) != preferred) s += 10;
+        return s;
+    }
+
+    private static double bestScore(SeatMap map, int n, SeatCategory preferred) {
+        SeatLayout layout = map.layout();
+        double best = Double.MAX_VALUE;
+        for (int r = 0; r < map.rows(); r++) {
+            for (int c = 0; c + n <= map.cols(); c++) {
+                boolean free = true;
+                for (int i = 0; i < n && free; i++) {
+                    int p = map.index(r, c + i);
+                    free = map.isSeat(p) && map.state(p) == SeatMap.AVAILABLE;
+                }
+                if (free) best = Math.min(best, score(layout, r, c, n, preferred));
+            }
+        }
+        return best;
+    }
+
+    @Test
+    void emptyHallGetsTheCentreOfTheRowSixtyPercentBack() {
+        SeatMap map = new SeatMap(SeatLayout.grid(new char[] {'A', 'B', 'C', 'D', 'E', 'F'}, 10));
+        // rows 0..5: 60% back is 3.0, so row D; four seats centred on 4.5 start at column 3
+        assertArrayEquals(block(map.index(3, 3), 4), BestSeatFinder.find(map, 4, null));
+    }
+
+    @Test
+    void blocksNeverStraddleAnAisle() {
+        SeatMap map = new SeatMap(SeatLayout.parse("A:SSS_SSS"));
+        assertNull(BestSeatFinder.find(map, 4, null));
+        int[] three = BestSeatFinder.find(map, 3, null);
+        assertNotNull(three);
+        for (int p : three) assertTrue(map.isSeat(p));
+    }
+
+    @Test
+    void takenSeatsAreSkippedAndAFullRowFindsNothing() {
+        SeatMap map = new SeatMap(SeatLayout.grid(new char[] {'A'}, 6));
+        for (int c = 0; c < 6; c++) if (c != 1 && c != 2) map.compareAndSet(c, SeatMap.AVAILABLE, SeatMap.BOOKED);
+        assertArrayEquals(block(1, 2), BestSeatFinder.find(map, 2, null));
+        assertNull(BestSeatFinder.find(map, 3, null));
+        assertNull(BestSeatFinder.find(map, 7, null));
+        assertThrows(IllegalArgumentException.class, () -> BestSeatFinder.find(map, 0, null));
+    }
+
+    @Test
+    void runsAcrossTheSixtyFourSeatWordBoundaryAreFound() {
+        SeatMap map = new SeatMap(SeatLayout.grid(new char[] {'A'}, 100));
+        for (int c = 0; c < 100; c++) if (c < 60 || c >= 70) map.compareAndSet(c, SeatMap.AVAILABLE, SeatMap.BOOKED);
+        assertArrayEquals(block(60, 10), BestSeatFinder.find(map, 10, null));
+        // the run ends the row, so the look-ahead past the first word must stop at the row end
+        SeatMap tail = new SeatMap(SeatLayout.grid(new char[] {'A'}, 70));
+        for (int c = 0; c < 60; c++) tail.compareAndSet(c, SeatMap.AVAILABLE, SeatMap.BOOKED);
+        assertArrayEquals(block(60, 10), BestSeatFinder.find(tail, 10, null));
+    }
+
+    @Test
+    void preferredCategoryOutweighsDistance() {
+        SeatMap map = new SeatMap(SeatLayout.parse("A:RRRR/B:SSSS/C:SSSS/D:PPPP"));
+        int[] premium = BestSeatFinder.find(map, 2, SeatCategory.PREMIUM);
+        assertEquals(3, map.rowOf(premium[0]));
+        int[] recliner = BestSeatFinder.find(map, 2, SeatCategory.RECLINER);
+        assertEquals(0, map.rowOf(recliner[0]));
+    }
+
+    @Test
+    void matchesAnExhaustiveSearchOnRandomHalls() {
+        Random random = new Random(42);
+        String[] specs = {
+                "A:SSSS_SSSS/B:SSSS_SSSS/C:PPPP_PPPP/D:RRR__RRR",
+                "A:SPSPSPSPSPSP/B:PPPPSSSSPPPP/C:_SSSSSSSSSS_",
+        };
+        for (int round = 0; round < 300; round++) {
+            SeatLayout layout = round % 3 == 2
+                    ? SeatLayout.grid(new char[] {'A', 'B', 'C'}, 40 + random.nextInt(100))
+                    : SeatLayout.parse(specs[round % 3]);
+            SeatMap map = new SeatMap(layout);
+            double taken = random.nextDouble();
+            for (int p = 0; p < map.positions(); p++) {
+                if (map.isSeat(p) && random.nextDouble() < taken) map.compareAndSet(p, SeatMap.AVAILABLE, SeatMap.BOOKED);
+            }
+            int n = 1 + random.nextInt(6);
+            SeatCategory preferred = random.nextBoolean() ? null : SeatCategory.values()[random.nextInt(3)];
+            double expected = bestScore(map, n, preferred);
+            int[] found = BestSeatFinder.find(map, n, preferred);
+            if (expected == Double.MAX_VALUE) {
+                assertNull(found, "round " + round);
+                continue;
+            }
+            assertNotNull(found, "round " + round);
+            int row = map.rowOf(found[0]);
+            for (int i = 0; i < n; i++) {
+                assertEquals(found[0] + i, found[i]);
+                assertEquals(row, map.rowOf(found[i]));
+                assertEquals(SeatMap.AVAILABLE, map.state(found[i]));
+            }
+            assertEquals(expected, score(layout, row, map.colOf(found[0]), n, preferred), 1e-9, "round " + round);
+        }
+    }
+}
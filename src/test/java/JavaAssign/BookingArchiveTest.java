@@ -0,0 +1,153 @@
+package JavaAssign;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingArchiveTest {
+    // archive passes run as of this time: after the first two shows end, before the last starts
+    private static final Instant CUTOFF = Instant.parse("2099-06-01T00:00:00Z");
+
+    @TempDir
+    Path dir;
+
+    private BookingService service;
+    private Show ended;
+    private Show endedToo;
+    private Show upcoming;
+    private Customer asha;
+    private Customer ravi;
+    private final List<Booking> past = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        service = new BookingService();
+        BookingJournal.open(dir, service);
+        Movie movie = service.addMovie("Archive", "Drama", 100);
+        Screen screen = service.addScreen("One");
+        ended = service.scheduleShow(movie.getId(), screen.getId(), "2099-01-01 10:00", Money.ofRupees(200));
+        endedToo = service.scheduleShow(movie.getId(), screen.getId(), "2099-01-02 10:00", Money.ofRupees(300));
+        upcoming = service.scheduleShow(movie.getId(), screen.getId(), "2099-12-01 10:00", Money.ofRupees(250));
+        asha = service.addCustomer("Asha", "9000000001");
+        ravi = service.addCustomer("Ravi", "9000000002");
+        for (int i = 0; i < 12; i++) {
+            Show show = i % 2 == 0 ? ended : endedToo;
+            Customer c = i % 3 == 0 ? asha : ravi;
+            past.add(service.book(service.holdBest(show.getId(), c.getId(), 1 + i % 2, null).getToken()));
+        }
+    }
+
+    private long sum(java.util.function.Predicate<Booking> which) {
+        return past.stream().filter(which).mapToLong(Booking::getTotalPaise).sum();
+    }
+
+    @Test
+    void endedShowsMoveOffHeapAndScansMatch() {
+        Booking live = service.book(service.holdBest(upcoming.getId(), asha.getId(), 2, null).getToken());
+        int bookedSeats = ended.getBookedCount();
+
+        assertEquals(12, service.archiveShowsEndedBy(CUTOFF));
+        assertEquals(0, service.archiveShowsEndedBy(CUTOFF));
+
+        BookingArchive archive = service.getArchive();
+        assertEquals(12, archive.size());
+        assertEquals(sum(b -> true), archive.totalPaise());
+        assertEquals(sum(b -> b.getShow() == ended), archive.totalPaiseOfShow(ended.getId()));
+        assertEquals(6, archive.countOfShow(ended.getId()));
+        assertEquals(sum(b -> b.getCustomer() == asha), archive.totalPaiseOfCustomer(asha.getId()));
+        assertEquals(archive.totalPaise(), archive.totalPaiseBookedBetween(0, Long.MAX_VALUE));
+        assertEquals(0, archive.totalPaiseBookedBetween(0, 1));
+
+        assertEquals(List.of(live.getId()), service.getBookings().stream().map(Booking::getId).toList());
+        assertTrue(ended.getBookings().isEmpty());
+        assertEquals(bookedSeats, ended.getBookedCount(), "archived seats stay booked");
+        assertTrue(service.getBookingsForCustomer(ravi.getId()).isEmpty());
+    }
+
+    @Test
+    void archivedBookingsCanBeReadButNotCancelled() {
+        service.archiveShowsEndedBy(CUTOFF);
+        Booking original = past.get(5);
+        Booking read = service.getBooking(original.getId()).orElseThrow();
+        assertEquals(original.getTotalPaise(), read.getTotalPaise());
+        assertEquals(original.getBookedAt(), read.getBookedAt());
+        assertEquals(original.getSeats().stream().map(Seat::getSeatId).toList(), read.getSeats().stream().map(Seat::getSeatId).toList());
+        assertThrows(IllegalStateException.class, () -> service.cancel(original.getId()));
+
+        int rows = 0;
+        for (BookingArchive.Cursor c = service.getArchive().rowsOfCustomer(asha.getId()); c.next(); ) {
+            assertEquals(asha.getId(), c.getCustomerId());
+            rows++;
+        }
+        assertEquals(past.stream().filter(b -> b.getCustomer() == asha).count(), rows);
+        assertNull(service.getArchive().find(999_999));
+    }
+
+    @Test
+    void archiveSurvivesACheckpointAndRestart() throws IOException {
+        String analytics = service.getAnalytics().toJson();
+        service.archiveShowsEndedBy(CUTOFF);
+        assertEquals(analytics, service.getAnalytics().toJson(), "archiving is not a cancellation");
+        service.checkpoint();
+        service.shutdown();
+
+        BookingService back = new BookingService();
+        BookingJournal.open(dir, back);
+        assertTrue(back.getBookings().isEmpty(), "archived rows stay off heap");
+        assertEquals(12, back.getArchive().size());
+        assertEquals(0, back.archiveShowsEndedBy(CUTOFF));
+        assertEquals(sum(b -> true), back.getArchive().totalPaise());
+        assertEquals(analytics, back.getAnalytics().toJson());
+        assertEquals(past.get(3).getTotalPaise(), back.getBooking(past.get(3).getId()).orElseThrow().getTotalPaise());
+        assertEquals(ended.getBookedCount(), back.getShow(ended.getId()).orElseThrow().getBookedCount(), "archived seats stay booked");
+        back.shutdown();
+    }
+
+    @Test
+    void bookingsArchivedAfterTheCheckpointComeBackFromTheLog() throws IOException {
+        service.checkpoint();
+        service.archiveShowsEndedBy(CUTOFF);
+        service.shutdown();
+
+        BookingService back = new BookingService();
+        BookingJournal.open(dir, back);
+        assertEquals(12, back.getBookings().size(), "archiving is not logged");
+        assertEquals(12, back.archiveShowsEndedBy(CUTOFF));
+        assertEquals(sum(b -> true), back.getArchive().totalPaise());
+        back.shutdown();
+    }
+
+    @Test
+    void endedShowsCannotBeHeld() {
+        Movie movie = service.addMovie("Yesterday", "Drama", 100);
+        Screen screen = service.addScreen("Two");
+        Show gone = service.scheduleShow(movie.getId(), screen.getId(), "2001-01-01 10:00", Money.ofRupees(200));
+        assertThrows(IllegalStateException.class, () -> service.hold(gone.getId(), asha.getId(), List.of("A1")));
+        assertThrows(IllegalStateException.class, () -> service.holdBest(gone.getId(), asha.getId(), 2, null));
+        assertEquals(gone.getCapacity(), gone.getAvailableCount());
+    }
+
+    @Test
+    void rowsSpanSegments() {
+        BookingArchive archive = new BookingArchive();
+        Booking b = past.get(1);
+        int n = BookingArchive.SEGMENT_ROWS * 2 + 5;
+        for (int i = 0; i < n; i++) archive.append(b);
+        assertEquals(n, archive.size());
+        assertEquals(b.getTotalPaise() * n, archive.totalPaise());
+        int seen = 0;
+        for (BookingArchive.Cursor c = archive.rows(); c.next(); seen++) {
+            assertEquals(b.getSeats().size(), c.getSeatCount());
+            assertEquals(b.getSeats().get(b.getSeats().size() - 1).getIndex(), c.getSeatIndex(c.getSeatCount() - 1));
+        }
+        assertEquals(n, seen);
+    }
+}
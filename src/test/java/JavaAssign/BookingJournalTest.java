@@ -0,0 +1,201 @@
+package JavaAssign;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingJournalTest {
+    @TempDir
+    Path dir;
+
+    private BookingService service;
+    private BookingJournal journal;
+    private Show show;
+    private Customer customer;
+
+    private void openWithCatalog() throws IOException {
+        service = new BookingService();
+        journal = BookingJournal.open(dir, service);
+        Movie movie = service.addMovie("Journal", "Drama", 120);
+        Screen screen = service.addScreen("One");
+        show = service.scheduleShow(movie.getId(), screen.getId(), "2099-01-01 18:00", Money.ofRupees(200));
+        customer = service.addCustomer("Asha", "9000000001");
+    }
+
+    private Booking book(String... seats) {
+        return service.book(service.hold(show.getId(), customer.getId(), List.of(seats)).getToken());
+    }
+
+    private BookingService reopen() throws IOException {
+        journal.close();
+        BookingService back = new BookingService();
+        BookingJournal.open(dir, back).close();
+        return back;
+    }
+
+    private static Seat seat(BookingService s, int showId, String id) {
+        return s.getShow(showId).orElseThrow().getSeatById(id).orElseThrow();
+    }
+
+    @Test
+    void concurrentRetriesOfOneAddAreJournaledOnce() throws Exception {
+        openWithCatalog();
+        int rounds = 50, callers = 4;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            for (int r = 0; r < rounds; r++) {
+                int id = 1000 + r;
+                CountDownLatch go = new CountDownLatch(1);
+                List<Future<List<Object>>> sent = new ArrayList<>();
+                for (int c = 0; c < callers; c++) {
+                    sent.add(pool.submit(() -> {
+                        go.await();
+                        return List.of(service.addMovieAs(id, "Retry " + id, "Drama", 90), service.addScreenAs(id, "Retry " + id, SeatLayout.STANDARD),
+                                service.addCustomerAs(id, "Retry", "80000" + id));
+                    }));
+                }
+                go.countDown();
+                List<Object> first = sent.get(0).get();
+                for (Future<List<Object>> f : sent) {
+                    List<Object> added = f.get();
+                    for (int i = 0; i < first.size(); i++) assertSame(first.get(i), added.get(i));
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        journal.close();
+        AtomicInteger added = new AtomicInteger();
+        EventLog.replay(dir.resolve("events.log"), 0, (type, seq, in) -> {
+            if (type == BookingJournal.MOVIE_ADDED || type == BookingJournal.SCREEN_ADDED || type == BookingJournal.CUSTOMER_ADDED) added.incrementAndGet();
+        });
+        assertEquals(3 * rounds + 3, added.get(), "one record per id, plus the catalog openWithCatalog added");
+    }
+
+    @Test
+    void logReplayRestoresBookingsAndCancellations() throws IOException {
+        openWithCatalog();
+        Booking kept = book("A1", "A2");
+        Booking cancelled = book("B1");
+        service.orderConcessions(kept.getId(), Map.of(1, 2));
+        service.cancel(cancelled.getId());
+
+        BookingService back = reopen();
+        assertEquals(1, back.getBookings().size());
+        Booking restored = back.getBooking(kept.getId()).orElseThrow();
+        assertEquals(kept.getTotalPaise(), restored.getTotalPaise());
+        assertEquals(kept.getBookedAt(), restored.getBookedAt());
+        assertTrue(seat(back, show.getId(), "A1").isBooked());
+        assertTrue(seat(back, show.getId(), "B1").isAvailable());
+        assertEquals(1, back.getConcessionOrders().size());
+        assertSame(restored, back.getConcessionOrders().iterator().next().getLinkedBooking());
+    }
+
+    @Test
+    void snapshotPlusTailMatchesLiveState() throws IOException {
+        openWithCatalog();
+        Booking before = book("A1");
+        service.checkpoint();
+        Booking after = book("A2");
+        service.cancel(before.getId());
+
+        BookingService back = reopen();
+        assertEquals(List.of(after.getId()), back.getBookings().stream().map(Booking::getId).toList());
+        assertTrue(seat(back, show.getId(), "A1").isAvailable());
+        assertTrue(seat(back, show.getId(), "A2").isBooked());
+        assertEquals(service.getAnalytics().toJson(), back.getAnalytics().toJson());
+    }
+
+    @Test
+    void tornTailIsCutOffAndEarlierRecordsSurvive() throws IOException {
+        openWithCatalog();
+        Booking first = book("A1");
+        book("A2");
+        journal.close();
+        Path log = dir.resolve("events.log");
+        try (FileChannel ch = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            ch.truncate(ch.size() - 3); // crash in the middle of the last record
+        }
+
+        BookingService back = new BookingService();
+        BookingJournal.open(dir, back).close();
+        assertEquals(List.of(first.getId()), back.getBookings().stream().map(Booking::getId).toList());
+        assertTrue(seat(back, show.getId(), "A2").isAvailable());
+    }
+
+    @Test
+    void seatsRebookedAfterCancellationStayBookedOnReplay() throws IOException {
+        openWithCatalog();
+        Booking first = book("C3", "C4");
+        service.cancel(first.getId());
+        Booking second = book("C3", "C4");
+
+        BookingService back = reopen();
+        assertTrue(back.getBooking(second.getId()).isPresent());
+        assertTrue(seat(back, show.getId(), "C3").isBooked());
+        assertTrue(seat(back, show.getId(), "C4").isBooked());
+    }
+
+    @Test
+    void stockLevelsSurviveReplayAndSnapshots() throws IOException {
+        openWithCatalog();
+        ConcessionInventory inventory = service.getInventory();
+        ConcessionOrder kept = service.orderConcessions(0, Map.of(1, 30, 2, 5));
+        ConcessionOrder cancelled = service.orderConcessions(0, Map.of(1, 10));
+        service.restockConcession(3, 40);
+        service.cancelConcessionOrder(cancelled.getId());
+        long popcorn = inventory.available(1);
+        assertEquals(BookingService.DEFAULT_STOCK - 30, popcorn);
+
+        BookingService back = reopen();
+        for (int item = 1; item <= 3; item++) assertEquals(inventory.available(item), back.getInventory().available(item), "item " + item);
+
+        service = new BookingService();
+        journal = BookingJournal.open(dir, service);
+        service.checkpoint();
+        service.orderConcessions(0, Map.of(1, 7));
+        service.cancelConcessionOrder(kept.getId());
+        service.restockConcession(1, 3);
+        BookingService again = reopen();
+        assertEquals(popcorn - 7 + 30 + 3, again.getInventory().available(1));
+        assertEquals(BookingService.DEFAULT_STOCK, again.getInventory().available(2));
+        assertEquals(BookingService.DEFAULT_STOCK + 40, again.getInventory().available(3));
+    }
+
+    @Test
+    void failedAppendsChangeNothing() throws IOException {
+        openWithCatalog();
+        Booking booked = book("D1");
+        ConcessionOrder order = service.orderConcessions(0, Map.of(1, 4));
+        SeatHold hold = service.hold(show.getId(), customer.getId(), List.of("D2"));
+        journal.close();
+
+        assertThrows(IllegalStateException.class, () -> service.book(hold.getToken()));
+        assertTrue(show.getSeatById("D2").orElseThrow().isAvailable());
+        assertEquals(1, service.getBookings().size());
+
+        assertThrows(IllegalStateException.class, () -> service.cancel(booked.getId()));
+        assertTrue(service.getBooking(booked.getId()).isPresent());
+        assertTrue(show.getSeatById("D1").orElseThrow().isBooked());
+
+        assertThrows(IllegalStateException.class, () -> service.cancelConcessionOrder(order.getId()));
+        assertSame(order, service.getConcessionOrder(order.getId()).orElseThrow());
+        assertEquals(BookingService.DEFAULT_STOCK - 4, service.getInventory().available(1));
+        assertThrows(IllegalStateException.class, () -> service.restockConcession(1, 10));
+        assertEquals(BookingService.DEFAULT_STOCK - 4, service.getInventory().available(1));
+    }
+}
@@ -0,0 +1,116 @@
+package JavaAssign;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingServiceTest {
+    private BookingService service;
+    private Show show;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        service = new BookingService(200);
+        Movie movie = service.addMovie("Core", "Drama", 120);
+        Screen screen = service.addScreen("One");
+        show = service.scheduleShow(movie.getId(), screen.getId(), "2099-01-01 18:00", Money.ofRupees(200));
+        customer = service.addCustomer("Asha", "9000000001");
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    private Seat seat(String id) { return show.getSeatById(id).orElseThrow(); }
+
+    @Test
+    void holdBookAndCancelMoveTheSeats() {
+        SeatHold hold = service.hold(show.getId(), customer.getId(), List.of("A1", "A2"));
+        assertTrue(seat("A1").isHeld());
+        assertEquals(hold.getFarePaise() + hold.getTaxesPaise(), hold.getTotalPaise());
+
+        Booking booking = service.book(hold.getToken());
+        assertTrue(seat("A2").isBooked());
+        assertEquals(hold.getTotalPaise(), booking.getTotalPaise());
+        assertEquals(List.of(booking), service.getBookingsForCustomer(customer.getId()));
+        assertThrows(IllegalStateException.class, () -> service.book(hold.getToken()), "a hold books once");
+
+        service.cancel(booking.getId());
+        assertTrue(seat("A1").isAvailable());
+        assertTrue(service.getBookings().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> service.cancel(booking.getId()));
+    }
+
+    @Test
+    void releasedHoldFreesItsSeatsOnce() {
+        SeatHold hold = service.hold(show.getId(), customer.getId(), List.of("B1"));
+        assertTrue(service.releaseHold(hold.getToken()));
+        assertTrue(seat("B1").isAvailable());
+        assertFalse(service.releaseHold(hold.getToken()));
+        assertThrows(IllegalStateException.class, () -> service.book(hold.getToken()));
+    }
+
+    @Test
+    void badInputIsRejectedWithoutTakingSeats() {
+        assertThrows(IllegalArgumentException.class, () -> service.hold(999, customer.getId(), List.of("A1")));
+        assertThrows(IllegalArgumentException.class, () -> service.hold(show.getId(), 999, List.of("A1")));
+        assertThrows(IllegalArgumentException.class, () -> service.hold(show.getId(), customer.getId(), List.of("Z9")));
+        assertEquals(show.getCapacity(), show.getAvailableCount());
+    }
+
+    @Test
+    void expiredHoldsFreeTheirSeatsAndCannotBeBooked() throws InterruptedException {
+        service.start();
+        SeatHold hold = service.hold(show.getId(), customer.getId(), List.of("C1", "C2"));
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (service.getHold(hold.getToken()).isPresent() && System.currentTimeMillis() < deadline) Thread.sleep(20);
+
+        assertTrue(service.getHold(hold.getToken()).isEmpty(), "the wheel's listener drops the hold");
+        assertTrue(seat("C1").isAvailable());
+        assertTrue(seat("C2").isAvailable());
+        assertThrows(IllegalStateException.class, () -> service.book(hold.getToken()));
+        assertEquals(1, service.getMetrics().getCommitsFailed());
+        assertEquals(1, service.getHoldExpiry().getExpiredCount());
+    }
+
+    @Test
+    void concurrentHoldsOnOneSeatHaveOneWinner() throws Exception {
+        int callers = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            CountDownLatch go = new CountDownLatch(1);
+            List<Future<Booking>> attempts = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                attempts.add(pool.submit(() -> {
+                    go.await();
+                    try {
+                        return service.book(service.hold(show.getId(), customer.getId(), List.of("D4", "D5")).getToken());
+                    } catch (IllegalStateException lost) {
+                        return null;
+                    }
+                }));
+            }
+            go.countDown();
+            int won = 0;
+            for (Future<Booking> f : attempts) if (f.get() != null) won++;
+            assertEquals(1, won);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, service.getBookings().size());
+        assertEquals(2, show.getBookedCount());
+        assertEquals(0, show.getHeldCount());
+        assertEquals(callers - 1, service.getMetrics().getHoldsFailed());
+    }
+}
@@ -0,0 +1,75 @@
+package JavaAssign;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogImporterTest {
+    private final BookingService service = new BookingService();
+
+    private CatalogImporter.Report importCsv(CatalogImporter importer, String... lines) throws IOException {
+        return importer.importFrom(new StringReader(String.join("\n", lines)), CatalogImporter.Format.CSV);
+    }
+
+    private static List<Long> lines(CatalogImporter.Report report) {
+        return report.getErrors().stream().map(CatalogImporter.RowError::getLine).toList();
+    }
+
+    @Test
+    void badRowsAreReportedByLineAndTheRestApplied() throws IOException {
+        CatalogImporter.Report report = importCsv(new CatalogImporter(service, 2, 2), // tiny batches: errors span several
+                "type,key,title,genre,minutes",
+                "movie,m1,\"Dune, Part Two\",Sci-Fi,166",
+                "movie,m2,Broken,Drama,lots",
+                "screen,s1,One",
+                "",
+                "# comment",
+                "show,m1,s1,2099-01-01 10:00,250",
+                "show,m2,s1,2099-01-01 18:00,250",
+                "show,m1,s1,2099-01-01 11:00,250",
+                "trailer,m1",
+                "show,m1,s1,2099-01-02 10:00,250");
+
+        assertEquals(List.of(3L, 8L, 9L, 10L), lines(report));
+        assertTrue(report.getErrors().get(1).getMessage().contains("m2"), report.getErrors().get(1).getMessage());
+        assertEquals(4, report.getRejectedCount());
+        assertEquals(8, report.getRows());
+        assertEquals(1, report.getMoviesAdded());
+        assertEquals(1, report.getScreensAdded());
+        assertEquals(2, report.getShowsAdded());
+        assertEquals("Dune, Part Two", service.getMovies().iterator().next().getTitle());
+        assertEquals(2, service.getShows().size());
+    }
+
+    @Test
+    void keysCarryOverToLaterImportsAndDuplicatesAreRejected() throws IOException {
+        CatalogImporter importer = new CatalogImporter(service);
+        importCsv(importer, "movie,m1,First,Drama,100", "screen,s1,One");
+        CatalogImporter.Report report = importCsv(importer,
+                "movie,m1,Again,Drama,100",
+                "movie,42,Numeric,Drama,100",
+                "show,m1,s1,2099-01-01 10:00,250");
+        assertEquals(List.of(1L, 2L), lines(report));
+        assertEquals(1, report.getShowsAdded());
+        assertEquals("First", service.getShows().iterator().next().getMovie().getTitle());
+    }
+
+    @Test
+    void jsonLinesReportMalformedObjects() throws IOException {
+        Movie movie = service.addMovie("Existing", "Drama", 120);
+        Screen screen = service.addScreen("One");
+        String rows = String.join("\n",
+                "{\"type\":\"show\",\"movie\":" + movie.getId() + ",\"screen\":" + screen.getId() + ",\"dateTime\":\"2099-01-01 18:00\",\"fare\":\"250\"}",
+                "{\"type\":\"show\",\"movie\":999,\"screen\":" + screen.getId() + ",\"dateTime\":\"2099-01-02 18:00\",\"fare\":\"250\"}",
+                "{\"type\":\"show\",\"movie\":" + movie.getId() + "",
+                "{\"type\":\"screen\",\"key\":\"s2\",\"name\":\"Two\"} trailing");
+        CatalogImporter.Report report = new CatalogImporter(service).importFrom(new StringReader(rows), CatalogImporter.Format.JSONL);
+        assertEquals(List.of(2L, 3L, 4L), lines(report));
+        assertEquals(1, report.getShowsAdded());
+        assertEquals(1, service.getShows().size());
+    }
+}
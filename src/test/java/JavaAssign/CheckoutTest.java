@@ -0,0 +1,109 @@
+package JavaAssign;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheckoutTest {
+    /** Completes charges only when the test says so, on the test's thread. */
+    private static final class ManualGateway implements PaymentGateway {
+        final Map<String, CompletableFuture<PaymentResult>> charges = new ConcurrentHashMap<>();
+        final Map<String, Long> refunds = new ConcurrentHashMap<>();
+
+        @Override
+        public CompletableFuture<PaymentResult> charge(String key, long amountPaise) {
+            return charges.computeIfAbsent(key, k -> new CompletableFuture<>());
+        }
+
+        @Override
+        public CompletableFuture<PaymentResult> refund(String key, long amountPaise) {
+            refunds.put(key, amountPaise);
+            return CompletableFuture.completedFuture(PaymentResult.approved(key, "refund"));
+        }
+
+        String onlyKey() { return charges.keySet().iterator().next(); }
+    }
+
+    private final ManualGateway gateway = new ManualGateway();
+    private BookingService service;
+    private Show show;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        service = new BookingService();
+        service.setPaymentGateway(gateway, 200, 2);
+        Movie movie = service.addMovie("Checkout", "Drama", 120);
+        Screen screen = service.addScreen("One");
+        show = service.scheduleShow(movie.getId(), screen.getId(), "2099-01-01 18:00", Money.ofRupees(200));
+        customer = service.addCustomer("Asha", "9000000001");
+    }
+
+    private SeatHold hold(String... seats) {
+        return service.hold(show.getId(), customer.getId(), List.of(seats));
+    }
+
+    @Test
+    void approvedPaymentIsBookedOffTheGatewayThread() throws Exception {
+        SeatHold hold = hold("A1", "A2");
+        CompletableFuture<Booking> result = service.checkout(hold.getToken());
+        AtomicReference<String> bookedOn = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+        // waits on a latch: a thread blocked in result.get() would run this callback itself
+        result.whenComplete((b, err) -> {
+            bookedOn.set(Thread.currentThread().getName());
+            done.countDown();
+        });
+        gateway.charges.get(gateway.onlyKey()).complete(PaymentResult.approved(gateway.onlyKey(), "ref-1"));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        Booking booking = result.getNow(null);
+        assertEquals(hold.getTotalPaise(), booking.getTotalPaise());
+        assertTrue(show.getSeatById("A1").orElseThrow().isBooked());
+        assertEquals("checkout", bookedOn.get());
+    }
+
+    @Test
+    void checkoutIsIdempotentPerHold() {
+        SeatHold hold = hold("A1");
+        assertSame(service.checkout(hold.getToken()), service.checkout(hold.getToken()));
+        assertEquals(1, gateway.charges.size());
+    }
+
+    @Test
+    void declineReleasesTheSeats() {
+        SeatHold hold = hold("B1");
+        CompletableFuture<Booking> result = service.checkout(hold.getToken());
+        gateway.charges.get(gateway.onlyKey()).complete(PaymentResult.declined(gateway.onlyKey(), "card declined"));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(PaymentException.class, e.getCause());
+        assertTrue(show.getSeatById("B1").orElseThrow().isAvailable());
+        assertTrue(service.getBookings().isEmpty());
+    }
+
+    @Test
+    void timeoutRetriesWithTheSameKeyThenRefundsALateApproval() throws Exception {
+        SeatHold hold = hold("C1");
+        CompletableFuture<Booking> result = service.checkout(hold.getToken());
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause().getMessage().contains("timed out"), e.getCause().getMessage());
+        assertEquals(1, gateway.charges.size(), "the retry reuses the idempotency key");
+        assertTrue(show.getSeatById("C1").orElseThrow().isAvailable());
+
+        String key = gateway.onlyKey();
+        gateway.charges.get(key).complete(PaymentResult.approved(key, "late"));
+        assertEquals(hold.getTotalPaise(), gateway.refunds.get(key));
+    }
+}
@@ -0,0 +1,81 @@
+package JavaAssign;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcessionInventoryTest {
+    private static final ConcessionOrder.MenuItem POPCORN = new ConcessionOrder.MenuItem(1, "Popcorn", Money.ofRupees(100));
+    private static final ConcessionOrder.MenuItem COLA = new ConcessionOrder.MenuItem(2, "Cola", Money.ofRupees(80));
+
+    private final ConcessionInventory inventory = new ConcessionInventory();
+    private final List<Long> alerts = new CopyOnWriteArrayList<>();
+
+    ConcessionInventoryTest() {
+        inventory.setLowStockListener((item, remaining) -> alerts.add(remaining));
+    }
+
+    private static List<ConcessionOrder.ConcessionItem> order(ConcessionOrder.MenuItem item, int qty) {
+        return List.of(new ConcessionOrder.ConcessionItem(item.getId(), item.getName(), item.getPricePaise(), qty));
+    }
+
+    @Test
+    void alertFiresWhenTheTotalReachesTheThreshold() {
+        inventory.track(POPCORN, 200, 20);
+        for (int i = 0; i < 179; i++) inventory.reserve(order(POPCORN, 1));
+        assertTrue(alerts.isEmpty(), "fired early: " + alerts);
+        inventory.reserve(order(POPCORN, 1));
+        assertEquals(List.of(20L), alerts);
+        inventory.reserve(order(POPCORN, 1));
+        assertEquals(1, alerts.size(), "fires once until re-armed");
+    }
+
+    @Test
+    void restockRearmsTheAlert() {
+        inventory.track(POPCORN, 30, 20);
+        inventory.reserve(order(POPCORN, 15));
+        assertEquals(List.of(15L), alerts);
+        assertEquals(45, inventory.restock(POPCORN.getId(), 30));
+        inventory.reserve(order(POPCORN, 30));
+        assertEquals(List.of(15L, 15L), alerts);
+    }
+
+    @Test
+    void alertFiresOnTimeUnderConcurrentTakes() throws InterruptedException {
+        inventory.track(POPCORN, 2000, 200);
+        AtomicLong taken = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> {
+                while (true) {
+                    try { inventory.reserve(order(POPCORN, 1)); }
+                    catch (IllegalStateException soldOut) { return; }
+                    taken.incrementAndGet();
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread t : threads) t.join();
+        assertEquals(2000, taken.get(), "never oversold, never undersold");
+        assertEquals(1, alerts.size());
+        assertTrue(alerts.get(0) <= 200 && alerts.get(0) >= 200 - threads.size(), "alert at " + alerts.get(0));
+    }
+
+    @Test
+    void reserveIsAllOrNothing() {
+        inventory.track(POPCORN, 10, 0);
+        inventory.track(COLA, 1, 0);
+        List<ConcessionOrder.ConcessionItem> lines = new ArrayList<>(order(POPCORN, 4));
+        lines.addAll(order(COLA, 2));
+        assertThrows(IllegalStateException.class, () -> inventory.reserve(lines));
+        assertEquals(10, inventory.available(POPCORN.getId()));
+        assertEquals(1, inventory.available(COLA.getId()));
+        inventory.release(order(POPCORN, 5));
+        assertEquals(15, inventory.available(POPCORN.getId()));
+    }
+}
@@ -0,0 +1,150 @@
+package JavaAssign;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcessionKitchenTest {
+    private static final int POPCORN = 2;
+    private static final int DRINK = 3;
+
+    private ConcessionKitchen kitchen;
+
+    @AfterEach
+    void tearDown() {
+        if (kitchen != null) kitchen.stop();
+    }
+
+    private static ConcessionOrder order(int id, int... itemAndQty) {
+        ConcessionOrder o = new ConcessionOrder(id, null);
+        for (int i = 0; i < itemAndQty.length; i += 2) {
+            int item = itemAndQty[i];
+            o.addItem(new ConcessionOrder.ConcessionItem(item, item == POPCORN ? "Popcorn (Large)" : "Cold Drink", Money.ofRupees(100), itemAndQty[i + 1]));
+        }
+        return o;
+    }
+
+    @Test
+    void ordersDrainedTogetherAreBatchedByItem() throws InterruptedException {
+        List<ConcessionKitchen.Batch> prepared = Collections.synchronizedList(new ArrayList<>());
+        kitchen = new ConcessionKitchen(16, 2, 512, prepared::add);
+        CountDownLatch done = new CountDownLatch(3);
+        kitchen.setFulfilmentListener(o -> done.countDown());
+        // queued before the dispatcher runs, so one drain sees all three
+        assertTrue(kitchen.submit(order(1, POPCORN, 2)));
+        assertTrue(kitchen.submit(order(2, POPCORN, 3, DRINK, 1)));
+        assertTrue(kitchen.submit(order(3, DRINK, 4)));
+        assertEquals(3, kitchen.getQueueDepth());
+
+        kitchen.start();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(2, prepared.size());
+        ConcessionKitchen.Batch popcorn = prepared.stream().filter(b -> b.getMenuItemId() == POPCORN).findFirst().orElseThrow();
+        assertEquals(5, popcorn.getQuantity());
+        assertArrayEquals(new int[] {1, 2}, popcorn.getOrderIds());
+        ConcessionKitchen.Batch drink = prepared.stream().filter(b -> b.getMenuItemId() == DRINK).findFirst().orElseThrow();
+        assertEquals(5, drink.getQuantity());
+        assertNotEquals(popcorn.getStation(), drink.getStation());
+        assertEquals(3, kitchen.getFulfilledCount());
+        assertEquals(0, kitchen.getPendingCount());
+        assertEquals(2, kitchen.getBatchCount());
+    }
+
+    @Test
+    void anOrderIsFulfilledOnlyWhenItsLastBatchIsPrepared() throws InterruptedException {
+        CountDownLatch drinkMayFinish = new CountDownLatch(1);
+        kitchen = new ConcessionKitchen(16, 2, 512, batch -> {
+            if (batch.getMenuItemId() == DRINK) drinkMayFinish.await();
+        });
+        Set<Integer> fulfilled = ConcurrentHashMap.newKeySet();
+        CountDownLatch both = new CountDownLatch(2);
+        kitchen.setFulfilmentListener(o -> {
+            fulfilled.add(o.getId());
+            both.countDown();
+        });
+        kitchen.submit(order(1, POPCORN, 1));
+        kitchen.submit(order(2, POPCORN, 1, DRINK, 1));
+        kitchen.start();
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!fulfilled.contains(1) && System.currentTimeMillis() < deadline) Thread.sleep(5);
+        assertEquals(Set.of(1), fulfilled, "order 2 still waits on its drink");
+        drinkMayFinish.countDown();
+        assertTrue(both.await(5, TimeUnit.SECONDS));
+        assertEquals(Set.of(1, 2), fulfilled);
+    }
+
+    @Test
+    void aFullKitchenRejectsAndAReservationCanBeGivenBack() {
+        kitchen = new ConcessionKitchen(2, 1);
+        long slot = kitchen.reserve();
+        assertTrue(slot >= 0);
+        assertTrue(kitchen.submit(order(1, POPCORN, 1)));
+        assertEquals(-1, kitchen.reserve());
+        assertFalse(kitchen.submit(order(2, POPCORN, 1)));
+        assertEquals(2, kitchen.getRejectedCount());
+
+        kitchen.publish(slot, null); // given back: not an accepted order
+        assertEquals(1, kitchen.getAcceptedCount());
+        assertThrows(IllegalArgumentException.class, () -> kitchen.publish(-1, order(3, POPCORN, 1)));
+    }
+
+    @Test
+    void ringDeliversInClaimOrderAndStopsAtAnUnpublishedSlot() {
+        MpscRing<String> ring = new MpscRing<>(4);
+        long a = ring.claim(), b = ring.claim(), c = ring.claim();
+        ring.publish(a, "a");
+        ring.publish(c, "c");
+        List<String> seen = new ArrayList<>();
+        assertEquals(1, ring.drain(seen::add, 10));
+        ring.publish(b, "b");
+        assertEquals(2, ring.drain(seen::add, 10));
+        assertEquals(List.of("a", "b", "c"), seen);
+
+        // around the ring several times, filling it each lap
+        for (int lap = 0; lap < 5; lap++) {
+            for (int i = 0; i < 4; i++) assertTrue(ring.offer("x" + i));
+            assertFalse(ring.offer("full"));
+            assertEquals(4, ring.drain(e -> { }, 10));
+        }
+        assertThrows(IllegalArgumentException.class, () -> new MpscRing<String>(3));
+    }
+
+    @Test
+    void concurrentProducersDeliverEveryElementOnce() throws InterruptedException {
+        MpscRing<Integer> ring = new MpscRing<>(64);
+        int producers = 4, each = 10_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int base = p * each;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < each; i++) {
+                    while (!ring.offer(base + i)) Thread.yield();
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        boolean[] seen = new boolean[producers * each];
+        int[] count = {0};
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (count[0] < seen.length && System.currentTimeMillis() < deadline) {
+            ring.drain(v -> {
+                assertFalse(seen[v], "delivered twice: " + v);
+                seen[v] = true;
+                count[0]++;
+            }, 256);
+            Thread.yield();
+        }
+        for (Thread t : threads) t.join(5_000);
+        assertEquals(seen.length, count[0]);
+    }
+}
@@ -0,0 +1,92 @@
+package JavaAssign;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HoldExpiryWheelTest {
+    private static final long TICK = 10;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final HoldExpiryWheel wheel = new HoldExpiryWheel(TICK, clock::get);
+    private final List<Long> expired = new ArrayList<>();
+    private Show show;
+    private int nextSeat;
+
+    @BeforeEach
+    void setUp() {
+        show = new Show(1, new Movie(1, "Wheel", "Drama", 120), new Screen(1, "One"), "2099-01-01 18:00", Money.ofRupees(200));
+        wheel.setExpiryListener(expired::add);
+    }
+
+    // holds a fresh seat under token and schedules it
+    private void hold(long token, long ttlMillis) {
+        String seat = show.getAllSeats().stream().skip(nextSeat++).findFirst().orElseThrow().getSeatId();
+        assertTrue(show.tryHoldAll(List.of(seat), token));
+        wheel.schedule(show, token, ttlMillis);
+    }
+
+    // the first tick at which token's hold was seen expired
+    private long expiryTick(long token, long maxTicks) {
+        for (long t = clock.get() / TICK + 1; t <= maxTicks; t++) {
+            wheel.advanceTo(t * TICK);
+            if (expired.contains(token)) return t;
+        }
+        return -1;
+    }
+
+    @Test
+    void holdExpiresAtItsDeadline() {
+        hold(1, 5 * TICK);
+        wheel.advanceTo(4 * TICK);
+        assertTrue(expired.isEmpty());
+        assertEquals(1, show.getHeldCount());
+        wheel.advanceTo(5 * TICK);
+        assertEquals(List.of(1L), expired);
+        assertEquals(0, show.getHeldCount());
+        assertEquals(1, wheel.getExpiredCount());
+        assertEquals(0, wheel.pending());
+    }
+
+    @Test
+    void cancelledHoldNeverExpires() {
+        hold(1, 3 * TICK);
+        hold(2, 3 * TICK);
+        assertTrue(wheel.cancel(1));
+        assertFalse(wheel.cancel(1));
+        wheel.advanceTo(100 * TICK);
+        assertEquals(List.of(2L), expired);
+        assertEquals(1, wheel.getCancelledCount());
+        assertEquals(1, show.getHeldCount(), "the cancelled hold is its owner's to book or release");
+    }
+
+    @Test
+    void holdsCascadeAcrossLevelsToTheExactTick() {
+        long[] deadlines = {63, 65, 64 * 3 + 7, 4096 + 1, 4096 * 2 + 64 * 5 + 3};
+        for (int i = 0; i < deadlines.length; i++) hold(i + 1, deadlines[i] * TICK);
+        for (int i = 0; i < deadlines.length; i++) assertEquals(deadlines[i], expiryTick(i + 1, 10_000), "deadline " + deadlines[i]);
+        assertEquals(0, wheel.pending());
+    }
+
+    @Test
+    void deadlinesOnBlockBoundariesAreNotLate() {
+        long[] deadlines = {64, 128, 4096, 4096 * 3};
+        for (int i = 0; i < deadlines.length; i++) hold(i + 1, deadlines[i] * TICK);
+        for (int i = 0; i < deadlines.length; i++) assertEquals(deadlines[i], expiryTick(i + 1, 20_000), "deadline " + deadlines[i]);
+    }
+
+    @Test
+    void committedHoldIsSkippedWhenItComesDue() {
+        hold(1, 2 * TICK);
+        show.commit(1);
+        wheel.advanceTo(2 * TICK);
+        assertTrue(expired.isEmpty());
+        assertEquals(0, wheel.getExpiredCount());
+        assertEquals(1, show.getBookedCount());
+    }
+}
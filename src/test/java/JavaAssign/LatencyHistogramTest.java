@@ -0,0 +1,83 @@
+package JavaAssign;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void bucketsAreContiguousAndWithinOneSixtyFourth() {
+        // every bucket starts right after the previous one ends
+        for (int i = 1; i < 2000; i++) {
+            assertEquals(i, LatencyHistogram.index(LatencyHistogram.highestIn(i - 1) + 1), "bucket " + i);
+            assertEquals(i, LatencyHistogram.index(LatencyHistogram.highestIn(i)), "bucket " + i);
+        }
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            long v = random.nextLong() >>> (1 + random.nextInt(63));
+            long top = LatencyHistogram.highestIn(LatencyHistogram.index(v));
+            assertTrue(top >= v && top - v <= v / 64, "value " + v + " reported as " + top);
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highestIn(LatencyHistogram.index(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void percentilesCountAndMax() {
+        LatencyHistogram h = new LatencyHistogram("test");
+        for (long v = 1; v <= 1000; v++) h.record(v * 1000); // 1us .. 1ms
+        h.record(-5); // counts as zero
+
+        LatencyHistogram.Snapshot s = h.snapshot();
+        assertEquals(1001, s.getCount());
+        assertEquals(1_000_000, s.getMax());
+        assertEquals(500_500_000.0 / 1001, s.getMean(), 1e-6);
+        assertEquals(0, s.percentile(0));
+        assertEquals(500_000, s.percentile(50), 500_000 / 64.0);
+        assertEquals(990_000, s.percentile(99), 990_000 / 64.0);
+        assertEquals(1_000_000, s.percentile(100), "capped at the max");
+        assertThrows(IllegalArgumentException.class, () -> s.percentile(101));
+        assertEquals(0, new LatencyHistogram("empty").snapshot().percentile(99));
+    }
+
+    @Test
+    void metricsRenderEveryCounterAndDumpAtomically() throws Exception {
+        BookingMetrics m = new BookingMetrics();
+        m.holdPlaced(System.nanoTime());
+        m.holdFailed();
+        m.commitFailed();
+        m.paymentFinished(System.nanoTime(), false);
+        m.concessionOrdered(Money.ofRupees(250));
+        m.concessionCancelled(Money.ofRupees(100));
+
+        assertEquals(1, m.getHoldLatency().snapshot().getCount());
+        assertEquals(1, m.getPaymentWait().snapshot().getCount());
+        assertEquals(Money.ofRupees(150), m.getConcessionPaise());
+        String text = m.toText();
+        assertTrue(text.contains("holds_failed 1\n"), text);
+        assertTrue(text.contains("payments_declined 1\n"), text);
+        assertTrue(text.contains("commits_failed 1\n"), text);
+        String json = m.toJson();
+        assertTrue(json.startsWith("{\"uptimeSeconds\":") && json.endsWith("}"), json);
+        assertTrue(json.contains("\"hold\":{\"count\":1,"), json);
+        assertTrue(json.contains("\"concessionOrders\":1,\"concessionCancels\":1"), json);
+
+        Path file = dir.resolve("metrics.json");
+        m.startDumps(file, 1);
+        try {
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (!Files.exists(file) && System.currentTimeMillis() < deadline) Thread.sleep(50);
+            assertTrue(Files.readString(file).startsWith("{\"uptimeSeconds\":"));
+            assertFalse(Files.exists(dir.resolve("metrics.json.tmp")));
+        } finally {
+            m.stopDumps();
+        }
+    }
+}
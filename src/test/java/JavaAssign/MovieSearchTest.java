@@ -0,0 +1,103 @@
+package JavaAssign;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MovieSearchTest {
+    private static final Instant NOW = Instant.parse("2050-01-01T00:00:00Z");
+
+    private MovieSearch search;
+    private Screen screen;
+
+    @BeforeEach
+    void setUp() {
+        search = new MovieSearch();
+        screen = new Screen(1, "Audi 1", SeatLayout.grid(new char[] {'A'}, 2));
+    }
+
+    private Movie index(int id, String title, String genre) {
+        Movie m = new Movie(id, title, genre, 120);
+        search.index(m);
+        return m;
+    }
+
+    private static List<String> titles(MovieSearch.Result r) {
+        return r.getHits().stream().map(h -> h.getMovie().getTitle()).toList();
+    }
+
+    @Test
+    void exactBeatsPrefixBeatsTypo() {
+        index(1, "Interstellar", "Sci-Fi");
+        index(2, "Inter", "Drama");
+        index(3, "Intre", "Drama"); // one letter swapped: only a typo match
+
+        assertEquals(List.of("Inter", "Interstellar", "Intre"), titles(search.search("inter", null, NOW, 10)));
+        assertEquals(List.of("Intre", "Inter"), titles(search.search("intre", null, NOW, 10)));
+    }
+
+    @Test
+    void everyTokenMustMatchAndAccentsAreFolded() {
+        index(1, "Amélie", "Romance");
+        index(2, "The Dark Knight", "Action");
+        index(3, "The Dark Crystal", "Fantasy");
+
+        assertEquals(List.of("Amélie"), titles(search.search("amelie", null, NOW, 10)));
+        assertEquals(List.of("The Dark Knight"), titles(search.search("dark knight", null, NOW, 10)));
+        assertEquals(2, search.search("the dark", null, NOW, 10).getMatchCount());
+        assertEquals(0, search.search("dark amelie", null, NOW, 10).getMatchCount());
+    }
+
+    @Test
+    void genreFiltersHitsButFacetsCountEveryMatch() {
+        index(1, "Star Wars", "Sci-Fi / Action");
+        index(2, "Star Trek", "Sci-Fi");
+        index(3, "A Star Is Born", "Drama");
+
+        MovieSearch.Result r = search.search("star", "sci-fi", NOW, 10);
+        assertEquals(2, r.getMatchCount());
+        assertEquals(Map.of("Sci-Fi", 2, "Action", 1, "Drama", 1), r.getGenreFacets());
+        assertEquals(List.of("Star Wars"), titles(search.search("", "action", NOW, 10)));
+    }
+
+    @Test
+    void reindexingDropsTheOldTitle() {
+        Movie m = index(1, "Working Title", "Drama");
+        search.index(new Movie(m.getId(), "Final Name", "Comedy", 100));
+
+        assertEquals(0, search.search("working", null, NOW, 10).getMatchCount());
+        assertEquals(1, search.search("final", "comedy", NOW, 10).getMatchCount());
+        assertEquals(0, search.search("", "drama", NOW, 10).getMatchCount());
+    }
+
+    @Test
+    void aMovieWithSeatsLeftRanksFirstAmongEqualScores() {
+        Movie sold = index(1, "Dune", "Sci-Fi");
+        Movie open = index(2, "Dune", "Sci-Fi");
+        Show full = new Show(10, sold, screen, "2050-02-01 18:00", Money.ofRupees(200));
+        assertTrue(full.tryHoldAll(List.of("A1", "A2"), 1L));
+        search.addShow(full);
+        search.addShow(new Show(11, open, screen, "2050-02-01 21:00", Money.ofRupees(200)));
+
+        List<MovieSearch.Hit> hits = search.search("dune", null, NOW, 1).getHits();
+        assertEquals(1, hits.size());
+        assertSame(open, hits.get(0).getMovie());
+        assertEquals(2, hits.get(0).getSeatsLeft());
+        // shows before the search time are not upcoming
+        assertEquals(0, search.search("dune", null, Instant.parse("2051-01-01T00:00:00Z"), 2).getHits().get(0).getSeatsLeft());
+    }
+
+    @Test
+    void largeCallerChosenIdsAreIndexed() {
+        index(2_000_000_000, "Far Away", "Drama");
+        index(Integer.MAX_VALUE, "Further Away", "Drama");
+
+        assertEquals(List.of("Far Away", "Further Away"), titles(search.search("away", null, NOW, 10)));
+        assertThrows(IllegalArgumentException.class, () -> index(-1, "Negative", "Drama"));
+    }
+}
@@ -0,0 +1,86 @@
+package JavaAssign;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PricingTest {
+    private static final long DAY = Duration.ofDays(1).toMillis();
+
+    private static Show show(String layout) {
+        Movie movie = new Movie(1, "Pricing", "Drama", 120);
+        return new Show(1, movie, new Screen(1, "One", SeatLayout.parse(layout)), "2099-01-01 18:00", Money.ofRupees(200));
+    }
+
+    @Test
+    void occupancyPointsAreJoinedByStraightLines() {
+        PricingPolicy p = PricingPolicy.STANDARD;
+        assertEquals(10_000, p.occupancyMultiplier(0));
+        assertEquals(10_000, p.occupancyMultiplier(5000));
+        assertEquals(10_750, p.occupancyMultiplier(6250));
+        assertEquals(11_200, p.occupancyMultiplier(7000));
+        assertEquals(15_000, p.occupancyMultiplier(10_000));
+        assertEquals(10_000, PricingPolicy.FLAT.occupancyMultiplier(9000));
+        assertThrows(IllegalArgumentException.class, () -> p.withOccupancy(5000, 12_000), "point already set");
+    }
+
+    @Test
+    void leadTimeBucketsTakeTheLongestRuleThatMatches() {
+        Show show = show("A:SSSSSSSSSSSSSSSSSSSS");
+        FareCurve curve = PricingPolicy.STANDARD.curveFor(show);
+        long start = show.getStart().toEpochMilli();
+        assertEquals(9000, curve.demandBasisPoints(curve.cell(0, start - 8 * DAY)));
+        assertEquals(9000, curve.demandBasisPoints(curve.cell(0, start - 7 * DAY)), "exactly a week ahead is a week ahead");
+        assertEquals(9500, curve.demandBasisPoints(curve.cell(0, start - 3 * DAY)));
+        assertEquals(10_000, curve.demandBasisPoints(curve.cell(0, start - 30 * 60 * 60 * 1000L)));
+        assertEquals(11_000, curve.demandBasisPoints(curve.cell(0, start - 60 * 60 * 1000L)));
+        assertEquals(10_000, curve.demandBasisPoints(curve.cell(0, start + 60_000)), "after the start no rule matches");
+    }
+
+    @Test
+    void occupancyRoundsDownToItsStep() {
+        Show show = show("A:SSSSSSSSSSSSSSSSSSSS"); // 20 seats: one seat is one 5% step
+        FareCurve curve = PricingPolicy.STANDARD.curveFor(show);
+        long dayAhead = show.getStart().toEpochMilli() - 30 * 60 * 60 * 1000L; // lead multiplier 1x
+        assertEquals(11_200, curve.demandBasisPoints(curve.cell(14, dayAhead)));
+        assertEquals(11_500, curve.demandBasisPoints(curve.cell(15, dayAhead)));
+        assertEquals(15_000, curve.demandBasisPoints(curve.cell(20, dayAhead)));
+        assertEquals(15_000, curve.demandBasisPoints(curve.cell(99, dayAhead)), "occupancy is capped at capacity");
+
+        Show big = show("A:SSSSSSSSSSSSSSSSSSSSSSSSSSSSSSSSSSSSSSSS"); // 40 seats
+        FareCurve bigCurve = PricingPolicy.STANDARD.curveFor(big);
+        assertEquals(bigCurve.cell(28, dayAhead), bigCurve.cell(29, dayAhead), "29 of 40 is still the 70% step");
+    }
+
+    @Test
+    void faresScaleEachCategoryAndStayWithinBounds() {
+        Show show = show("A:SSPPRR");
+        FareCurve curve = PricingPolicy.STANDARD.curveFor(show);
+        int weekAhead = curve.cell(0, show.getStart().toEpochMilli() - 8 * DAY); // 90%
+        assertEquals(Money.ofRupees(180), curve.fare(SeatCategory.STANDARD, weekAhead));
+        assertEquals(Money.ofRupees(234), curve.fare(SeatCategory.PREMIUM, weekAhead));
+        assertEquals(Money.ofRupees(324), curve.fare(SeatCategory.RECLINER, weekAhead));
+        assertEquals(curve.fare(SeatCategory.PREMIUM, weekAhead), curve.fare(show.getSeatById("A3").orElseThrow(), weekAhead));
+
+        PricingPolicy clamped = PricingPolicy.FLAT.withOccupancy(0, 5000).withOccupancy(10_000, 30_000).withBounds(8000, 20_000);
+        FareCurve c = clamped.curveFor(show);
+        long now = show.getStart().toEpochMilli() - DAY;
+        assertEquals(8000, c.demandBasisPoints(c.cell(0, now)));
+        assertEquals(20_000, c.demandBasisPoints(c.cell(6, now)));
+        assertEquals(Money.ofRupees(400), c.fare(SeatCategory.STANDARD, c.cell(6, now)));
+    }
+
+    @Test
+    void ratesPrintAsPercentages() {
+        assertEquals("5%", Money.formatPercent(500));
+        assertEquals("12.5%", Money.formatPercent(1250));
+        assertEquals("12.05%", Money.formatPercent(1205));
+        assertEquals("112.35%", Money.formatPercent(11_235));
+        assertEquals("0%", Money.formatPercent(0));
+        assertEquals("-0.5%", Money.formatPercent(-50));
+        assertEquals("Service tax 5%, GST 12%", TaxTable.STANDARD.toString());
+        assertTrue(PricingPolicy.STANDARD.toString().endsWith("floor 80% cap 200%"), PricingPolicy.STANDARD.toString());
+    }
+}
@@ -0,0 +1,109 @@
+package JavaAssign;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalesAnalyticsTest {
+    private static final long MINUTE = 60_000L;
+
+    private final AtomicLong clock = new AtomicLong(1_000L * 24 * 60 * MINUTE); // a whole day, on the minute
+    private final SalesAnalytics analytics = new SalesAnalytics(clock::get);
+    private Show show;
+    private Customer customer;
+    private final List<Booking> bookings = new ArrayList<>();
+    private final List<ConcessionOrder> orders = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        BookingService service = new BookingService();
+        Movie movie = service.addMovie("Analytics", "Drama", 120);
+        Screen screen = service.addScreen("One");
+        show = service.scheduleShow(movie.getId(), screen.getId(), "2099-01-01 18:00", Money.ofRupees(200));
+        customer = service.addCustomer("Asha", "9000000001");
+        analytics.showAdded(show);
+    }
+
+    private Booking book(int id, String seat, long paise) {
+        Booking b = new Booking(id, customer, show, List.of(show.getSeatById(seat).orElseThrow()), paise, 0, paise, new Date(clock.get()));
+        bookings.add(b);
+        analytics.bookingCreated(b);
+        return b;
+    }
+
+    private ConcessionOrder order(int id, Booking linked, long paise) {
+        ConcessionOrder o = new ConcessionOrder(id, linked, TaxTable.none(), new Date(clock.get()));
+        o.addItem(new ConcessionOrder.ConcessionItem(1, "Popcorn", paise, 1));
+        orders.add(o);
+        analytics.concessionOrdered(o);
+        return o;
+    }
+
+    @Test
+    void totalsAddUpAcrossStripes() {
+        for (int id = 1; id <= 40; id++) book(id, "A" + (id % 8 + 1), 100 * id);
+        assertEquals(40, analytics.getBookingCount());
+        assertEquals(40, analytics.getSeatsSold());
+        assertEquals(100L * 40 * 41 / 2, analytics.getTicketRevenuePaise());
+        assertEquals(analytics.getTicketRevenuePaise(), analytics.showRevenuePaise(show.getId()));
+        assertEquals(analytics.getTicketRevenuePaise(), analytics.revenueLastHourPaise());
+    }
+
+    @Test
+    void attachRateFollowsLinkedOrdersAndCancellations() {
+        Booking first = book(1, "A1", 1000);
+        Booking second = book(2, "A2", 1000);
+        order(7, first, 300); // order ids differ from booking ids, so they only meet through the link
+        order(8, first, 300);
+        order(9, null, 300);
+        assertEquals(5000, analytics.attachRateBasisPoints());
+        assertEquals(3, analytics.getConcessionOrderCount());
+
+        analytics.bookingCancelled(first);
+        assertEquals(0, analytics.attachRateBasisPoints());
+        order(10, second, 300);
+        assertEquals(Money.BASIS_POINTS, analytics.attachRateBasisPoints());
+        assertEquals(1200, analytics.getConcessionRevenuePaise());
+        assertEquals(List.of(1200L), analytics.topItems(3).stream().map(SalesAnalytics.ItemSales::getRevenuePaise).toList());
+    }
+
+    @Test
+    void windowsSlideWithTheClock() {
+        book(1, "A1", 500);
+        clock.addAndGet(30 * MINUTE);
+        book(2, "A2", 700);
+        assertEquals(1200, analytics.revenueLastHourPaise());
+
+        clock.addAndGet(31 * MINUTE); // the first booking is 61 minutes old
+        assertEquals(700, analytics.revenueLastHourPaise());
+        assertEquals(1200, analytics.revenueLastDayPaise());
+        long[] hours = analytics.hourlyRevenuePaise(2);
+        assertEquals(1200, hours[0] + hours[1]);
+
+        clock.addAndGet(24 * 60 * MINUTE);
+        assertEquals(0, analytics.revenueLastDayPaise());
+        assertEquals(1200, analytics.getTicketRevenuePaise(), "totals do not expire");
+    }
+
+    @Test
+    void rebuildMatchesTheLiveFigures() {
+        for (int id = 1; id <= 8; id++) {
+            Booking b = book(id, "B" + id, 250 * id);
+            if (id % 2 == 0) order(100 + id, b, 150);
+            clock.addAndGet(7 * MINUTE);
+        }
+        order(200, null, 90);
+        String live = analytics.toJson();
+
+        SalesAnalytics rebuilt = new SalesAnalytics(clock::get);
+        rebuilt.rebuild(List.of(show), bookings, orders, id -> true);
+        assertEquals(live, rebuilt.toJson());
+        assertEquals(analytics.toText(), rebuilt.toText());
+    }
+}
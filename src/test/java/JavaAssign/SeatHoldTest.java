@@ -0,0 +1,106 @@
+package JavaAssign;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatHoldTest {
+    private Show show;
+    private Show other;
+
+    @BeforeEach
+    void setUp() {
+        Movie movie = new Movie(1, "Holds", "Drama", 120);
+        Screen screen = new Screen(1, "One");
+        show = new Show(1, movie, screen, "2099-01-01 18:00", Money.ofRupees(200));
+        other = new Show(2, movie, screen, "2099-01-02 18:00", Money.ofRupees(200));
+    }
+
+    private Seat seat(String id) { return show.getSeatById(id).orElseThrow(); }
+
+    @Test
+    void holdIsAllOrNothing() {
+        assertTrue(show.tryHoldAll(List.of("A2"), 1));
+        assertFalse(show.tryHoldAll(List.of("A1", "A2", "A3"), 2));
+        assertTrue(seat("A1").isAvailable());
+        assertTrue(seat("A3").isAvailable());
+        assertEquals(1, show.getHeldCount());
+        assertTrue(show.getHeldSeats(2).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> show.tryHoldAll(List.of("A1", "Z99"), 3));
+        assertThrows(IllegalStateException.class, () -> show.tryHoldAll(List.of("B1"), 1), "token already in use");
+    }
+
+    @Test
+    void commitBooksOnlyTheTokensSeats() {
+        assertTrue(show.tryHoldAll(List.of("A1", "A2"), 1));
+        assertTrue(show.tryHoldAll(List.of("A3"), 2));
+        List<Seat> booked = show.commit(1);
+        assertEquals(List.of("A1", "A2"), booked.stream().map(Seat::getSeatId).toList());
+        assertTrue(booked.stream().allMatch(Seat::isBooked));
+        assertTrue(seat("A3").isHeld());
+        assertThrows(IllegalStateException.class, () -> show.commit(1));
+        assertFalse(show.abort(1), "a committed hold cannot be aborted");
+        assertTrue(seat("A1").isBooked());
+    }
+
+    @Test
+    void releaseFreesBookedSeatsButNeverAHold() {
+        show.tryHoldAll(List.of("A1"), 1);
+        List<Seat> booked = show.commit(1);
+        show.tryHoldAll(List.of("A2"), 2);
+
+        show.release(List.of(seat("A1"), seat("A2")));
+        assertTrue(seat("A1").isAvailable());
+        assertTrue(seat("A2").isHeld(), "someone else's hold stays put");
+        assertThrows(IllegalArgumentException.class, () -> show.release(other.getSeatById("A1").stream().toList()));
+
+        // the token still owns A2 and can book it
+        assertEquals(List.of("A2"), show.commit(2).stream().map(Seat::getSeatId).toList());
+        assertTrue(booked.get(0).isAvailable());
+    }
+
+    @Test
+    void abortFreesOnlyItsOwnSeats() {
+        show.tryHoldAll(List.of("A1"), 1);
+        show.tryHoldAll(List.of("A2"), 2);
+        assertTrue(show.abort(1));
+        assertTrue(seat("A1").isAvailable());
+        assertTrue(seat("A2").isHeld());
+        assertFalse(show.abort(1));
+        assertTrue(show.tryHoldAll(List.of("A1"), 3), "a freed seat can be held again");
+    }
+
+    @Test
+    void wheelAbortsHoldsThatOutliveTheirTtl() {
+        AtomicLong clock = new AtomicLong(1_000_000);
+        HoldExpiryWheel wheel = new HoldExpiryWheel(100, clock::get);
+        AtomicLong expiredToken = new AtomicLong();
+        wheel.setExpiryListener(expiredToken::set);
+        show.tryHoldAll(List.of("A1"), 1);
+        show.tryHoldAll(List.of("A2"), 2);
+        wheel.schedule(show, 1, 500);
+        wheel.schedule(show, 2, 10_000);
+
+        clock.addAndGet(400);
+        wheel.advance();
+        assertTrue(seat("A1").isHeld());
+
+        clock.addAndGet(200);
+        wheel.advance();
+        assertTrue(seat("A1").isAvailable());
+        assertEquals(1, expiredToken.get());
+        assertTrue(seat("A2").isHeld());
+
+        show.commit(2);
+        assertTrue(wheel.cancel(2));
+        clock.addAndGet(20_000);
+        wheel.advance();
+        assertTrue(seat("A2").isBooked(), "a committed hold does not expire");
+        assertEquals(1, wheel.getExpiredCount());
+        assertEquals(0, wheel.pending());
+    }
+}
@@ -0,0 +1,52 @@
+package JavaAssign;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatMapRendererTest {
+    private static String[] lines(byte[] rendered) {
+        return new String(rendered, StandardCharsets.US_ASCII).split("\n");
+    }
+
+    @Test
+    void rendersEverySeatWithItsState() {
+        SeatMap map = new SeatMap(SeatLayout.grid(new char[] {'A', 'B'}, 3));
+        map.compareAndSet(map.indexOf("A2"), SeatMap.AVAILABLE, SeatMap.HELD);
+        map.compareAndSet(map.indexOf("B3"), SeatMap.AVAILABLE, SeatMap.BOOKED);
+        String[] lines = lines(new SeatMapRenderer(map).render());
+        assertEquals(2, lines.length);
+        assertEquals("A1[O] A2[H] A3[O] ", lines[0]);
+        assertEquals("B1[O] B2[O] B3[X] ", lines[1]);
+    }
+
+    @Test
+    void columnsLineUpAcrossAislesAndWideSeatNumbers() {
+        SeatMap map = new SeatMap(SeatLayout.parse("A:SSSS_SSSS/B:SSSSSSSSSS/C:SS______SS"));
+        String[] lines = lines(new SeatMapRenderer(map).render());
+        assertEquals(lines[0].length(), lines[1].length());
+        assertEquals(lines[0].length(), lines[2].length());
+        // seat numbers run to 10, so every cell is seven wide and position c starts at 7 * c
+        assertEquals(7 * 5, lines[0].indexOf("A5["));
+        assertEquals(7 * 5, lines[1].indexOf("B6["));
+        assertEquals(7 * 8, lines[2].indexOf("C3["));
+        assertEquals(7 * 9, lines[1].indexOf("B10["));
+    }
+
+    @Test
+    void unchangedMapsReuseTheBufferAndChangesRebuildIt() {
+        SeatMap map = new SeatMap(SeatLayout.grid(new char[] {'A', 'B'}, 2));
+        SeatMapRenderer renderer = new SeatMapRenderer(map);
+        byte[] first = renderer.render();
+        assertSame(first, renderer.render());
+
+        map.compareAndSet(map.indexOf("B1"), SeatMap.AVAILABLE, SeatMap.BOOKED);
+        byte[] second = renderer.render();
+        assertNotSame(first, second);
+        assertEquals("A1[O] A2[O] ", lines(second)[0]);
+        assertEquals("B1[X] B2[O] ", lines(second)[1]);
+        assertSame(second, renderer.render());
+    }
+}
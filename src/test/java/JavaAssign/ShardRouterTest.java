@@ -0,0 +1,200 @@
+package JavaAssign;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardRouterTest {
+    /** Sits in front of a shard and can swallow requests or replies, like a hung or flaky link. */
+    private static final class Proxy implements Closeable {
+        enum Mode { FORWARD, DROP_REQUESTS, DROP_REPLIES }
+
+        final ServerSocket socket;
+        final InetSocketAddress upstream;
+        volatile Mode mode = Mode.FORWARD;
+
+        Proxy(InetSocketAddress upstream) throws IOException {
+            this.upstream = upstream;
+            this.socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            Thread t = new Thread(this::acceptLoop, "test-proxy");
+            t.setDaemon(true);
+            t.start();
+        }
+
+        InetSocketAddress address() { return new InetSocketAddress(InetAddress.getLoopbackAddress(), socket.getLocalPort()); }
+
+        private void acceptLoop() {
+            try {
+                while (true) {
+                    Socket client = socket.accept();
+                    Thread t = new Thread(() -> relay(client), "test-proxy-conn");
+                    t.setDaemon(true);
+                    t.start();
+                }
+            } catch (IOException closed) {
+                // test over
+            }
+        }
+
+        private void relay(Socket client) {
+            try (client; Socket shard = new Socket(upstream.getAddress(), upstream.getPort())) {
+                BufferedReader fromClient = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+                Writer toClient = new OutputStreamWriter(client.getOutputStream(), StandardCharsets.UTF_8);
+                BufferedReader fromShard = new BufferedReader(new InputStreamReader(shard.getInputStream(), StandardCharsets.UTF_8));
+                Writer toShard = new OutputStreamWriter(shard.getOutputStream(), StandardCharsets.UTF_8);
+                String line;
+                while ((line = fromClient.readLine()) != null) {
+                    Mode m = mode;
+                    if (m == Mode.DROP_REQUESTS) continue;
+                    toShard.write(line + "\n");
+                    toShard.flush();
+                    String reply = fromShard.readLine();
+                    if (m == Mode.DROP_REPLIES) continue;
+                    toClient.write(reply + "\n");
+                    toClient.flush();
+                }
+            } catch (IOException e) {
+                // either side went away
+            }
+        }
+
+        @Override
+        public void close() throws IOException { socket.close(); }
+    }
+
+    private final List<BookingService> services = new ArrayList<>();
+    private final List<ShardServer> servers = new ArrayList<>();
+    private Proxy proxy;
+    private ShardRouter router;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            BookingService service = new BookingService();
+            ShardServer server = new ShardServer(service, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            server.start();
+            services.add(service);
+            servers.add(server);
+            addresses.add(new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()));
+        }
+        proxy = new Proxy(addresses.get(1));
+        addresses.set(1, proxy.address());
+        router = new ShardRouter(addresses, 2, 300);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        router.close();
+        proxy.close();
+        servers.forEach(ShardServer::stop);
+    }
+
+    @Test
+    void referenceDataGetsTheSameIdsOnEveryShard() {
+        int movie = router.addMovie("Sharded", "Drama", 120);
+        int screen = router.addScreen("One", SeatLayout.STANDARD);
+        int customer = router.addCustomer("Asha", "9000000001");
+        for (BookingService s : services) {
+            assertEquals("Sharded", s.getMovie(movie).orElseThrow().getTitle());
+            assertEquals("One", s.getScreen(screen).orElseThrow().getName());
+            assertEquals("Asha", s.getCustomer(customer).orElseThrow().getName());
+        }
+    }
+
+    @Test
+    void showsAndBookingsLiveOnTheOwningShardOnly() {
+        int movie = router.addMovie("Sharded", "Drama", 120);
+        int customer = router.addCustomer("Asha", "9000000001");
+        for (int i = 0; i < 8; i++) {
+            int screen = router.addScreen("Screen " + i, SeatLayout.STANDARD);
+            int show = router.scheduleShow(movie, screen, "2099-01-01 18:00", Money.ofRupees(200));
+            int owner = router.shardOf(show);
+            assertTrue(services.get(owner).getShow(show).isPresent());
+            assertFalse(services.get(1 - owner).getShow(show).isPresent());
+
+            ShardRouter.Hold hold = router.hold(show, customer, List.of("A1", "A2"));
+            long ref = router.book(hold.getToken());
+            assertEquals(services.get(owner).getShow(show).orElseThrow().getCapacity() - 2, router.getAvailableCount(show));
+            assertEquals(hold.getTotalPaise(), services.get(owner).getBooking(ShardRouter.localBookingId(ref)).orElseThrow().getTotalPaise());
+            router.cancel(ref);
+            assertEquals(services.get(owner).getShow(show).orElseThrow().getCapacity(), router.getAvailableCount(show));
+        }
+    }
+
+    @Test
+    void overlappingShowsOnOneScreenAreRejectedWhateverTheirIds() {
+        int movie = router.addMovie("Long", "Drama", 180);
+        int screen = router.addScreen("One", SeatLayout.STANDARD);
+        int first = router.scheduleShow(movie, screen, "2099-01-01 18:00", Money.ofRupees(200));
+        for (int i = 0; i < 8; i++) { // consecutive ids hash to both shards
+            assertThrows(IllegalStateException.class, () -> router.scheduleShow(movie, screen, "2099-01-01 19:00", Money.ofRupees(200)));
+        }
+        int later = router.scheduleShow(movie, screen, "2099-01-02 18:00", Money.ofRupees(200));
+        assertEquals(router.shardOf(first), router.shardOf(later), "a screen's shows share a shard");
+    }
+
+    @Test
+    void aNewRouterFindsExistingShows() {
+        int movie = router.addMovie("Found", "Drama", 120);
+        int screen = router.addScreen("One", SeatLayout.STANDARD);
+        int show = router.scheduleShow(movie, screen, "2099-01-01 18:00", Money.ofRupees(200));
+        int owner = router.shardOf(show);
+        router.close();
+        router = new ShardRouter(List.of(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), servers.get(0).getPort()), proxy.address()), 1, 300);
+        assertEquals(owner, router.shardOf(show));
+        assertEquals(services.get(owner).getShow(show).orElseThrow().getCapacity(), router.getAvailableCount(show));
+        assertThrows(IllegalArgumentException.class, () -> router.shardOf(show + 1000));
+    }
+
+    @Test
+    void hungShardTimesOutAndGetsTheMissedWriteLater() {
+        proxy.mode = Proxy.Mode.DROP_REQUESTS;
+        int movie = router.addMovie("Missed", "Drama", 120); // shard 1 never answers
+        assertTrue(services.get(0).getMovie(movie).isPresent());
+        assertFalse(services.get(1).getMovie(movie).isPresent());
+
+        proxy.mode = Proxy.Mode.FORWARD;
+        int screen = router.addScreen("One", SeatLayout.STANDARD);
+        assertEquals("Missed", services.get(1).getMovie(movie).orElseThrow().getTitle());
+        assertTrue(services.get(1).getScreen(screen).isPresent());
+        assertEquals(movie + 1, router.addMovie("Next", "Drama", 90), "ids keep counting on the router");
+    }
+
+    @Test
+    void lostReplyIsResentWithoutDuplicating() {
+        proxy.mode = Proxy.Mode.DROP_REPLIES;
+        int customer = router.addCustomer("Asha", "9000000001"); // applied on shard 1, reply lost
+        proxy.mode = Proxy.Mode.FORWARD;
+        int other = router.addCustomer("Ravi", "9000000002");
+        for (BookingService s : services) {
+            assertEquals(2, s.getCustomers().size());
+            assertEquals("Asha", s.getCustomer(customer).orElseThrow().getName());
+            assertEquals("Ravi", s.getCustomer(other).orElseThrow().getName());
+        }
+    }
+
+    @Test
+    void repeatedCatalogWritesAreIdempotentOnAShard() {
+        BookingService s = services.get(0);
+        Movie m = s.addMovieAs(700, "Again", "Drama", 100);
+        assertSame(m, s.addMovieAs(700, "Again", "Drama", 100));
+        assertThrows(IllegalStateException.class, () -> s.addMovieAs(700, "Different", "Drama", 100));
+        Screen screen = s.addScreenAs(70, "One", SeatLayout.STANDARD);
+        Show show = s.scheduleShowAs(9000, m.getId(), screen.getId(), "2099-01-01 18:00", Money.ofRupees(200));
+        assertSame(show, s.scheduleShowAs(9000, m.getId(), screen.getId(), "2099-01-01 18:00", Money.ofRupees(200)));
+        assertTrue(s.addMovie("Generated", "Drama", 90).getId() > 700, "generated ids move past chosen ones");
+    }
+}
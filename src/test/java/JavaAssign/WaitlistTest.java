@@ -0,0 +1,114 @@
+package JavaAssign;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WaitlistTest {
+    private BookingService service;
+    private Show show;
+    private Customer[] customers;
+    private final List<Booking> sold = new ArrayList<>();
+
+    // a sold-out four-seat show; the waitlist matches on the caller's thread until start()
+    @BeforeEach
+    void setUp() {
+        service = new BookingService();
+        Movie movie = service.addMovie("Waitlist", "Drama", 120);
+        Screen screen = service.addScreen("Tiny", SeatLayout.grid(new char[] {'A'}, 4));
+        show = service.scheduleShow(movie.getId(), screen.getId(), "2099-01-01 18:00", Money.ofRupees(200));
+        customers = new Customer[4];
+        for (int i = 0; i < customers.length; i++) customers[i] = service.addCustomer("Party " + i, "900000000" + i);
+        for (int i = 1; i <= 4; i++) sold.add(service.book(service.hold(show.getId(), customers[0].getId(), List.of("A" + i)).getToken()));
+        assertEquals(0, show.getAvailableCount());
+    }
+
+    @Test
+    void freedSeatsGoToTheFirstPartyTheyFit() {
+        Waitlist.Entry pair = service.joinWaitlist(show.getId(), customers[1].getId(), 2, null);
+        Waitlist.Entry single = service.joinWaitlist(show.getId(), customers[2].getId(), 1, null);
+        assertEquals(Waitlist.Status.WAITING, pair.getStatus());
+
+        service.cancel(sold.get(3).getId()); // one seat back: too few for the pair
+        assertEquals(Waitlist.Status.WAITING, pair.getStatus());
+        assertEquals(Waitlist.Status.OFFERED, single.getStatus());
+        assertEquals(List.of("A4"), single.getOffer().getSeats().stream().map(Seat::getSeatId).toList());
+
+        service.cancel(sold.get(1).getId());
+        service.cancel(sold.get(2).getId());
+        assertEquals(Waitlist.Status.OFFERED, pair.getStatus());
+        assertSame(pair, service.getWaitlistEntry(pair.getId()).orElseThrow());
+        assertTrue(service.getWaitingParties(show.getId()).isEmpty());
+    }
+
+    @Test
+    void bookedOfferDropsTheEntry() {
+        Waitlist.Entry e = service.joinWaitlist(show.getId(), customers[1].getId(), 1, null);
+        service.cancel(sold.get(0).getId());
+        service.book(e.getOffer().getToken());
+        assertEquals(Waitlist.Status.BOOKED, e.getStatus());
+        assertTrue(service.getWaitlistEntry(e.getId()).isEmpty());
+        assertEquals(0, service.getWaitlist().size());
+    }
+
+    @Test
+    void lapsedOfferDropsTheEntryAndPassesTheSeatsOn() {
+        Waitlist.Entry first = service.joinWaitlist(show.getId(), customers[1].getId(), 1, null);
+        Waitlist.Entry second = service.joinWaitlist(show.getId(), customers[2].getId(), 1, null);
+        service.cancel(sold.get(0).getId());
+        assertEquals(Waitlist.Status.OFFERED, first.getStatus());
+
+        service.releaseHold(first.getOffer().getToken());
+        assertEquals(Waitlist.Status.LAPSED, first.getStatus());
+        assertTrue(service.getWaitlistEntry(first.getId()).isEmpty());
+        assertEquals(Waitlist.Status.OFFERED, second.getStatus());
+        assertEquals(1, service.getWaitlist().size());
+    }
+
+    @Test
+    void expiredOfferDropsTheEntry() throws InterruptedException {
+        service.setOfferTtlMillis(150);
+        service.start();
+        try {
+            Waitlist.Entry e = service.joinWaitlist(show.getId(), customers[1].getId(), 1, null);
+            service.cancel(sold.get(0).getId());
+            long deadline = System.currentTimeMillis() + 5000;
+            while (e.getStatus() != Waitlist.Status.LAPSED && System.currentTimeMillis() < deadline) Thread.sleep(20);
+            assertEquals(Waitlist.Status.LAPSED, e.getStatus());
+            assertEquals(0, service.getWaitlist().size());
+            assertEquals(1, show.getAvailableCount());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void commitThatLosesToExpiryStillOffersTheSeats() {
+        Waitlist.Entry e = service.joinWaitlist(show.getId(), customers[2].getId(), 1, null);
+        Waitlist.Entry next = service.joinWaitlist(show.getId(), customers[3].getId(), 1, null);
+        service.cancel(sold.get(0).getId());
+        SeatHold offer = e.getOffer();
+        assertEquals(Waitlist.Status.WAITING, next.getStatus());
+        show.abort(offer.getToken()); // the expiry wheel gets there while book() is under way
+
+        assertThrows(IllegalStateException.class, () -> service.book(offer.getToken()));
+        assertEquals(1, service.getMetrics().getCommitsFailed());
+        assertEquals(Waitlist.Status.LAPSED, e.getStatus());
+        assertEquals(Waitlist.Status.OFFERED, next.getStatus(), "the freed seat goes to the next party");
+    }
+
+    @Test
+    void leavingReleasesAnOffer() {
+        Waitlist.Entry e = service.joinWaitlist(show.getId(), customers[1].getId(), 1, null);
+        service.cancel(sold.get(0).getId());
+        assertEquals(0, show.getAvailableCount());
+        assertTrue(service.leaveWaitlist(e.getId()));
+        assertEquals(Waitlist.Status.LEFT, e.getStatus());
+        assertEquals(1, show.getAvailableCount());
+        assertEquals(0, service.getWaitlist().size());
+    }
+}